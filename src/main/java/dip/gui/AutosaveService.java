@@ -0,0 +1,312 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.gui;
+
+import dip.world.GameJournal;
+import dip.world.World;
+import dip.world.WorldSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Saves the game in the background after it has been changed.
+ * <p>
+ * The first change starts a timer; changes until it fires are saved
+ * together. When it fires, a {@link WorldSnapshot} is taken on the event
+ * dispatch thread, where the World is changed, and is written by a single
+ * low-priority thread. If snapshots are taken faster than they can be
+ * written, only the newest one waiting is written.
+ * <p>
+ * Changes may instead be journaled as they are made (see
+ * {@link #journal()}): each is encoded at once, and appended to the
+ * autosave file by the same thread, in order.
+ * <p>
+ * Autosaves go to a file of their own, so they never replace the game
+ * file that the user saved.
+ */
+public final class AutosaveService {
+    private static final Logger LOG = LoggerFactory.getLogger(
+            AutosaveService.class);
+    private static final long KEEP_ALIVE_SECONDS = 1L;
+
+    private final Supplier<World> world;
+    private final Supplier<File> target;
+    private final IntSupplier delay;
+    private final ThreadPoolExecutor executor;
+    private final AtomicReference<Job> pending = new AtomicReference<>();
+    private final AtomicInteger appending = new AtomicInteger();
+    private final Timer timer;
+    private GameJournal journal = null;    // only used on the EDT
+    private volatile boolean writing = false;
+    private volatile long lastLatency = -1L;
+    private volatile long lastSnapshotTime = -1L;
+
+
+    /**
+     * Creates an AutosaveService.
+     *
+     * @param group  ThreadGroup of the writing thread
+     * @param world  the World to save, or null if there is none
+     * @param target the file to save to, or null to not save
+     * @param delay  milliseconds from a change to the save; 0 or less
+     *               disables autosave
+     */
+    public AutosaveService(final ThreadGroup group,
+                           final Supplier<World> world,
+                           final Supplier<File> target,
+                           final IntSupplier delay) {
+        this.world = world;
+        this.target = target;
+        this.delay = delay;
+
+        // the thread ends when idle, so it does not hold up exit
+        executor = new ThreadPoolExecutor(1, 1, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(group, r, "jdipAutosave");
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+
+        timer = new Timer(0, e -> snapshot());
+        timer.setRepeats(false);
+    }// AutosaveService()
+
+
+    /**
+     * Notes a change to the World. Must be called on the event dispatch
+     * thread.
+     */
+    public void changed() {
+        if (!timer.isRunning()) {
+            final int millis = delay.getAsInt();
+            if (millis > 0) {
+                timer.setInitialDelay(millis);
+                timer.start();
+            }
+        }
+    }// changed()
+
+
+    /**
+     * Appends the changes to the World to a journal in the autosave file,
+     * without waiting for the timer; the first change of a game writes a
+     * snapshot. Must be called on the event dispatch thread. Does nothing
+     * if autosave is disabled.
+     */
+    public void journal() {
+        if (delay.getAsInt() <= 0) {
+            return;
+        }
+        final World w = world.get();
+        final File file = target.get();
+        if (w == null || file == null) {
+            return;
+        }
+        // the journal replaces any snapshot waiting
+        cancel();
+
+        final long start = System.nanoTime();
+        try {
+            if (journal == null || journal.getWorld() != w || !journal
+                    .getFile().equals(file)) {
+                journal = GameJournal.of(file, w);
+            }
+            final GameJournal.Update update = journal.prepare();
+            lastSnapshotTime = TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - start);
+            if (!update.isEmpty()) {
+                appending.incrementAndGet();
+                executor.execute(() -> append(update, file, start));
+            }
+        } catch (final IOException e) {
+            LOG.warn("Autosave: cannot journal changes", e);
+            journal = null;
+        }
+    }// journal()
+
+
+    /**
+     * Drops changes not saved yet, and deletes the autosave file; used
+     * once the game has been saved by the user.
+     */
+    public void discard() {
+        cancel();
+        journal = null;
+        final File file = target.get();
+        if (file != null) {
+            delete(file);
+        }
+    }// discard()
+
+
+    /**
+     * Deletes an autosave file, after the writes already queued.
+     */
+    public void delete(final File file) {
+        executor.execute(() -> {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (final IOException e) {
+                LOG.warn("Autosave: cannot delete {}", file, e);
+            }
+        });
+    }// delete()
+
+
+    /**
+     * Drops changes not saved yet. A save in progress is completed.
+     */
+    public void cancel() {
+        timer.stop();
+        pending.set(null);
+    }// cancel()
+
+
+    /**
+     * Stops the timer; saves already snapshotted are still written.
+     */
+    public void shutdown() {
+        timer.stop();
+        executor.shutdown();
+    }// shutdown()
+
+
+    /**
+     * Number of snapshots waiting to be written, or being written.
+     */
+    public int getQueueDepth() {
+        return (pending.get() == null ? 0 : 1) + (writing ? 1 : 0)
+                + appending.get();
+    }// getQueueDepth()
+
+    /**
+     * Milliseconds from taking the last snapshot written to the end of
+     * writing it; -1 if none has been written.
+     */
+    public long getLastSaveLatency() {
+        return lastLatency;
+    }// getLastSaveLatency()
+
+    /**
+     * Milliseconds the event dispatch thread spent taking the last
+     * snapshot; -1 if none has been taken.
+     */
+    public long getLastSnapshotTime() {
+        return lastSnapshotTime;
+    }// getLastSnapshotTime()
+
+
+    /**
+     * Takes a snapshot of the World and queues it. Called by the timer,
+     * on the event dispatch thread.
+     */
+    void snapshot() {
+        final World w = world.get();
+        final File file = target.get();
+        if (w == null || file == null) {
+            return;
+        }
+        final long start = System.nanoTime();
+        try {
+            final WorldSnapshot snapshot = WorldSnapshot.of(w);
+            // the snapshot replaces any journal in the file
+            journal = null;
+            lastSnapshotTime = TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - start);
+            submit(snapshot, file, start);
+        } catch (final IOException e) {
+            LOG.warn("Autosave: cannot take snapshot", e);
+        }
+    }// snapshot()
+
+
+    /**
+     * Queues a snapshot to be written, replacing any that is still
+     * waiting.
+     */
+    void submit(final WorldSnapshot snapshot, final File file,
+                final long start) {
+        if (pending.getAndSet(new Job(snapshot, file, start)) == null) {
+            executor.execute(this::write);
+        }
+    }// submit()
+
+
+    private void write() {
+        final Job job = pending.getAndSet(null);
+        if (job == null) {
+            return;
+        }
+        writing = true;
+        try {
+            job.snapshot.save(job.file);
+            lastLatency = TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - job.start);
+            LOG.debug("Autosave: {} bytes to {} in {} ms, queue depth {}",
+                    job.snapshot.getSize(), job.file, lastLatency,
+                    pending.get() == null ? 0 : 1);
+        } catch (final IOException e) {
+            LOG.warn("Autosave: cannot write {}", job.file, e);
+        } finally {
+            writing = false;
+        }
+    }// write()
+
+
+    private void append(final GameJournal.Update update, final File file,
+                        final long start) {
+        try {
+            update.write();
+            lastLatency = TimeUnit.NANOSECONDS
+                    .toMillis(System.nanoTime() - start);
+            LOG.debug("Autosave: {} journal bytes to {} in {} ms",
+                    update.getSize(), file, lastLatency);
+        } catch (final IOException e) {
+            LOG.warn("Autosave: cannot write {}", file, e);
+        } finally {
+            appending.decrementAndGet();
+        }
+    }// append()
+
+
+    private static final class Job {
+        private final WorldSnapshot snapshot;
+        private final File file;
+        private final long start;
+
+        private Job(final WorldSnapshot snapshot, final File file,
+                    final long start) {
+            this.snapshot = snapshot;
+            this.file = file;
+            this.start = start;
+        }
+    }// nested class Job
+
+}// class AutosaveService
@@ -62,7 +62,9 @@ import dip.world.Phase;
 import dip.world.Power;
 import dip.world.TurnState;
 import dip.world.World;
+import dip.world.World.VariantInfo;
 import dip.world.variant.VariantManager;
+import dip.world.variant.VariantWatcher;
 import jcmdline.BooleanParam;
 import jcmdline.CmdLineHandler;
 import jcmdline.FileParam;
@@ -84,7 +86,10 @@ import java.awt.event.WindowEvent;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
 import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The main class for starting the client... everything starts here.
@@ -219,6 +224,9 @@ public class ClientFrame extends JFrame {
     private String currentMode = MODE_NONE;
     private GUIOrderFactory guiOrderFactory = null;            // default GUI order factory.
     private boolean isValidating = false;    // extra data validation when parsing?
+    private boolean isWatchingVariants = false;    // reload changed variant files?
+    private boolean isStartupReport = false;    // print startup stage times?
+    private VariantWatcher variantWatcher = null;
     private boolean applyGUIEnhancements = true;
     private ValidationOptions valOpts = new ValidationOptions();
     private UndoRedoManager undoManager = null;
@@ -248,144 +256,42 @@ public class ClientFrame extends JFrame {
         super();
         final long ttime = System.currentTimeMillis();        // total time
         long dtime = ttime;                                // delta time
+        final StartupPipeline pipeline = new StartupPipeline();
 
         // parse command-line args
-        parseCmdLine(args);
-        LOG.debug(Log.printDelta(dtime, "CF: arg parse time: "));
-        dtime = System.currentTimeMillis();
+        pipeline.run("arguments", () -> parseCmdLine(args));
 
         LOG.debug("   mem max: {}", Runtime.getRuntime().maxMemory());
         LOG.debug("   mem total: {}", Runtime.getRuntime().totalMemory());
         LOG.debug("   mem free: {}", Runtime.getRuntime().freeMemory());
 
+        // stages that do not need the frame run while the splash screen
+        // is shown; the frame waits for them only where it needs them
+        final CompletableFuture<Void> svgParser = pipeline
+                .start("svg parser", this::initSVGParser);
+        final CompletableFuture<Void> variants = pipeline
+                .start("variants", this::initVariantManager);
+        final CompletableFuture<Void> tools = pipeline
+                .start("tools", this::initTools);
+        pipeline.start("map classes", ClientFrame::preloadMapClasses);
 
-        // set Batik XMLReader based on JAXP XMLReader.
-        // this should work for JDK 1.5, 1.4, etc.
-        try {
-            final SAXParserFactory factory = SAXParserFactory.newInstance();
-            final XMLReader xmlReader = factory.newSAXParser().getXMLReader();
-            XMLResourceDescriptor
-                    .setXMLParserClassName(xmlReader.getClass().getName());
-            LOG.debug("Batik XMLReader: {}",
-                    XMLResourceDescriptor.getXMLParserClassName());
-        } catch (final Exception e) {
-            ErrorDialog.displayFatal(this, e);
-        }
-
-
-        LOG.debug("Applying GUI enhancements: {}", applyGUIEnhancements);
-
-        if (applyGUIEnhancements) {
-            // setup per-OS options
-            if (Utils.isOSX()) {
-                System.setProperty("apple.laf.useScreenMenuBar", "true");
-                System.setProperty(
-                        "com.apple.mrj.application.apple.menu.about.name",
-                        PROGRAM_NAME);
-                System.setProperty("apple.awt.showGrowBox",
-                        "true");    // may no longer need
-                /*
-                NOTE: brushed metal is disabled; a bug in the Cocoa implementation causes
-				dialogs to behave strangely when this is enabled.
-				//
-				//System.setProperty("apple.awt.brushMetalLook", "true");
-				*/
-            }
-
-            // replace bad-looking (metal, motif) LAFs with better-looking
-            // ones.
-            String lafClassName = UIManager.getSystemLookAndFeelClassName();
-            assert lafClassName != null;
-
-            if (Utils.isWindows()) {
-                // higher-fidelity windows LAF
-                lafClassName = "com.jgoodies.looks.windows.WindowsLookAndFeel";
-
-                // enable this to use the Java (not windows system) default font.
-                // UIManager.put("Application.useSystemFontSettings", Boolean.FALSE);
-            } else if (!Utils.isOSX()) {
-                // keep synth; switch if Motif / Metal
-                if (lafClassName
-                        .indexOf("MotifLookAndFeel") >= 0 || lafClassName
-                        .indexOf("MetalLookAndFeel") >= 0) {
-                    // good generic LAF
-                    lafClassName = "com.jgoodies.looks.plastic.PlasticLookAndFeel";
-                }
-            }
-
-
-            try {
-                if (lafClassName.indexOf("jgoodies") >= 0) {
-                    // for WebStart compatibility
-                    UIManager.put("ClassLoader",
-                            com.jgoodies.looks.LookUtils.class
-                                    .getClassLoader());
-                }
-                LOG.debug(lafClassName);
-                UIManager.setLookAndFeel(lafClassName);
-            } catch (final Exception e) {
-                // do nothing; swing will load default L&F
-                LOG.debug(e.toString());
-            }
-        }
-
-        LOG.debug(Log.printDelta(dtime, "CF: LAF setup time: "));
-        dtime = System.currentTimeMillis();
+        pipeline.run("look and feel", this::initLookAndFeel);
 
         // set exception handler
         GUIExceptionHandler.registerHandler();
 
-
-        // get the variant and tool directories.
-        // do not change the variantDirPath if it was set
-        // from the command line
-        // use the preferred path, if set, and not overridden from command line
-        variantDirPath = variantDirPath == null ? GeneralPreferencePanel
-                .getVariantDir() : variantDirPath;
-        File toolDirPath;
-        if (System.getProperty("user.dir") == null) {
-            variantDirPath = variantDirPath == null ? new File(".",
-                    VARIANT_DIR) : variantDirPath;
-            toolDirPath = new File(".", TOOL_DIR);
-        } else {
-            variantDirPath = variantDirPath == null ? new File(
-                    System.getProperty("user.dir"),
-                    VARIANT_DIR) : variantDirPath;
-            toolDirPath = new File(System.getProperty("user.dir"), TOOL_DIR);
-        }
-
-        LOG.debug("Using variant directory: {}", variantDirPath);
-
-        // parse variants
-        initVariantManager();
-
-        LOG.debug(Log.printDelta(dtime, "CF: variant setup time: "));
-        dtime = System.currentTimeMillis();
-
-        // init Tools
-        ToolManager.init(new File[]{toolDirPath});
-        final Tool[] tools = ToolManager.getTools();
-        final ToolProxyImpl toolProxy = new ToolProxyImpl(this);
-        for (Tool tool : tools) {
-            tool.setToolProxy(toolProxy);
-        }
-        LOG.debug(Log.printDelta(dtime, "CF: tool setup time: "));
-        dtime = System.currentTimeMillis();
-
-
         // set frame icon
         setIconImage(Utils.getImageIcon(Utils.FRAME_ICON).getImage());
 
-        // init help system
-        Help.init();
-        LOG.debug(Log.printDelta(dtime, "CF: help init time: "));
-        dtime = System.currentTimeMillis();
+        // init help system; it loads on its own thread
+        pipeline.run("help", Help::init);
 
-        // setup menu
-        clientMenu = new ClientMenu(this);
-        setJMenuBar(clientMenu.getJMenuBar());
-        LOG.debug(Log.printDelta(dtime, "CF: menu setup time: "));
-        dtime = System.currentTimeMillis();
+        // setup menu; the Tools menu needs the Tools
+        pipeline.await(tools);
+        pipeline.run("menu", () -> {
+            clientMenu = new ClientMenu(this);
+            setJMenuBar(clientMenu.getJMenuBar());
+        });
 
         // init special filedialog class
         //
@@ -395,13 +301,14 @@ public class ClientFrame extends JFrame {
         XJFileChooser.init();
 
         // Cached dialogs [these dialogs appear slowly if not cached]
+        pipeline.await(variants);
         NewGameDialog.createCachedDialog(this);
 
         AboutDialog.createCachedDialog(this);
 
         // persistence (must come after menus are defined)
-        persistMan = new PersistenceManager(this);
-        LOG.debug(Log.printDelta(dtime, "CF: PersistenceManager setup time: "));
+        persistMan = pipeline.call("persistence",
+                () -> new PersistenceManager(this));
         dtime = System.currentTimeMillis();
 
         // frame listener, handles JFrame close events
@@ -464,16 +371,144 @@ public class ClientFrame extends JFrame {
         getContentPane().add(statusBar, BorderLayout.SOUTH);
         pack();
         GeneralPreferencePanel.getWindowSettings(this);
+        try {
+            pipeline.await(svgParser);
+        } catch (final RuntimeException e) {
+            // initSVGParser() failed; report it here, not on its thread
+            ErrorDialog.displayFatal(this, e.getCause() == null ? e : e.getCause());
+        }
         setVisible(true);
         fireChangeMode(MODE_NONE);
         toFront();
         splash.destroy();
+        pipeline.setInteractive();
         LOG.debug(Log.printDelta(dtime, "CF: frame setup time: "));
 
         LOG.debug(Log.printTimed(ttime, "ClientFrame() startup time: "));
+        if (isStartupReport) {
+            pipeline.getReport().thenAccept(System.out::print);
+        }
     }// ClientFrame()
 
 
+    /**
+     * Sets the Batik XMLReader, based on the JAXP XMLReader. This runs on
+     * a startup thread; a failure is thrown as an IllegalStateException,
+     * to be reported once the frame awaits it.
+     */
+    private void initSVGParser() {
+        try {
+            final SAXParserFactory factory = SAXParserFactory.newInstance();
+            final XMLReader xmlReader = factory.newSAXParser().getXMLReader();
+            XMLResourceDescriptor
+                    .setXMLParserClassName(xmlReader.getClass().getName());
+            LOG.debug("Batik XMLReader: {}",
+                    XMLResourceDescriptor.getXMLParserClassName());
+        } catch (final Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }// initSVGParser()
+
+
+    /**
+     * Sets the look and feel, and per-OS options.
+     */
+    private void initLookAndFeel() {
+        LOG.debug("Applying GUI enhancements: {}", applyGUIEnhancements);
+
+        if (applyGUIEnhancements) {
+            // setup per-OS options
+            if (Utils.isOSX()) {
+                System.setProperty("apple.laf.useScreenMenuBar", "true");
+                System.setProperty(
+                        "com.apple.mrj.application.apple.menu.about.name",
+                        PROGRAM_NAME);
+                System.setProperty("apple.awt.showGrowBox",
+                        "true");    // may no longer need
+                /*
+                NOTE: brushed metal is disabled; a bug in the Cocoa implementation causes
+				dialogs to behave strangely when this is enabled.
+				//
+				//System.setProperty("apple.awt.brushMetalLook", "true");
+				*/
+            }
+
+            // replace bad-looking (metal, motif) LAFs with better-looking
+            // ones.
+            String lafClassName = UIManager.getSystemLookAndFeelClassName();
+            assert lafClassName != null;
+
+            if (Utils.isWindows()) {
+                // higher-fidelity windows LAF
+                lafClassName = "com.jgoodies.looks.windows.WindowsLookAndFeel";
+
+                // enable this to use the Java (not windows system) default font.
+                // UIManager.put("Application.useSystemFontSettings", Boolean.FALSE);
+            } else if (!Utils.isOSX()) {
+                // keep synth; switch if Motif / Metal
+                if (lafClassName
+                        .indexOf("MotifLookAndFeel") >= 0 || lafClassName
+                        .indexOf("MetalLookAndFeel") >= 0) {
+                    // good generic LAF
+                    lafClassName = "com.jgoodies.looks.plastic.PlasticLookAndFeel";
+                }
+            }
+
+
+            try {
+                if (lafClassName.indexOf("jgoodies") >= 0) {
+                    // for WebStart compatibility
+                    UIManager.put("ClassLoader",
+                            com.jgoodies.looks.LookUtils.class
+                                    .getClassLoader());
+                }
+                LOG.debug(lafClassName);
+                UIManager.setLookAndFeel(lafClassName);
+            } catch (final Exception e) {
+                // do nothing; swing will load default L&F
+                LOG.debug(e.toString());
+            }
+        }
+    }// initLookAndFeel()
+
+
+    /**
+     * Finds the Tools, and gives them a ToolProxy.
+     */
+    private void initTools() {
+        final File toolDirPath = new File(System.getProperty("user.dir") == null
+                ? "." : System.getProperty("user.dir"), TOOL_DIR);
+        ToolManager.init(new File[]{toolDirPath});
+        final Tool[] tools = ToolManager.getTools();
+        final ToolProxyImpl toolProxy = new ToolProxyImpl(this);
+        for (Tool tool : tools) {
+            tool.setToolProxy(toolProxy);
+        }
+    }// initTools()
+
+
+    /**
+     * Loads, without initializing, the map and SVG classes needed to show
+     * the first game, so that opening it does not wait for them.
+     */
+    private static void preloadMapClasses() {
+        final ClassLoader loader = ClientFrame.class.getClassLoader();
+        for (final String name : new String[]{"dip.gui.map.MapPanel",
+                "dip.gui.map.DefaultMapRenderer2", "dip.gui.map.XJSVGCanvas",
+                "org.apache.batik.dom.svg.SAXSVGDocumentFactory",
+                "org.apache.batik.bridge.BridgeContext",
+                "org.apache.batik.bridge.GVTBuilder",
+                "org.apache.batik.bridge.UpdateManager",
+                "org.apache.batik.gvt.renderer.StaticRenderer"}) {
+            try {
+                Class.forName(name, false, loader);
+            } catch (final ClassNotFoundException | LinkageError e) {
+                LOG.debug("Class {} not preloaded: {}", name, e.toString());
+            }
+        }
+    }// preloadMapClasses()
+
+
     /**
      * Get the Menu component
      */
@@ -691,6 +726,9 @@ public class ClientFrame extends JFrame {
 
         // set the world
         world = w;
+        world.setTurnCompaction(GeneralPreferencePanel.getCompactTurns() ?
+                GeneralPreferencePanel.getCompactTurnsPhases() : 0,
+                getGUIOrderFactory());
 
         // setup the world. NOTE: GUIGameSetup objects absolutely
         // must fire a WorldCreated event and a TurnstateChanged
@@ -1112,6 +1150,12 @@ public class ClientFrame extends JFrame {
         final BooleanParam validateOpt = new BooleanParam("validate",
                 "validate XML and SVG data files");
 
+        final BooleanParam watchOpt = new BooleanParam("watchvariants",
+                "reload variant and symbol files when they are changed");
+
+        final BooleanParam reportOpt = new BooleanParam("startup-report",
+                "print the time taken by each stage of startup");
+
         final BooleanParam splashOpt = new BooleanParam("nosplash",
                 "do not show splash screen");
 
@@ -1127,7 +1171,7 @@ public class ClientFrame extends JFrame {
                 new HelpCmdLineHandler(helpText, "jdip",
                         "Adjudicator and Game Manager for multiplayer diplomacy-based strategy games",
                         // options
-                        new Parameter[]{argLocale, argLogFile, argVariantPath, validateOpt, splashOpt, defaultGUI},
+                        new Parameter[]{argLocale, argLogFile, argVariantPath, validateOpt, watchOpt, reportOpt, splashOpt, defaultGUI},
                         // arguments [left on command line]
                         new Parameter[]{}));
 
@@ -1153,6 +1197,8 @@ public class ClientFrame extends JFrame {
 
         // set flags
         isValidating = validateOpt.isTrue();
+        isWatchingVariants = watchOpt.isTrue();
+        isStartupReport = reportOpt.isTrue();
         applyGUIEnhancements = !defaultGUI.isTrue();
     }// parseCmdLine()
 
@@ -1187,6 +1233,7 @@ public class ClientFrame extends JFrame {
                 world.setTurnState(newTurnState);
                 fireTurnStateAdded(newTurnState);
             }
+            persistMan.turnResolved();
 
             // create Undo result
             undoManager.addEdit(
@@ -1648,8 +1695,29 @@ public class ClientFrame extends JFrame {
      * Handle variant parsing.... and initialize the variant manager
      */
     private void initVariantManager() {
+        // get the variant directory.
+        // do not change the variantDirPath if it was set
+        // from the command line
+        // use the preferred path, if set, and not overridden from command line
+        variantDirPath = variantDirPath == null ? GeneralPreferencePanel
+                .getVariantDir() : variantDirPath;
+        variantDirPath = variantDirPath == null ? new File(
+                System.getProperty("user.dir") == null ? "." : System
+                        .getProperty("user.dir"), VARIANT_DIR) : variantDirPath;
+        LOG.debug("Using variant directory: {}", variantDirPath);
+
 //        try {
-        new VariantManager(); // FIXME
+        final VariantManager variantManager = VariantManager.getInstance(); // FIXME
+        if (isWatchingVariants) {
+            try {
+                variantWatcher = new VariantWatcher(variantManager,
+                        (variantNames, symbolPackNames) -> SwingUtilities
+                                .invokeLater(() -> variantsChanged(
+                                        variantNames, symbolPackNames)));
+            } catch (final IOException e) {
+                LOG.warn("Variant files are not watched: {}", e.toString());
+            }
+        }
 //        } catch (dip.world.variant.NoVariantsException e) {
 //            // display informative message, as a popup
 //            Utils.popupError(null, Utils.getLocalString(
@@ -1668,5 +1736,26 @@ public class ClientFrame extends JFrame {
 //        }
     }// initVariantManager()
 
+
+    /**
+     * Reloads the map if the variant or symbols of the open game have
+     * changed. The World keeps its WorldMap until the game is opened
+     * again.
+     */
+    private void variantsChanged(final Set<String> variantNames,
+                                 final Set<String> symbolPackNames) {
+        if (world == null || mapPanel == null) {
+            return;
+        }
+        final VariantInfo vi = world.getVariantInfo();
+        if (variantNames.contains(vi.getVariantName()) || vi
+                .getSymbolPackName() != null && symbolPackNames
+                .contains(vi.getSymbolPackName())) {
+            LOG.debug("Reloading map of changed variant {}",
+                    vi.getVariantName());
+            mapPanel.reloadMap();
+        }
+    }// variantsChanged()
+
 }// class ClientFrame
 
@@ -25,11 +25,19 @@ package dip.gui;
 import dip.gui.F2FOrderDisplayPanel.F2FState;
 import dip.gui.map.MapPanel;
 import dip.gui.undo.UndoRedoManager;
+import dip.world.GameDataInput;
+import dip.world.GameDataOutput;
 import dip.world.Power;
 import dip.world.World;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
 
 /**
  * The Default GameSetup. This is used when we are not in face-
@@ -108,4 +116,48 @@ public class F2FGUIGameSetup implements GUIGameSetup {
     }// save()
 
 
+    /**
+     * Writes the state saved last: the Power entering orders, and the
+     * Powers that have submitted their orders.
+     */
+    @Override
+    public void write(final GameDataOutput out) throws IOException {
+        out.writeBoolean(state != null);
+        if (state != null) {
+            out.writePower(state.getCurrentPower());
+            final List<Power> submitted = new ArrayList<>();
+            final Iterator<Entry<Power, Boolean>> iter = state.iterator();
+            while (iter.hasNext()) {
+                final Entry<Power, Boolean> entry = iter.next();
+                if (Boolean.TRUE.equals(entry.getValue())) {
+                    submitted.add(entry.getKey());
+                }
+            }
+            // in a fixed order, so that unchanged state writes the same
+            submitted.sort(Comparator.comparing(Power::getName));
+            out.writeVarInt(submitted.size());
+            for (final Power power : submitted) {
+                out.writePower(power);
+            }
+        }
+    }// write()
+
+
+    /**
+     * Reads the state written by {@link #write(GameDataOutput)}; it is
+     * restored by {@link #setup(ClientFrame, World)}.
+     */
+    @Override
+    public void read(final GameDataInput in) throws IOException {
+        if (in.readBoolean()) {
+            final F2FState f2fs = new F2FState();
+            f2fs.setCurrentPower(in.readPower());
+            for (int i = in.readVarInt(); i > 0; i--) {
+                f2fs.setSubmitted(in.readPower(), true);
+            }
+            state = f2fs;
+        }
+    }// read()
+
+
 }// class F2FGUIGameSetup
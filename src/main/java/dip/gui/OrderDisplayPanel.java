@@ -735,34 +735,7 @@ public class OrderDisplayPanel extends JPanel {
      * and undo/redo actions.
      */
     private Orderable addOrderToTS(final Orderable order) {
-        boolean isDuplicate = false;
-        Orderable replacedOrder = null;
-
-        //synchronized(clientFrame.getLock())
-        {
-            final List orders = turnState.getOrders(order.getPower());
-            final Iterator iter = orders.iterator();
-            while (iter.hasNext()) {
-                final Orderable listOrder = (Orderable) iter.next();
-                if (listOrder.getSource().isProvinceEqual(order.getSource())) {
-                    replacedOrder = listOrder;
-                    isDuplicate = listOrder.equals(order);
-
-                    if (!isDuplicate) {
-                        iter.remove();
-                    }
-
-                    break;
-                }
-            }
-
-            // don't add a duplicate order, since we didn't remove it!
-            if (!isDuplicate) {
-                orders.add(order);
-            }
-        }
-
-        return replacedOrder;
+        return turnState.submitOrder((Order) order);
     }// addOrderToTS()
 
     /**
@@ -771,11 +744,7 @@ public class OrderDisplayPanel extends JPanel {
      * This returns <b>true</b> if the order was found and removed.
      */
     private boolean removeOrderFromTS(final Orderable order) {
-        //synchronized(clientFrame.getLock())
-        {
-            final List<Order> orders = turnState.getOrders(order.getPower());
-            return orders.remove(order);
-        }
+        return turnState.removeOrder((Order) order);
     }// removeOrderFromTS()
 
 
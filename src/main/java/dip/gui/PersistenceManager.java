@@ -32,6 +32,7 @@ import dip.judge.parser.JudgeImport;
 import dip.misc.Help.HelpID;
 import dip.misc.SimpleFileFilter;
 import dip.misc.Utils;
+import dip.world.GameJournal;
 import dip.world.Phase;
 import dip.world.TurnState;
 import dip.world.World;
@@ -46,8 +47,11 @@ import java.awt.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -80,6 +84,8 @@ public class PersistenceManager {
     private static final String MODIFIED_INDICATOR = "PM.indicator.modified";
     private static final String SAVE_TO_TITLE = "PM.chooser.title.saveto";
     private static final String EMPTY = "";
+    private static final String AUTOSAVE_SUFFIX = "-autosave.";
+    private static final String AUTOSAVE_UNTITLED = "untitled-";
 
     // internal constants
     private final static String WINDOW_MODIFIED = "windowModified";
@@ -89,6 +95,9 @@ public class PersistenceManager {
     private ClientFrame clientFrame = null;
     private boolean isChanged = false;
     private File fileName = null;
+    private File untitledAutosave = null;    // of a game not saved yet
+    private GameJournal journal = null;
+    private final AutosaveService autosave;
     private PropertyChangeListener modListener = null;
     private final ThreadGroup persistTG;
 
@@ -106,6 +115,12 @@ public class PersistenceManager {
         setSaveEnabled(false);
         setTitle();
 
+        autosave = new AutosaveService(persistTG, clientFrame::getWorld,
+                this::getAutosaveFile,
+                () -> GeneralPreferencePanel.getAutosave() ? (int) TimeUnit.MINUTES
+                        .toMillis(GeneralPreferencePanel
+                                .getAutosaveMinutes()) : 0);
+
         // enable modification event listener
         modListener = new PropertyChangeListener() {
             @Override
@@ -113,6 +128,7 @@ public class PersistenceManager {
                 if (!isChanged()) {
                     setChanged(true);
                 }
+                autosaveChanges();
             }// propertyChange()
         };
         clientFrame.addPropertyChangeListener(ClientFrame.EVT_MODIFIED_STATE,
@@ -124,6 +140,7 @@ public class PersistenceManager {
      */
     public void close() {
         clientFrame.removePropertyChangeListener(modListener);
+        autosave.shutdown();
     }// close()
 
     /**
@@ -138,6 +155,27 @@ public class PersistenceManager {
         return persistTG;
     }// getPMThreadGroup()
 
+    /**
+     * Notes that orders were resolved, and the next turn added. With
+     * journaled saves, the new turn is journaled at once.
+     */
+    public void turnResolved() {
+        autosaveChanges();
+    }// turnResolved()
+
+    /**
+     * With journaled saves, every change is appended to the autosave
+     * file as it is made; otherwise the game is autosaved once changes
+     * have settled.
+     */
+    private void autosaveChanges() {
+        if (GeneralPreferencePanel.getJournaledSaves()) {
+            autosave.journal();
+        } else {
+            autosave.changed();
+        }
+    }// autosaveChanges()
+
     /**
      * If any change has occured singe the last time we saved.
      */
@@ -168,6 +206,9 @@ public class PersistenceManager {
 
             clientFrame.setVisible(false);
 
+            // pending autosaves are written before exit
+            autosave.shutdown();
+
             // wait for any active threads in persistTG; if there are none,
             final int activeCount = persistTG.activeCount();
             LOG.debug("PM::exit(): threads pending: {}", activeCount);
@@ -271,6 +312,7 @@ public class PersistenceManager {
         }
 
         fileName = file;
+        dropUntitledAutosave();
         setChanged(false);
         setSaveEnabled(true);
         setTitle(world);
@@ -300,6 +342,7 @@ public class PersistenceManager {
             final World world = NewGameDialog.displayDialog(clientFrame);
             if (world != null) {
                 fileName = null;
+                dropUntitledAutosave();
                 setChanged(false);
                 setSaveEnabled(true);
                 clientFrame.getClientMenu()
@@ -329,6 +372,7 @@ public class PersistenceManager {
 
             if (world != null) {
                 fileName = null;
+                dropUntitledAutosave();
                 setChanged(false);
                 setSaveEnabled(true);
                 clientFrame.getClientMenu()
@@ -537,6 +581,7 @@ public class PersistenceManager {
                 if (confirmDialog()) {
                     world = ji.getWorld();
                     fileName = null;
+                    dropUntitledAutosave();
                     setChanged(true);
                     setSaveEnabled(true);
                     clientFrame.getClientMenu()
@@ -590,14 +635,22 @@ public class PersistenceManager {
 
     // reads in a game file
     private World readGameFile(final File file) throws Exception {
-        final World w = World.open(file);
+        final VariantManager vm = VariantManager.getInstance();
+        final World w;
+        if (GameJournal.isJournal(file)) {
+            journal = GameJournal.open(file, vm,
+                    clientFrame.getGUIOrderFactory());
+            w = journal.getWorld();
+        } else {
+            w = World.open(file, vm, clientFrame.getGUIOrderFactory());
+        }
 
         // check if variant is available; if not, inform user.
         final VariantInfo vi = w.getVariantInfo();
 
-        if (new VariantManager().getVariant(vi.getVariantName(),
-                vi.getVariantVersion()) == null) {
-            final Variant variant = new VariantManager().getVariant(vi.getVariantName(),
+        if (!vm.getVariant(vi.getVariantName(), vi.getVariantVersion())
+                .isPresent()) {
+            final Variant variant = vm.getVariant(vi.getVariantName(),
                     VariantManager.VERSION_NEWEST).orElse(null);
             if (variant == null) {
                 // we don't have the variant AT ALL
@@ -631,12 +684,23 @@ public class PersistenceManager {
                 ggs.save(clientFrame);
             }
 
-            // save data, update saved flags
+            // save data, update saved flags; a journal kept for this
+            // world and file only needs the changes appended
             LOG.debug("PM::writeGameFile(): saving world....");
-            World.save(fileName, w);
+            if (!GeneralPreferencePanel.getJournaledSaves()) {
+                World.save(fileName, w);
+                journal = null;
+            } else if (journal != null && journal.getWorld() == w && journal
+                    .getFile().equals(fileName)) {
+                journal.save();
+            } else {
+                journal = GameJournal.create(fileName, w);
+            }
 
             LOG.debug("PM::writeGameFile(): world saved ok.");
             setChanged(false);
+            autosave.discard();
+            dropUntitledAutosave();
             return true;
         } catch (final Exception e) {
             ErrorDialog.displayFileIO(clientFrame, e, fileName.toString());
@@ -645,6 +709,50 @@ public class PersistenceManager {
         return false;
     }// writeGameFile()
 
+    /**
+     * The autosave file: beside the game file, or in the default game
+     * directory for a game not saved yet. The name of the latter is unique,
+     * so that other jDip instances, or the recovery data of an earlier
+     * session, are left alone; it is kept until the game is saved or
+     * replaced by another.
+     */
+    private File getAutosaveFile() {
+        final String extension = SimpleFileFilter.SAVE_GAME_FILTER
+                .getExtension();
+        if (fileName != null) {
+            final String name = fileName.getName();
+            final int dot = name.lastIndexOf('.');
+            return new File(fileName.getAbsoluteFile().getParentFile(),
+                    (dot > 0 ? name.substring(0, dot) : name) + AUTOSAVE_SUFFIX + extension);
+        }
+
+        if (untitledAutosave == null) {
+            File dir = GeneralPreferencePanel.getDefaultGameDir();
+            if (!dir.isDirectory()) {
+                dir = new File(System.getProperty("user.home"));
+            }
+            try {
+                untitledAutosave = Files.createTempFile(dir.toPath(),
+                        AUTOSAVE_UNTITLED, AUTOSAVE_SUFFIX + extension).toFile();
+            } catch (final IOException e) {
+                LOG.warn("Autosave: cannot create a file in {}", dir, e);
+            }
+        }
+        return untitledAutosave;
+    }// getAutosaveFile()
+
+
+    /**
+     * Deletes the autosave file of the game not saved yet, once that game
+     * is saved or replaced; the next untitled game gets a new one.
+     */
+    private void dropUntitledAutosave() {
+        if (untitledAutosave != null) {
+            autosave.delete(untitledAutosave);
+            untitledAutosave = null;
+        }
+    }// dropUntitledAutosave()
+
     private void setTitle() {
         setTitle(null);
     }// setTitle()
@@ -0,0 +1,196 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.gui;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The stages of starting jDip, and the time each took.
+ * <p>
+ * Stages that do not depend on each other are started on a pool, and run
+ * while the splash screen is shown; stages that build the frame run on
+ * the calling thread, which waits for a background stage only when it
+ * needs its result. Each stage is timed from the start of the pipeline,
+ * so that a report can show which stages overlapped.
+ */
+final class StartupPipeline {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(StartupPipeline.class);
+
+    private final long start = System.nanoTime();
+    private final ThreadPoolExecutor pool;
+    private final List<Stage> stages = Collections
+            .synchronizedList(new ArrayList<>());
+    private final List<CompletableFuture<Void>> started = new ArrayList<>();
+    private long interactive = -1;
+
+
+    /**
+     * Creates a pipeline; its clock starts now.
+     */
+    StartupPipeline() {
+        final int threads = Math.max(1,
+                Math.min(4, Runtime.getRuntime().availableProcessors()));
+        // threads end when idle, so they do not hold up exit
+        pool = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "jdipStartup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+    }// StartupPipeline()
+
+
+    /**
+     * Starts a stage on the pool.
+     */
+    synchronized CompletableFuture<Void> start(final String name,
+                                               final Runnable task) {
+        final CompletableFuture<Void> future = CompletableFuture
+                .runAsync(() -> run(name, task), pool);
+        started.add(future);
+        return future;
+    }// start()
+
+
+    /**
+     * Runs a stage on the calling thread.
+     */
+    void run(final String name, final Runnable task) {
+        call(name, () -> {
+            task.run();
+            return null;
+        });
+    }// run()
+
+
+    /**
+     * Runs a stage on the calling thread, and returns its result.
+     */
+    <T> T call(final String name, final Supplier<T> task) {
+        final long begin = System.nanoTime();
+        boolean failed = true;
+        try {
+            final T result = task.get();
+            failed = false;
+            return result;
+        } finally {
+            final Stage stage = new Stage(name,
+                    Thread.currentThread().getName(), begin - start,
+                    System.nanoTime() - begin, failed);
+            stages.add(stage);
+            LOG.debug("Startup: {}", stage);
+        }
+    }// call()
+
+
+    /**
+     * Waits for a stage started on the pool. If it failed, its exception
+     * is thrown here.
+     */
+    void await(final CompletableFuture<Void> stage) {
+        try {
+            stage.join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }// await()
+
+
+    /**
+     * Notes that the frame can be used.
+     */
+    synchronized void setInteractive() {
+        interactive = System.nanoTime() - start;
+        LOG.debug("Startup: interactive after {} ms", interactive / 1000000);
+    }// setInteractive()
+
+
+    /**
+     * Returns the report, once all the stages started have ended; stages
+     * that failed are shown as such.
+     */
+    synchronized CompletableFuture<String> getReport() {
+        return CompletableFuture.allOf(started.toArray(new CompletableFuture<?>[0]))
+                .handle((result, e) -> formatReport());
+    }// getReport()
+
+
+    private synchronized String formatReport() {
+        final List<Stage> sorted;
+        synchronized (stages) {
+            sorted = stages.stream().sorted((s0, s1) -> Long
+                    .compare(s0.begin, s1.begin)).collect(Collectors.toList());
+        }
+        final StringBuilder sb = new StringBuilder(
+                String.format("jDip startup: interactive after %d ms%n",
+                        interactive / 1000000));
+        sb.append(String.format("  %-20s %-12s %8s %8s%n", "stage", "thread",
+                "start", "time"));
+        sorted.forEach(stage -> sb.append("  ").append(stage)
+                .append(String.format("%n")));
+        return sb.toString();
+    }// formatReport()
+
+
+    /**
+     * A stage that has ended.
+     */
+    private static final class Stage {
+        private final String name;
+        private final String thread;
+        private final long begin;
+        private final long duration;
+        private final boolean failed;
+
+        private Stage(final String name, final String thread,
+                      final long begin, final long duration,
+                      final boolean failed) {
+            this.name = name;
+            this.thread = thread;
+            this.begin = begin;
+            this.duration = duration;
+            this.failed = failed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-20s %-12s %5d ms %5d ms%s", name, thread,
+                    begin / 1000000, duration / 1000000,
+                    failed ? " (failed)" : "");
+        }
+    }// nested class Stage
+
+}// class StartupPipeline
@@ -80,7 +80,7 @@ public class MapPicker extends HeaderDialog {
         this.world = world;
 
         final VariantInfo vi = world.getVariantInfo();
-        final Variant variant = new VariantManager()
+        final Variant variant = VariantManager.getInstance()
                 .getVariant(vi.getVariantName(), vi.getVariantVersion()).orElse(null);
         mauSelector = new NGDMapAndUnits();
         mauSelector.variantChanged(variant);
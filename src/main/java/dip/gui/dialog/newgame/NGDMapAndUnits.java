@@ -39,6 +39,8 @@ import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
 import java.awt.*;
 import java.net.URL;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 
 /**
@@ -57,6 +59,10 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
     private static final int MAX_ICON_HEIGHT = 125;
     private static final int LIST_LABEL_WIDTH = 140;
     private static final int LIST_LABEL_HEIGHT = 140;
+    private static final int THUMBNAIL_CACHE_SIZE = 64;
+
+    private static final Thumbnails THUMBNAILS = new Thumbnails(
+            MAX_ICON_WIDTH, MAX_ICON_HEIGHT, THUMBNAIL_CACHE_SIZE);
 
     private SelectorPanel mapSelector = null;
     private SelectorPanel symbolSelector = null;
@@ -150,6 +156,18 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
     }// variantChanged()
 
 
+    /**
+     * Starts loading the map thumbnails of a Variant that is likely to
+     * be shown next.
+     */
+    void prefetch(final Variant variant) {
+        for (final MapGraphic mg : variant.getMapGraphics()) {
+            THUMBNAILS.prefetch(mg, () -> VariantManager.getInstance()
+                    .getResource(variant, mg.getThumbnailURI()));
+        }
+    }// prefetch()
+
+
     /**
      * The Enabled status has Changed.
      */
@@ -358,7 +376,7 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
          * Set the Items, from the available SymbolPacks
          */
         public void setItemsWithSymbolPacks() {
-            final SymbolPack[] symbolPacks = new VariantManager()
+            final SymbolPack[] symbolPacks = VariantManager.getInstance()
                     .getSymbolPacks().toArray(new SymbolPack[0]);
             final ListItem[] items = new ListItem[symbolPacks.length];
             for (int i = 0; i < items.length; i++) {
@@ -408,11 +426,11 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
                 final ListItem item = getSelectedItem();
                 if (item != null) {
                     final String text = item.getDescription();
-                    if (text.startsWith("<html>") || text
+                    if (text == null || "".equals(text)) {
+                        description.setText("");
+                    } else if (text.startsWith("<html>") || text
                             .startsWith("<HTML>")) {
                         description.setText(text);
-                    } else if (text == null || "".equals(text)) {
-                        description.setText("");
                     } else {
                         String sb = "<html><font face=\"arial,helvetica,sansserif\">" + text;
                         description.setText(sb);
@@ -437,6 +455,7 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
         private final String label;
         private final String description;
         private Object reference = null;
+        private Supplier<Optional<URL>> iconURL = null;
 
         /**
          * Create a ListItem
@@ -457,53 +476,21 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
         }// ListItem()
 
         /**
-         * Create a ListItem
+         * Create a ListItem; its thumbnail is loaded when first shown.
          */
         public ListItem(final SymbolPack sp) {
-            // resolve thumbnail URI to load icon
-            final URL iconURL = new VariantManager()
-                    .getResource(sp, sp.getThumbnailURI()).orElse(null);
-            ImageIcon ii = null;
-            if (iconURL != null) {
-                ii = new ImageIcon(iconURL);
-                if (ii != null) {
-                    if (ii.getIconWidth() > MAX_ICON_WIDTH || ii
-                            .getIconHeight() > MAX_ICON_HEIGHT) {
-                        ii = Utils
-                                .scaleDown(ii, MAX_ICON_WIDTH, MAX_ICON_HEIGHT);
-                    }
-                }
-            }
-
-            icon = ii;
-            label = sp.getName();
-            description = sp.getDescription();
-            reference = sp;
+            this(null, sp.getName(), sp.getDescription(), sp);
+            iconURL = () -> VariantManager.getInstance()
+                    .getResource(sp, sp.getThumbnailURI());
         }// ListItem()
 
         /**
-         * Create a ListItem
+         * Create a ListItem; its thumbnail is loaded when first shown.
          */
         public ListItem(final Variant variant, final MapGraphic mg) {
-            // resolve thumbnail URI to load icon
-            final URL iconURL = new VariantManager()
-                    .getResource(variant, mg.getThumbnailURI()).orElse(null);
-            ImageIcon ii = null;
-            if (iconURL != null) {
-                ii = new ImageIcon(iconURL);
-                if (ii != null) {
-                    if (ii.getIconWidth() > MAX_ICON_WIDTH || ii
-                            .getIconHeight() > MAX_ICON_HEIGHT) {
-                        ii = Utils
-                                .scaleDown(ii, MAX_ICON_WIDTH, MAX_ICON_HEIGHT);
-                    }
-                }
-            }
-
-            icon = ii;
-            label = mg.getName();
-            description = mg.getDescription();
-            reference = mg;
+            this(null, mg.getName(), mg.getDescription(), mg);
+            iconURL = () -> VariantManager.getInstance()
+                    .getResource(variant, mg.getThumbnailURI());
         }// ListItem()
 
         /**
@@ -514,9 +501,13 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
         }
 
         /**
-         * Get the icon
+         * Get the icon; a placeholder while the thumbnail is loaded.
          */
         public Icon getIcon() {
+            if (icon == null && iconURL != null) {
+                return THUMBNAILS.get(reference, iconURL,
+                        NGDMapAndUnits.this::repaint);
+            }
             return icon;
         }
 
@@ -571,9 +562,7 @@ public class NGDMapAndUnits extends JPanel implements NGDTabPane {
 
             setText(item.getLabel());
 
-            if (item.getIcon() != null) {
-                setIcon(item.getIcon());
-            }
+            setIcon(item.getIcon());
 
             setEnabled(list.isEnabled());
             setFont(list.getFont());
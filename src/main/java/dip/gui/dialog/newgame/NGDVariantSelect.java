@@ -70,6 +70,7 @@ public class NGDVariantSelect extends JPanel implements NGDTabPane {
     private JList variantList;
     private JEditorPane textPanel;
     private String description;
+    private Variant[] variants = new Variant[0];
     private Variant defaultVariant = null;
 
     /**
@@ -115,8 +116,6 @@ public class NGDVariantSelect extends JPanel implements NGDTabPane {
         if (!listModel.isEmpty()) {
             // search and find the (last) default
             // if no default exists, select the first variant.
-            final Variant[] variants = new VariantManager().getVariants()
-                    .toArray(new Variant[0]);
             defaultVariant = null;
             for (Variant variant : variants) {
                 if (variant.isDefault()) {
@@ -189,7 +188,7 @@ public class NGDVariantSelect extends JPanel implements NGDTabPane {
      * Initializes the variant list
      */
     private void makeVariantList() {
-        final Variant[] variants = new VariantManager().getVariants()
+        variants = VariantManager.getInstance().getVariants()
                 .toArray(new Variant[0]);
         listModel.clear();
         for (Variant variant : variants) {
@@ -220,8 +219,7 @@ public class NGDVariantSelect extends JPanel implements NGDTabPane {
             variantList.ensureIndexIsVisible(idx);
         }
 
-        final Variant selectedVariant = new VariantManager().getVariants()
-                .get(idx);
+        final Variant selectedVariant = variants[idx];
 
         // set text, depending upon selection
         //
@@ -233,6 +231,14 @@ public class NGDVariantSelect extends JPanel implements NGDTabPane {
 
         ngd.setTabsVariant(selectedVariant);
         ngd.setTabsEnabled(true);
+
+        // the neighbours are the likely next selections
+        if (idx > 0) {
+            ngd.getMAUPanel().prefetch(variants[idx - 1]);
+        }
+        if (idx < variants.length - 1) {
+            ngd.getMAUPanel().prefetch(variants[idx + 1]);
+        }
     }// doVariantListSelection()
 
 
@@ -0,0 +1,185 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.gui.dialog.newgame;
+
+import dip.misc.LRUCache;
+import dip.misc.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import java.awt.*;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Thumbnails of map graphics and symbol packs, loaded and scaled down in
+ * the background, so that lists of them can be shown and scrolled at once.
+ * Until a thumbnail is loaded, a placeholder of the same bounds is shown.
+ * <p>
+ * The most recently used thumbnails are kept. They are keyed by the
+ * object they show, such as a MapGraphic; a variant that is loaded again
+ * has new MapGraphics, and so gets new thumbnails. This object is
+ * threadsafe, as the New Game dialog is built in the background.
+ */
+final class Thumbnails {
+    private static final Logger LOG = LoggerFactory.getLogger(Thumbnails.class);
+
+    /**
+     * Threads that load thumbnails. They end when idle, so they do not
+     * hold up exit.
+     */
+    private static final ThreadPoolExecutor LOADER;
+
+    static {
+        LOADER = new ThreadPoolExecutor(2, 2, 5, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "jdipThumbnailLoader");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        LOADER.allowCoreThreadTimeOut(true);
+    }
+
+    private final int maxWidth;
+    private final int maxHeight;
+    private final Icon placeholder;
+    private final LRUCache<Object, Optional<Icon>> icons;
+    private final Map<Object, List<Runnable>> pending = new HashMap<>();
+
+
+    /**
+     * Creates a Thumbnails object that keeps the given number of
+     * thumbnails, scaled down to fit the given bounds.
+     */
+    Thumbnails(final int maxWidth, final int maxHeight, final int cacheSize) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+        placeholder = new Placeholder(maxWidth, maxHeight);
+        icons = new LRUCache<>(cacheSize);
+    }// Thumbnails()
+
+
+    /**
+     * Returns the thumbnail of the given object, if it is loaded; the
+     * placeholder, if it is being loaded; or null if it has none. If it
+     * is not loaded, it is loaded from the given URL, and then
+     * <code>whenLoaded</code> is run on the event dispatch thread.
+     */
+    synchronized Icon get(final Object key, final Supplier<Optional<URL>> url,
+             final Runnable whenLoaded) {
+        final Optional<Icon> icon = icons.get(key);
+        if (icon != null) {
+            return icon.orElse(null);
+        }
+        load(key, url).add(whenLoaded);
+        return placeholder;
+    }// get()
+
+
+    /**
+     * Starts loading the thumbnail of the given object, if it is not
+     * loaded, as it is likely to be shown next.
+     */
+    synchronized void prefetch(final Object key, final Supplier<Optional<URL>> url) {
+        if (!icons.containsKey(key)) {
+            load(key, url);
+        }
+    }// prefetch()
+
+
+    /**
+     * Returns the tasks to run once the thumbnail is loaded, starting to
+     * load it if it is not being loaded.
+     */
+    private List<Runnable> load(final Object key,
+                                final Supplier<Optional<URL>> url) {
+        return pending.computeIfAbsent(key, k -> {
+            LOADER.execute(() -> {
+                final Optional<Icon> icon = read(url);
+                SwingUtilities.invokeLater(() -> loaded(key, icon));
+            });
+            return new ArrayList<>(2);
+        });
+    }// load()
+
+
+    private synchronized void loaded(final Object key, final Optional<Icon> icon) {
+        icons.put(key, icon);
+        pending.remove(key).forEach(Runnable::run);
+    }// loaded()
+
+
+    /**
+     * Reads and scales down a thumbnail; run on a loader thread.
+     */
+    private Optional<Icon> read(final Supplier<Optional<URL>> url) {
+        try {
+            return url.get().map(iconURL -> {
+                final ImageIcon ii = new ImageIcon(iconURL);
+                if (ii.getIconWidth() > maxWidth || ii
+                        .getIconHeight() > maxHeight) {
+                    return Utils.scaleDown(ii, maxWidth, maxHeight);
+                }
+                return ii;
+            });
+        } catch (final RuntimeException e) {
+            LOG.debug("Thumbnail not loaded: {}", e.toString());
+            return Optional.empty();
+        }
+    }// read()
+
+
+    /**
+     * An empty frame, shown while a thumbnail is loaded.
+     */
+    private static final class Placeholder implements Icon {
+        private final int width;
+        private final int height;
+
+        private Placeholder(final int width, final int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paintIcon(final Component c, final Graphics g,
+                              final int x, final int y) {
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawRect(x, y, width - 1, height - 1);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }// nested class Placeholder
+
+}// class Thumbnails
@@ -67,6 +67,11 @@ public class GeneralPreferencePanel extends PreferencePanel {
     public static final String NODE_SAVE_WINDOW_SETTINGS = "saveWindowSettings";
     public static final String NODE_DEFAULT_GAME_DIR = "defaultGameDir";
     public static final String NODE_SHOW_RESOLUTION_RESULTS = "showResolutionResults";
+    public static final String NODE_JOURNALED_SAVES = "journaledSaves";
+    public static final String NODE_AUTOSAVE = "autosave";
+    public static final String NODE_AUTOSAVE_MINUTES = "autosave.minutes";
+    public static final String NODE_COMPACT_TURNS = "compactTurns";
+    public static final String NODE_COMPACT_TURNS_PHASES = "compactTurns.phases";
 
     // recent files (w/o #) [if enabled]
     public static final String NODE_RECENT_FILE = "lastFile";
@@ -105,6 +110,11 @@ public class GeneralPreferencePanel extends PreferencePanel {
     private AssocJComboBox mapLabels;        // map label level
 
     private JCheckBox showResolution;
+    private JCheckBox journaledSaves;
+    private JCheckBox autosave;
+    private JSpinner autosaveMinutes;
+    private JCheckBox compactTurns;
+    private JSpinner compactTurnsPhases;
 
     private ClientFrame cf = null;
 
@@ -115,6 +125,21 @@ public class GeneralPreferencePanel extends PreferencePanel {
     private static final String GPP_SAVE_DIR_BUTTON = "GPP.save_dir_button";
 
     private static final String GPP_SHOW_RESOLUTION_RESULTS = "GPP.show_resolution_results";
+    private static final String GPP_JOURNALED_SAVES = "GPP.journaled_saves";
+    private static final String GPP_AUTOSAVE = "GPP.autosave";
+    private static final String GPP_AUTOSAVE_MINUTES = "GPP.autosave.minutes";
+
+    // autosave interval, in minutes
+    private static final int AUTOSAVE_DEFAULT = 5;
+    private static final int AUTOSAVE_MAX = 60;
+
+    private static final String GPP_COMPACT_TURNS = "GPP.compact_turns";
+    private static final String GPP_COMPACT_TURNS_PHASES = "GPP.compact_turns.phases";
+
+    // phases kept in memory uncompacted
+    private static final int COMPACT_TURNS_DEFAULT = 8;
+    private static final int COMPACT_TURNS_MIN = 2;
+    private static final int COMPACT_TURNS_MAX = 100;
     private static final String GPP_CLEAR_MRU_BUTTON = "GPP.clearmru.button";
     private static final String GPP_CLEAR_MRU_TEXT = "GPP.clearmru.text";
 
@@ -140,6 +165,30 @@ public class GeneralPreferencePanel extends PreferencePanel {
         showResolution = new JCheckBox(
                 Utils.getLocalString(GPP_SHOW_RESOLUTION_RESULTS));
 
+        journaledSaves = new JCheckBox(
+                Utils.getLocalString(GPP_JOURNALED_SAVES));
+
+        autosave = new JCheckBox(Utils.getLocalString(GPP_AUTOSAVE));
+        autosaveMinutes = new JSpinner(
+                new SpinnerNumberModel(AUTOSAVE_DEFAULT, 1, AUTOSAVE_MAX, 1));
+        autosave.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(final ActionEvent e) {
+                autosaveMinutes.setEnabled(autosave.isSelected());
+            }// actionPerformed()
+        });
+
+        compactTurns = new JCheckBox(Utils.getLocalString(GPP_COMPACT_TURNS));
+        compactTurnsPhases = new JSpinner(
+                new SpinnerNumberModel(COMPACT_TURNS_DEFAULT, COMPACT_TURNS_MIN,
+                        COMPACT_TURNS_MAX, 1));
+        compactTurns.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(final ActionEvent e) {
+                compactTurnsPhases.setEnabled(compactTurns.isSelected());
+            }// actionPerformed()
+        });
+
         saveDir = new JTextField();
         saveDir.setEditable(false);
         browseSaveDir = new JButton(Utils.getLocalString(GPP_SAVE_DIR_BUTTON));
@@ -202,6 +251,22 @@ public class GeneralPreferencePanel extends PreferencePanel {
         orderP.add(Box.createHorizontalStrut(10));
         orderP.add(reverseSort);
 
+        final JPanel autosaveP = new JPanel(
+                new FlowLayout(FlowLayout.LEFT, 0, 0));
+        autosaveP.add(autosave);
+        autosaveP.add(Box.createHorizontalStrut(5));
+        autosaveP.add(autosaveMinutes);
+        autosaveP.add(Box.createHorizontalStrut(5));
+        autosaveP.add(new JLabel(Utils.getLocalString(GPP_AUTOSAVE_MINUTES)));
+
+        final JPanel compactP = new JPanel(
+                new FlowLayout(FlowLayout.LEFT, 0, 0));
+        compactP.add(compactTurns);
+        compactP.add(Box.createHorizontalStrut(5));
+        compactP.add(compactTurnsPhases);
+        compactP.add(Box.createHorizontalStrut(5));
+        compactP.add(new JLabel(Utils.getLocalString(GPP_COMPACT_TURNS_PHASES)));
+
         final JPanel mapP = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
         mapP.add(new JLabel(Utils.getLocalString(GPP_MAP_LABEL)));
         mapP.add(Box.createHorizontalStrut(5));
@@ -209,12 +274,12 @@ public class GeneralPreferencePanel extends PreferencePanel {
 
         // layout
         final int[] h1 = {BORDER, 0, 8, 0, 8, 0, 8, 0, 3, 0, 7, 36,    // upto row 12
-                0, 3, 0, 10, 0, 8, 0, BORDER};
+                0, 3, 0, 8, 0, 8, 0, 8, 0, 10, 0, 8, 0, BORDER};
         final int[] w1 = {BORDER, 10, 0, 5, 0, BORDER};
 
         final HIGLayout l1 = new HIGLayout(w1, h1);
         l1.setColumnWeight(3, 1);
-        l1.setRowWeight(19, 1);
+        l1.setRowWeight(25, 1);
         setLayout(l1);
 
 
@@ -237,8 +302,12 @@ public class GeneralPreferencePanel extends PreferencePanel {
         add(saveDir, c.rcwh(15, 3, 1, 1, "lr"));
         add(browseSaveDir, c.rcwh(15, 5, 1, 1, "lrtb"));
 
+        add(journaledSaves, c.rcwh(17, 2, 4, 1, "l"));
+        add(autosaveP, c.rcwh(19, 2, 4, 1, "l"));
+        add(compactP, c.rcwh(21, 2, 4, 1, "l"));
+
         // clear MRU
-        add(clrPanel, c.rcwh(17, 2, 4, 1, "l"));
+        add(clrPanel, c.rcwh(23, 2, 4, 1, "l"));
 
     }// GeneralPreferencePanel()
 
@@ -273,6 +342,13 @@ public class GeneralPreferencePanel extends PreferencePanel {
         prefs.put(NODE_DEFAULT_GAME_DIR, saveDir.getText());
         prefs.putBoolean(NODE_SHOW_RESOLUTION_RESULTS,
                 showResolution.isSelected());
+        prefs.putBoolean(NODE_JOURNALED_SAVES, journaledSaves.isSelected());
+        prefs.putBoolean(NODE_AUTOSAVE, autosave.isSelected());
+        prefs.putInt(NODE_AUTOSAVE_MINUTES,
+                (Integer) autosaveMinutes.getValue());
+        prefs.putBoolean(NODE_COMPACT_TURNS, compactTurns.isSelected());
+        prefs.putInt(NODE_COMPACT_TURNS_PHASES,
+                (Integer) compactTurnsPhases.getValue());
 
         // map settings
         prefs.put(NODE_MAP_LABEL_LEVEL, (String) mapLabels.getSelectedValue());
@@ -298,6 +374,13 @@ public class GeneralPreferencePanel extends PreferencePanel {
     public void setDefault() {
         saveWindowSettings.setSelected(false);
         showResolution.setSelected(false);
+        journaledSaves.setSelected(true);
+        autosave.setSelected(true);
+        autosaveMinutes.setValue(AUTOSAVE_DEFAULT);
+        autosaveMinutes.setEnabled(true);
+        compactTurns.setSelected(true);
+        compactTurnsPhases.setValue(COMPACT_TURNS_DEFAULT);
+        compactTurnsPhases.setEnabled(true);
         saveDir.setText("");
 
         reverseSort.setSelected(false);
@@ -324,6 +407,14 @@ public class GeneralPreferencePanel extends PreferencePanel {
         showResolution.setSelected(
                 prefs.getBoolean(NODE_SHOW_RESOLUTION_RESULTS, true));
         saveDir.setText(prefs.get(NODE_DEFAULT_GAME_DIR, ""));
+        journaledSaves.setSelected(
+                prefs.getBoolean(NODE_JOURNALED_SAVES, true));
+        autosave.setSelected(prefs.getBoolean(NODE_AUTOSAVE, true));
+        autosaveMinutes.setValue(getAutosaveMinutes());
+        autosaveMinutes.setEnabled(autosave.isSelected());
+        compactTurns.setSelected(prefs.getBoolean(NODE_COMPACT_TURNS, true));
+        compactTurnsPhases.setValue(getCompactTurnsPhases());
+        compactTurnsPhases.setEnabled(compactTurns.isSelected());
 
         reverseSort.setSelected(
                 prefs.getBoolean(NODE_ORDER_SORTING_REVERSE, false));
@@ -581,6 +672,51 @@ public class GeneralPreferencePanel extends PreferencePanel {
     }
 
 
+    /**
+     * Returns if games are saved by appending changes to the game file
+     */
+    public static boolean getJournaledSaves() {
+        return getSetting(NODE_JOURNALED_SAVES, true);
+    }
+
+
+    /**
+     * Returns if games are saved in the background after changes
+     */
+    public static boolean getAutosave() {
+        return getSetting(NODE_AUTOSAVE, true);
+    }
+
+
+    /**
+     * Returns the minutes from a change to an autosave, from 1 to 60
+     */
+    public static int getAutosaveMinutes() {
+        final int minutes = SharedPrefs.getUserNode()
+                .getInt(NODE_AUTOSAVE_MINUTES, AUTOSAVE_DEFAULT);
+        return Math.max(1, Math.min(AUTOSAVE_MAX, minutes));
+    }
+
+
+    /**
+     * Returns if resolved turns are compacted in memory once they are
+     * older than the last few phases
+     */
+    public static boolean getCompactTurns() {
+        return getSetting(NODE_COMPACT_TURNS, true);
+    }
+
+
+    /**
+     * Returns the number of latest phases kept uncompacted, from 2 to 100
+     */
+    public static int getCompactTurnsPhases() {
+        final int phases = SharedPrefs.getUserNode()
+                .getInt(NODE_COMPACT_TURNS_PHASES, COMPACT_TURNS_DEFAULT);
+        return Math.max(COMPACT_TURNS_MIN, Math.min(COMPACT_TURNS_MAX, phases));
+    }
+
+
     /**
      * Returns a given setting from preferences
      */
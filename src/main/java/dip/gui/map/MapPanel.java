@@ -344,7 +344,7 @@ public class MapPanel extends JPanel {
         //
         try {
             svgCanvas.setDocument(transform(xmlDoc,
-                    new VariantManager().getVariantPackageJarURL(variant)
+                    VariantManager.getInstance().getVariantPackageJarURL(variant)
                             .toString()));
         } catch (final Exception e) {
             ErrorDialog.displaySerious(clientFrame, e);
@@ -357,7 +357,7 @@ public class MapPanel extends JPanel {
         if (svgCanvas.getSVGDocument() instanceof SVGOMDocument) {
             final SVGOMDocument omd = (SVGOMDocument) svgCanvas
                     .getSVGDocument();
-            omd.setURLObject(new VariantManager().getVariantPackageJarURL(variant).orElse(null));
+            omd.setURLObject(VariantManager.getInstance().getVariantPackageJarURL(variant).orElse(null));
         } else {
             // shouldn't happen.
             LOG.debug(
@@ -915,7 +915,7 @@ public class MapPanel extends JPanel {
 
                     // load URL and resolve
                     final VariantInfo vi = world.getVariantInfo();
-                    final Variant variant = new VariantManager()
+                    final Variant variant = VariantManager.getInstance()
                             .getVariant(vi.getVariantName(),
                                     vi.getVariantVersion()).orElse(null);
 
@@ -943,7 +943,7 @@ public class MapPanel extends JPanel {
                         }
                     }
 
-                    final URL url = new VariantManager().getResource(variant, mg.getURI()).orElse(null);
+                    final URL url = VariantManager.getInstance().getResource(variant, mg.getURI()).orElse(null);
                     if (url == null) {
 
                         final Exception e = new IllegalStateException(
@@ -954,7 +954,7 @@ public class MapPanel extends JPanel {
                     }
 
 
-                    symbolPack = new VariantManager()
+                    symbolPack = VariantManager.getInstance()
                             .getSymbolPack(mg, vi.getSymbolPackName(),
                                     vi.getSymbolPackVersion()).orElse(null);
 
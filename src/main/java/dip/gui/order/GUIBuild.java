@@ -94,6 +94,7 @@ public class GUIBuild extends Build implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Build)) {
             throw new IllegalArgumentException();
         }
@@ -196,6 +197,7 @@ public class GUIBuild extends Build implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -212,6 +214,7 @@ public class GUIBuild extends Build implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (testLocation(stateInfo, location, sb)) {
             currentLocNum++;
 
@@ -257,6 +260,7 @@ public class GUIBuild extends Build implements GUIOrder {
         }
 
         srcUnitType = (Type) value;
+        invalidateFormattedString();
     }// setParam()
 
 
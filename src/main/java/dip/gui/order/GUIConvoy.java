@@ -82,6 +82,7 @@ public class GUIConvoy extends Convoy implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Convoy)) {
             throw new IllegalArgumentException();
         }
@@ -254,6 +255,7 @@ public class GUIConvoy extends Convoy implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -274,6 +276,7 @@ public class GUIConvoy extends Convoy implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -63,6 +63,7 @@ public class GUIDefineState extends DefineState implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof DefineState)) {
             throw new IllegalArgumentException();
         }
@@ -69,6 +69,7 @@ public class GUIDisband extends Disband implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Disband)) {
             throw new IllegalArgumentException();
         }
@@ -120,6 +121,7 @@ public class GUIDisband extends Disband implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -136,6 +138,7 @@ public class GUIDisband extends Disband implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (testLocation(stateInfo, location, sb)) {
             currentLocNum++;
 
@@ -77,6 +77,7 @@ public class GUIHold extends Hold implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Hold)) {
             throw new IllegalArgumentException();
         }
@@ -132,6 +133,7 @@ public class GUIHold extends Hold implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -147,6 +149,7 @@ public class GUIHold extends Hold implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo,
                                final Location location, final StringBuffer sb) {
+        invalidateFormattedString();
         if (testLocation(stateInfo, location, sb)) {
             currentLocNum++;
             final Unit unit = stateInfo.getPosition()
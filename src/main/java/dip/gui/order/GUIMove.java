@@ -104,6 +104,7 @@ public class GUIMove extends Move implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Move)) {
             throw new IllegalArgumentException();
         }
@@ -214,6 +215,7 @@ public class GUIMove extends Move implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -234,6 +236,7 @@ public class GUIMove extends Move implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (testLocation(stateInfo, location, sb)) {
             if (currentLocNum == 0) {
                 final Unit unit = stateInfo.getPosition()
@@ -284,6 +287,7 @@ public class GUIMove extends Move implements GUIOrder {
         if (param == BY_CONVOY) {
             if (value instanceof Boolean) {
                 _isViaConvoy = ((Boolean) value).booleanValue();
+                invalidateFormattedString();
             } else {
                 throw new IllegalArgumentException();
             }
@@ -116,6 +116,7 @@ public class GUIMoveExplicit extends Move implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Move)) {
             throw new IllegalArgumentException();
         }
@@ -323,6 +324,7 @@ public class GUIMoveExplicit extends Move implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -353,6 +355,7 @@ public class GUIMoveExplicit extends Move implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         // WE need to manage isComplete here, as well as
         // setting the tmpConvoyPath
 
@@ -436,6 +439,7 @@ public class GUIMoveExplicit extends Move implements GUIOrder {
             convoyRoutes = new ArrayList(1);
             convoyRoutes.add(provinceRoute);
         }
+        invalidateFormattedString();
     }// updateConvoyPath()
 
     @Override
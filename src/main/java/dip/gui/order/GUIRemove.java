@@ -75,6 +75,7 @@ public class GUIRemove extends Remove implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Remove)) {
             throw new IllegalArgumentException();
         }
@@ -133,6 +134,7 @@ public class GUIRemove extends Remove implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -149,6 +151,7 @@ public class GUIRemove extends Remove implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (testLocation(stateInfo, location, sb)) {
             currentLocNum++;
 
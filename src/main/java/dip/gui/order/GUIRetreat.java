@@ -80,6 +80,7 @@ public class GUIRetreat extends Retreat implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Retreat)) {
             throw new IllegalArgumentException();
         }
@@ -197,6 +198,7 @@ public class GUIRetreat extends Retreat implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -214,6 +216,7 @@ public class GUIRetreat extends Retreat implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
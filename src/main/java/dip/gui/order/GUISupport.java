@@ -98,6 +98,7 @@ public class GUISupport extends Support implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Support)) {
             throw new IllegalArgumentException();
         }
@@ -257,6 +258,7 @@ public class GUISupport extends Support implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -277,6 +279,7 @@ public class GUISupport extends Support implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
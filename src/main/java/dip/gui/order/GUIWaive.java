@@ -81,6 +81,7 @@ public class GUIWaive extends Waive implements GUIOrder {
      */
     @Override
     public void deriveFrom(final Orderable order) {
+        invalidateFormattedString();
         if (!(order instanceof Waive)) {
             throw new IllegalArgumentException();
         }
@@ -187,6 +188,7 @@ public class GUIWaive extends Waive implements GUIOrder {
 
     @Override
     public boolean clearLocations() {
+        invalidateFormattedString();
         if (isComplete()) {
             return false;
         }
@@ -203,6 +205,7 @@ public class GUIWaive extends Waive implements GUIOrder {
     @Override
     public boolean setLocation(final StateInfo stateInfo, final Location location,
                                final StringBuffer sb) {
+        invalidateFormattedString();
         if (testLocation(stateInfo, location, sb)) {
             currentLocNum++;
 
@@ -106,7 +106,7 @@ public class VariantInfoWriter {
 
         // get selcted variant
         final VariantInfo vi = world.getVariantInfo();
-        final Variant variant = new VariantManager()
+        final Variant variant = VariantManager.getInstance()
                 .getVariant(vi.getVariantName(), vi.getVariantVersion()).orElse(null);
 
         // get 8 main arguments
@@ -80,6 +80,7 @@ public class UndoResolve extends XAbstractUndoableEdit {
             // set as resolved
             resolvedTS.setResultList(resolvedTSResults);
             resolvedTS.setResolved(true);
+            world.setTurnState(resolvedTS);
 
             // nextTS:
             //
@@ -118,6 +119,10 @@ public class UndoResolve extends XAbstractUndoableEdit {
                 world.removeTurnState(nextTS);
             }
 
+            // the World may have compacted resolvedTS; this instance is
+            // the one the other edits refer to
+            world.setTurnState(resolvedTS);
+
             // update ClientFrame
             undoRedoManager.getClientFrame().fireStateModified();
             undoRedoManager.getClientFrame().fireTurnstateChanged(resolvedTS);
@@ -0,0 +1,549 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.judge;
+
+import dip.judge.parser.JudgeImport;
+import dip.misc.CommandLine;
+import dip.misc.SimpleFileFilter;
+import dip.order.OrderFactory;
+import dip.world.Phase;
+import dip.world.World;
+import dip.world.metadata.GameMetadata;
+import dip.world.variant.VariantManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Headless bulk import of Judge files.
+ * <p>
+ * Walks a directory tree and imports every matching file with
+ * {@link JudgeImport}, on a fixed pool of threads. Each file is imported
+ * on its own, so a file that cannot be parsed is reported and does not
+ * stop the others.
+ * <p>
+ * Listings and histories become new games, which are saved under the
+ * output directory at the same relative path, with the save-game
+ * extension added (<code>game.txt</code> is saved as
+ * <code>game.txt.jdip</code>, so that no two inputs share a save file), as
+ * soon as they are imported. Game results need the game
+ * they belong to: after all files have been read, results are matched to
+ * an imported game by judge and game name, and the game is opened again,
+ * has its results applied in phase order, and is saved (one game per
+ * thread). Only the games being worked on are held in memory.
+ * <p>
+ * A summary of every file, with its status and time, is printed and
+ * written to {@value #SUMMARY_FILE_NAME} in the output directory.
+ */
+public final class BulkJudgeImport {
+    private static final Logger LOG = LoggerFactory.getLogger(
+            BulkJudgeImport.class);
+
+    /**
+     * Name of the summary written to the output directory
+     */
+    public static final String SUMMARY_FILE_NAME = "import-summary.txt";
+
+    private static final String DEFAULT_GLOB = "*";
+
+    /**
+     * Charset Judge files are read with, unless another is given. Judge
+     * output is ASCII; ISO-8859-1 also reads any other byte.
+     */
+    public static final Charset DEFAULT_CHARSET = StandardCharsets.ISO_8859_1;
+
+    /**
+     * What became of an input file
+     */
+    public enum Status {
+        /**
+         * Imported as a new game, and saved
+         */
+        IMPORTED,
+        /**
+         * Game results applied to an imported game
+         */
+        APPLIED,
+        /**
+         * Game results already contained in the imported game
+         */
+        SKIPPED,
+        /**
+         * Could not be imported or saved
+         */
+        FAILED
+    }// enum Status
+
+    private final Path inputDir;
+    private final Path outputDir;
+    private final PathMatcher matcher;
+    private final int threads;
+    private final Charset charset;
+    private final VariantManager variantManager;
+    private final OrderFactory orderFactory = OrderFactory.getDefault();
+
+
+    /**
+     * Runs a bulk import from the command line.
+     */
+    public static void main(final String[] args) {
+        String glob = DEFAULT_GLOB;
+        Charset charset = DEFAULT_CHARSET;
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<String> dirs = new ArrayList<>(2);
+
+        for (final String arg : args) {
+            if (arg.startsWith("-threads:")) {
+                threads = CommandLine.parseThreads(arg,
+                        BulkJudgeImport::printUsageAndExit);
+            } else if (arg.startsWith("-glob:")) {
+                glob = arg.substring(arg.indexOf(':') + 1);
+            } else if (arg.startsWith("-charset:")) {
+                charset = parseCharset(arg);
+            } else if (arg.startsWith("-")) {
+                printUsageAndExit();
+            } else {
+                dirs.add(arg);
+            }
+        }
+
+        if (dirs.size() != 2) {
+            printUsageAndExit();
+        }
+
+        final Path inputDir = Paths.get(dirs.get(0));
+        if (!Files.isDirectory(inputDir)) {
+            System.err.println("ERROR: not a directory: " + inputDir);
+            printUsageAndExit();
+        }
+
+        try {
+            final Summary summary = new BulkJudgeImport(inputDir,
+                    Paths.get(dirs.get(1)), glob, threads, charset).run();
+            System.out.print(summary);
+            System.exit(summary.count(Status.FAILED) == 0 ? 0 : 2);
+        } catch (final IOException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.exit(1);
+        }
+    }// main()
+
+    private static void printUsageAndExit() {
+        System.out.println(
+                "USAGE: BulkJudgeImport [-threads:n] [-glob:pattern] [-charset:name] <input-dir> <output-dir>");
+        System.out.println(
+                "  Imports every Judge file below <input-dir>; games are saved below <output-dir>.");
+        System.out.println(
+                "  -threads:n      number of import threads (default: number of processors)");
+        System.out.println(
+                "  -glob:pattern   file names to import (default: " + DEFAULT_GLOB + ")");
+        System.out.println(
+                "  -charset:name   charset of the Judge files (default: " + DEFAULT_CHARSET + ")");
+        System.out.println("");
+        System.out.println("  Examples:");
+        System.out.println(
+                "      java dip.judge.BulkJudgeImport judge-mail games");
+        System.out.println(
+                "      java dip.judge.BulkJudgeImport -threads:4 -glob:*.txt judge-mail games");
+        System.exit(1);
+    }// printUsageAndExit()
+
+    private static Charset parseCharset(final String arg) {
+        try {
+            return Charset.forName(arg.substring(arg.indexOf(':') + 1));
+        } catch (final IllegalArgumentException e) {
+            System.err.println("ERROR: unknown charset: " + arg);
+            printUsageAndExit();
+            return null;
+        }
+    }// parseCharset()
+
+
+    /**
+     * Creates a BulkJudgeImport that reads files with the
+     * {@link #DEFAULT_CHARSET}.
+     *
+     * @param inputDir  directory searched (recursively) for Judge files
+     * @param outputDir directory the games and summary are written to
+     * @param glob      glob pattern that file names must match
+     * @param threads   number of import threads
+     */
+    public BulkJudgeImport(final Path inputDir, final Path outputDir,
+                           final String glob, final int threads) {
+        this(inputDir, outputDir, glob, threads, DEFAULT_CHARSET);
+    }// BulkJudgeImport()
+
+
+    /**
+     * Creates a BulkJudgeImport.
+     *
+     * @param inputDir  directory searched (recursively) for Judge files
+     * @param outputDir directory the games and summary are written to
+     * @param glob      glob pattern that file names must match
+     * @param threads   number of import threads
+     * @param charset   charset the Judge files are read with
+     */
+    public BulkJudgeImport(final Path inputDir, final Path outputDir,
+                           final String glob, final int threads,
+                           final Charset charset) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads <= 0");
+        }
+
+        this.inputDir = Objects.requireNonNull(inputDir);
+        this.outputDir = Objects.requireNonNull(outputDir);
+        matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        this.threads = threads;
+        this.charset = Objects.requireNonNull(charset);
+        variantManager = new VariantManager();
+    }// BulkJudgeImport()
+
+
+    /**
+     * Imports all files, saves the games and writes the summary.
+     *
+     * @throws IOException if the input directory cannot be listed, or the
+     *                     output directory or summary cannot be written.
+     *                     Problems with a single file are reported in the
+     *                     summary instead.
+     */
+    public Summary run() throws IOException {
+        final long start = System.nanoTime();
+        final List<Path> files = findFiles();
+        Files.createDirectories(outputDir);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // every file on its own; new games are saved at once
+            final List<Entry> entries = join(files.stream()
+                    .map(file -> CompletableFuture
+                            .supplyAsync(() -> read(file), executor))
+                    .collect(Collectors.toList()));
+
+            // then results and saves, one game per task
+            join(groupByGame(entries).values().stream()
+                    .map(game -> CompletableFuture
+                            .runAsync(() -> complete(game), executor))
+                    .collect(Collectors.toList()));
+
+            final Summary summary = new Summary(entries, threads,
+                    System.nanoTime() - start);
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(
+                    outputDir.resolve(SUMMARY_FILE_NAME),
+                    StandardCharsets.UTF_8))) {
+                out.print(summary);
+            }
+            return summary;
+        } finally {
+            executor.shutdown();
+        }
+    }// run()
+
+
+    /**
+     * Returns the matching files below the input directory, in path order.
+     */
+    private List<Path> findFiles() throws IOException {
+        try (Stream<Path> paths = Files.walk(inputDir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> matcher.matches(path.getFileName()))
+                    .sorted().collect(Collectors.toList());
+        }
+    }// findFiles()
+
+    private static <T> List<T> join(final List<CompletableFuture<T>> futures) {
+        return futures.stream().map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }// join()
+
+
+    /**
+     * Imports a single file without a current game. Listings and
+     * histories produce a World, which is saved; results only identify
+     * their game.
+     */
+    private Entry read(final Path file) {
+        final Entry entry = new Entry(inputDir.relativize(file));
+        final long start = System.nanoTime();
+        try {
+            final JudgeImport ji = importFile(file, null);
+            final GameMetadata gmd = ji.getWorld().getGameMetadata();
+            entry.gameKey = gameKey(gmd.getJudgeName(), gmd.getGameName());
+
+            if (Objects.equals(ji.getResult(), JudgeImport.JI_RESULT_NEWWORLD)) {
+                entry.phase = ji.getWorld().getLastTurnState().getPhase();
+                save(entry, ji.getWorld());
+            } else if (Objects.equals(ji.getResult(),
+                    JudgeImport.JI_RESULT_LOADOTHER)) {
+                entry.phase = Phase.parse(ji.getGameInfo()).orElseThrow(
+                        () -> new IOException("no phase in " + ji.getGameInfo()));
+            } else {
+                throw new IOException("unexpected import result " + ji.getResult());
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOG.debug("import failed: {}", file, e);
+            entry.fail(e);
+        }
+        entry.nanos += System.nanoTime() - start;
+        return entry;
+    }// read()
+
+
+    /**
+     * Applies a game's results, in phase order, to the imported game with
+     * the latest phase. The game is opened again from its saved file, and
+     * saved once more if any results were applied.
+     */
+    private void complete(final List<Entry> game) {
+        final List<Entry> results = game.stream()
+                .filter(entry -> entry.status == null && entry.phase != null)
+                .sorted(Comparator.comparing(entry -> entry.phase))
+                .collect(Collectors.toList());
+        if (results.isEmpty()) {
+            return;
+        }
+
+        final Entry base = game.stream()
+                .filter(entry -> entry.status == Status.IMPORTED)
+                .max(Comparator.comparing(entry -> entry.phase)).orElse(null);
+        World world = null;
+        if (base != null) {
+            final long start = System.nanoTime();
+            try {
+                world = World.open(base.saved.toFile(), variantManager,
+                        orderFactory);
+            } catch (final IOException | RuntimeException e) {
+                LOG.debug("reopen failed: {}", base.path, e);
+                results.forEach(entry -> entry.fail(new IOException(
+                        "cannot reopen " + base.saved + ": " + e.getMessage(),
+                        e)));
+                return;
+            } finally {
+                base.nanos += System.nanoTime() - start;
+            }
+        }
+
+        for (final Entry entry : results) {
+            apply(entry, base, world);
+        }
+
+        if (results.stream().anyMatch(entry -> entry.status == Status.APPLIED)) {
+            save(base, world);
+        }
+    }// complete()
+
+    private void apply(final Entry results, final Entry base,
+                       final World world) {
+        final long start = System.nanoTime();
+        try {
+            if (base == null) {
+                throw new IOException("no imported game " + results.gameKey);
+            }
+
+            final JudgeImport ji = importFile(inputDir.resolve(results.path),
+                    world);
+            if (Objects.equals(ji.getResult(), JudgeImport.JI_RESULT_THISWORLD)) {
+                results.status = Status.APPLIED;
+                results.message = base.path.toString();
+            } else if (Objects.equals(ji.getResult(),
+                    JudgeImport.JI_RESULT_TRYREWIND)) {
+                results.status = Status.SKIPPED;
+                results.message = "already in " + base.path;
+            } else {
+                throw new IOException(
+                        "phase " + results.phase + " does not follow " + base.path);
+            }
+        } catch (final IOException | RuntimeException e) {
+            LOG.debug("results failed: {}", results.path, e);
+            results.fail(e);
+        }
+        results.nanos += System.nanoTime() - start;
+    }// apply()
+
+    /**
+     * Saves the World of an entry, and marks it as imported.
+     */
+    private void save(final Entry entry, final World world) {
+        final long start = System.nanoTime();
+        try {
+            final Path target = outputDir.resolve(saveName(entry.path));
+            final Path parent = target.getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            World.save(target.toFile(), world);
+            entry.saved = target;
+            entry.status = Status.IMPORTED;
+            entry.message = outputDir.relativize(target).toString();
+        } catch (final IOException | RuntimeException e) {
+            LOG.debug("save failed: {}", entry.path, e);
+            entry.fail(e);
+        }
+        entry.nanos += System.nanoTime() - start;
+    }// save()
+
+    private JudgeImport importFile(final Path file,
+                                   final World currentWorld) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, charset)) {
+            return new JudgeImport(orderFactory, variantManager, reader,
+                    currentWorld);
+        }
+    }// importFile()
+
+
+    /**
+     * Groups entries by game. Failed entries, and entries without a judge
+     * and game name, are each a group of their own.
+     */
+    private static Map<String, List<Entry>> groupByGame(final List<Entry> entries) {
+        final Map<String, List<Entry>> games = new LinkedHashMap<>();
+        for (final Entry entry : entries) {
+            final String key = entry.status != Status.FAILED && entry.gameKey != null ?
+                    entry.gameKey : "\0" + entry.path;
+            games.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+        }
+        return games;
+    }// groupByGame()
+
+    private static String gameKey(final String judgeName, final String gameName) {
+        if (judgeName == null || gameName == null) {
+            return null;
+        }
+        return (judgeName + ':' + gameName).toLowerCase();
+    }// gameKey()
+
+    /**
+     * The input path, with the save-game extension added. The input's own
+     * extension is kept, so inputs that differ only by extension are not
+     * saved to the same file.
+     */
+    private static Path saveName(final Path path) {
+        return path.resolveSibling(path.getFileName().toString() + '.' +
+                SimpleFileFilter.SAVE_GAME_FILTER.getExtension());
+    }// saveName()
+
+
+    /**
+     * State of one input file. Each Entry is only touched by one thread at
+     * a time: the thread reading the file, then the thread completing its
+     * game. The phase is that of the results, or the last phase of an
+     * imported game.
+     */
+    private static final class Entry {
+        private final Path path;
+        private String gameKey;
+        private Phase phase;
+        private Path saved;
+        private Status status;
+        private String message = "";
+        private long nanos;
+
+        private Entry(final Path path) {
+            this.path = path;
+        }
+
+        private void fail(final Exception e) {
+            status = Status.FAILED;
+            message = e.getMessage() == null ? e.toString() : e.getMessage();
+        }
+    }// nested class Entry
+
+
+    /**
+     * Outcome of a bulk import: one line per file, then totals.
+     */
+    public static final class Summary {
+        private final List<Entry> entries;
+        private final int threads;
+        private final long wallNanos;
+
+        private Summary(final List<Entry> entries, final int threads,
+                        final long wallNanos) {
+            this.entries = entries;
+            this.threads = threads;
+            this.wallNanos = wallNanos;
+        }
+
+        /**
+         * Number of files with the given status
+         */
+        public int count(final Status status) {
+            return (int) entries.stream()
+                    .filter(entry -> entry.status == status).count();
+        }// count()
+
+        /**
+         * Total number of files
+         */
+        public int size() {
+            return entries.size();
+        }// size()
+
+        /**
+         * Time from the start of the import to the end of the last save
+         */
+        public long getWallMillis() {
+            return wallNanos / 1000000L;
+        }// getWallMillis()
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder(64 * (entries.size() + 8));
+            for (final Entry entry : entries) {
+                sb.append(entry.status).append('\t')
+                        .append(entry.nanos / 1000000L).append(" ms\t")
+                        .append(entry.path).append('\t')
+                        .append(entry.message).append('\n');
+            }
+
+            final long fileNanos = entries.stream()
+                    .mapToLong(entry -> entry.nanos).sum();
+            sb.append('\n');
+            sb.append("files:    ").append(size()).append('\n');
+            for (final Status status : Status.values()) {
+                sb.append(String.format("%-10s%d%n",
+                        status.toString().toLowerCase() + ':', count(status)));
+            }
+            sb.append(String.format("threads:  %d%n", threads));
+            sb.append(String.format("time:     %.1f s (%.1f s total per-file time), %.1f files/s%n",
+                    wallNanos / 1e9, fileNanos / 1e9,
+                    wallNanos == 0 ? 0.0 : size() / (wallNanos / 1e9)));
+            return sb.toString();
+        }// toString()
+    }// nested class Summary
+
+}// class BulkJudgeImport
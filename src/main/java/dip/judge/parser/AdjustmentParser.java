@@ -22,7 +22,6 @@
 //
 package dip.judge.parser;
 
-import com.codepoetics.protonpack.StreamUtils;
 import dip.world.Power;
 import dip.world.WorldMap;
 
@@ -30,7 +29,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.StringReader;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -62,12 +60,21 @@ public class AdjustmentParser {
      */
     public static final String ADJUST_REGEX = "(?i)([\\p{Alnum}\\-_]*):\\D*(\\d+)\\D+(\\d+)\\D+((\\d+)).*\\.";
 
+    /**
+     * Splits the ownership block into tokens
+     */
+    private static final String OWNER_TOKEN_SPLIT_REGEX = "[ \f\t\n\r]+";
+
+    /**
+     * Splits the owned province list
+     */
+    private static final String PROVINCE_SPLIT_REGEX = "[\\,]";
+
 
     // INSTANCE VARIABLES
     private final WorldMap map;
 
     private final List<OwnerInfo> ownerList;
-    private final Pattern regexAdjust;
 
     private final List<OwnerInfo> ownerInfo;
     private final List<AdjustInfo> adjustInfo;
@@ -85,11 +92,8 @@ public class AdjustmentParser {
         ownerList = new LinkedList<>();
         final List<AdjustInfo> adjustList = new LinkedList<>();
 
-        // create patterns
-        regexAdjust = Pattern.compile(ADJUST_REGEX);
-
-        // Create HEADER_REGEX pattern
-        final Pattern header = Pattern.compile(HEADER_REGEX);
+        // HEADER_REGEX pattern
+        final Pattern header = ParserPatterns.get(HEADER_REGEX);
 
         // search for HEADER_REGEX
         // create a block of text
@@ -100,17 +104,7 @@ public class AdjustmentParser {
             final Matcher m = header.matcher(line);
             if (m.lookingAt()) {
                 parseOwnerBlock(ParserUtils.parseBlock(br));
-
-
-//
-                adjustList.addAll(StreamUtils.takeWhile(
-                        Arrays.stream(ParserUtils.parseBlock(br).split("\\n"))
-                                .map(regexAdjust::matcher), Matcher::find)
-                        .map(ml -> new AdjustInfo(ml.group(1),
-                                Integer.parseInt(ml.group(2)),
-                                Integer.parseInt(ml.group(3)),
-                                Integer.parseInt(ml.group(4))))
-                        .collect(Collectors.toList()));
+                parseAdjustBlock(ParserUtils.parseBlock(br), adjustList);
                 break;
             }
 
@@ -251,6 +245,27 @@ public class AdjustmentParser {
     }// nested class AdjustInfo
 
 
+    /**
+     * Given a trimmed block, determines adjustments. Lines are matched
+     * in place; parsing stops at the first line that does not match.
+     */
+    private static void parseAdjustBlock(final String text,
+                                         final List<AdjustInfo> adjustList) {
+        final Matcher m = ParserPatterns.get(ADJUST_REGEX).matcher(text);
+        for (int start = 0, end; start < text.length(); start = end + 1) {
+            end = ParserUtils.lineEnd(text, start);
+            if (!m.region(start, end).find()) {
+                break;
+            }
+
+            adjustList.add(new AdjustInfo(m.group(1),
+                    Integer.parseInt(m.group(2)),
+                    Integer.parseInt(m.group(3)),
+                    Integer.parseInt(m.group(4))));
+        }
+    }// parseAdjustBlock()
+
+
     /**
      * Given a trimmed block, determines ownership
      */
@@ -263,7 +278,8 @@ public class AdjustmentParser {
         //
         Power currentPower = null;
         ;
-        for (final String tok : text.split("[ \f\t\n\r]+")) {
+        for (final String tok : ParserPatterns.get(OWNER_TOKEN_SPLIT_REGEX)
+                .split(text)) {
             if (tok.equalsIgnoreCase("unowned:")) {
                 // we don't process unowned SC yet. I'm not sure that
                 // all judges support this??
@@ -302,7 +318,8 @@ public class AdjustmentParser {
                 // remove parentheses (put on blockaded SC in games with Wings)
                 // create OwnerInfo
                 ownerList.add(new OwnerInfo(allPower.getName(),
-                        Arrays.stream(sb.toString().split("[\\,]"))
+                        ParserPatterns.get(PROVINCE_SPLIT_REGEX)
+                                .splitAsStream(sb)
                                 .map(String::trim)
                                 .map(prov -> prov.endsWith(".") || prov
                                         .endsWith(")") ? prov
@@ -34,7 +34,6 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.StringTokenizer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -181,15 +180,15 @@ public class DislodgedParser {
     private void parseInput(final String input) throws IOException {
         LOG.debug("DislodgedParser::parseInput()");
 
-        // Create HEADER_REGEX pattern, HEADER_END_REGEX pattern
-        final Pattern header = Pattern.compile(HEADER_REGEX);
-        final Pattern endHeader = Pattern.compile(HEADER_END_REGEX);
+        // HEADER_REGEX pattern, HEADER_END_REGEX pattern
+        final Pattern header = ParserPatterns.get(HEADER_REGEX);
+        final Pattern endHeader = ParserPatterns.get(HEADER_END_REGEX);
 
         // search for HEADER_REGEX
         // keep searching until we find an empty line, or HEADER_END_REGEX.
         //
         final BufferedReader br = new BufferedReader(new StringReader(input));
-        final StringBuffer accum = new StringBuffer(2048);
+        final StringBuilder accum = new StringBuilder(2048);
 
         String line = br.readLine();
         while (line != null) {
@@ -250,27 +249,28 @@ public class DislodgedParser {
         // create a list of Dislodged units
         final List<DislodgedInfo> disList = new LinkedList<>();
 
-        // Create patterns
-        final List<Pattern> destroyeds = Arrays
-                .asList(Pattern.compile(DESTROYED_REGEX_1),
-                        Pattern.compile(DESTROYED_REGEX_2));
+        // Create matchers over the accumulated text; each line is
+        // matched in place by setting the matcher region.
+        final List<Matcher> destroyeds = Arrays
+                .asList(ParserPatterns.get(DESTROYED_REGEX_1).matcher(accum),
+                        ParserPatterns.get(DESTROYED_REGEX_2).matcher(accum));
 
-        final Pattern dislodged = Pattern.compile(DISLODGED_REGEX);
+        final Matcher dislodged = ParserPatterns.get(DISLODGED_REGEX)
+                .matcher(accum);
 
         // parse accum line-by-line, looking for DESTROYED_REGEX and
         // DISLODGED_REGEX.
         //
-        accum.toString().split("\n+");
-        final StringTokenizer st = new StringTokenizer(accum.toString(), "\n");
-        while (st.hasMoreTokens()) {
-            line = st.nextToken();
-
-            //System.out.println("LINE: "+line);
+        for (int start = 0, end; start < accum.length(); start = end + 1) {
+            end = ParserUtils.lineEnd(accum, start);
+            if (end == start) {
+                continue;    // empty line
+            }
 
             boolean foundMatch = false;
 
-            for (final Pattern destroyed : destroyeds) {
-                final Matcher m = destroyed.matcher(line);
+            for (final Matcher m : destroyeds) {
+                m.region(start, end);
                 if (m.lookingAt()) {
                     disList.add(new DislodgedInfo(m.group(1), m.group(2),
                             ParserUtils.filter(m.group(3).trim()),
@@ -282,11 +282,12 @@ public class DislodgedParser {
             }
 
             if (!foundMatch) {
-                final Matcher m = dislodged.matcher(line);
+                final Matcher m = dislodged.region(start, end);
                 if (m.lookingAt()) {
                     // parse location-list predicate
                     final List<String> retlocs = Arrays
-                            .stream(m.group(4).split(DISLODGED_SPLIT_REGEX))
+                            .stream(ParserPatterns.get(DISLODGED_SPLIT_REGEX)
+                                    .split(m.group(4)))
                             .map(ParserUtils::filter)
                             .collect(Collectors.toList());
 
@@ -298,7 +299,8 @@ public class DislodgedParser {
 
             if (!foundMatch) {
                 throw new IOException(
-                        "Could not parse dislodged order: \"" + line + "\"");
+                        "Could not parse dislodged order: \"" + accum
+                                .subSequence(start, end) + "\"");
             }
         }// while()
 
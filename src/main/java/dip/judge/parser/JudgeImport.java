@@ -88,6 +88,7 @@ public final class JudgeImport {
 
     // Instance variables
     private OrderFactory orderFactory;
+    private VariantManager variantManager;
     private JudgeParser jp;
     private World world;
     private World currentWorld;
@@ -117,7 +118,22 @@ public final class JudgeImport {
      */
     public JudgeImport(final OrderFactory orderFactory, final Reader reader,
                        final World currentWorld) throws IOException {
+        this(orderFactory, new VariantManager(), reader, currentWorld);
+    }// JudgeImport()
+
+
+    /**
+     * Creates a JudgeImport object from a generic Reader, looking up the
+     * game's Variant in the given VariantManager. Callers importing many
+     * files should share one VariantManager, since creating one parses
+     * every variant description.
+     */
+    public JudgeImport(final OrderFactory orderFactory,
+                       final VariantManager variantManager,
+                       final Reader reader,
+                       final World currentWorld) throws IOException {
         this.orderFactory = orderFactory;
+        this.variantManager = Objects.requireNonNull(variantManager);
         this.currentWorld = currentWorld;
         jp = new JudgeParser(orderFactory, reader);
         procJudgeInput();
@@ -148,7 +164,7 @@ public final class JudgeImport {
      */
     private void procJudgeInput() throws IOException {
         // determine if we can load the variant
-        final Variant variant = new VariantManager()
+        final Variant variant = variantManager
                 .getVariant(jp.getVariantName(), VariantManager.VERSION_NEWEST)
                 .orElse(null);
         if (variant == null) {
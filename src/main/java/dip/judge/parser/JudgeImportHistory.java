@@ -243,7 +243,7 @@ public final class JudgeImportHistory {
                     turns.get(turns.size() - 3), true);
         }
 
-        final Pattern endofgame = Pattern.compile(END_FOF_GAME);
+        final Pattern endofgame = ParserPatterns.get(END_FOF_GAME);
 
         final Matcher e = endofgame
                 .matcher(turns.get(turns.size() - 1).getText());
@@ -1058,9 +1058,9 @@ public final class JudgeImportHistory {
         // Since this is the adjustment phase, check for supply center change. Required for VictoryConditions
         // Otherwise, problems can arise and the game will end after importing due to no SC change.
         if (!positionPlacement) {
-            TurnState previousTS = world.getPreviousTurnState(ts).get();
+            TurnState previousTS = getPreviousTurnState(ts);
             while (previousTS.getPhase().getPhaseType() != PhaseType.MOVEMENT) {
-                previousTS = world.getPreviousTurnState(previousTS).get();
+                previousTS = getPreviousTurnState(previousTS);
             }
             //System.out.println(previousTS.getPhase());
             final Position oldPosition = previousTS.getPosition();
@@ -1091,6 +1091,28 @@ public final class JudgeImportHistory {
     }// procAdjust()
 
 
+    /**
+     * Returns the TurnState of the latest phase before the given one, in
+     * game order, or null if there is none (e.g., initial turn).
+     * <p>
+     * World orders its phases with Phase.compareTo(), which puts the
+     * Adjustment phase of a season before its Movement phase; the
+     * previous phases are therefore found with Phase.getPrevious().
+     */
+    private TurnState getPreviousTurnState(final TurnState current) {
+        Phase phase = current.getPhase();
+        // phases may be skipped, but never a whole year
+        for (int i = 0; i < Phase.getAllSeasonPhaseCombos().size(); i++) {
+            phase = phase.getPrevious();
+            final TurnState ts = world.getTurnState(phase);
+            if (ts != null) {
+                return ts;
+            }
+        }
+        return null;
+    }// getPreviousTurnState()
+
+
     /**
      * Clones all non-dislodged units from previous phase TurnState
      * and inserts them into the current turnstate.
@@ -1100,8 +1122,7 @@ public final class JudgeImportHistory {
      */
     private void copyPreviousPositions(final TurnState current) {
         // get previous turnstate
-        final TurnState previousTS = current.getWorld()
-                .getPreviousTurnState(current).get();
+        final TurnState previousTS = getPreviousTurnState(current);
         final boolean isCopyDislodged = current.getPhase()
                 .getPhaseType() != PhaseType.ADJUSTMENT;
 
@@ -1150,8 +1171,7 @@ public final class JudgeImportHistory {
         LOG.debug("copyPreviousSCInfo(): {}", current.getPhase());
 
         // get previous position information (or initial, if previous not available)
-        final TurnState previousTS = current.getWorld()
-                .getPreviousTurnState(current).get();
+        final TurnState previousTS = getPreviousTurnState(current);
         final Position prevPos = previousTS == null ? oldPosition : previousTS
                 .getPosition();
 
@@ -1192,8 +1212,7 @@ public final class JudgeImportHistory {
      * Copies the Previous turnstate's lastOccupier information only
      */
     private void copyPreviousLastOccupierInfo(final TurnState current) {
-        final TurnState previousTS = current.getWorld()
-                .getPreviousTurnState(current).get();
+        final TurnState previousTS = getPreviousTurnState(current);
         final Position newPos = current.getPosition();
         final Position oldPos = previousTS == null ? oldPosition : previousTS
                 .getPosition();
@@ -1363,7 +1382,7 @@ public final class JudgeImportHistory {
         Phase phase = null;
 
         // determine the next phase by reading through the turn text.
-        final Pattern pattern = Pattern.compile(START_POSITIONS);
+        final Pattern pattern = ParserPatterns.get(START_POSITIONS);
         final Matcher m = pattern.matcher(jp.getText());
 
         if (m.find()) {
@@ -1416,7 +1435,7 @@ public final class JudgeImportHistory {
         Phase phase = null;
 
         // determine the next phase by reading through the turn text.
-        final Pattern pattern = Pattern.compile(PARSE_REGEX);
+        final Pattern pattern = ParserPatterns.get(PARSE_REGEX);
 
         final Matcher m = pattern.matcher(lastTurn.getText());
 
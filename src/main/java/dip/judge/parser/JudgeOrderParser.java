@@ -143,9 +143,9 @@ public class JudgeOrderParser {
             final String input) throws IOException, PatternSyntaxException {
         // search for header input. once found, shuttle all input to the appropriate
         // handler type.
-        final Pattern hm = Pattern.compile(MOVE_ORDER_HEADER);
-        final Pattern hr = Pattern.compile(RETREAT_ORDER_HEADER);
-        final Pattern ha = Pattern.compile(ADJUSTMENT_ORDER_HEADER);
+        final Pattern hm = ParserPatterns.get(MOVE_ORDER_HEADER);
+        final Pattern hr = ParserPatterns.get(RETREAT_ORDER_HEADER);
+        final Pattern ha = ParserPatterns.get(ADJUSTMENT_ORDER_HEADER);
 
         // create List
         final List<NJudgeOrder> orderList = new ArrayList<>(64);
@@ -190,7 +190,7 @@ public class JudgeOrderParser {
      */
     private void parseOrders(final BufferedReader br, final PhaseType phaseType,
                              final List<NJudgeOrder> orderList) throws IOException, PatternSyntaxException {
-        final Pattern prefix = Pattern.compile(ORDER_PREFIX);
+        final Pattern prefix = ParserPatterns.get(ORDER_PREFIX);
 
         String line = ParserUtils.getNextLongLine(br).trim();
 
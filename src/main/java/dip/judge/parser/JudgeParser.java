@@ -54,6 +54,18 @@ public class JudgeParser {
     // constants
     private static final String JP_NO_COLONS = "JP.jp.nocolons";
 
+    /**
+     * The "::" line; case-insensitive.<br>
+     * Capture groups: 1:judge 2:game 3:variant<br>
+     * double () on last capture group because of buggy behavior!? WTF?
+     */
+    private static final String DOUBLE_COLON_REGEX = "\\W*judge\\W*(\\S*)\\W*game\\W*(\\S*)\\W*variant\\W*((\\S*))";
+
+    /**
+     * Start of the player list
+     */
+    private static final String PLAYER_LIST_REGEX = "(?i)following players";
+
     // instance variables
     private static final int READ_AHEAD_LENGTH = 7200;
     private final BufferedReader reader;
@@ -175,18 +187,13 @@ public class JudgeParser {
      * found, an IOException is thrown.
      */
     private void findDoubleColonLine() throws IOException, PatternSyntaxException {
-        // regex pattern
-        // regex is case-insensitive
-        // capture groups are in order
-        // double () on last capture group because of buggy behavior!? WTF?
-        final Pattern pattern = Pattern.compile(
-                "\\W*judge\\W*(\\S*)\\W*game\\W*(\\S*)\\W*variant\\W*((\\S*))",
-                Pattern.CASE_INSENSITIVE);
+        final Pattern pattern = ParserPatterns
+                .get(DOUBLE_COLON_REGEX, Pattern.CASE_INSENSITIVE);
 
         // find :: line
         String line = reader.readLine();
         while (line != null) {
-            if (line.trim().indexOf("::") >= 0) {
+            if (line.contains("::")) {
                 // attempt to parse via regex. If it fails, read another line.
                 final Matcher m = pattern.matcher(line);
                 if (m.find()) {
@@ -211,7 +218,7 @@ public class JudgeParser {
      */
     private void findPlayerList() throws IOException, PatternSyntaxException {
         // our pattern for finding the player list
-        final Pattern pattern = Pattern.compile("(?i)following players");
+        final Pattern pattern = ParserPatterns.get(PLAYER_LIST_REGEX);
 
         reader.mark(READ_AHEAD_LENGTH);
         int count = 0;
@@ -290,8 +297,7 @@ public class JudgeParser {
         while (line != null && count < READ_AHEAD_LENGTH) {
             // first check: Date
             count += line.length();
-            final int pos1 = line.toLowerCase().indexOf("date:");
-            if (pos1 >= 0 && pos1 < 10) {
+            if (ParserUtils.containsIgnoreCase(line, "date:", 10)) {
                 //System.out.println("Date Found");
                 // read next line; should be "subject" line
                 final String line2 = reader.readLine();
@@ -302,8 +308,7 @@ public class JudgeParser {
                 count += line2.length();
 
                 // second check: Subject:
-                final int pos2 = line2.toLowerCase().indexOf("subject:");
-                if (pos2 >= 0 && pos2 < 10) {
+                if (ParserUtils.containsIgnoreCase(line2, "subject:", 10)) {
                     type = JP_TYPE_HISTORY;
 
                     String sb = line +
@@ -328,11 +333,12 @@ public class JudgeParser {
 
         // we are not a history.
         // Next we try to find a result header.
-        final Pattern hm = Pattern.compile(JudgeOrderParser.MOVE_ORDER_HEADER);
-        final Pattern hr = Pattern
-                .compile(JudgeOrderParser.RETREAT_ORDER_HEADER);
-        final Pattern ha = Pattern
-                .compile(JudgeOrderParser.ADJUSTMENT_ORDER_HEADER);
+        final Pattern hm = ParserPatterns
+                .get(JudgeOrderParser.MOVE_ORDER_HEADER);
+        final Pattern hr = ParserPatterns
+                .get(JudgeOrderParser.RETREAT_ORDER_HEADER);
+        final Pattern ha = ParserPatterns
+                .get(JudgeOrderParser.ADJUSTMENT_ORDER_HEADER);
 
         reader.reset();
         count = 0;
@@ -340,12 +346,9 @@ public class JudgeParser {
         while (line != null && count < READ_AHEAD_LENGTH) {
             count += line.length();
             line = line.trim();    // needed for Patterns to work properly
-            final Matcher m_hm = hm.matcher(line);
-            final Matcher m_hr = hr.matcher(line);
-            final Matcher m_ha = ha.matcher(line);
-            if (m_hm.lookingAt() ||
-                    m_hr.lookingAt() ||
-                    m_ha.lookingAt()) {
+            if (hm.matcher(line).lookingAt() ||
+                    hr.matcher(line).lookingAt() ||
+                    ha.matcher(line).lookingAt()) {
                 type = JP_TYPE_RESULTS;
                 phase = Phase.parse(line.substring(0, line.indexOf(".")))
                         .orElse(null);
@@ -362,10 +365,10 @@ public class JudgeParser {
         }
 
         // Try to find a game starting message
-        final Pattern gs = Pattern
-                .compile(JudgeOrderParser.GAME_STARTING_HEADER);
-        final Pattern sp = Pattern
-                .compile(JudgeOrderParser.STARTING_POSITION_REGEX);
+        final Pattern gs = ParserPatterns
+                .get(JudgeOrderParser.GAME_STARTING_HEADER);
+        final Pattern sp = ParserPatterns
+                .get(JudgeOrderParser.STARTING_POSITION_REGEX);
 
         reader.reset();
         count = 0;
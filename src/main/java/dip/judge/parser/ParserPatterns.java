@@ -0,0 +1,81 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.judge.parser;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Registry of compiled regular expressions shared by the Judge parsers.
+ * <p>
+ * Parsers keep their expressions as public String constants; this class
+ * compiles each (expression, flags) pair once and hands out the same
+ * Pattern afterwards. Pattern objects are immutable, so they may be used
+ * from any number of threads; only Matchers must not be shared.
+ */
+final class ParserPatterns {
+    private static final ConcurrentMap<Key, Pattern> PATTERNS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the compiled Pattern for the given regular expression.
+     */
+    static Pattern get(final String regex) {
+        return get(regex, 0);
+    }// get()
+
+    /**
+     * Returns the compiled Pattern for the given regular expression and
+     * Pattern flags.
+     */
+    static Pattern get(final String regex, final int flags) {
+        return PATTERNS.computeIfAbsent(new Key(regex, flags),
+                key -> Pattern.compile(key.regex, key.flags));
+    }// get()
+
+
+    private static final class Key {
+        private final String regex;
+        private final int flags;
+
+        private Key(final String regex, final int flags) {
+            this.regex = Objects.requireNonNull(regex);
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) obj;
+            return flags == key.flags && regex.equals(key.regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regex.hashCode() + flags;
+        }
+    }// nested class Key
+
+
+    private ParserPatterns() {
+    }
+}// class ParserPatterns
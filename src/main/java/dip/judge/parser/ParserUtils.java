@@ -69,8 +69,8 @@ public class ParserUtils {
     /**
      * Coalesces whitespace, and ensures that it's only spaces and not any other type
      */
-    public static String filter(final String in) {
-        final StringBuffer sb = new StringBuffer(in.length());
+    public static String filter(final CharSequence in) {
+        final StringBuilder sb = new StringBuilder(in.length());
         for (int i = 0; i < in.length(); i++) {
             final char c = in.charAt(i);
             if (Character.isWhitespace(c)) {
@@ -104,6 +104,41 @@ public class ParserUtils {
     }// getNextLongLine()
 
 
+    /**
+     * Returns true if the given lower-case key occurs in the line, ignoring
+     * case, at an index less than <code>limit</code>. This is
+     * <code>line.toLowerCase().indexOf(key)</code> without the lower-cased copy.
+     */
+    public static boolean containsIgnoreCase(final String line,
+                                             final String key,
+                                             final int limit) {
+        final int last = Math.min(limit - 1, line.length() - key.length());
+        for (int i = 0; i <= last; i++) {
+            if (line.regionMatches(true, i, key, 0, key.length())) {
+                return true;
+            }
+        }
+        return false;
+    }// containsIgnoreCase()
+
+
+    /**
+     * Returns the end index (exclusive) of the line beginning at
+     * <code>start</code>; that is, the index of the next '\n' or the
+     * length of the text. Used to set Matcher regions line by line, so
+     * that a block of text can be matched without splitting it into Strings.
+     */
+    public static int lineEnd(final CharSequence text, final int start) {
+        final int length = text.length();
+        for (int i = start; i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                return i;
+            }
+        }
+        return length;
+    }// lineEnd()
+
+
     private ParserUtils() {
     }// class ParserUtils
 }// class ParserUtils
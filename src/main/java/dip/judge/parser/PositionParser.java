@@ -76,8 +76,8 @@ public class PositionParser {
             final String input) throws IOException, PatternSyntaxException {
         // search for header input. once found, shuttle all input to the appropriate
         // handler type.
-        final Pattern pp1 = Pattern.compile(HEADER_REGEX_1);
-        final Pattern pp2 = Pattern.compile(HEADER_REGEX_2);
+        final Pattern pp1 = ParserPatterns.get(HEADER_REGEX_1);
+        final Pattern pp2 = ParserPatterns.get(HEADER_REGEX_2);
 
         // init
         final List<PositionInfo> posList = new LinkedList<>();
@@ -179,7 +179,7 @@ public class PositionParser {
      */
     private void parsePositions(final BufferedReader br,
                                 final List<PositionInfo> posList) throws IOException, PatternSyntaxException {
-        final Pattern mrp = Pattern.compile(PARSE_REGEX);
+        final Pattern mrp = ParserPatterns.get(PARSE_REGEX);
 
         String line = ParserUtils.getNextLongLine(br);
         while (line != null) {
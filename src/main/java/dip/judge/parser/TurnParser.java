@@ -73,10 +73,10 @@ public class TurnParser {
      */
     public TurnParser(final String input) throws IOException {
         // patterns
-        final Pattern subjPhasePattern = Pattern.compile(SUBJ_PHASE_REGEX);
-        final Pattern subjPhasePatternOld = Pattern
-                .compile(SUBJ_PHASE_REGEX_OLD);
-        final Pattern isResultsPattern = Pattern.compile(RESULT_SUBJ_REGEX);
+        final Pattern subjPhasePattern = ParserPatterns.get(SUBJ_PHASE_REGEX);
+        final Pattern subjPhasePatternOld = ParserPatterns
+                .get(SUBJ_PHASE_REGEX_OLD);
+        final Pattern isResultsPattern = ParserPatterns.get(RESULT_SUBJ_REGEX);
 
 
         final LinkedList<Turn> turnList = new LinkedList<>();
@@ -89,13 +89,13 @@ public class TurnParser {
         Turn lastTurn = null;            // previous turn
 
         while (line != null) {
-            final int pos = line.toLowerCase().indexOf("date:");
-            if (pos >= 0 && pos < 10) {
+            if (ParserUtils.containsIgnoreCase(line, "date:", 10)) {
                 turn.setDateLine(line);
 
                 // set the subject line; if not present, throw an error (shouldn't occur)
                 final String nextLine = reader.readLine();
-                if (!nextLine.toLowerCase().contains("subject:")) {
+                if (!ParserUtils.containsIgnoreCase(nextLine, "subject:",
+                        nextLine.length())) {
                     throw new IOException(Utils.getLocalString(TP_NO_SUBJECT));
                 } else if (isResultsPattern.matcher(nextLine).find()) {
                     turn.setSubjectLine(nextLine);
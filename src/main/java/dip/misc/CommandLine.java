@@ -0,0 +1,47 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.misc;
+
+/**
+ * Argument parsing shared by the command-line tools.
+ */
+public final class CommandLine {
+    private CommandLine() {
+    }
+
+    /**
+     * Parses a <code>-threads:n</code> argument. If it is not a number
+     * greater than 0, an error is printed and <code>usage</code> is run;
+     * it is expected to exit.
+     */
+    public static int parseThreads(final String arg, final Runnable usage) {
+        int n = -1;
+        try {
+            n = Integer.parseInt(arg.substring(arg.indexOf(':') + 1));
+        } catch (final NumberFormatException e) {
+            System.err.println("ERROR: invalid argument: " + arg);
+            usage.run();
+        }
+
+        if (n <= 0) {
+            System.err.println("Thread count must be greater than 0");
+            usage.run();
+        }
+
+        return n;
+    }// parseThreads()
+
+}// class CommandLine
@@ -106,6 +106,14 @@ public enum Resources {
                 .collect(Collectors.toSet());
     }
 
+    /**
+     * Returns the resources of one classpath entry, a directory or a jar.
+     */
+    public static Set<URL> getResourceURLs(final Path entry,
+                                           final Predicate<URL> filter) {
+        return iterateEntry(entry, filter);
+    }
+
     public static Set<URL> getResourceURLs(final Class<?> rootClass,
                                            final Predicate<URL> filter) throws URISyntaxException {
         final CodeSource src = rootClass.getProtectionDomain().getCodeSource();
@@ -173,6 +173,7 @@ public class Build extends Order {
         // undefined types assumed to be Army
         if (srcUnitType == Type.UNDEFINED) {
             srcUnitType = Type.ARMY;
+            invalidateFormattedString();
         }
 
         // disallow wing units, if wing unit option prohibited
@@ -183,6 +184,7 @@ public class Build extends Order {
         }
 
         src = src.getValidated(srcUnitType);
+        invalidateFormattedString();
 
         // validate Borders
         final Border border = src.getProvince()
@@ -223,6 +223,7 @@ public class Convoy extends Order {
                     .orElse(null);
             convoyUnitType = getValidatedUnitType(convoySrc.getProvince(),
                     convoyUnitType, convoyUnit);
+            invalidateFormattedString();
             if (convoyUnitType != Type.ARMY) {
                 throw new OrderException(
                         Utils.getLocalString(CONVOY_ONLY_ARMIES));
@@ -232,6 +233,7 @@ public class Convoy extends Order {
             convoySrc = convoySrc
                     .getValidatedAndDerived(convoyUnitType, convoyUnit);
             convoyDest = convoyDest.getValidated(convoyUnitType);
+            invalidateFormattedString();
 
             // v.3.b: convoying to self (if we are in a convoyable coast) is illegal!
             if (srcProvince.isConvoyableCoast() && src
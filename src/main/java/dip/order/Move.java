@@ -352,6 +352,7 @@ public class Move extends Order {
 
             // a.2
             dest = dest.getValidatedWithMove(srcUnitType, src);
+            invalidateFormattedString();
 
             // check that we can transit into destination (check borders)
             final Optional<Border> border = dest.getProvince()
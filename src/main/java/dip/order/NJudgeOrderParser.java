@@ -94,6 +94,9 @@ public final class NJudgeOrderParser {
             .compile(ADJUSTMENT_REGEX);
     private static final Pattern ALTERNATE_ADJUSTMENT_PATTERN = Pattern
             .compile(ALTERNATE_ADJUSTMENT_REGEX);
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private static final Pattern RESULT_SPLIT_PATTERN = Pattern
+            .compile("\\s*,\\s*");
 
 
     // TEST harness
@@ -471,7 +474,7 @@ public final class NJudgeOrderParser {
      */
     private static String[] tokenize(final String input) {
         assert input != null;
-        return input.trim().split("\\s+");
+        return WHITESPACE_PATTERN.split(input.trim());
     }// tokenize()
 
 
@@ -616,18 +619,25 @@ public final class NJudgeOrderParser {
 
         // parse location Name. This includes the province type (which may
         // be multiple tokens) and, optionally, the coast (also multiple
-        // tokens). Periods are stripped.
+        // tokens). Periods and commas are stripped while joining, so
+        // the tokens are copied only once.
         //
-        final StringBuffer sb = new StringBuffer(64);
+        final StringBuilder sb = new StringBuilder(64);
         for (int i = start; i < end; i++) {
             if (i > start) {
                 sb.append(' ');
             }
 
-            sb.append(tokens[i]);
+            final String token = tokens[i];
+            for (int j = 0; j < token.length(); j++) {
+                final char c = token.charAt(j);
+                if (c != '.' && c != ',') {
+                    sb.append(c);
+                }
+            }
         }
 
-        return parseLocation(pc, sb.toString());
+        return parseNormalizedLocation(pc, sb.toString());
     }// parseLocation()
 
 
@@ -640,8 +650,20 @@ public final class NJudgeOrderParser {
                                           final String text) throws OrderException {
         final String replaceFrom[] = {".", ","};
         final String replaceTo[] = {"", ""};
-        final Optional<String> locationText = Coast
-                .normalize(Utils.replaceAll(text, replaceFrom, replaceTo));
+        return parseNormalizedLocation(pc,
+                Utils.replaceAll(text, replaceFrom, replaceTo));
+    }// parseLocation()
+
+
+    /**
+     * Parse a Location from text that has already had periods and
+     * commas removed.
+     * <p>
+     * This will never return null.
+     */
+    private static Location parseNormalizedLocation(final ParseContext pc,
+                                                    final String text) throws OrderException {
+        final Optional<String> locationText = Coast.normalize(text);
 
         final Location loc = locationText.flatMap(pc.map::parseLocation)
                 .orElse(null);
@@ -652,7 +674,7 @@ public final class NJudgeOrderParser {
         }
 
         return loc;
-    }// parseLocation()
+    }// parseNormalizedLocation()
 
 
     /**
@@ -1078,7 +1100,7 @@ public final class NJudgeOrderParser {
         }
 
         final String resultText = line.substring(rStart + 2, rEnd);
-        final String[] resultStrings = resultText.split("\\s*,\\s*");
+        final String[] resultStrings = RESULT_SPLIT_PATTERN.split(resultText);
 
         for (final String resultString : resultStrings) {
             results.add(resultString);
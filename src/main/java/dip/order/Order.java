@@ -94,6 +94,11 @@ public abstract class Order extends Object implements Orderable, Serializable {
      */
     protected Type srcUnitType;
 
+    /**
+     * Last formatted text, and the options it was formatted with
+     */
+    private transient volatile FormattedText formatted;
+
 
     /**
      * No-arg constructor
@@ -141,12 +146,38 @@ public abstract class Order extends Object implements Orderable, Serializable {
     //
     // Format methods
     //
+    /**
+     * Formats the order with its default format.
+     * <p>
+     * The result is cached for the last OrderFormatOptions used; it is
+     * reused as long as the same options object is passed and has not
+     * been modified since, and the order itself has not changed (see
+     * {@link #invalidateFormattedString()}).
+     */
     @Override
     public String toFormattedString(final OrderFormatOptions ofo) {
-        return OrderFormat.format(ofo, getDefaultFormat(), this);
+        final FormattedText cached = formatted;
+        if (cached != null && cached.isFor(ofo)) {
+            return cached.text;
+        }
+
+        final String text = OrderFormat.format(ofo, getDefaultFormat(), this);
+        formatted = new FormattedText(ofo, text);
+        return text;
     }// toFormattedString()
 
 
+    /**
+     * Discards the cached result of toFormattedString(). Subclasses must
+     * call this whenever they change a field that appears in the
+     * formatted order (typically when validation derives a coast or
+     * unit type).
+     */
+    protected final void invalidateFormattedString() {
+        formatted = null;
+    }// invalidateFormattedString()
+
+
     //
     // Adjudicator methods
     //
@@ -277,10 +308,12 @@ public abstract class Order extends Object implements Orderable, Serializable {
 
         // unit type matching
         srcUnitType = getValidatedUnitType(srcProvince, srcUnitType, unit);
+        invalidateFormattedString();
 
         // Location verification; derive info if missing from unit, since
         // we know it to exist.
         src = src.getValidatedAndDerived(srcUnitType, unit);
+        invalidateFormattedString();
     }// validate()
 
 
@@ -428,6 +461,27 @@ public abstract class Order extends Object implements Orderable, Serializable {
         return false;
     }// equals()
 
+
+    /**
+     * Formatted text, with the options (and their modification count)
+     * it was formatted with.
+     */
+    private static final class FormattedText {
+        private final OrderFormatOptions ofo;
+        private final int modCount;
+        private final String text;
+
+        private FormattedText(final OrderFormatOptions ofo, final String text) {
+            this.ofo = ofo;
+            modCount = ofo.getModCount();
+            this.text = text;
+        }
+
+        private boolean isFor(final OrderFormatOptions ofo) {
+            return this.ofo == ofo && modCount == ofo.getModCount();
+        }
+    }// nested class FormattedText
+
 }// abstract class Order
 
 
@@ -0,0 +1,236 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.order;
+
+import dip.world.GameDataInput;
+import dip.world.GameDataOutput;
+import dip.world.Location;
+import dip.world.Power;
+import dip.world.Province;
+import dip.world.Unit.Type;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Binary encoding of Orders for the game file format.
+ * <p>
+ * Orders are recreated with the OrderFactory of the GameDataInput, so a
+ * game saved from the GUI is read back with GUI orders. State derived
+ * during validation (e.g., the convoy intent of a Move) is written too,
+ * so that orders of resolved turns read back exactly as they were.
+ */
+public final class OrderCodec {
+    // tags are fixed by the file format; do not reorder
+    private static final int HOLD = 1;
+    private static final int MOVE = 2;
+    private static final int SUPPORT = 3;
+    private static final int CONVOY = 4;
+    private static final int RETREAT = 5;
+    private static final int DISBAND = 6;
+    private static final int BUILD = 7;
+    private static final int REMOVE = 8;
+    private static final int WAIVE = 9;
+    private static final int DEFINE_STATE = 10;
+
+    // Move flags
+    private static final int VIA_CONVOY = 1;
+    private static final int CONVOY_INTENT = 1 << 1;
+    private static final int ADJ_WITH_POSSIBLE_CONVOY = 1 << 2;
+    private static final int FMT_ADJ_WITH_CONVOY = 1 << 3;
+    private static final int HAS_LAND_ROUTE = 1 << 4;
+
+
+    private OrderCodec() {
+    }// OrderCodec()
+
+
+    /**
+     * Writes an Order. Orders should be written through
+     * {@link GameDataOutput#writeOrder(Order)}, which keeps track of
+     * references.
+     */
+    public static void write(final GameDataOutput out,
+                             final Order order) throws IOException {
+        // subclasses before their superclasses
+        if (order instanceof Retreat) {
+            writeHeader(out, RETREAT, order);
+            writeMove(out, (Move) order);
+        } else if (order instanceof Move) {
+            writeHeader(out, MOVE, order);
+            writeMove(out, (Move) order);
+        } else if (order instanceof Support) {
+            final Support support = (Support) order;
+            writeHeader(out, SUPPORT, order);
+            out.writeLocation(support.supSrc);
+            out.writePower(support.supPower);
+            out.writeUnitType(support.supUnitType);
+            out.writeLocation(support.supDest);
+            out.writeOrderRef(support.narrowingOrder);
+        } else if (order instanceof Convoy) {
+            final Convoy convoy = (Convoy) order;
+            writeHeader(out, CONVOY, order);
+            out.writeLocation(convoy.convoySrc);
+            out.writePower(convoy.convoyPower);
+            out.writeUnitType(convoy.convoyUnitType);
+            out.writeLocation(convoy.convoyDest);
+        } else if (order instanceof Hold) {
+            writeHeader(out, HOLD, order);
+        } else if (order instanceof Disband) {
+            writeHeader(out, DISBAND, order);
+        } else if (order instanceof Build) {
+            writeHeader(out, BUILD, order);
+        } else if (order instanceof Remove) {
+            writeHeader(out, REMOVE, order);
+        } else if (order instanceof Waive) {
+            writeHeader(out, WAIVE, order);
+        } else if (order instanceof DefineState) {
+            writeHeader(out, DEFINE_STATE, order);
+        } else {
+            throw new IOException(
+                    "cannot write order " + order.getClass().getName());
+        }
+    }// write()
+
+
+    /**
+     * Reads an Order. Orders should be read through
+     * {@link GameDataInput#readOrder()}, which keeps track of references.
+     */
+    public static Order read(final GameDataInput in) throws IOException {
+        final OrderFactory factory = in.getOrderFactory();
+        final int tag = in.readByte();
+        final Power power = in.readPower();
+        final Location src = in.readLocation();
+        final Type srcUnitType = in.readUnitType();
+
+        final Order order;
+        switch (tag) {
+            case MOVE: {
+                final Move move = factory
+                        .createMove(power, src, srcUnitType, in.readLocation());
+                readMove(in, move);
+                order = move;
+                break;
+            }
+            case RETREAT: {
+                final Move move = factory.createRetreat(power, src, srcUnitType,
+                        in.readLocation());
+                readMove(in, move);
+                order = move;
+                break;
+            }
+            case SUPPORT: {
+                final Location supSrc = in.readLocation();
+                final Power supPower = in.readPower();
+                final Type supUnitType = in.readUnitType();
+                final Support support = factory
+                        .createSupport(power, src, srcUnitType, supSrc,
+                                supPower, supUnitType, in.readLocation());
+                // set directly; setNarrowingOrder() rejects move supports
+                support.narrowingOrder = in.readOrderRef();
+                order = support;
+                break;
+            }
+            case CONVOY: {
+                final Location convoySrc = in.readLocation();
+                final Power convoyPower = in.readPower();
+                final Type convoyUnitType = in.readUnitType();
+                order = factory.createConvoy(power, src, srcUnitType, convoySrc,
+                        convoyPower, convoyUnitType, in.readLocation());
+                break;
+            }
+            case HOLD:
+                order = factory.createHold(power, src, srcUnitType);
+                break;
+            case DISBAND:
+                order = factory.createDisband(power, src, srcUnitType);
+                break;
+            case BUILD:
+                order = factory.createBuild(power, src, srcUnitType);
+                break;
+            case REMOVE:
+                order = factory.createRemove(power, src, srcUnitType);
+                break;
+            case WAIVE:
+                order = factory.createWaive(power, src);
+                break;
+            case DEFINE_STATE:
+                try {
+                    order = factory.createDefineState(power, src, srcUnitType);
+                } catch (final OrderException e) {
+                    throw new IOException(e);
+                }
+                break;
+            default:
+                throw new IOException("unknown order tag: " + tag);
+        }
+
+        // the unit type may have been derived during validation
+        order.srcUnitType = srcUnitType;
+        return order;
+    }// read()
+
+
+    private static void writeHeader(final GameDataOutput out, final int tag,
+                                    final Order order) throws IOException {
+        out.writeByte(tag);
+        out.writePower(order.power);
+        out.writeLocation(order.src);
+        out.writeUnitType(order.srcUnitType);
+    }// writeHeader()
+
+    private static void writeMove(final GameDataOutput out,
+                                  final Move move) throws IOException {
+        out.writeLocation(move.dest);
+        int flags = 0;
+        flags |= move._isViaConvoy ? VIA_CONVOY : 0;
+        flags |= move._isConvoyIntent ? CONVOY_INTENT : 0;
+        flags |= move._isAdjWithPossibleConvoy ? ADJ_WITH_POSSIBLE_CONVOY : 0;
+        flags |= move._fmtIsAdjWithConvoy ? FMT_ADJ_WITH_CONVOY : 0;
+        flags |= move._hasLandRoute ? HAS_LAND_ROUTE : 0;
+        out.writeByte(flags);
+
+        if (move.convoyRoutes == null) {
+            out.writeVarInt(0);
+        } else {
+            out.writeVarInt(move.convoyRoutes.size() + 1);
+            for (final Province[] route : move.convoyRoutes) {
+                out.writeProvinces(route);
+            }
+        }
+    }// writeMove()
+
+    private static void readMove(final GameDataInput in,
+                                 final Move move) throws IOException {
+        final int flags = in.readByte();
+        move._isViaConvoy = (flags & VIA_CONVOY) != 0;
+        move._isConvoyIntent = (flags & CONVOY_INTENT) != 0;
+        move._isAdjWithPossibleConvoy = (flags & ADJ_WITH_POSSIBLE_CONVOY) != 0;
+        move._fmtIsAdjWithConvoy = (flags & FMT_ADJ_WITH_CONVOY) != 0;
+        move._hasLandRoute = (flags & HAS_LAND_ROUTE) != 0;
+
+        final int routes = in.readVarInt() - 1;
+        if (routes >= 0) {
+            final ArrayList<Province[]> list = new ArrayList<>(routes);
+            for (int i = 0; i < routes; i++) {
+                list.add(in.readProvinces());
+            }
+            move.convoyRoutes = list;
+        }
+    }// readMove()
+
+}// class OrderCodec
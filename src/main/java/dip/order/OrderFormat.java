@@ -29,19 +29,28 @@ import dip.world.Unit.Type;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
  * OrderFormat formats orders according to the specified format string.
  * <p>
- * While OrderFormat is more flexible than using Order.toBriefString() or
- * Order.toFullString(), it is also considerably slower. This is should not
- * generally be a problem, unless one is doing multiple adjudications
- * (e.g., for an AI).
+ * Each format string is compiled once per Orderable class into a list of
+ * segments; fields and methods are resolved to MethodHandles at that time,
+ * so formatting an order does not use reflection.
  * <p>
  * OrderFormat uses keywords that are delimited by braces "{}". Valid keywords
  * are described below. Any text (including whitespace) not in braces will be
@@ -134,6 +143,13 @@ public class OrderFormat {
     private static final String EMPTY = "";
     private static final String KEYWORD_ERROR = "!keyword_error!";
 
+    // accessor type for compiled fields and methods
+    private static final MethodType ACCESSOR_TYPE = MethodType
+            .methodType(Object.class, Orderable.class);
+
+    // compiled format strings, by Orderable class and format String
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<String, List<Segment>>> TEMPLATES = new ConcurrentHashMap<>();
+
 
     /**
      * For null values, when debugging, print the word "null"
@@ -425,67 +441,147 @@ public class OrderFormat {
 
 
     /**
-     * Process text within braces.
-     * 1) check if non-modifying keyword
-     * 2) parse, check for method/variable, +/- boolean, +/- modifier
-     * 3) return resultant text
+     * A compiled part of a format String; either literal text, or the
+     * text within a pair of braces.
      */
-    private static String procBraceText(final OrderFormatOptions ofo,
-                                        final Orderable order,
-                                        final String text) {
-        if (text == null) {
-            throw new IllegalArgumentException();
-        }
+    @FunctionalInterface
+    private interface Segment {
+        void appendTo(StringBuilder sb, OrderFormatOptions ofo,
+                      Orderable order);
+    }// interface Segment
 
-        Object out;
 
-        out = procStaticKeyword(ofo, order, text);
-        if (out == null) {
-            final String[] tokens = text.split(":", 3);
+    /**
+     * A compiled field or method of an Orderable.
+     */
+    @FunctionalInterface
+    private interface Accessor {
+        Object get(Orderable order);
+    }// interface Accessor
 
-            if (tokens.length == 0) {
-                LOG.debug("OrderFormat: cannot parse: {{}}", text);
-                return EMPTY;
-            }
 
-            // proc first token
-            out = getViaReflection(order, tokens[0]);
-
-            // process modifier OR boolean
-            if (tokens.length > 1) {
-                // evaluate boolean expression
-                if (tokens[1].startsWith("?")) {
-                    boolean isTrue;
-                    if (out instanceof Boolean) {
-                        isTrue = ((Boolean) out).booleanValue();
-                    } else {
-                        isTrue = out != null;
-                    }
+    /**
+     * Returns the compiled format for the given Orderable class, compiling
+     * it if required.
+     */
+    private static List<Segment> getTemplate(final Class<?> cls,
+                                             final String format) {
+        return TEMPLATES.computeIfAbsent(cls, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(format, f -> compile(cls, f));
+    }// getTemplate()
 
-                    if (isTrue) {
-                        assert !tokens[1].isEmpty();
-                        final String tok = tokens[1].substring(1);
-                        final Object obj = procStaticKeyword(ofo, order, tok);
-                        return obj == null ? tok : obj.toString();
-                    } else {
-                        if (tokens.length == 2) {
-                            // {xxx:?true:} [empty 'false' clause]
-                            return EMPTY;
-                        } else {
-                            assert tokens.length == 3;
-                            final Object obj = procStaticKeyword(ofo, order,
-                                    tokens[2]);
-                            return obj == null ? tokens[2] : obj.toString();
-                        }
-                    }
+
+    /**
+     * Compiles a format String into Segments. Text outside of braces
+     * is literal; unbalanced braces are handled as they always have
+     * been: a stray "}" is literal, a "{" within braces is part of the
+     * brace text, and an unterminated brace is dropped.
+     */
+    private static List<Segment> compile(final Class<?> cls,
+                                         final String format) {
+        final List<Segment> segments = new ArrayList<>();
+        final StringBuilder literal = new StringBuilder(32);
+        StringBuilder accum = new StringBuilder(32);
+
+        boolean inBrace = false;
+        final StringTokenizer st = new StringTokenizer(format, "{}", true);
+        while (st.hasMoreTokens()) {
+            final String tok = st.nextToken();
+            if ("{".equals(tok) && !inBrace) {
+                inBrace = true;
+            } else if ("}".equals(tok) && inBrace) {
+                inBrace = false;
+                if (literal.length() > 0) {
+                    segments.add(literalSegment(literal.toString()));
+                    literal.setLength(0);
+                }
+                segments.add(compileBraceText(cls, accum.toString()));
+                accum = new StringBuilder(32);
+            } else {
+                if (inBrace) {
+                    accum.append(tok);
                 } else {
-                    //process via modifier
-                    out = procModKeyword(ofo, order, out, tokens[1]);
+                    literal.append(tok);
                 }
             }
         }
 
-        // process Object into a (formatted) String
+        if (literal.length() > 0) {
+            segments.add(literalSegment(literal.toString()));
+        }
+
+        return Collections.unmodifiableList(segments);
+    }// compile()
+
+
+    private static Segment literalSegment(final String text) {
+        return (sb, ofo, order) -> sb.append(text);
+    }// literalSegment()
+
+
+    /**
+     * Compiles text within braces.
+     * 1) check if non-modifying keyword
+     * 2) parse, check for method/variable, +/- boolean, +/- modifier
+     */
+    private static Segment compileBraceText(final Class<?> cls,
+                                            final String text) {
+        if (isStaticKeyword(text)) {
+            return (sb, ofo, order) -> sb.append(toText(ofo,
+                    procStaticKeyword(ofo, order, text)));
+        }
+
+        final String[] tokens = text.split(":", 3);
+        final Accessor accessor = compileAccessor(cls, tokens[0]);
+
+        if (tokens.length == 1) {
+            return (sb, ofo, order) -> sb
+                    .append(toText(ofo, accessor.get(order)));
+        }
+
+        // evaluate boolean expression
+        if (tokens[1].startsWith("?")) {
+            final Segment trueClause = compileClause(tokens[1].substring(1));
+            final Segment falseClause = tokens.length == 2 ? null : compileClause(
+                    tokens[2]);
+
+            return (sb, ofo, order) -> {
+                final Object out = accessor.get(order);
+                final boolean isTrue = out instanceof Boolean ? (Boolean) out : out != null;
+                if (isTrue) {
+                    trueClause.appendTo(sb, ofo, order);
+                } else if (falseClause != null) {
+                    falseClause.appendTo(sb, ofo, order);
+                }
+            };
+        }
+
+        //process via modifier
+        final String modifier = tokens[1];
+        return (sb, ofo, order) -> sb.append(toText(ofo,
+                procModKeyword(ofo, order, accessor.get(order), modifier)));
+    }// compileBraceText()
+
+
+    /**
+     * Compiles the true or false clause of a boolean expression; either a
+     * static keyword or literal text.
+     */
+    private static Segment compileClause(final String text) {
+        if (isStaticKeyword(text)) {
+            return (sb, ofo, order) -> sb.append(toText(ofo,
+                    procStaticKeyword(ofo, order, text)));
+        }
+        return literalSegment(text);
+    }// compileClause()
+
+
+    /**
+     * Format an Object obtained from a field, method, or keyword
+     * into a String.
+     */
+    private static String toText(final OrderFormatOptions ofo,
+                                 final Object out) {
         if (out == null) {
             return EMPTY;
         } else if (out instanceof Power) {
@@ -502,48 +598,55 @@ public class OrderFormat {
             // convert object to a String
             return out.toString();
         }
-    }// procBraceText
+    }// toText()
 
 
     /**
-     * Get the method or field via reflection. Returns null if an
-     * error occured.
+     * Resolve a method or field of the given class to an Accessor. If
+     * the method or field cannot be found or accessed, the Accessor
+     * always returns null.
      */
-    private static Object getViaReflection(final Orderable order,
-                                           final String name) {
-        assert order != null;
-        assert name != null;
-
-        final Class<? extends Orderable> cls = order.getClass();
+    private static Accessor compileAccessor(final Class<?> cls,
+                                            final String name) {
         final boolean isMethod = name.endsWith("()");
-
-        if (isMethod) {
-            try {
-                return cls.getMethod(name.substring(0, name.length() - 2),
-                        (Class<?>) null).invoke(order, (Object) null);
-            } catch (final Exception e) {
-                LOG.debug(
-                        "OrderFormat::getViaReflection() cannot reflect method \"{}\"",
-                        name);
-                LOG.debug(
-                        "OrderFormat::getViaReflection() exception details:\n{}",
-                        e.toString());
+        final MethodHandle handle;
+        try {
+            if (isMethod) {
+                final Method method = cls
+                        .getMethod(name.substring(0, name.length() - 2));
+                handle = MethodHandles.lookup().unreflect(method);
+            } else {
+                final Field field = cls.getDeclaredField(name);
+                final MethodHandle getter = MethodHandles.lookup()
+                        .unreflectGetter(field);
+                handle = Modifier.isStatic(field.getModifiers()) ? MethodHandles
+                        .dropArguments(getter, 0, cls) : getter;
             }
-        } else {
+        } catch (final NoSuchMethodException | NoSuchFieldException | IllegalAccessException | SecurityException e) {
+            LOG.debug("OrderFormat: cannot resolve {} \"{}\" of {}: {}",
+                    isMethod ? "method" : "field", name, cls.getName(),
+                    e.toString());
+            return order -> null;
+        }
+
+        final MethodHandle accessor = handle.asType(ACCESSOR_TYPE);
+        return order -> {
             try {
-                return cls.getDeclaredField(name).get(order);
-            } catch (final Exception e) {
-                LOG.debug(
-                        "OrderFormat::getViaReflection() cannot reflect field \"{}\"",
-                        name);
-                LOG.debug(
-                        "OrderFormat::getViaReflection() exception details:\n{}",
+                return (Object) accessor.invokeExact(order);
+            } catch (final Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                LOG.debug("OrderFormat: cannot get \"{}\": {}", name,
                         e.toString());
+                return null;
             }
-        }
+        };
+    }// compileAccessor()
 
-        return null;
-    }// getViaReflection()
+
+    private static boolean isStaticKeyword(final String keyWord) {
+        return Arrays.asList(ALL_NONMOD_KEYWORDS).contains(keyWord);
+    }// isStaticKeyword()
 
 
     /**
@@ -645,26 +748,9 @@ public class OrderFormat {
         }
 
 
-        final StringBuffer output = new StringBuffer(256);
-        StringBuffer accum = new StringBuffer(32);
-
-        boolean inBrace = false;
-        final StringTokenizer st = new StringTokenizer(format, "{}", true);
-        while (st.hasMoreTokens()) {
-            final String tok = st.nextToken();
-            if ("{".equals(tok) && !inBrace) {
-                inBrace = true;
-            } else if ("}".equals(tok) && inBrace) {
-                inBrace = false;
-                output.append(procBraceText(ofo, order, accum.toString()));
-                accum = new StringBuffer();
-            } else {
-                if (inBrace) {
-                    accum.append(tok);
-                } else {
-                    output.append(tok);
-                }
-            }
+        final StringBuilder output = new StringBuilder(128);
+        for (final Segment segment : getTemplate(order.getClass(), format)) {
+            segment.appendTo(output, ofo, order);
         }
 
         if (ofo.getEndWithDot()) {
@@ -171,6 +171,10 @@ public class OrderFormatOptions implements Cloneable {
     private boolean isDebug = false;
     private char coastSep = COAST_SEP_SLASH;
 
+    // bumped by every setter; lets formatted-text caches notice changes
+    // made to an options object in place
+    private int modCount = 0;
+
     /**
      * Create an OrderFormatOptions object.
      */
@@ -409,12 +413,22 @@ public class OrderFormatOptions implements Cloneable {
         return coastSep;
     }// getCoastSeparator()
 
+    /**
+     * Returns the number of times a setter has been called on this
+     * object. Formatted text cached for a given OrderFormatOptions is
+     * stale once this changes.
+     */
+    int getModCount() {
+        return modCount;
+    }// getModCount()
+
     /**
      * Sets the Province Style
      */
     public void setProvinceStyle(final int style) {
         checkStyle(style);
         styleProvince = style;
+        modCount++;
     }// ()
 
     /**
@@ -423,6 +437,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setCoastStyle(final int style) {
         checkStyle(style);
         styleCoast = style;
+        modCount++;
     }// ()
 
     /**
@@ -431,6 +446,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setPowerStyle(final int style) {
         checkStyle(style);
         stylePower = style;
+        modCount++;
     }// ()
 
     /**
@@ -439,6 +455,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setUnitStyle(final int style) {
         checkStyle(style);
         styleUnit = style;
+        modCount++;
     }// ()
 
     /**
@@ -447,6 +464,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setOrderNameStyle(final int style) {
         checkStyle(style);
         styleOrderName = style;
+        modCount++;
     }// ()
 
 
@@ -456,6 +474,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setProvinceFormat(final int fmt) {
         checkFormat(fmt);
         formatProvince = fmt;
+        modCount++;
     }// ()
 
     /**
@@ -464,6 +483,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setCoastFormat(final int fmt) {
         checkCoastFormat(fmt);
         formatCoast = fmt;
+        modCount++;
     }// ()
 
     /**
@@ -472,6 +492,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setPowerFormat(final int fmt) {
         checkFormat(fmt);
         formatPower = fmt;
+        modCount++;
     }// ()
 
     /**
@@ -480,6 +501,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setUnitFormat(final int fmt) {
         checkFormat(fmt);
         formatUnit = fmt;
+        modCount++;
     }// ()
 
     /**
@@ -488,6 +510,7 @@ public class OrderFormatOptions implements Cloneable {
     public void setOrderNameFormat(final int fmt) {
         checkFormat(fmt);
         formatOrderName = fmt;
+        modCount++;
     }// ()
 
 
@@ -500,6 +523,7 @@ public class OrderFormatOptions implements Cloneable {
         }
 
         arrow = value;
+        modCount++;
     }// setArrow()
 
     /**
@@ -507,6 +531,7 @@ public class OrderFormatOptions implements Cloneable {
      */
     public void setShowPossessivePower(final boolean value) {
         showPossessivePower = value;
+        modCount++;
     }// setShowOptionalPower()
 
     /**
@@ -514,6 +539,7 @@ public class OrderFormatOptions implements Cloneable {
      */
     public void setEndWithDot(final boolean value) {
         endWithDot = value;
+        modCount++;
     }// setEndWithDot()
 
 
@@ -526,6 +552,7 @@ public class OrderFormatOptions implements Cloneable {
      */
     public void setDebug(final boolean value) {
         isDebug = value;
+        modCount++;
     }// setDebug()
 
     /**
@@ -533,6 +560,7 @@ public class OrderFormatOptions implements Cloneable {
      */
     public void setCoastSeparator(final char value) {
         coastSep = value;
+        modCount++;
     }
 
 
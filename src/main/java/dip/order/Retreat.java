@@ -136,6 +136,7 @@ public class Retreat extends Move {
             // the coast of the destination needs to be known (if unit is a fleet).
             // otherwise, RetreatChecker.isValid() won't work.
             dest = dest.getValidatedWithMove(srcUnitType, src);
+            invalidateFormattedString();
 
             // check that we can transit into destination (check borders)
             if (dest.getProvince()
@@ -297,9 +297,11 @@ public class Support extends Order {
             // supporting Power is missing, we'll add it. If it's incorrect, we'll
             // change it to the correct power, without throwing an exception.
             supPower = supUnit.getPower();
+            invalidateFormattedString();
 
             // v.2: location validation
             supSrc = supSrc.getValidatedAndDerived(supUnitType, supUnit);
+            invalidateFormattedString();
 
             // (v.3) this checks for same-province support, like F trieste SUPPORT trieste
             // note that this would be caught by the standard adjacency check, but the error
@@ -329,6 +331,7 @@ public class Support extends Order {
             } else {
                 // v.2: location validation
                 supDest = supDest.getValidated(supUnitType);
+                invalidateFormattedString();
 
                 // v.3: adjacency check
                 if (!src.isAdjacent(supDest.getProvince())) {
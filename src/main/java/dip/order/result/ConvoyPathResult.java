@@ -68,6 +68,14 @@ public class ConvoyPathResult extends OrderResult {
     }// ConvoyPathResult()
 
 
+    /**
+     * Returns the convoy path taken.
+     */
+    Province[] getConvoyPath() {
+        return convoyPath;
+    }// getConvoyPath()
+
+
     /**
      * Creates an appropriate internationalized text message given the
      * convoy path.
@@ -0,0 +1,203 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.order.result;
+
+import dip.order.Order;
+import dip.order.result.OrderResult.ResultType;
+import dip.world.GameDataInput;
+import dip.world.GameDataOutput;
+import dip.world.Power;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary encoding of Results for the game file format.
+ * <p>
+ * The message text is written as stored; results that create their message
+ * from their other fields (e.g., BouncedResult) do so again when read.
+ * Orders are written as references, so a result refers to the same Order
+ * object as the TurnState after reading.
+ */
+public final class ResultCodec {
+    // tags are fixed by the file format; do not reorder
+    private static final int RESULT = 1;
+    private static final int TIME = 2;
+    private static final int ORDER = 3;
+    private static final int BOUNCED = 4;
+    private static final int CONVOY_PATH = 5;
+    private static final int DEPENDENT_MOVE_FAILED = 6;
+    private static final int DISLODGED = 7;
+    private static final int SUBSTITUTED = 8;
+
+    private static final List<ResultType> RESULT_TYPES = Arrays
+            .asList(ResultType.VALIDATION_FAILURE, ResultType.SUCCESS,
+                    ResultType.FAILURE, ResultType.DISLODGED,
+                    ResultType.CONVOY_PATH_TAKEN, ResultType.TEXT,
+                    ResultType.SUBSTITUTED);
+
+
+    private ResultCodec() {
+    }// ResultCodec()
+
+
+    /**
+     * Writes a Result.
+     */
+    public static void write(final GameDataOutput out,
+                             final Result result) throws IOException {
+        if (result instanceof OrderResult) {
+            writeOrderResult(out, (OrderResult) result);
+        } else if (result instanceof TimeResult) {
+            writeHeader(out, TIME, result);
+            out.writeLong(((TimeResult) result).getGMTMillis());
+        } else {
+            writeHeader(out, RESULT, result);
+        }
+    }// write()
+
+    private static void writeOrderResult(final GameDataOutput out,
+                                         final OrderResult result) throws IOException {
+        final int tag;
+        if (result instanceof BouncedResult) {
+            tag = BOUNCED;
+        } else if (result instanceof ConvoyPathResult) {
+            tag = CONVOY_PATH;
+        } else if (result instanceof DependentMoveFailedResult) {
+            tag = DEPENDENT_MOVE_FAILED;
+        } else if (result instanceof DislodgedResult) {
+            tag = DISLODGED;
+        } else if (result instanceof SubstitutedResult) {
+            tag = SUBSTITUTED;
+        } else {
+            tag = ORDER;
+        }
+
+        writeHeader(out, tag, result);
+        out.writeByte(RESULT_TYPES.indexOf(result.resultType));
+        out.writeOrderRef(result.order);
+
+        switch (tag) {
+            case BOUNCED: {
+                final BouncedResult bounced = (BouncedResult) result;
+                out.writeProvince(bounced.getBouncer());
+                out.writeVarInt(bounced.getAttackStrength() + 1);
+                out.writeVarInt(bounced.getDefenseStrength() + 1);
+                break;
+            }
+            case CONVOY_PATH:
+                out.writeProvinces(((ConvoyPathResult) result).getConvoyPath());
+                break;
+            case DEPENDENT_MOVE_FAILED:
+                out.writeOrderRef(((DependentMoveFailedResult) result)
+                        .getDependentOrder());
+                break;
+            case DISLODGED: {
+                final DislodgedResult dislodged = (DislodgedResult) result;
+                out.writeLocations(dislodged.getRetreatLocations());
+                out.writeProvince(dislodged.getDislodger());
+                out.writeVarInt(dislodged.getAttackStrength() + 1);
+                out.writeVarInt(dislodged.getDefenseStrength() + 1);
+                break;
+            }
+            case SUBSTITUTED:
+                out.writeOrderRef(((SubstitutedResult) result)
+                        .getSubstitutedOrder());
+                break;
+            default:
+                break;
+        }
+    }// writeOrderResult()
+
+    private static void writeHeader(final GameDataOutput out, final int tag,
+                                    final Result result) throws IOException {
+        out.writeByte(tag);
+        out.writePower(result.power);
+        out.writeString(result.message);
+    }// writeHeader()
+
+
+    /**
+     * Reads a Result.
+     */
+    public static Result read(final GameDataInput in) throws IOException {
+        final int tag = in.readByte();
+        final Power power = in.readPower();
+        final String message = in.readString();
+
+        if (tag == RESULT) {
+            return new Result(power, message);
+        } else if (tag == TIME) {
+            return new TimeResult(power, message, in.readLong());
+        }
+
+        final int type = in.readByte();
+        if (type < 0 || type >= RESULT_TYPES.size()) {
+            throw new IOException("unknown result type: " + type);
+        }
+        final Order order = in.readOrderRef();
+
+        final OrderResult result;
+        try {
+            switch (tag) {
+                case ORDER:
+                    result = new OrderResult();
+                    result.order = order;
+                    break;
+                case BOUNCED: {
+                    final BouncedResult bounced = new BouncedResult(order);
+                    bounced.setBouncer(in.readProvince());
+                    bounced.setAttackStrength(in.readVarInt() - 1);
+                    bounced.setDefenseStrength(in.readVarInt() - 1);
+                    result = bounced;
+                    break;
+                }
+                case CONVOY_PATH:
+                    result = new ConvoyPathResult(order, in.readProvinces());
+                    break;
+                case DEPENDENT_MOVE_FAILED:
+                    result = new DependentMoveFailedResult(order,
+                            in.readOrderRef());
+                    break;
+                case DISLODGED: {
+                    final DislodgedResult dislodged = new DislodgedResult(
+                            order, message, in.readLocations());
+                    dislodged.setDislodger(in.readProvince());
+                    dislodged.setAttackStrength(in.readVarInt() - 1);
+                    dislodged.setDefenseStrength(in.readVarInt() - 1);
+                    result = dislodged;
+                    break;
+                }
+                case SUBSTITUTED:
+                    result = new SubstitutedResult(order, in.readOrderRef(),
+                            message);
+                    break;
+                default:
+                    throw new IOException("unknown result tag: " + tag);
+            }
+        } catch (final IllegalArgumentException | NullPointerException e) {
+            throw new IOException("bad result: " + e, e);
+        }
+
+        // as written, whatever the constructors derived
+        result.power = power;
+        result.message = message;
+        result.resultType = RESULT_TYPES.get(type);
+        return result;
+    }// read()
+
+}// class ResultCodec
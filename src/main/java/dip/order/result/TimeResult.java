@@ -59,6 +59,16 @@ public class TimeResult extends Result {
     }// Result()
 
 
+    /**
+     * A TimeStamped result with a known timestamp.
+     */
+    TimeResult(final Power power, final String resource,
+               final long timeStamp) {
+        super(power, resource);
+        this.timeStamp = timeStamp;
+    }// TimeResult()
+
+
     /**
      * Get the milliseconds since midnight, January 1, 1970 UTC.
      */
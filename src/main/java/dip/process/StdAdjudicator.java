@@ -364,14 +364,17 @@ public final class StdAdjudicator implements Adjudicator {
     private void checkOrders() {
         final List<Power> powers = world.getMap().getPowers();
 
+        // orders still being submitted are not seen
+        final Map<Power, List<Order>> orderSnapshot = turnState
+                .getOrderSnapshot();
         for (final Power power : powers) {
-            final Iterator<Order> iter = turnState.getOrders(power).iterator();
-            while (iter.hasNext()) {
-                final Orderable order = iter.next();
+            final List<Order> orders = orderSnapshot
+                    .getOrDefault(power, Collections.emptyList());
+            for (final Order order : orders) {
                 if (order.getPower() != power) {
                     // remove order: it is invalid (and
                     // likely a bug or a cheat attempt)
-                    iter.remove();
+                    turnState.getOrders(power).remove(order);
 
                     // create an informative result
                     // {0} power, {1} order (formatted)
@@ -1330,12 +1333,16 @@ public final class StdAdjudicator implements Adjudicator {
 
         final List<OrderState> osList = new ArrayList<>(32);
 
+        // orders still being submitted are not seen
+        final Map<Power, List<Order>> orderSnapshot = turnState
+                .getOrderSnapshot();
         for (final Power power : powers) {
             final AdjustmentInfo ai = adjustmentMap.get(power);
             int orderCount = 0;
             final int adjAmount = ai.getAdjustmentAmount();
 
-            final List<Order> orders = turnState.getOrders(power);
+            final List<Order> orders = orderSnapshot
+                    .getOrDefault(power, Collections.emptyList());
             for (final Orderable order : orders) {
 
                 if (order instanceof Remove && adjAmount > 0) {
@@ -0,0 +1,739 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.order.Order;
+import dip.order.OrderFactory;
+import dip.order.result.Result;
+import dip.order.result.ResultCodec;
+import dip.world.Phase.PhaseType;
+import dip.world.Phase.SeasonType;
+import dip.world.RuleOptions.Option;
+import dip.world.RuleOptions.OptionValue;
+import dip.world.World.VariantInfo;
+import dip.world.metadata.GameMetadata;
+import dip.world.metadata.PlayerMetadata;
+import dip.world.variant.VariantManager;
+import dip.world.variant.data.Variant;
+import dip.world.variant.data.VersionNumber;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The binary game file format.
+ * <p>
+ * A file starts with a magic number and a format version, followed by the
+ * variant information and the names of the Provinces and Powers of the map.
+ * The rest of the file refers to Provinces and Powers by their index in
+ * these tables, which are resolved by name against the variant when the
+ * file is read; the map itself is not stored.
+ * <p>
+ * Turns follow as an index of phases and section lengths, then one
+ * section per phase. A section can be decoded on its own, so only the
+ * first and last phases are decoded when a game is opened; the others
+ * are kept encoded in a {@link TurnHistory} until asked for.
+ * <p>
+ * A GameSetup is stored by class, followed by the data it writes itself
+ * (see {@link GameSetup#write(GameDataOutput)}); it is recreated when the
+ * game is opened. The UndoRedoManager is not stored, so a game opened
+ * from a binary file has no undo history.
+ */
+final class BinaryWorldFormat {
+    private static final byte[] MAGIC = {'J', 'D', 'P', 'B'};
+    private static final int VERSION = 1;
+
+    // Position flags
+    private static final int UNIT = 1;
+    private static final int DISLODGED_UNIT = 1 << 1;
+    private static final int SC_OWNER = 1 << 2;
+    private static final int SC_HOME_POWER = 1 << 3;
+    private static final int LAST_OCCUPIER = 1 << 4;
+
+    // TurnState flags
+    private static final int SC_OWNER_CHANGED = 1;
+    private static final int ENDED = 1 << 1;
+    private static final int RESOLVED = 1 << 2;
+
+
+    private BinaryWorldFormat() {
+    }// BinaryWorldFormat()
+
+
+    /**
+     * Returns true if the given file header is that of a binary game file.
+     */
+    static boolean isBinary(final byte[] header) {
+        return header.length >= MAGIC.length && Arrays
+                .equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+    }// isBinary()
+
+    static int getMagicLength() {
+        return MAGIC.length;
+    }// getMagicLength()
+
+
+    /**
+     * Reads a file header into the array, until it is full or the stream
+     * ends; returns the number of bytes read. A single read() may return
+     * fewer bytes, for instance from an InflaterInputStream.
+     */
+    static int readMagic(final InputStream is,
+                         final byte[] header) throws IOException {
+        int n = 0;
+        while (n < header.length) {
+            final int count = is.read(header, n, header.length - n);
+            if (count < 0) {
+                break;
+            }
+            n += count;
+        }
+        return n;
+    }// readMagic()
+
+
+    /**
+     * Writes the World. The stream is flushed but not closed.
+     */
+    static void write(final World world,
+                      final OutputStream os) throws IOException {
+        write(snapshot(world), os);
+    }// write()
+
+
+    /**
+     * Writes a snapshot. The stream is flushed but not closed.
+     */
+    static void write(final WorldSnapshot snapshot,
+                      final OutputStream os) throws IOException {
+        os.write(MAGIC);
+        final GameDataOutput out = new GameDataOutput(os, snapshot.getMap());
+        out.writeVarInt(VERSION);
+        out.write(snapshot.getHeader());
+
+        final List<Phase> phases = snapshot.getPhases();
+        final List<byte[]> sections = snapshot.getSections();
+        out.writeVarInt(phases.size());
+        for (int i = 0; i < phases.size(); i++) {
+            out.writePhase(phases.get(i));
+            out.writeVarInt(sections.get(i).length);
+        }
+        for (final byte[] section : sections) {
+            out.write(section);
+        }
+        out.flush();
+    }// write()
+
+
+    /**
+     * Encodes the World into a snapshot. Sections of turns not decoded
+     * since the game was opened are shared rather than encoded again.
+     */
+    static WorldSnapshot snapshot(final World world) throws IOException {
+        final WorldMap map = world.getMap();
+        final List<Phase> phases = new ArrayList<>(world.getPhaseSet());
+        final List<byte[]> sections = new ArrayList<>(phases.size());
+
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        final GameDataOutput sectionOut = new GameDataOutput(buffer, map);
+        final TurnHistory history = world.getTurnHistory();
+        for (final Phase phase : phases) {
+            final byte[] section = history == null || world
+                    .isResident(phase) ? null : history.getSection(phase);
+            if (section != null) {
+                sections.add(section);
+            } else {
+                buffer.reset();
+                writeTurnState(sectionOut, map, world.getTurnState(phase));
+                sectionOut.flush();
+                sections.add(buffer.toByteArray());
+            }
+        }
+        return new WorldSnapshot(map, encodeHeader(world), phases, sections);
+    }// snapshot()
+
+
+    /**
+     * Encodes everything but the turns; as written by
+     * {@link #write(World, OutputStream)} after magic and version.
+     */
+    static byte[] encodeHeader(final World world) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        final GameDataOutput out = new GameDataOutput(buffer, world.getMap());
+        writeHeader(out, world);
+        out.flush();
+        return buffer.toByteArray();
+    }// encodeHeader()
+
+
+    /**
+     * Encodes a TurnState as a section, which can be decoded on its own
+     * against the Province and Power tables of the World.
+     */
+    static byte[] encodeTurnState(final World world,
+                                  final TurnState ts) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        final GameDataOutput out = new GameDataOutput(buffer, world.getMap());
+        writeTurnState(out, world.getMap(), ts);
+        out.flush();
+        return buffer.toByteArray();
+    }// encodeTurnState()
+
+
+    /**
+     * Encodes a Phase alone; it can be read with {@link #getPhase(byte[])}.
+     */
+    static byte[] encodePhase(final World world,
+                              final Phase phase) throws IOException {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8);
+        final GameDataOutput out = new GameDataOutput(buffer, world.getMap());
+        out.writePhase(phase);
+        out.flush();
+        return buffer.toByteArray();
+    }// encodePhase()
+
+
+    /**
+     * Returns the Phase of an encoded section, without decoding the rest.
+     */
+    static Phase getPhase(final byte[] section) throws IOException {
+        final Phase phase = new GameDataInput(
+                new ByteArrayInputStream(section), null).readPhase();
+        if (phase == null) {
+            throw new IOException("turn without phase");
+        }
+        return phase;
+    }// getPhase()
+
+
+    private static void writeHeader(final GameDataOutput out,
+                                    final World world) throws IOException {
+        final WorldMap map = world.getMap();
+        final VariantInfo vi = world.getVariantInfo();
+        if (vi.getVariantName() == null || vi.getVariantVersion() == null) {
+            throw new IOException("game has no variant information");
+        }
+
+        writeVariantInfo(out, vi);
+
+        final List<Province> provinces = map.getProvinces();
+        out.writeVarInt(provinces.size());
+        for (final Province province : provinces) {
+            out.writeString(province.getShortName());
+        }
+        final List<Power> powers = map.getPowers();
+        out.writeVarInt(powers.size());
+        for (final Power power : powers) {
+            out.writeString(power.getName());
+        }
+
+        final VictoryConditions vc = world.getVictoryConditions();
+        out.writeBoolean(vc != null);
+        if (vc != null) {
+            out.writeVarInt(vc.numSCForVictory);
+            out.writeVarInt(vc.maxYearsNoSCChange);
+            out.writeVarInt(vc.maxGameTimeYears);
+            out.writeInt(vc.initialYear);
+        }
+
+        writeGameMetadata(out, world.getGameMetadata());
+        for (final Power power : powers) {
+            final Optional<PlayerMetadata> pmd = world
+                    .findPlayerMetadata(power);
+            out.writeBoolean(pmd.isPresent());
+            if (pmd.isPresent()) {
+                writePlayerMetadata(out, pmd.get());
+            }
+        }
+
+        final GameSetup gs = world.getGameSetup();
+        out.writeString(gs == null ? null : gs.getClass().getName());
+        if (gs != null) {
+            gs.write(out);
+        }
+    }// writeHeader()
+
+    private static void writeVariantInfo(final GameDataOutput out,
+                                         final VariantInfo vi) throws IOException {
+        out.writeString(vi.getVariantName());
+        out.writeString(vi.getVariantVersion().toString());
+        out.writeString(vi.getMapName());
+        out.writeString(vi.getSymbolPackName());
+        out.writeString(vi.getSymbolPackVersion() == null ? null : vi
+                .getSymbolPackVersion().toString());
+
+        final RuleOptions ro = vi.getRuleOptions();
+        out.writeVarInt(ro.getAllOptions().size());
+        for (final Option option : ro.getAllOptions()) {
+            out.writeString(option.name());
+            out.writeString(ro.getOptionValue(option).name());
+        }
+    }// writeVariantInfo()
+
+    private static void writeGameMetadata(final GameDataOutput out,
+                                          final GameMetadata gmd) throws IOException {
+        out.writeString(gmd.getComment());
+        out.writeString(gmd.getGameName());
+        out.writeString(gmd.getModeratorName());
+        out.writeString(gmd.getModeratorEmail());
+        out.writeString(toString(gmd.getModeratorURI()));
+        out.writeString(gmd.getJudgeName());
+        out.writeString(toString(gmd.getGameURI()));
+        out.writeString(gmd.getNotes());
+        out.writeString(gmd.getGameID());
+    }// writeGameMetadata()
+
+    private static void writePlayerMetadata(final GameDataOutput out,
+                                            final PlayerMetadata pmd) throws IOException {
+        out.writeString(pmd.getName());
+        out.writeVarInt(pmd.getEmailAddresses().size());
+        for (final String email : pmd.getEmailAddresses()) {
+            out.writeString(email);
+        }
+        out.writeString(toString(pmd.getURI()));
+        out.writeString(pmd.getNotes());
+    }// writePlayerMetadata()
+
+    private static void writeTurnState(final GameDataOutput out,
+                                       final WorldMap map,
+                                       final TurnState ts) throws IOException {
+        out.clearOrderTable();
+        out.writePhase(ts.getPhase());
+        int flags = 0;
+        flags |= ts.getSCOwnerChanged() ? SC_OWNER_CHANGED : 0;
+        flags |= ts.isEnded() ? ENDED : 0;
+        flags |= ts.isResolved() ? RESOLVED : 0;
+        out.writeByte(flags);
+
+        writePosition(out, map, ts.getPosition());
+
+        // in map order, so that an unchanged turn encodes the same
+        final Map<Power, List<Order>> orderMap = ts.getOrderMap();
+        final List<Power> powers = new ArrayList<>(map.getPowers());
+        powers.removeIf(power -> orderMap.get(power) == null);
+        out.writeVarInt(powers.size());
+        for (final Power power : powers) {
+            final List<Order> orders = orderMap.get(power);
+            out.writePower(power);
+            out.writeVarInt(orders.size());
+            for (final Order order : orders) {
+                out.writeOrder(order);
+            }
+        }
+
+        final List<Result> results = ts.getResultList();
+        out.writeVarInt(results.size());
+        for (final Result result : results) {
+            ResultCodec.write(out, result);
+        }
+    }// writeTurnState()
+
+    private static void writePosition(final GameDataOutput out,
+                                      final WorldMap map,
+                                      final Position position) throws IOException {
+        for (final Province province : map.getProvinces()) {
+            final Optional<Unit> unit = position.getUnit(province);
+            final Optional<Unit> dislodged = position
+                    .getDislodgedUnit(province);
+            final Optional<Power> owner = position
+                    .getSupplyCenterOwner(province);
+            final Optional<Power> home = position
+                    .getSupplyCenterHomePower(province);
+            final Optional<Power> occupier = position
+                    .getLastOccupier(province);
+
+            int flags = 0;
+            flags |= unit.isPresent() ? UNIT : 0;
+            flags |= dislodged.isPresent() ? DISLODGED_UNIT : 0;
+            flags |= owner.isPresent() ? SC_OWNER : 0;
+            flags |= home.isPresent() ? SC_HOME_POWER : 0;
+            flags |= occupier.isPresent() ? LAST_OCCUPIER : 0;
+            out.writeByte(flags);
+
+            if (unit.isPresent()) {
+                out.writeUnit(unit.get());
+            }
+            if (dislodged.isPresent()) {
+                out.writeUnit(dislodged.get());
+            }
+            if (owner.isPresent()) {
+                out.writePower(owner.get());
+            }
+            if (home.isPresent()) {
+                out.writePower(home.get());
+            }
+            if (occupier.isPresent()) {
+                out.writePower(occupier.get());
+            }
+        }
+
+        for (final Power power : map.getPowers()) {
+            out.writeBoolean(position.isEliminated(power));
+        }
+    }// writePosition()
+
+
+    /**
+     * Reads a World. The variant is looked up with the given
+     * VariantManager; if the saved version is not available, the newest
+     * version is used. Orders are created with the given OrderFactory.
+     */
+    static World read(final InputStream is,
+                      final VariantManager variantManager,
+                      final OrderFactory orderFactory) throws IOException {
+        final GameDataInput in = new GameDataInput(is, orderFactory);
+        readVersion(is, in);
+        final World world = readHeader(in, variantManager);
+        readTurns(in, world, in.getProvinces(), in.getPowers());
+        return world;
+    }// read()
+
+
+    /**
+     * Reads the TurnState of one phase, skipping the others; null if the
+     * game has no such phase. The TurnState belongs to a World holding only
+     * what precedes the turns.
+     */
+    static TurnState readTurnState(final InputStream is,
+                                   final VariantManager variantManager,
+                                   final OrderFactory orderFactory,
+                                   final Phase phase) throws IOException {
+        final GameDataInput in = new GameDataInput(is, orderFactory);
+        readVersion(is, in);
+        final World world = readHeader(in, variantManager);
+
+        final int size = in.readVarInt();
+        int skip = 0;
+        int length = -1;
+        for (int i = 0; i < size; i++) {
+            final Phase p = in.readPhase();
+            final int sectionLength = in.readVarInt();
+            if (length < 0) {
+                if (phase.equals(p)) {
+                    length = sectionLength;
+                } else {
+                    skip += sectionLength;
+                }
+            }
+        }
+        if (length < 0) {
+            return null;
+        }
+
+        in.skip(skip);
+        final TurnState ts = readTurnState(in, world.getMap(),
+                in.getProvinces(), in.getPowers());
+        world.setTurnState(ts);
+        ts.setWorld(world);
+        return ts;
+    }// readTurnState()
+
+
+    private static void readVersion(final InputStream is,
+                                    final GameDataInput in) throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        if (readMagic(is, magic) != MAGIC.length || !isBinary(magic)) {
+            throw new IOException("not a binary game file");
+        }
+        final int version = in.readVarInt();
+        if (version > VERSION) {
+            throw new IOException(String.format(
+                    "game file format %d is newer than this version of jDip supports (%d)",
+                    version, VERSION));
+        }
+    }// readVersion()
+
+
+    /**
+     * Reads everything that precedes the turns, and sets the Province and
+     * Power tables of the GameDataInput.
+     */
+    private static World readHeader(final GameDataInput in,
+                                    final VariantManager variantManager) throws IOException {
+        final VariantInfo vi = readVariantInfo(in);
+        final Variant variant = variantManager
+                .getVariant(vi.getVariantName(), vi.getVariantVersion())
+                .orElseGet(() -> variantManager
+                        .getVariant(vi.getVariantName(),
+                                VariantManager.VERSION_NEWEST).orElse(null));
+        if (variant == null) {
+            throw new IOException(String.format("variant not available: %s %s",
+                    vi.getVariantName(), vi.getVariantVersion()));
+        }
+
+        final WorldMap map = WorldFactory.getWorldMap(variant);
+        final World world = new World(map);
+        world.setVariantInfo(vi);
+
+        final List<Province> provinces = new ArrayList<>();
+        for (int i = in.readVarInt(); i > 0; i--) {
+            final String name = in.readString();
+            provinces.add(Optional.ofNullable(map.getProvince(name))
+                    .orElseThrow(() -> new IOException(
+                            "province not in variant: " + name)));
+        }
+        final List<Power> powers = new ArrayList<>();
+        for (int i = in.readVarInt(); i > 0; i--) {
+            final String name = in.readString();
+            powers.add(Optional.ofNullable(map.getPower(name))
+                    .orElseThrow(() -> new IOException(
+                            "power not in variant: " + name)));
+        }
+        in.setTables(map, provinces, powers);
+
+        if (in.readBoolean()) {
+            final int numSCForVictory = in.readVarInt();
+            final int maxYearsNoSCChange = in.readVarInt();
+            final int maxGameTimeYears = in.readVarInt();
+            final int initialYear = in.readInt();
+            try {
+                world.setVictoryConditions(
+                        new VictoryConditions(numSCForVictory,
+                                maxYearsNoSCChange, maxGameTimeYears,
+                                new Phase(SeasonType.SPRING, initialYear,
+                                        PhaseType.MOVEMENT)));
+            } catch (final IllegalArgumentException e) {
+                throw new IOException(e);
+            }
+        }
+
+        world.setGameMetadata(readGameMetadata(in));
+        for (final Power power : powers) {
+            if (in.readBoolean()) {
+                world.setPlayerMetadata(power, readPlayerMetadata(in));
+            }
+        }
+
+        final String gameSetup = in.readString();
+        if (gameSetup != null) {
+            final GameSetup gs = createGameSetup(gameSetup);
+            gs.read(in);
+            world.setGameSetup(gs);
+        }
+        return world;
+    }// readHeader()
+
+    /**
+     * Reads the phase index and the sections into a TurnHistory; the World
+     * decodes the first and last phases.
+     */
+    private static void readTurns(final GameDataInput in, final World world,
+                                  final List<Province> provinces,
+                                  final List<Power> powers) throws IOException {
+        final int size = in.readVarInt();
+        final Phase[] phases = new Phase[size];
+        final int[] lengths = new int[size];
+        for (int i = 0; i < size; i++) {
+            phases[i] = in.readPhase();
+            lengths[i] = in.readVarInt();
+            if (phases[i] == null) {
+                throw new IOException("turn without phase");
+            }
+        }
+
+        final WorldMap map = world.getMap();
+        final OrderFactory orderFactory = in.getOrderFactory();
+        final TurnHistory history = new TurnHistory(
+                decoder(map, provinces, powers, orderFactory),
+                decoder(map, map.getProvinces(), map.getPowers(), orderFactory),
+                provinces.equals(map.getProvinces()) && powers
+                        .equals(map.getPowers()));
+
+        for (int i = 0; i < size; i++) {
+            final byte[] section = new byte[lengths[i]];
+            in.readFully(section);
+            history.add(phases[i], section);
+        }
+        world.setTurnHistory(history, Arrays.asList(phases));
+    }// readTurns()
+
+    /**
+     * Returns a Decoder for sections that refer to the given Provinces and
+     * Powers by index.
+     */
+    static TurnHistory.Decoder decoder(final WorldMap map,
+                                       final List<Province> provinces,
+                                       final List<Power> powers,
+                                       final OrderFactory orderFactory) {
+        return section -> {
+            final GameDataInput in = new GameDataInput(
+                    new ByteArrayInputStream(section), orderFactory);
+            in.setTables(map, provinces, powers);
+            return readTurnState(in, map, provinces, powers);
+        };
+    }// decoder()
+
+    private static VariantInfo readVariantInfo(
+            final GameDataInput in) throws IOException {
+        final VariantInfo vi = new VariantInfo();
+        try {
+            vi.setVariantName(in.readString());
+            vi.setVariantVersion(VersionNumber.parse(in.readString()));
+            vi.setMapName(in.readString());
+            vi.setSymbolPackName(in.readString());
+            final String symbolsVersion = in.readString();
+            if (symbolsVersion != null) {
+                vi.setSymbolPackVersion(VersionNumber.parse(symbolsVersion));
+            }
+        } catch (final IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+
+        final RuleOptions ro = new RuleOptions();
+        for (int i = in.readVarInt(); i > 0; i--) {
+            final String option = in.readString();
+            final String value = in.readString();
+            try {
+                ro.setOption(Option.valueOf(option),
+                        OptionValue.valueOf(value));
+            } catch (final IllegalArgumentException e) {
+                // an option (or value) this version does not know; the
+                // default applies
+            }
+        }
+        vi.setRuleOptions(ro);
+        return vi;
+    }// readVariantInfo()
+
+    private static GameMetadata readGameMetadata(
+            final GameDataInput in) throws IOException {
+        final GameMetadata gmd = new GameMetadata();
+        gmd.setComment(in.readString());
+        gmd.setGameName(in.readString());
+        gmd.setModeratorName(in.readString());
+        gmd.setModeratorEmail(in.readString());
+        gmd.setModeratorURI(toURI(in.readString()));
+        gmd.setJudgeName(in.readString());
+        gmd.setGameURI(toURI(in.readString()));
+        gmd.setNotes(in.readString());
+        gmd.setGameID(in.readString());
+        return gmd;
+    }// readGameMetadata()
+
+    private static PlayerMetadata readPlayerMetadata(
+            final GameDataInput in) throws IOException {
+        final PlayerMetadata pmd = new PlayerMetadata();
+        pmd.setName(in.readString());
+        final List<String> emails = new ArrayList<>();
+        for (int i = in.readVarInt(); i > 0; i--) {
+            emails.add(in.readString());
+        }
+        pmd.setEmailAddresses(emails);
+        pmd.setURI(toURI(in.readString()));
+        pmd.setNotes(in.readString());
+        return pmd;
+    }// readPlayerMetadata()
+
+    private static GameSetup createGameSetup(
+            final String className) throws IOException {
+        try {
+            return (GameSetup) Class.forName(className).newInstance();
+        } catch (final ReflectiveOperationException | ClassCastException e) {
+            throw new IOException("cannot create game setup " + className, e);
+        }
+    }// createGameSetup()
+
+    private static TurnState readTurnState(final GameDataInput in,
+                                           final WorldMap map,
+                                           final List<Province> provinces,
+                                           final List<Power> powers) throws IOException {
+        in.clearOrderTable();
+        final Phase phase = in.readPhase();
+        if (phase == null) {
+            throw new IOException("turn without phase");
+        }
+        final TurnState ts = new TurnState(phase);
+        final int flags = in.readByte();
+        ts.setSCOwnerChanged((flags & SC_OWNER_CHANGED) != 0);
+        ts.setEnded((flags & ENDED) != 0);
+        ts.setResolved((flags & RESOLVED) != 0);
+
+        ts.setPosition(readPosition(in, map, provinces, powers));
+
+        for (int i = in.readVarInt(); i > 0; i--) {
+            final Power power = in.readPower();
+            final int size = in.readVarInt();
+            final List<Order> orders = new ArrayList<>(size);
+            for (int j = 0; j < size; j++) {
+                orders.add(in.readOrder());
+            }
+            ts.loadOrders(power, orders);
+        }
+
+        final int size = in.readVarInt();
+        final List<Result> results = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            results.add(ResultCodec.read(in));
+        }
+        ts.setResultList(results);
+        return ts;
+    }// readTurnState()
+
+    private static Position readPosition(final GameDataInput in,
+                                         final WorldMap map,
+                                         final List<Province> provinces,
+                                         final List<Power> powers) throws IOException {
+        final Position position = new Position(map);
+        for (final Province province : provinces) {
+            final int flags = in.readByte();
+            if ((flags & UNIT) != 0) {
+                position.setUnit(province, in.readUnit());
+            }
+            if ((flags & DISLODGED_UNIT) != 0) {
+                position.setDislodgedUnit(province, in.readUnit());
+            }
+            if ((flags & SC_OWNER) != 0) {
+                position.setSupplyCenterOwner(province, in.readPower());
+            }
+            if ((flags & SC_HOME_POWER) != 0) {
+                position.setSupplyCenterHomePower(province, in.readPower());
+            }
+            if ((flags & LAST_OCCUPIER) != 0) {
+                position.setLastOccupier(province, in.readPower());
+            }
+        }
+
+        for (final Power power : powers) {
+            if (in.readBoolean()) {
+                position.setEliminated(power, true);
+            }
+        }
+        return position;
+    }// readPosition()
+
+    private static String toString(final URI uri) {
+        return uri == null ? null : uri.toString();
+    }// toString()
+
+    private static URI toURI(final String value) throws IOException {
+        try {
+            return value == null ? null : new URI(value);
+        } catch (final URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }// toURI()
+
+}// class BinaryWorldFormat
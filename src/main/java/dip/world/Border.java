@@ -124,6 +124,15 @@ public final class Border implements Serializable {
     private static final String TOK_YEAR_ODD = "odd";
     private static final String TOK_YEAR_EVEN = "even";
 
+    private static final Type[] UNIT_TYPES = Type.values();
+    private static final SeasonType[] SEASON_TYPES = SeasonType.values();
+    private static final PhaseType[] PHASE_TYPES = PhaseType.values();
+
+    /**
+     * The number of transit indices; see {@link #getTransitIndex}.
+     */
+    static final int TRANSIT_INDICES = UNIT_TYPES.length * SEASON_TYPES.length * PHASE_TYPES.length;
+
 
     // instance fields
     private final List<Location> from;        // location(s) from which this transit limit applies;
@@ -139,6 +148,10 @@ public final class Border implements Serializable {
     private int yearMax;
     private int yearModifier = YEAR_NOT_SPECIFIED;    // if not specified, this is the result
 
+    // unit type, season and phase criteria by transit index; true if
+    // all of them match, and at least one criterion is specified
+    private final boolean[] transitCriteria;
+
     // not determinants in canTransit()
     private final int baseMoveModifier;    // support modifier (defaults to 0)
     private final String id;            // identifying name
@@ -190,6 +203,22 @@ public final class Border implements Serializable {
         this.from = new ArrayList<>(from);
         this.description = description;
 
+        final boolean hasCriteria = !unitTypes.isEmpty() || !orderClasses
+                .isEmpty() || !seasons.isEmpty() || !phases
+                .isEmpty() || yearModifier != YEAR_NOT_SPECIFIED;
+        transitCriteria = new boolean[TRANSIT_INDICES];
+        for (final Type unit : UNIT_TYPES) {
+            for (final SeasonType seasonType : SEASON_TYPES) {
+                for (final PhaseType phaseType : PHASE_TYPES) {
+                    transitCriteria[getTransitIndex(unit, seasonType,
+                            phaseType)] = hasCriteria && (unitTypes
+                            .isEmpty() || unitTypes.contains(unit)) && (seasons
+                            .isEmpty() || seasons.contains(seasonType)) && (phases
+                            .isEmpty() || phases.contains(phaseType));
+                }
+            }
+        }
+
     }// Border()
 
 
@@ -389,77 +418,74 @@ public final class Border implements Serializable {
      */
     public boolean canTransit(final Location fromLoc, final Type unit,
                               final Phase phase, final Class<?> orderClass) {
-        /*
-        System.out.println("border: "+id);
-		System.out.println("  "+fromLoc.getProvince()+":"+fromLoc.getCoast()+", "+phase);
-		*/
-
-        // check from
-        int nResults = 0;
-        int failResults = 0;
-        final boolean fromMatched = from.stream()
-                .anyMatch(aFrom -> aFrom.equalsLoosely(fromLoc));
-
-        // we only apply criteria if 'from' was not specified, or
-        // from was specified, and it matches.
-        if (fromMatched) {
-            // check unit type
-            if (!unitTypes.isEmpty()) {
-                nResults++;
-                failResults += unitTypes.stream()
-                        .anyMatch(unitType -> unitType == unit) ? 1 : 0;
-            }
+        return !mayProhibit(getTransitIndex(unit, phase)) || !prohibits(
+                fromLoc, phase, orderClass);
+    }// canTransit()
 
-            // check order
-            if (!orderClasses.isEmpty()) {
-                nResults++;
-                failResults += orderClasses.stream().anyMatch(
-                        orderClass1 -> Objects
-                                .equals(orderClass, orderClass1)) ? 1 : 0;
-            }
 
-            // check phase (season, phase, and year)
-            if (!seasons.isEmpty()) {
-                nResults++;
-                failResults += seasons.stream().anyMatch(
-                        season -> phase.getSeasonType() == season) ? 1 : 0;
-            }
+    /**
+     * Returns the index of a unit type, season and phase type, between 0
+     * (inclusive) and {@link #TRANSIT_INDICES} (exclusive).
+     */
+    static int getTransitIndex(final Type unit, final Phase phase) {
+        return getTransitIndex(unit, phase.getSeasonType(),
+                phase.getPhaseType());
+    }// getTransitIndex()
 
-            if (!phases.isEmpty()) {
-                nResults++;
-                failResults += phases.stream().anyMatch(
-                        phase1 -> phase.getPhaseType() == phase1) ? 1 : 0;
-            }
 
-            // we always check the year
-            if (yearModifier != YEAR_NOT_SPECIFIED) {
-                nResults++;
-                final int theYear = phase.getYear();
-                switch (yearModifier) {
-                    case YEAR_ODD:
-                        failResults += (theYear & 1) == 1 ? 1 : 0;
-                        break;
-                    case YEAR_EVEN:
-                        failResults += (theYear & 1) == 1 ? 0 : 1;
-                        break;
-                    default:
-                        failResults += yearMin <= theYear && theYear <= yearMax ? 1 : 0;
-                        break;
-                }
-            }
+    private static int getTransitIndex(final Type unit, final SeasonType season,
+                                       final PhaseType phaseType) {
+        return (unit.ordinal() * SEASON_TYPES.length + season
+                .ordinal()) * PHASE_TYPES.length + phaseType.ordinal();
+    }// getTransitIndex()
+
+
+    /**
+     * Returns true if the unit type, season and phase type of the given
+     * transit index all match this Border, so that it prohibits transit
+     * if the from location, order and year match too.
+     */
+    boolean mayProhibit(final int transitIndex) {
+        return transitCriteria[transitIndex];
+    }// mayProhibit()
+
+
+    /**
+     * Checks the from location, order and year, for a transit index for
+     * which {@link #mayProhibit} is true. If 'from' was not specified,
+     * nothing is prohibited.
+     */
+    boolean prohibits(final Location fromLoc, final Phase phase,
+                      final Class<?> orderClass) {
+        if (!isFrom(fromLoc)) {
+            return false;
+        }
+        if (!orderClasses.isEmpty() && !orderClasses.contains(orderClass)) {
+            return false;
+        }
+
+        final int theYear = phase.getYear();
+        switch (yearModifier) {
+            case YEAR_NOT_SPECIFIED:
+                return true;
+            case YEAR_ODD:
+                return (theYear & 1) == 1;
+            case YEAR_EVEN:
+                return (theYear & 1) == 0;
+            default:
+                return yearMin <= theYear && theYear <= yearMax;
         }
+    }// prohibits()
 
-		/*
-        System.out.println("  fromMatched: "+fromMatched);
-		System.out.println("  nResults: "+nResults);
-		System.out.println("  failResults: "+failResults);
-		*/
 
-        // only return 'false' if EVERYTHING has failed, or,
-        // nothing was tested
-        assert failResults <= nResults;
-        return failResults < nResults || nResults == 0;
-    }// canTransit()
+    private boolean isFrom(final Location fromLoc) {
+        for (final Location aFrom : from) {
+            if (aFrom.equalsLoosely(fromLoc)) {
+                return true;
+            }
+        }
+        return false;
+    }// isFrom()
 
 
     /**
@@ -28,8 +28,6 @@ import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Coasts are essential to determining connectivity between Provinces.
@@ -78,19 +76,6 @@ public enum Coast {
     EAST("East Coast", "ec", 7);
 
 
-    // transient data
-    private static transient List<Pattern> patterns = Arrays.asList(
-            // match /xx, -xx, \xx coasts; also takes care of periods.
-            // also matches /x; will not match /xxx (or -xxx)
-            Pattern.compile(
-                    "\\s*[\\-\\\\/](\\p{Alnum}\\.?)(\\p{Alnum}\\.?)\\b"),
-            //
-            // match parenthetical coasts.
-            //patterns[1] = Pattern.compile("\\s*\\([^\\p{Alnum}]*(\\p{Alnum})[^\\p{Alnum}]*(\\p{Alnum})[^)]*\\)");
-            Pattern.compile("\\s*\\(([.[^)]]*)(\\))\\s*"));
-
-
-
 	/* To be used in the future .... parsing to accomodate
     private static final String NW_FULL 		= "Northwest Coast";
 	private static final String NE_FULL 		= "Northeast Coast";
@@ -287,73 +272,261 @@ public enum Coast {
      * Bug note: the following "xxx-n.c." will be converted to "xxx-nc ." Note the extra period.
      */
     public static Optional<String> normalize(final String input) {
-        // start matching.
-        String matchInput = input;
-        for (final Pattern pattern : patterns) {
-            final Matcher m = pattern.matcher(matchInput);
-            final StringBuffer sb = new StringBuffer(matchInput.length());
-
-            boolean result = m.find();
-            while (result) {
-                if (m.groupCount() != 2) {
-                    return Optional.empty();
+        // nothing to normalize without a separator or a parenthesis
+        if (!hasCoastSyntax(input)) {
+            return Optional.of(input.trim());
+        }
+        return new Normalizer(input).normalize();
+    }// normalize()
+
+    private static boolean hasCoastSyntax(final String input) {
+        for (int i = 0; i < input.length(); i++) {
+            final char c = input.charAt(i);
+            if (c == '-' || c == '/' || c == '\\' || c == '(') {
+                return true;
+            }
+        }
+        return false;
+    }// hasCoastSyntax()
+
+
+    /**
+     * Single-pass scanner behind {@link #normalize(String)}.
+     * <p>
+     * Separator coasts ("-xx", "/xx", "\xx") are rewritten as they are
+     * read; parenthetical coasts are rewritten from the already rewritten
+     * text between the parentheses, so "stp(-sc)" is treated exactly as
+     * "stp(/sc )" would be.
+     */
+    private static final class Normalizer {
+        private static final int NONE = 0;
+        private static final int DROP_SPACE = 1;
+        private static final int KEEP_SPACE = 2;
+
+        private final String in;
+        private final StringBuilder out;
+        // whitespace before a parenthesis is not coalesced below this index
+        private int floor;
+        // what to do with whitespace following a parenthetical coast
+        private int afterParen = NONE;
+        private boolean hasClose = true;
+
+        private Normalizer(final String in) {
+            this.in = in;
+            out = new StringBuilder(in.length() + 4);
+        }
+
+        private Optional<String> normalize() {
+            int i = 0;
+            while (i < in.length()) {
+                if (in.charAt(i) == '(' && hasClose) {
+                    final int close = in.indexOf(')', i + 1);
+                    if (close < 0) {
+                        hasClose = false;
+                    } else {
+                        if (!parenthetical(i, close)) {
+                            return Optional.empty();
+                        }
+                        i = close + 1;
+                        continue;
+                    }
                 }
-                // catch empty group "()"
-                if (m.group(1).isEmpty()) {
-                    return Optional.empty();
+                i = separator(i);
+            }
+            return Optional.of(trim());
+        }// normalize()
+
+        /**
+         * Rewrites a separator coast (with any preceding whitespace)
+         * starting at the given index, or copies a single character or
+         * whitespace run. Returns the index of the next unread character.
+         */
+        private int separator(final int start) {
+            int sep = start;
+            while (sep < in.length() && isSpace(in.charAt(sep))) {
+                sep++;
+            }
+            final int end = sep < in.length() && isSeparator(
+                    in.charAt(sep)) ? separatorEnd(sep) : -1;
+            if (end < 0) {
+                if (sep == start) {
+                    emit(in.charAt(start));
+                    return start + 1;
                 }
+                emit(start, sep);
+                return sep;
+            }
 
-                final char c1 = m.group(1).charAt(0);
-                final char c2 = m.group(2).charAt(0);
-
-                //System.out.println("1: "+m.group(1)+";  2: "+m.group(2));
-
-                if (c2 == ')') {
-                    final String group1 = superTrim(m.group(1));
-
-                    // test 'full name' and abbreviated coasts inside parentheses
-                    if (group1.startsWith("north") || "nc".equals(group1)) {
-                        m.appendReplacement(sb, "/nc ");
-                    } else if (group1.startsWith("south") || "sc"
-                            .equals(group1)) {
-                        m.appendReplacement(sb, "/sc ");
-                    } else if (group1.startsWith("west") || "wc"
-                            .equals(group1)) {
-                        m.appendReplacement(sb, "/wc ");
-                    } else if (group1.startsWith("east") || "ec"
-                            .equals(group1)) {
-                        m.appendReplacement(sb, "/ec ");
-                    } else if ("mv".equals(group1)) {
-                        m.appendReplacement(sb, "/mv ");
-                    } else if ("xc".equals(group1)) {
-                        m.appendReplacement(sb, "/xc ");
-                    }
-                } else if ((c1 == 'n' || c1 == 's' || c1 == 'w' || c1 == 'e' || c1 == 'x') && c2 == 'c' || c1 == 'm' && c2 == 'v') {
-                    // space added afterwards--essential!
-                    m.appendReplacement(sb,
-                            String.format("/%s%s ", c1, c2));
-                } else {
-                    Optional.empty();
+            final char c1 = in.charAt(sep + 1);
+            final char c2 = in.charAt(in.charAt(sep + 2) == '.' ? sep + 3 : sep + 2);
+            if ((c1 == 'n' || c1 == 's' || c1 == 'w' || c1 == 'e' || c1 == 'x') && c2 == 'c' || c1 == 'm' && c2 == 'v') {
+                // space added afterwards--essential!
+                emit('/');
+                out.append(c1).append(c2).append(' ');
+            } else {
+                emit(start, end);
+            }
+            return end;
+        }// separator()
+
+        /**
+         * Returns the end of "axy" at the given separator, where x and y are
+         * alphanumerics each optionally followed by a period and the match
+         * ends on a word boundary; or -1 if there is none.
+         */
+        private int separatorEnd(final int sep) {
+            final int len = in.length();
+            int i = sep + 1;
+            if (i >= len || !isAlnum(in.charAt(i))) {
+                return -1;
+            }
+            i++;
+            if (i < len && in.charAt(i) == '.') {
+                i++;
+            }
+            if (i >= len || !isAlnum(in.charAt(i))) {
+                return -1;
+            }
+            i++;
+            if (i < len && in.charAt(i) == '.') {
+                // the period only belongs to the coast if a word follows
+                return i + 1 < len && isWord(in.charAt(i + 1)) ? i + 1 : i;
+            }
+            return i == len || !isWord(in.charAt(i)) ? i : -1;
+        }// separatorEnd()
+
+        /**
+         * Rewrites the parenthetical coast between the given indices,
+         * coalescing whitespace on either side. Returns false if the
+         * parentheses are empty.
+         */
+        private boolean parenthetical(final int open, final int close) {
+            int coalesce = out.length();
+            while (coalesce > floor && isSpace(out.charAt(coalesce - 1))) {
+                coalesce--;
+            }
+            afterParen = NONE;
+            out.append('(');
+            final int content = out.length();
+            int i = open + 1;
+            while (i < close) {
+                i = separator(i);
+            }
+            afterParen = NONE;
+            if (out.length() == content) {
+                // catch empty group "()"
+                return false;
+            }
+
+            // test 'full name' and abbreviated coasts inside parentheses
+            final String coast;
+            if (startsWith(content, "north") || equals(content, "nc")) {
+                coast = "nc";
+            } else if (startsWith(content, "south") || equals(content, "sc")) {
+                coast = "sc";
+            } else if (startsWith(content, "west") || equals(content, "wc")) {
+                coast = "wc";
+            } else if (startsWith(content, "east") || equals(content, "ec")) {
+                coast = "ec";
+            } else if (equals(content, "mv")) {
+                coast = "mv";
+            } else if (equals(content, "xc")) {
+                coast = "xc";
+            } else {
+                coast = null;
+            }
+
+            if (coast == null) {
+                out.append(')');
+                afterParen = KEEP_SPACE;
+            } else {
+                out.setLength(coalesce);
+                out.append('/').append(coast).append(' ');
+                afterParen = DROP_SPACE;
+            }
+            floor = out.length();
+            return true;
+        }// parenthetical()
+
+        private boolean startsWith(final int from, final String word) {
+            return compareTrimmed(from, word, false);
+        }// startsWith()
+
+        private boolean equals(final int from, final String word) {
+            return compareTrimmed(from, word, true);
+        }// equals()
+
+        /**
+         * Compares the output from the given index, ignoring periods and
+         * whitespace, with the given word.
+         */
+        private boolean compareTrimmed(final int from, final String word,
+                                       final boolean exact) {
+            int k = 0;
+            for (int i = from; i < out.length(); i++) {
+                final char c = out.charAt(i);
+                if (c == '.' || isSpace(c)) {
+                    continue;
+                }
+                if (k == word.length()) {
+                    return !exact;
+                }
+                if (c != word.charAt(k++)) {
+                    return false;
                 }
+            }
+            return k == word.length();
+        }// compareTrimmed()
 
-                result = m.find();
+        private void emit(final int start, final int end) {
+            for (int i = start; i < end; i++) {
+                emit(in.charAt(i));
             }
+        }// emit()
 
-            m.appendTail(sb);
-            matchInput = sb.toString();
-        }
+        private void emit(final char c) {
+            if (afterParen != NONE && isSpace(c)) {
+                if (afterParen == KEEP_SPACE) {
+                    out.append(c);
+                    floor = out.length();
+                }
+                return;
+            }
+            afterParen = NONE;
+            out.append(c);
+        }// emit()
+
+        /**
+         * Same as String.trim() on the output.
+         */
+        private String trim() {
+            int start = 0;
+            int end = out.length();
+            while (start < end && out.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && out.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return out.substring(start, end);
+        }// trim()
 
-        return Optional.of(matchInput.trim());
-    }// normalize()
+        private static boolean isSeparator(final char c) {
+            return c == '-' || c == '\\' || c == '/';
+        }// isSeparator()
 
-    /**
-     * Trims the following characters before, within, and after a given string.
-     * <br>
-     * space, tab, '.'
-     */
-    private static String superTrim(final String in) {
-        return in.replaceAll("\\.*\\s*\\t*", "");
-    }// superTrim()
+        private static boolean isSpace(final char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\013' || c == '\f' || c == '\r';
+        }// isSpace()
+
+        private static boolean isAlnum(final char c) {
+            return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+        }// isAlnum()
+
+        private static boolean isWord(final char c) {
+            return c == '_' || Character.isLetterOrDigit(c);
+        }// isWord()
+    }// nested class Normalizer
 
 
     /**
@@ -0,0 +1,546 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.order.OrderFactory;
+import dip.world.variant.VariantManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * A store for many games, kept in one directory.
+ * <p>
+ * Games are appended, in the binary game file format but uncompressed, to
+ * segment files of up to {@link #SEGMENT_SIZE} bytes. An index file holds
+ * one record per game: its name, variant, last phase, and where its bytes
+ * are. The index is memory-mapped when the archive is opened; a game, or a
+ * single phase of a game, is then read from its memory-mapped segment
+ * without reading any other game.
+ * <p>
+ * Storing a game under a name already used replaces it; the old bytes stay
+ * in their segment. Segment data is forced to disk before its index record
+ * is written, so an interrupted store loses only the game being stored.
+ */
+public final class GameArchive implements Closeable {
+    /**
+     * Segments are not grown past this size, unless a single game is larger.
+     */
+    public static final long SEGMENT_SIZE = 256L << 20;
+
+    private static final String INDEX = "index.dat";
+    private static final String SEGMENT = "segment-%05d.dat";
+    private static final byte[] INDEX_MAGIC = {'J', 'D', 'P', 'X'};
+    private static final byte[] SEGMENT_MAGIC = {'J', 'D', 'P', 'S'};
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER = 5;
+
+    // length and checksum of an index record
+    private static final int RECORD_HEADER = 8;
+
+    private final Path dir;
+    private final FileChannel index;
+    private final Map<String, Entry> byName = new TreeMap<>();
+    private final Map<String, List<Entry>> byVariant = new HashMap<>();
+    private final Map<Phase, List<Entry>> byPhase = new HashMap<>();
+    private final Map<Integer, MappedByteBuffer> segments = new HashMap<>();
+    private long indexLength;
+    private int lastSegment;
+
+
+    /**
+     * A game in the archive.
+     */
+    public static final class Entry {
+        private final String name;
+        private final String variantName;
+        private final Phase lastPhase;
+        private final int phaseCount;
+        private final int segment;
+        private final long offset;
+        private final int length;
+
+        private Entry(final String name, final String variantName,
+                      final Phase lastPhase, final int phaseCount,
+                      final int segment, final long offset, final int length) {
+            this.name = name;
+            this.variantName = variantName;
+            this.lastPhase = lastPhase;
+            this.phaseCount = phaseCount;
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }// Entry()
+
+        public String getName() {
+            return name;
+        }// getName()
+
+        public String getVariantName() {
+            return variantName;
+        }// getVariantName()
+
+        /**
+         * The last phase of the game, or null if it has no turns.
+         */
+        public Phase getLastPhase() {
+            return lastPhase;
+        }// getLastPhase()
+
+        public int getPhaseCount() {
+            return phaseCount;
+        }// getPhaseCount()
+
+        /**
+         * Number of bytes the game takes in its segment.
+         */
+        public int getSize() {
+            return length;
+        }// getSize()
+
+        @Override
+        public String toString() {
+            return String.format("%s\t%s\t%s\t%d\t%d", name, variantName,
+                    lastPhase == null ? "-" : lastPhase.getBriefName(),
+                    phaseCount, length);
+        }// toString()
+    }// nested class Entry
+
+
+    private GameArchive(final Path dir) throws IOException {
+        this.dir = dir;
+        index = FileChannel.open(dir.resolve(INDEX), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (index.size() == 0) {
+            index.write(ByteBuffer.wrap(fileHeader(INDEX_MAGIC)));
+            index.force(true);
+        }
+        readIndex();
+    }// GameArchive()
+
+
+    /**
+     * Opens the archive in the given directory, creating it if needed.
+     */
+    public static GameArchive open(final Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return new GameArchive(dir);
+    }// open()
+
+
+    /**
+     * Returns the game of the given name, or null.
+     */
+    public synchronized Entry find(final String name) {
+        return byName.get(name);
+    }// find()
+
+    /**
+     * Returns the games of the given variant.
+     */
+    public synchronized List<Entry> findByVariant(final String variantName) {
+        return copy(byVariant.get(variantName));
+    }// findByVariant()
+
+    /**
+     * Returns the games whose last phase is the given phase.
+     */
+    public synchronized List<Entry> findByLastPhase(final Phase phase) {
+        return copy(byPhase.get(phase));
+    }// findByLastPhase()
+
+    /**
+     * Returns all games, sorted by name.
+     */
+    public synchronized List<Entry> getEntries() {
+        return copy(byName.values());
+    }// getEntries()
+
+
+    /**
+     * Stores a game under the given name, replacing any game of that name.
+     */
+    public synchronized Entry put(final String name,
+                                  final World world) throws IOException {
+        Objects.requireNonNull(name);
+        final WorldSnapshot snapshot = WorldSnapshot.of(world);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                snapshot.getSize() + 256);
+        BinaryWorldFormat.write(snapshot, bytes);
+
+        final List<Phase> phases = snapshot.getPhases();
+        final Entry entry = append(name,
+                world.getVariantInfo().getVariantName(),
+                phases.isEmpty() ? null : phases.get(phases.size() - 1),
+                phases.size(), bytes.toByteArray());
+
+        final ByteArrayOutputStream record = new ByteArrayOutputStream();
+        final GameDataOutput out = new GameDataOutput(record, world.getMap());
+        out.writeString(entry.name);
+        out.writeString(entry.variantName);
+        out.writePhase(entry.lastPhase);
+        out.writeVarInt(entry.phaseCount);
+        out.writeVarInt(entry.segment);
+        out.writeLong(entry.offset);
+        out.writeVarInt(entry.length);
+        out.flush();
+        final byte[] payload = record.toByteArray();
+
+        final ByteBuffer buffer = ByteBuffer
+                .allocate(RECORD_HEADER + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) checksum(payload, 0, payload.length));
+        buffer.put(payload);
+        buffer.flip();
+
+        // drops a torn record left by an interrupted store
+        index.truncate(indexLength);
+        while (buffer.hasRemaining()) {
+            index.write(buffer, indexLength + buffer.position());
+        }
+        index.force(false);
+        indexLength += buffer.capacity();
+
+        add(entry);
+        return entry;
+    }// put()
+
+
+    /**
+     * Reads the game of the given name, or returns null if there is none.
+     */
+    public synchronized World load(final String name,
+                                   final VariantManager variantManager,
+                                   final OrderFactory orderFactory) throws IOException {
+        final Entry entry = byName.get(name);
+        return entry == null ? null : BinaryWorldFormat
+                .read(open(entry), variantManager, orderFactory);
+    }// load()
+
+    /**
+     * Reads one phase of the game of the given name, without decoding the
+     * other phases. Returns null if there is no such game or phase.
+     */
+    public synchronized TurnState loadTurnState(final String name,
+                                                final Phase phase,
+                                                final VariantManager variantManager,
+                                                final OrderFactory orderFactory) throws IOException {
+        final Entry entry = byName.get(name);
+        return entry == null ? null : BinaryWorldFormat
+                .readTurnState(open(entry), variantManager, orderFactory,
+                        phase);
+    }// loadTurnState()
+
+
+    @Override
+    public synchronized void close() throws IOException {
+        segments.clear();
+        index.close();
+    }// close()
+
+
+    /**
+     * Appends the bytes of a game to the last segment, or to a new one if
+     * the last is full, and forces them to disk.
+     */
+    private Entry append(final String name, final String variantName,
+                         final Phase lastPhase, final int phaseCount,
+                         final byte[] bytes) throws IOException {
+        int segment = lastSegment;
+        Path path = segmentPath(segment);
+        if (Files.exists(path)
+                && Files.size(path) + bytes.length > SEGMENT_SIZE
+                && Files.size(path) > FILE_HEADER) {
+            segment++;
+            path = segmentPath(segment);
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (channel.size() < FILE_HEADER) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(fileHeader(SEGMENT_MAGIC)));
+            }
+            final long offset = channel.size();
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            channel.force(false);
+
+            lastSegment = segment;
+            return new Entry(name, variantName, lastPhase, phaseCount,
+                    segment, offset, bytes.length);
+        }
+    }// append()
+
+    /**
+     * Returns a stream over the bytes of a game, mapping (or remapping, if
+     * it has grown) its segment.
+     */
+    private InputStream open(final Entry entry) throws IOException {
+        MappedByteBuffer mapped = segments.get(entry.segment);
+        if (mapped == null || mapped.capacity() < entry.offset + entry.length) {
+            try (FileChannel channel = FileChannel
+                    .open(segmentPath(entry.segment), StandardOpenOption.READ)) {
+                mapped = channel.map(MapMode.READ_ONLY, 0, channel.size());
+            }
+            segments.put(entry.segment, mapped);
+        }
+        final ByteBuffer slice = mapped.duplicate();
+        slice.position((int) entry.offset);
+        slice.limit((int) entry.offset + entry.length);
+        return new ByteBufferInputStream(slice.slice());
+    }// open()
+
+    /**
+     * Reads the records of the memory-mapped index, up to the first one
+     * that is incomplete or damaged.
+     */
+    private void readIndex() throws IOException {
+        final MappedByteBuffer mapped = index
+                .map(MapMode.READ_ONLY, 0, index.size());
+        final byte[] header = new byte[FILE_HEADER];
+        if (mapped.remaining() < FILE_HEADER) {
+            throw new IOException("not a game archive: " + dir);
+        }
+        mapped.get(header);
+        if (!Arrays.equals(header, fileHeader(INDEX_MAGIC))) {
+            throw new IOException("not a game archive, or a newer version: " + dir);
+        }
+
+        indexLength = FILE_HEADER;
+        while (mapped.remaining() >= RECORD_HEADER) {
+            final int length = mapped.getInt();
+            final int checksum = mapped.getInt();
+            if (length < 0 || length > mapped.remaining()) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            mapped.get(payload);
+            if ((int) checksum(payload, 0, length) != checksum) {
+                break;
+            }
+
+            final GameDataInput in = new GameDataInput(
+                    new ByteArrayInputStream(payload), null);
+            final Entry entry = new Entry(in.readString(), in.readString(),
+                    in.readPhase(), in.readVarInt(), in.readVarInt(),
+                    in.readLong(), in.readVarInt());
+            add(entry);
+            lastSegment = Math.max(lastSegment, entry.segment);
+            indexLength += RECORD_HEADER + length;
+        }
+    }// readIndex()
+
+    private void add(final Entry entry) {
+        final Entry old = byName.put(entry.name, entry);
+        if (old != null) {
+            byVariant.get(old.variantName).remove(old);
+            if (old.lastPhase != null) {
+                byPhase.get(old.lastPhase).remove(old);
+            }
+        }
+        byVariant.computeIfAbsent(entry.variantName, k -> new ArrayList<>())
+                .add(entry);
+        if (entry.lastPhase != null) {
+            byPhase.computeIfAbsent(entry.lastPhase, k -> new ArrayList<>())
+                    .add(entry);
+        }
+    }// add()
+
+    private Path segmentPath(final int segment) {
+        return dir.resolve(String.format(SEGMENT, segment));
+    }// segmentPath()
+
+    private static List<Entry> copy(final Collection<Entry> entries) {
+        return entries == null ? Collections.emptyList() : Collections
+                .unmodifiableList(new ArrayList<>(entries));
+    }// copy()
+
+    private static byte[] fileHeader(final byte[] magic) {
+        final byte[] header = Arrays.copyOf(magic, FILE_HEADER);
+        header[magic.length] = VERSION;
+        return header;
+    }// fileHeader()
+
+    private static long checksum(final byte[] bytes, final int offset,
+                                 final int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        return crc.getValue();
+    }// checksum()
+
+
+    /**
+     * An InputStream over the remaining bytes of a ByteBuffer.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }// ByteBufferInputStream()
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }// read()
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }// read()
+
+        @Override
+        public long skip(final long n) {
+            final int skipped = (int) Math.max(0,
+                    Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }// skip()
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }// available()
+    }// nested class ByteBufferInputStream
+
+
+    /**
+     * Imports or lists games from the command line.
+     */
+    public static void main(final String[] args) {
+        String variantName = null;
+        final List<String> params = new ArrayList<>();
+        for (final String arg : args) {
+            if (arg.startsWith("-variant:")) {
+                variantName = arg.substring(arg.indexOf(':') + 1);
+            } else if (arg.startsWith("-")) {
+                printUsageAndExit();
+            } else {
+                params.add(arg);
+            }
+        }
+
+        if (params.size() < 2) {
+            printUsageAndExit();
+        }
+        final String command = params.get(0);
+        final Path dir = Paths.get(params.get(1));
+        final List<String> files = params.subList(2, params.size());
+        if ("import".equals(command) ? files.isEmpty() : !"list"
+                .equals(command) || !files.isEmpty()) {
+            printUsageAndExit();
+        }
+
+        int failed = 0;
+        try (GameArchive archive = open(dir)) {
+            if ("list".equals(command)) {
+                for (final Entry entry : variantName == null ? archive
+                        .getEntries() : archive.findByVariant(variantName)) {
+                    System.out.println(entry);
+                }
+            } else {
+                final VariantManager variantManager = new VariantManager();
+                for (final String file : files) {
+                    failed += importGames(archive, Paths.get(file),
+                            variantManager);
+                }
+            }
+        } catch (final IOException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(failed == 0 ? 0 : 2);
+    }// main()
+
+    private static void printUsageAndExit() {
+        System.out.println(
+                "USAGE: GameArchive import <archive-dir> <file-or-dir>...");
+        System.out.println(
+                "       GameArchive list [-variant:name] <archive-dir>");
+        System.out.println(
+                "  import stores each game file (directories are searched for *.jdip files)");
+        System.out.println(
+                "         under its path, without the extension; list prints one line per game:");
+        System.out.println(
+                "         name, variant, last phase, number of phases, size in bytes.");
+        System.out.println(
+                "  -variant:name   list only the games of this variant");
+        System.out.println("");
+        System.out.println("  Examples:");
+        System.out.println(
+                "      java dip.world.GameArchive import archive games");
+        System.out.println(
+                "      java dip.world.GameArchive list -variant:Standard archive");
+        System.exit(1);
+    }// printUsageAndExit()
+
+    /**
+     * Imports a game file, or the game files below a directory; returns the
+     * number that could not be imported.
+     */
+    private static int importGames(final GameArchive archive, final Path path,
+                                   final VariantManager variantManager) throws IOException {
+        int failed = 0;
+        for (final Map.Entry<Path, String> game : GameFiles.findGames(path)
+                .entrySet()) {
+            final Path file = game.getKey();
+            final String name = game.getValue();
+            try {
+                final World world = World.open(file.toFile(), variantManager,
+                        OrderFactory.getDefault());
+                final Entry entry = archive.put(name, world);
+                System.out.println(entry);
+            } catch (final IOException | RuntimeException e) {
+                System.err.println("ERROR: " + file + ": " + e.getMessage());
+                failed++;
+            }
+        }
+        return failed;
+    }// importGames()
+
+}// class GameArchive
@@ -0,0 +1,267 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.order.Order;
+import dip.order.OrderCodec;
+import dip.order.OrderFactory;
+import dip.world.Phase.PhaseType;
+import dip.world.Phase.SeasonType;
+import dip.world.Unit.Type;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static dip.world.GameDataOutput.COASTS;
+import static dip.world.GameDataOutput.PHASES;
+import static dip.world.GameDataOutput.REF_INLINE;
+import static dip.world.GameDataOutput.REF_NULL;
+import static dip.world.GameDataOutput.REF_TABLE;
+import static dip.world.GameDataOutput.SEASONS;
+import static dip.world.GameDataOutput.UNIT_TYPES;
+
+/**
+ * Input side of the binary game file format; see {@link GameDataOutput}.
+ * <p>
+ * Province and Power indices are resolved against the tables read from
+ * the file header, and Orders are created with the given OrderFactory.
+ */
+public final class GameDataInput {
+    private final DataInputStream in;
+    private final OrderFactory orderFactory;
+    private final List<Order> orderTable = new ArrayList<>();
+    private WorldMap map;
+    private List<Province> provinces = Collections.emptyList();
+    private List<Power> powers = Collections.emptyList();
+
+
+    GameDataInput(final InputStream in, final OrderFactory orderFactory) {
+        this.in = new DataInputStream(in);
+        this.orderFactory = orderFactory;
+    }// GameDataInput()
+
+
+    /**
+     * Sets the Provinces and Powers that indices refer to, as read from
+     * the file header, and the map whose canonical Locations are returned.
+     */
+    void setTables(final WorldMap map, final List<Province> provinces,
+                   final List<Power> powers) {
+        this.map = map;
+        this.provinces = provinces;
+        this.powers = powers;
+    }// setTables()
+
+
+    List<Province> getProvinces() {
+        return provinces;
+    }// getProvinces()
+
+    List<Power> getPowers() {
+        return powers;
+    }// getPowers()
+
+
+    /**
+     * The OrderFactory used to create Orders.
+     */
+    public OrderFactory getOrderFactory() {
+        return orderFactory;
+    }// getOrderFactory()
+
+    public int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }// readVarInt()
+
+    public int readInt() throws IOException {
+        return in.readInt();
+    }// readInt()
+
+    public long readLong() throws IOException {
+        return in.readLong();
+    }// readLong()
+
+    public boolean readBoolean() throws IOException {
+        return in.readBoolean();
+    }// readBoolean()
+
+    public int readByte() throws IOException {
+        return in.readByte();
+    }// readByte()
+
+    /**
+     * Reads a String written by {@link GameDataOutput#writeString(String)}.
+     */
+    public String readString() throws IOException {
+        final int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }// readString()
+
+    public Province readProvince() throws IOException {
+        return get(provinces, readVarInt() - 1, "province");
+    }// readProvince()
+
+    public Province[] readProvinces() throws IOException {
+        final int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        final Province[] result = new Province[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = readProvince();
+        }
+        return result;
+    }// readProvinces()
+
+    public Power readPower() throws IOException {
+        return get(powers, readVarInt() - 1, "power");
+    }// readPower()
+
+    public Location readLocation() throws IOException {
+        final Province province = readProvince();
+        if (province == null) {
+            return null;
+        }
+        final Coast coast = get(COASTS, in.readByte(), "coast");
+        return map == null ? new Location(province, coast) : map
+                .getLocation(province, coast);
+    }// readLocation()
+
+    public Location[] readLocations() throws IOException {
+        final int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        final Location[] result = new Location[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = readLocation();
+        }
+        return result;
+    }// readLocations()
+
+    public Type readUnitType() throws IOException {
+        return get(UNIT_TYPES, in.readByte(), "unit type");
+    }// readUnitType()
+
+    public Unit readUnit() throws IOException {
+        final Power power = readPower();
+        if (power == null) {
+            return null;
+        }
+        final Unit unit = new Unit(power, readUnitType());
+        unit.setCoast(get(COASTS, in.readByte(), "coast"));
+        return unit;
+    }// readUnit()
+
+    public Phase readPhase() throws IOException {
+        final int season = in.readByte();
+        if (season < 0) {
+            return null;
+        }
+        final SeasonType seasonType = get(SEASONS, season, "season");
+        final PhaseType phaseType = get(PHASES, in.readByte(), "phase");
+        try {
+            return new Phase(seasonType, in.readInt(), phaseType);
+        } catch (final IllegalArgumentException e) {
+            throw new IOException(e);
+        }
+    }// readPhase()
+
+    /**
+     * Reads an Order written in full, and adds it to the order table of
+     * the turn.
+     */
+    public Order readOrder() throws IOException {
+        final Order order = OrderCodec.read(this);
+        orderTable.add(order);
+        return order;
+    }// readOrder()
+
+    /**
+     * Reads a reference written by
+     * {@link GameDataOutput#writeOrderRef(dip.order.Orderable)}.
+     */
+    public Order readOrderRef() throws IOException {
+        final int ref = readVarInt();
+        if (ref == REF_NULL) {
+            return null;
+        }
+        if (ref == REF_INLINE) {
+            return readOrder();
+        }
+        return get(orderTable, ref - REF_TABLE, "order");
+    }// readOrderRef()
+
+    /**
+     * Reads bytes as they are, such as a section to be decoded later.
+     */
+    void readFully(final byte[] bytes) throws IOException {
+        in.readFully(bytes);
+    }// readFully()
+
+    /**
+     * Skips bytes, such as sections not to be decoded.
+     */
+    void skip(final int n) throws IOException {
+        int remaining = n;
+        while (remaining > 0) {
+            final int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }// skip()
+
+    void clearOrderTable() {
+        orderTable.clear();
+    }// clearOrderTable()
+
+    /**
+     * Returns the indexed element; -1 is read as null.
+     */
+    private static <T> T get(final List<T> list, final int index,
+                             final String what) throws IOException {
+        if (index == -1) {
+            return null;
+        }
+        if (index < 0 || index >= list.size()) {
+            throw new IOException(
+                    String.format("bad %s index: %d", what, index));
+        }
+        return list.get(index);
+    }// get()
+
+}// class GameDataInput
@@ -0,0 +1,273 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.order.Order;
+import dip.order.OrderCodec;
+import dip.order.Orderable;
+import dip.world.Phase.PhaseType;
+import dip.world.Phase.SeasonType;
+import dip.world.Unit.Type;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Output side of the binary game file format.
+ * <p>
+ * Besides the primitive types, this writes the game objects that the
+ * order and result codecs have in common. Provinces and Powers are written
+ * as their index in the WorldMap; Orders referred to by results are
+ * written as an index into the orders already written for the turn.
+ */
+public final class GameDataOutput {
+    // codes are fixed by the file format; do not reorder
+    static final List<Coast> COASTS = Arrays
+            .asList(Coast.UNDEFINED, Coast.WING, Coast.NONE, Coast.SINGLE,
+                    Coast.NORTH, Coast.SOUTH, Coast.WEST, Coast.EAST);
+    static final List<Type> UNIT_TYPES = Arrays
+            .asList(Type.UNDEFINED, Type.ARMY, Type.FLEET, Type.WING);
+    static final List<SeasonType> SEASONS = Arrays
+            .asList(SeasonType.SPRING, SeasonType.FALL);
+    static final List<PhaseType> PHASES = Arrays
+            .asList(PhaseType.MOVEMENT, PhaseType.RETREAT,
+                    PhaseType.ADJUSTMENT);
+
+    // order references: null, an order written inline, or a table index
+    static final int REF_NULL = 0;
+    static final int REF_INLINE = 1;
+    static final int REF_TABLE = 2;
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> powerIndex = new HashMap<>();
+    private final Map<Order, Integer> orderTable = new IdentityHashMap<>();
+
+
+    /**
+     * Creates an output without Powers, for data that refers only to
+     * Provinces and Locations.
+     */
+    GameDataOutput(final OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }// GameDataOutput()
+
+
+    GameDataOutput(final OutputStream out, final WorldMap map) {
+        this.out = new DataOutputStream(out);
+        final List<Power> powers = map.getPowers();
+        for (int i = 0; i < powers.size(); i++) {
+            powerIndex.put(powers.get(i).getName(), i);
+        }
+    }// GameDataOutput()
+
+
+    /**
+     * Writes a non-negative int in 1 to 5 bytes.
+     */
+    public void writeVarInt(final int value) throws IOException {
+        if (value < 0) {
+            throw new IOException("negative value: " + value);
+        }
+        int v = value;
+        while ((v & ~0x7F) != 0) {
+            out.writeByte(v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte(v);
+    }// writeVarInt()
+
+    public void writeInt(final int value) throws IOException {
+        out.writeInt(value);
+    }// writeInt()
+
+    public void writeLong(final long value) throws IOException {
+        out.writeLong(value);
+    }// writeLong()
+
+    public void writeBoolean(final boolean value) throws IOException {
+        out.writeBoolean(value);
+    }// writeBoolean()
+
+    public void writeByte(final int value) throws IOException {
+        out.writeByte(value);
+    }// writeByte()
+
+    /**
+     * Writes a String, which may be null, as UTF-8.
+     */
+    public void writeString(final String value) throws IOException {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        out.write(bytes);
+    }// writeString()
+
+    /**
+     * Writes a Province, which may be null.
+     */
+    public void writeProvince(final Province province) throws IOException {
+        writeVarInt(province == null ? 0 : province.getIndex() + 1);
+    }// writeProvince()
+
+    /**
+     * Writes a Province array, which may be null.
+     */
+    public void writeProvinces(final Province[] provinces) throws IOException {
+        if (provinces == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(provinces.length + 1);
+        for (final Province province : provinces) {
+            writeProvince(province);
+        }
+    }// writeProvinces()
+
+    /**
+     * Writes a Power, which may be null.
+     */
+    public void writePower(final Power power) throws IOException {
+        if (power == null) {
+            writeVarInt(0);
+            return;
+        }
+        final Integer index = powerIndex.get(power.getName());
+        if (index == null) {
+            throw new IOException("power not in map: " + power);
+        }
+        writeVarInt(index + 1);
+    }// writePower()
+
+    /**
+     * Writes a Location, which may be null.
+     */
+    public void writeLocation(final Location location) throws IOException {
+        if (location == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeProvince(location.getProvince());
+        out.writeByte(COASTS.indexOf(location.getCoast()));
+    }// writeLocation()
+
+    /**
+     * Writes a Location array, which may be null.
+     */
+    public void writeLocations(final Location[] locations) throws IOException {
+        if (locations == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(locations.length + 1);
+        for (final Location location : locations) {
+            writeLocation(location);
+        }
+    }// writeLocations()
+
+    /**
+     * Writes a unit Type, which may be null.
+     */
+    public void writeUnitType(final Type type) throws IOException {
+        out.writeByte(type == null ? -1 : UNIT_TYPES.indexOf(type));
+    }// writeUnitType()
+
+    /**
+     * Writes a Unit, which may be null.
+     */
+    public void writeUnit(final Unit unit) throws IOException {
+        if (unit == null) {
+            writeVarInt(0);
+            return;
+        }
+        writePower(unit.getPower());
+        writeUnitType(unit.getType());
+        out.writeByte(COASTS.indexOf(unit.getCoast()));
+    }// writeUnit()
+
+    /**
+     * Writes a Phase, which may be null.
+     */
+    public void writePhase(final Phase phase) throws IOException {
+        if (phase == null) {
+            out.writeByte(-1);
+            return;
+        }
+        out.writeByte(SEASONS.indexOf(phase.getSeasonType()));
+        out.writeByte(PHASES.indexOf(phase.getPhaseType()));
+        out.writeInt(phase.getYear());
+    }// writePhase()
+
+    /**
+     * Writes an Order in full, and adds it to the order table of the turn
+     * so that later references to it are written as an index.
+     */
+    public void writeOrder(final Order order) throws IOException {
+        orderTable.put(order, orderTable.size());
+        OrderCodec.write(this, order);
+    }// writeOrder()
+
+    /**
+     * Writes a reference to an Order, which may be null. Orders not yet in
+     * the order table of the turn are written in full.
+     */
+    public void writeOrderRef(final Orderable orderable) throws IOException {
+        if (orderable == null) {
+            writeVarInt(REF_NULL);
+            return;
+        }
+        if (!(orderable instanceof Order)) {
+            throw new IOException(
+                    "cannot write order " + orderable.getClass().getName());
+        }
+        final Integer index = orderTable.get(orderable);
+        if (index == null) {
+            writeVarInt(REF_INLINE);
+            writeOrder((Order) orderable);
+        } else {
+            writeVarInt(REF_TABLE + index);
+        }
+    }// writeOrderRef()
+
+    /**
+     * Starts a new turn; orders of previous turns can no longer be
+     * referenced.
+     */
+    void clearOrderTable() {
+        orderTable.clear();
+    }// clearOrderTable()
+
+    /**
+     * Writes bytes as they are, such as a section encoded earlier.
+     */
+    void write(final byte[] bytes) throws IOException {
+        out.write(bytes);
+    }// write()
+
+    void flush() throws IOException {
+        out.flush();
+    }// flush()
+
+}// class GameDataOutput
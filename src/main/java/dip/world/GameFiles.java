@@ -0,0 +1,65 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Finds game files for the command-line tools.
+ */
+final class GameFiles {
+    private GameFiles() {
+    }
+
+    /**
+     * Returns the game file, or the game files below a directory, each with
+     * its game name: the path relative to the directory, without the
+     * extension. A single file is named by its file name.
+     */
+    static Map<Path, String> findGames(final Path path) throws IOException {
+        final List<Path> files;
+        final Path base;
+        if (Files.isDirectory(path)) {
+            base = path;
+            try (Stream<Path> paths = Files.walk(path)) {
+                files = paths.filter(p -> p.toString().endsWith(".jdip"))
+                        .filter(Files::isRegularFile).sorted()
+                        .collect(Collectors.toList());
+            }
+        } else {
+            base = path.toAbsolutePath().getParent();
+            files = Collections.singletonList(path.toAbsolutePath());
+        }
+
+        final Map<Path, String> games = new LinkedHashMap<>();
+        for (final Path file : files) {
+            games.put(file, base.relativize(file).toString()
+                    .replace(File.separatorChar, '/')
+                    .replaceFirst("\\.jdip$", ""));
+        }
+        return games;
+    }// findGames()
+
+}// class GameFiles
@@ -0,0 +1,404 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.order.OrderFactory;
+import dip.world.variant.VariantManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * A game file that is saved by appending records, rather than by
+ * rewriting it.
+ * <p>
+ * The file starts with a snapshot of the World in the binary format,
+ * followed by records of TurnStates that were added or changed, and of
+ * phases that were removed. Each save appends only the TurnStates that
+ * changed since the last save, so saving a long game costs about as much
+ * as saving a short one. When the records outgrow the snapshot, the file
+ * is compacted into a new snapshot.
+ * <p>
+ * Every record carries its length and a checksum. A record torn by a
+ * crash is ignored when the file is read, and overwritten by the next
+ * save; earlier records and the snapshot are never rewritten in place.
+ * Compaction writes a new file and renames it over the old one.
+ * <p>
+ * Changes may be encoded where the World is changed, with
+ * {@link #prepare()}, and written later, in order, by another thread.
+ */
+public final class GameJournal {
+    private static final byte[] MAGIC = {'J', 'D', 'P', 'J'};
+    private static final int VERSION = 1;
+
+    // record types
+    private static final int SNAPSHOT = 0;
+    private static final int TURN = 1;
+    private static final int REMOVE = 2;
+
+    // type, length and checksum
+    private static final int RECORD_HEADER = 9;
+
+    private final File file;
+    private final World world;
+    private final Map<Phase, Long> saved = new HashMap<>();
+    private long headerChecksum;
+    private boolean mapOrder;
+    private long snapshotLength;
+    private long length;
+    private volatile boolean rewrite;
+
+
+    private GameJournal(final File file, final World world) {
+        this.file = file;
+        this.world = world;
+    }// GameJournal()
+
+
+    /**
+     * Returns true if the file is a journaled game file.
+     */
+    public static boolean isJournal(final File file) throws IOException {
+        try (InputStream in = new FileInputStream(file)) {
+            final byte[] header = new byte[MAGIC.length];
+            return BinaryWorldFormat.readMagic(in, header) == MAGIC.length && Arrays
+                    .equals(header, MAGIC);
+        }
+    }// isJournal()
+
+
+    /**
+     * Writes the World to a new journaled game file, replacing any
+     * existing file.
+     */
+    public static GameJournal create(final File file,
+                                     final World world) throws IOException {
+        final GameJournal journal = new GameJournal(file, world);
+        journal.compact();
+        return journal;
+    }// create()
+
+
+    /**
+     * Returns a journal for the World that is not written yet; the first
+     * Update prepared writes the file, replacing any existing file.
+     */
+    public static GameJournal of(final File file, final World world) {
+        final GameJournal journal = new GameJournal(file, world);
+        journal.rewrite = true;
+        return journal;
+    }// of()
+
+
+    /**
+     * Reads a journaled game file. For the VariantManager and OrderFactory,
+     * see {@link World#open(File, VariantManager, OrderFactory)}.
+     */
+    public static GameJournal open(final File file,
+                                   final VariantManager variantManager,
+                                   final OrderFactory orderFactory) throws IOException {
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length <= MAGIC.length || !Arrays
+                .equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC)) {
+            throw new IOException("not a journaled game file");
+        }
+        final int version = bytes[MAGIC.length] & 0xFF;
+        if (version > VERSION) {
+            throw new IOException(String.format(
+                    "journal format %d is newer than this version of jDip supports (%d)",
+                    version, VERSION));
+        }
+
+        int offset = MAGIC.length + 1;
+        final byte[] snapshot = readRecord(bytes, offset, SNAPSHOT);
+        if (snapshot == null) {
+            throw new IOException("game file has no snapshot");
+        }
+        offset += RECORD_HEADER + snapshot.length;
+
+        final World world;
+        try (InputStream is = new InflaterInputStream(
+                new ByteArrayInputStream(snapshot))) {
+            world = BinaryWorldFormat.read(is, variantManager, orderFactory);
+        }
+
+        final GameJournal journal = new GameJournal(file, world);
+        journal.snapshotLength = offset;
+        journal.mapOrder = world.getTurnHistory().isReusable();
+
+        // replay records, up to the first that is torn or damaged
+        byte[] payload;
+        while ((payload = readRecord(bytes, offset, -1)) != null) {
+            if (bytes[offset] == TURN) {
+                world.setTurnSection(BinaryWorldFormat.getPhase(payload),
+                        payload);
+            } else if (bytes[offset] == REMOVE) {
+                world.removeTurnState(BinaryWorldFormat.getPhase(payload));
+            } else {
+                break;
+            }
+            offset += RECORD_HEADER + payload.length;
+        }
+        world.keepFirstAndLast();
+
+        journal.length = offset;
+        journal.markSaved();
+        return journal;
+    }// open()
+
+
+    /**
+     * The World kept in this journal.
+     */
+    public World getWorld() {
+        return world;
+    }// getWorld()
+
+    /**
+     * The game file.
+     */
+    public File getFile() {
+        return file;
+    }// getFile()
+
+
+    /**
+     * Saves the changes made to the World since it was last saved or
+     * opened. The file is compacted if the records have outgrown the
+     * snapshot, or if anything other than the turns has changed.
+     */
+    public void save() throws IOException {
+        prepare().write();
+    }// save()
+
+
+    /**
+     * Encodes the changes made to the World since the last save, open or
+     * prepared Update, to be written by {@link Update#write()}. This must
+     * be called where the World is changed. Updates must be written in
+     * the order they were prepared, one at a time; once one fails, the
+     * next Update prepared compacts the file.
+     */
+    public Update prepare() throws IOException {
+        // records refer to Provinces and Powers in map order, so a snapshot
+        // from a variant version with another order is replaced first
+        if (rewrite || length - snapshotLength > snapshotLength || !mapOrder
+                || checksum(BinaryWorldFormat.encodeHeader(world)) != headerChecksum) {
+            return prepareCompaction();
+        }
+
+        final ByteArrayOutputStream records = new ByteArrayOutputStream(1024);
+        final Set<Phase> phases = new HashSet<>();
+        for (final Phase phase : new ArrayList<>(world.getPhaseSet())) {
+            phases.add(phase);
+            // turns that were never decoded are as saved
+            final byte[] section = encodeTurnState(phase);
+            if (section != null) {
+                final long checksum = checksum(section);
+                final Long savedChecksum = saved.get(phase);
+                if (savedChecksum == null || savedChecksum != checksum) {
+                    writeRecord(records, TURN, section);
+                    saved.put(phase, checksum);
+                }
+            }
+        }
+        for (final Phase phase : new ArrayList<>(saved.keySet())) {
+            if (!phases.contains(phase)) {
+                writeRecord(records, REMOVE,
+                        BinaryWorldFormat.encodePhase(world, phase));
+                saved.remove(phase);
+            }
+        }
+
+        final Update update = new Update(length, records.toByteArray(), false);
+        length += records.size();
+        return update;
+    }// prepare()
+
+
+    /**
+     * Writes the World as a new snapshot without records. The new file is
+     * written beside the old one, which it replaces once complete.
+     */
+    public void compact() throws IOException {
+        prepareCompaction().write();
+    }// compact()
+
+    private Update prepareCompaction() throws IOException {
+        final ByteArrayOutputStream snapshot = new ByteArrayOutputStream(16384);
+        try (DeflaterOutputStream dos = new DeflaterOutputStream(snapshot)) {
+            BinaryWorldFormat.write(world, dos);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                snapshot.size() + 16);
+        bytes.write(MAGIC);
+        bytes.write(VERSION);
+        writeRecord(bytes, SNAPSHOT, snapshot.toByteArray());
+
+        snapshotLength = bytes.size();
+        length = bytes.size();
+        mapOrder = true;
+        rewrite = false;
+        saved.clear();
+        markSaved();
+        return new Update(0, bytes.toByteArray(), true);
+    }// prepareCompaction()
+
+
+    /**
+     * Notes the checksums of the header and of the TurnStates that are
+     * kept in memory, as they are in the file now.
+     */
+    private void markSaved() throws IOException {
+        headerChecksum = checksum(BinaryWorldFormat.encodeHeader(world));
+        for (final Phase phase : new ArrayList<>(world.getPhaseSet())) {
+            final byte[] section = encodeTurnState(phase);
+            saved.put(phase, section == null ? null : checksum(section));
+        }
+    }// markSaved()
+
+    /**
+     * Returns the encoded TurnState of a phase that is kept in memory or
+     * was compacted, or null for a turn that was never decoded.
+     */
+    private byte[] encodeTurnState(final Phase phase) throws IOException {
+        if (world.isResident(phase)) {
+            return BinaryWorldFormat
+                    .encodeTurnState(world, world.getTurnState(phase));
+        }
+        return world.getCompactedSection(phase);
+    }// encodeTurnState()
+
+
+    private static void writeRecord(final ByteArrayOutputStream out,
+                                    final int type,
+                                    final byte[] payload) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        header.put((byte) type);
+        header.putInt(payload.length);
+        header.putInt((int) checksum(payload));
+        out.write(header.array());
+        out.write(payload);
+    }// writeRecord()
+
+    /**
+     * Returns the payload of the record at the offset, or null if there is
+     * no complete record there, or if its checksum does not match. If the
+     * type is not -1, the record must be of that type.
+     */
+    private static byte[] readRecord(final byte[] bytes, final int offset,
+                                     final int type) {
+        if (bytes.length - offset < RECORD_HEADER) {
+            return null;
+        }
+        final ByteBuffer header = ByteBuffer
+                .wrap(bytes, offset, RECORD_HEADER);
+        final int recordType = header.get();
+        final int length = header.getInt();
+        final int checksum = header.getInt();
+        if (type != -1 && recordType != type || length < 0
+                || bytes.length - offset - RECORD_HEADER < length) {
+            return null;
+        }
+        final byte[] payload = Arrays.copyOfRange(bytes,
+                offset + RECORD_HEADER, offset + RECORD_HEADER + length);
+        return (int) checksum(payload) == checksum ? payload : null;
+    }// readRecord()
+
+    private static long checksum(final byte[] bytes) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }// checksum()
+
+
+    /**
+     * Changes to a journal, encoded by {@link GameJournal#prepare()}:
+     * records to append, or a snapshot that replaces the file.
+     */
+    public final class Update {
+        private final long offset;
+        private final byte[] bytes;
+        private final boolean snapshot;
+
+        private Update(final long offset, final byte[] bytes,
+                       final boolean snapshot) {
+            this.offset = offset;
+            this.bytes = bytes;
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * True if there is nothing to write.
+         */
+        public boolean isEmpty() {
+            return bytes.length == 0;
+        }// isEmpty()
+
+        /**
+         * Number of bytes written.
+         */
+        public int getSize() {
+            return bytes.length;
+        }// getSize()
+
+        /**
+         * Writes the Update to the game file. Records are not written
+         * after an earlier Update failed, since the file is compacted
+         * next.
+         */
+        public void write() throws IOException {
+            try {
+                if (snapshot) {
+                    WorldSnapshot.replace(file, os -> os.write(bytes));
+                } else if (bytes.length > 0 && !rewrite) {
+                    try (FileChannel channel = FileChannel
+                            .open(file.toPath(), StandardOpenOption.WRITE)) {
+                        // drops a record torn by an earlier crash
+                        channel.truncate(offset);
+                        channel.position(offset);
+                        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        channel.force(false);
+                    }
+                }
+            } catch (final IOException | RuntimeException e) {
+                rewrite = true;
+                throw e;
+            }
+        }// write()
+    }// nested class Update
+
+}// class GameJournal
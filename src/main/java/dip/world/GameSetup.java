@@ -22,17 +22,32 @@
 //
 package dip.world;
 
+import java.io.IOException;
+
 /**
  * A GameSetup is an object set in the World object that
  * contains the required functionality to restore a saved
  * game. For example, if playing a networked game, it should
  * contain the nescessary data to restore the game.
  * <p>
- * This is a marker interface to maintain better gui/non-gui
- * separation.
+ * This interface is kept free of gui classes, to maintain better
+ * gui/non-gui separation. Its only methods store the data needed to
+ * restore the game in binary game files; by default there is none.
  */
 public interface GameSetup {
 
-    // no methods : marker interface
+    /**
+     * Writes the data needed to restore the game.
+     */
+    default void write(final GameDataOutput out) throws IOException {
+    }// write()
+
+
+    /**
+     * Reads the data written by {@link #write(GameDataOutput)}. This is
+     * called once, right after the GameSetup is created.
+     */
+    default void read(final GameDataInput in) throws IOException {
+    }// read()
 
 }// interface GameSetup
@@ -0,0 +1,388 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.misc.CommandLine;
+import dip.order.OrderFactory;
+import dip.order.Orderable;
+import dip.order.result.OrderResult;
+import dip.order.result.Result;
+import dip.world.variant.VariantManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Headless export of game history, one record per line, for analysis.
+ * <p>
+ * Every order, every result, and every change of supply center ownership
+ * becomes a record with the columns {@link #COLUMNS}; columns that do not
+ * apply are empty (CSV) or left out (JSON lines). Records are written a turn
+ * at a time, and turns are read one at a time, so memory use does not grow
+ * with the length of a game. Games may be exported from several threads
+ * into the same exporter; the records of a turn are never interleaved with
+ * others.
+ */
+public final class HistoryExporter {
+    /**
+     * Names of the columns, in CSV order.
+     */
+    public static final List<String> COLUMNS = Collections
+            .unmodifiableList(Arrays.asList("game", "phase",
+                    "record", "power", "province", "order", "result",
+                    "message", "previous_owner"));
+
+    /**
+     * Output format
+     */
+    public enum Format {
+        /**
+         * One JSON object per line
+         */
+        JSON,
+        /**
+         * Comma-separated values, with a header line
+         */
+        CSV
+    }// enum Format
+
+    private final Writer out;
+    private final Format format;
+    private final AtomicLong records = new AtomicLong();
+
+
+    /**
+     * Creates an exporter; for CSV, the header line is written at once.
+     */
+    public HistoryExporter(final Writer out,
+                           final Format format) throws IOException {
+        this.out = Objects.requireNonNull(out);
+        this.format = Objects.requireNonNull(format);
+        if (format == Format.CSV) {
+            out.write(String.join(",", COLUMNS));
+            out.write('\n');
+        }
+    }// HistoryExporter()
+
+
+    /**
+     * Writes the records of a game, in phase order. Only the turn being
+     * written is decoded and held by the exporter.
+     */
+    public void export(final String game, final World world) throws IOException {
+        final List<Province> centers = world.getMap().getProvinces().stream()
+                .filter(Province::hasSupplyCenter).collect(Collectors.toList());
+        final Power[] owners = new Power[centers.size()];
+
+        final StringBuilder sb = new StringBuilder(4096);
+        for (final Phase phase : new ArrayList<>(world.getPhaseSet())) {
+            final TurnState ts = world.getTurnState(phase);
+            final String phaseName = phase.getBriefName();
+            int n = 0;
+
+            for (final Orderable order : ts.getAllOrders()) {
+                append(sb, game, phaseName, "order", order.getPower(),
+                        order.getSource().getProvince(), order.toBriefString(),
+                        null, null, null);
+                n++;
+            }
+
+            for (final Result result : ts.getResultList()) {
+                if (result instanceof OrderResult) {
+                    final OrderResult or = (OrderResult) result;
+                    final Orderable order = or.getOrder();
+                    append(sb, game, phaseName, "result", result.getPower(),
+                            order == null ? null : order.getSource().getProvince(),
+                            order == null ? null : order.toBriefString(),
+                            or.getResultType().name(), result.getMessage(), null);
+                } else {
+                    append(sb, game, phaseName, "result", result.getPower(),
+                            null, null, null, result.getMessage(), null);
+                }
+                n++;
+            }
+
+            final Position position = ts.getPosition();
+            for (int i = 0; i < owners.length; i++) {
+                final Power owner = position
+                        .getSupplyCenterOwner(centers.get(i)).orElse(null);
+                if (owner != owners[i]) {
+                    append(sb, game, phaseName, "sc", owner, centers.get(i),
+                            null, null, null, owners[i]);
+                    owners[i] = owner;
+                    n++;
+                }
+            }
+
+            synchronized (out) {
+                out.append(sb);
+            }
+            sb.setLength(0);
+            records.addAndGet(n);
+        }
+    }// export()
+
+
+    /**
+     * Number of records written so far.
+     */
+    public long getRecordCount() {
+        return records.get();
+    }// getRecordCount()
+
+    /**
+     * Flushes the underlying Writer.
+     */
+    public void flush() throws IOException {
+        synchronized (out) {
+            out.flush();
+        }
+    }// flush()
+
+
+    private void append(final StringBuilder sb, final String game,
+                        final String phase, final String record,
+                        final Power power, final Province province,
+                        final String order, final String result,
+                        final String message, final Power previousOwner) {
+        final String[] values = {game, phase, record,
+                power == null ? null : power.getName(),
+                province == null ? null : province.getShortName(), order,
+                result, message,
+                previousOwner == null ? null : previousOwner.getName()};
+
+        if (format == Format.CSV) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                appendCSV(sb, values[i]);
+            }
+        } else {
+            sb.append('{');
+            boolean first = true;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    first = false;
+                    appendJSON(sb, COLUMNS.get(i));
+                    sb.append(':');
+                    appendJSON(sb, values[i]);
+                }
+            }
+            sb.append('}');
+        }
+        sb.append('\n');
+    }// append()
+
+    private static void appendCSV(final StringBuilder sb, final String value) {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            final char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }// appendCSV()
+
+    private static void appendJSON(final StringBuilder sb, final String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }// appendJSON()
+
+
+    /**
+     * Exports game files from the command line.
+     */
+    public static void main(final String[] args) {
+        Format format = Format.JSON;
+        int threads = Runtime.getRuntime().availableProcessors();
+        final List<String> params = new ArrayList<>();
+        for (final String arg : args) {
+            if (arg.startsWith("-format:")) {
+                try {
+                    format = Format.valueOf(arg.substring(arg.indexOf(':') + 1)
+                            .toUpperCase());
+                } catch (final IllegalArgumentException e) {
+                    System.err.println("ERROR: invalid argument: " + arg);
+                    printUsageAndExit();
+                }
+            } else if (arg.startsWith("-threads:")) {
+                threads = CommandLine.parseThreads(arg,
+                        HistoryExporter::printUsageAndExit);
+            } else if (arg.startsWith("-") && arg.length() > 1) {
+                printUsageAndExit();
+            } else {
+                params.add(arg);
+            }
+        }
+
+        if (params.size() < 2) {
+            printUsageAndExit();
+        }
+
+        final String output = params.get(0);
+        int failed = 0;
+        try (Writer writer = "-".equals(output) ? new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 65536)
+                : Files.newBufferedWriter(Paths.get(output),
+                StandardCharsets.UTF_8)) {
+            final Map<Path, String> games = new LinkedHashMap<>();
+            for (final String param : params.subList(1, params.size())) {
+                games.putAll(GameFiles.findGames(Paths.get(param)));
+            }
+            final HistoryExporter exporter = new HistoryExporter(writer, format);
+            failed = exportAll(exporter, games, threads);
+            exporter.flush();
+            System.err.println(String.format("%d games, %d records",
+                    games.size() - failed, exporter.getRecordCount()));
+        } catch (final IOException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            System.exit(1);
+        }
+        System.exit(failed == 0 ? 0 : 2);
+    }// main()
+
+    private static void printUsageAndExit() {
+        System.out.println(
+                "USAGE: HistoryExporter [-format:json|csv] [-threads:n] <output-file|-> <file-or-dir>...");
+        System.out.println(
+                "  Writes every order, result and supply center change of the games to <output-file>");
+        System.out.println(
+                "  (- for standard output). Directories are searched for *.jdip files.");
+        System.out.println(
+                "  -format:f       json (one object per line) or csv (default: json)");
+        System.out.println(
+                "  -threads:n      number of export threads (default: number of processors)");
+        System.out.println("");
+        System.out.println("  Examples:");
+        System.out.println(
+                "      java dip.world.HistoryExporter history.jsonl games");
+        System.out.println(
+                "      java dip.world.HistoryExporter -format:csv -threads:4 history.csv games");
+        System.exit(1);
+    }// printUsageAndExit()
+
+    /**
+     * Exports the games on a fixed pool of threads; returns the number that
+     * could not be opened or exported. Records written before a game
+     * failed are kept. A failure to write stops the export.
+     */
+    static int exportAll(final HistoryExporter exporter,
+                         final Map<Path, String> games,
+                         final int threads) throws IOException {
+        final VariantManager variantManager = new VariantManager();
+        final AtomicInteger failed = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<CompletableFuture<Void>> futures = games.keySet().stream()
+                    .map(file -> CompletableFuture.runAsync(() -> {
+                        final World world;
+                        try {
+                            world = World.open(file.toFile(), variantManager,
+                                    OrderFactory.getDefault());
+                        } catch (final IOException | RuntimeException e) {
+                            System.err.println("ERROR: " + file + ": " + e.getMessage());
+                            failed.incrementAndGet();
+                            return;
+                        }
+                        try {
+                            exporter.export(games.get(file), world);
+                        } catch (final IOException e) {
+                            throw new UncheckedIOException(e);
+                        } catch (final RuntimeException e) {
+                            System.err.println("ERROR: " + file + ": " + e);
+                            failed.incrementAndGet();
+                        }
+                    }, executor)).collect(Collectors.toList());
+            for (final CompletableFuture<Void> future : futures) {
+                future.join();
+            }
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+        return failed.get();
+    }// exportAll()
+
+}// class HistoryExporter
@@ -0,0 +1,188 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.order.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The order submissions made to a TurnState, oldest first.
+ * <p>
+ * Each change to the orders of a power is appended as an Event; events
+ * are never removed or changed. The log starts with the orders the
+ * TurnState held when it was created or read, which are not logged, so
+ * replaying the events over those orders gives the current orders. When
+ * the TurnState is resolved, its log is replaced by a new, empty one,
+ * which starts with the resolved orders.
+ * <p>
+ * This object is threadsafe.
+ */
+public final class OrderLog {
+    private final List<Event> events = new ArrayList<>();
+
+
+    /**
+     * The kind of change an Event records.
+     */
+    public enum Type {
+        /**
+         * An order was added.
+         */
+        ADD,
+        /**
+         * An order was replaced by another.
+         */
+        REPLACE,
+        /**
+         * An order was deleted.
+         */
+        DELETE
+    }// enum Type
+
+
+    /**
+     * Creates an empty OrderLog.
+     */
+    OrderLog() {
+    }// OrderLog()
+
+
+    /**
+     * Appends an event; returns it.
+     */
+    synchronized Event append(final Type type, final Power power,
+                              final int index, final Order order,
+                              final Order previous) {
+        final Event event = new Event(events.size(), type, power, index,
+                order, previous);
+        events.add(event);
+        return event;
+    }// append()
+
+
+    /**
+     * Returns the number of events logged.
+     */
+    public synchronized int size() {
+        return events.size();
+    }// size()
+
+
+    /**
+     * Returns all events, oldest first.
+     */
+    public List<Event> getEvents() {
+        return getEvents(0);
+    }// getEvents()
+
+
+    /**
+     * Returns the events from the given sequence number on, oldest first.
+     * The returned List is a copy.
+     */
+    public synchronized List<Event> getEvents(final int from) {
+        if (from < 0 || from > events.size()) {
+            throw new IndexOutOfBoundsException(String.valueOf(from));
+        }
+        return Collections.unmodifiableList(
+                new ArrayList<>(events.subList(from, events.size())));
+    }// getEvents()
+
+
+    /**
+     * A single change to the orders of a Power.
+     */
+    public static final class Event {
+        private final int sequence;
+        private final Type type;
+        private final Power power;
+        private final int index;
+        private final Order order;
+        private final Order previous;
+
+        private Event(final int sequence, final Type type, final Power power,
+                      final int index, final Order order,
+                      final Order previous) {
+            this.sequence = sequence;
+            this.type = Objects.requireNonNull(type);
+            this.power = Objects.requireNonNull(power);
+            this.index = index;
+            this.order = order;
+            this.previous = previous;
+        }
+
+        /**
+         * Position of this event in the log, starting at 0.
+         */
+        public int getSequence() {
+            return sequence;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * The Power whose orders changed.
+         */
+        public Power getPower() {
+            return power;
+        }
+
+        /**
+         * Position of the order in the order List of the Power.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * The order added, or the new order of a replacement;
+         * <code>null</code> for a deletion.
+         */
+        public Order getOrder() {
+            return order;
+        }
+
+        /**
+         * The order deleted or replaced; <code>null</code> for an addition.
+         */
+        public Order getPrevious() {
+            return previous;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            sb.append(sequence).append(' ').append(type).append(' ')
+                    .append(power).append('[').append(index).append("]: ");
+            if (previous != null) {
+                sb.append(previous);
+            }
+            if (previous != null && order != null) {
+                sb.append(" -> ");
+            }
+            if (order != null) {
+                sb.append(order);
+            }
+            return sb.toString();
+        }
+    }// nested class Event
+}// class OrderLog
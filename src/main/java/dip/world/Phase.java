@@ -166,6 +166,14 @@ public class Phase implements Serializable, Comparable<Phase> {
         return yearType.equals(phase.yearType) && seasonType == phase.seasonType && phaseType == phase.phaseType;
     }// equals()
 
+    /**
+     * Consistent with {@link #equals(Object)}.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(yearType, seasonType, phaseType);
+    }// hashCode()
+
     /**
      * Compares the Phase to the given Phase object. Returns a negative, zero, or
      * positive integer depending if the given Phase is less than, equal, or
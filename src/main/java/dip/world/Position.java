@@ -477,7 +477,7 @@ public final class Position implements Serializable, Cloneable {
     public List<Province> getUnitProvinces(final Power power) {
         return IntStream.range(0, provArray.size()).filter(i -> {
             final ProvinceData pd = provArray.get(i);
-            final Unit unit = pd.getUnit();
+            final Unit unit = pd == null ? null : pd.getUnit();
             return unit != null && unit.getPower() == power;
         }).mapToObj(map::reverseIndex).collect(Collectors.toList());
     }// getUnitProvinces()
@@ -490,7 +490,7 @@ public final class Position implements Serializable, Cloneable {
     public List<Province> getDislodgedUnitProvinces(final Power power) {
         return IntStream.range(0, provArray.size()).filter(i -> {
             final ProvinceData pd = provArray.get(i);
-            final Unit unit = pd.getDislodgedUnit();
+            final Unit unit = pd == null ? null : pd.getDislodgedUnit();
             return unit != null && unit.getPower() == power;
         }).mapToObj(map::reverseIndex).collect(Collectors.toList());
     }// getDislodgedUnitProvinces()
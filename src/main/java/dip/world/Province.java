@@ -85,6 +85,7 @@ public class Province implements Serializable, Comparable<Province> {
     // (because of difficulties with creation)
     private boolean supplyCenter;        // true if supply center exists here.
     private List<Border> borders;            // non-zero-length if any Borders exist
+    private Border[][] transitBorders;        // Borders that may prohibit transit, by transit index
 
 
     /**
@@ -222,6 +223,15 @@ public class Province implements Serializable, Comparable<Province> {
      */
     protected void setBorders(final List<Border> value) {
         borders = new ArrayList<>(value);
+
+        final Border[] none = new Border[0];
+        transitBorders = new Border[Border.TRANSIT_INDICES][];
+        for (int i = 0; i < transitBorders.length; i++) {
+            final int transitIndex = i;
+            transitBorders[i] = borders.isEmpty() ? none : borders.stream()
+                    .filter(border -> border.mayProhibit(transitIndex))
+                    .toArray(Border[]::new);
+        }
     }// setBorders()
 
 
@@ -454,8 +464,15 @@ public class Province implements Serializable, Comparable<Province> {
     public Optional<Border> getTransit(final Location fromLoc, final Type unit,
                                        final Phase phase,
                                        final Class<?> orderClass) {
-        return borders.stream().filter(border -> !border
-                .canTransit(fromLoc, unit, phase, orderClass)).findFirst();
+        // only the Borders whose unit type, season and phase criteria match
+        // are checked; for most provinces, there are none
+        for (final Border border : transitBorders[Border
+                .getTransitIndex(unit, phase)]) {
+            if (border.prohibits(fromLoc, phase, orderClass)) {
+                return Optional.of(border);
+            }
+        }
+        return Optional.empty();
     }// getTransit()
 
     /**
@@ -0,0 +1,157 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.misc.LRUCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TurnStates of an opened game that have not been decoded yet, and older
+ * TurnStates that the World has compacted.
+ * <p>
+ * Each phase is kept as its encoded section of the game file and decoded
+ * when first asked for. Decoded TurnStates are kept in a small LRU cache;
+ * once evicted, a TurnState is decoded again on the next request, so
+ * changes to it are lost unless it is stored back in the World with
+ * {@link World#setTurnState(TurnState)}.
+ * <p>
+ * Compacted sections are encoded against the map, which may not be in
+ * the order of the file the other sections came from; they have their own
+ * Decoder.
+ */
+final class TurnHistory {
+    /**
+     * Number of decoded TurnStates kept.
+     */
+    static final int CACHE_SIZE = 16;
+
+    private final Map<Phase, byte[]> sections = new HashMap<>();
+    private final Set<Phase> compacted = new HashSet<>();
+    private final Map<Phase, TurnState> cache = new LRUCache<>(CACHE_SIZE);
+    private final Decoder decoder;
+    private final Decoder mapDecoder;
+    private final boolean reusable;
+
+
+    /**
+     * Decodes one section.
+     */
+    @FunctionalInterface
+    interface Decoder {
+        TurnState decode(byte[] section) throws IOException;
+    }// nested interface Decoder
+
+
+    /**
+     * Creates a TurnHistory. If <code>reusable</code> is true, the sections
+     * of the file can be written unchanged to a new game file.
+     *
+     * @param decoder    decodes sections of the file
+     * @param mapDecoder decodes sections encoded against the map
+     */
+    TurnHistory(final Decoder decoder, final Decoder mapDecoder,
+                final boolean reusable) {
+        this.decoder = decoder;
+        this.mapDecoder = mapDecoder;
+        this.reusable = reusable;
+    }// TurnHistory()
+
+
+    /**
+     * Adds the section of a phase, replacing any earlier one.
+     */
+    synchronized void add(final Phase phase, final byte[] section) {
+        sections.put(phase, section);
+        compacted.remove(phase);
+        cache.remove(phase);
+    }// add()
+
+    /**
+     * Adds the section of a compacted TurnState, encoded against the map.
+     */
+    synchronized void addCompacted(final Phase phase, final byte[] section) {
+        add(phase, section);
+        compacted.add(phase);
+    }// addCompacted()
+
+    synchronized void remove(final Phase phase) {
+        sections.remove(phase);
+        compacted.remove(phase);
+        cache.remove(phase);
+    }// remove()
+
+    synchronized boolean contains(final Phase phase) {
+        return sections.containsKey(phase);
+    }// contains()
+
+
+    /**
+     * Returns the TurnState of the given phase, decoding it if it is not
+     * cached; null if the phase is not in this history.
+     */
+    synchronized TurnState get(final Phase phase) {
+        final TurnState cached = cache.get(phase);
+        if (cached != null) {
+            return cached;
+        }
+        final byte[] section = sections.get(phase);
+        if (section == null) {
+            return null;
+        }
+        try {
+            final TurnState ts = (compacted.contains(phase) ? mapDecoder :
+                    decoder).decode(section);
+            cache.put(phase, ts);
+            return ts;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("cannot read turn " + phase, e);
+        }
+    }// get()
+
+
+    /**
+     * True if sections refer to Provinces and Powers in map order, and so
+     * can be written unchanged to a new game file.
+     */
+    boolean isReusable() {
+        return reusable;
+    }// isReusable()
+
+
+    /**
+     * Returns the encoded section of the given phase, if it can be written
+     * unchanged to a new game file; otherwise null.
+     */
+    synchronized byte[] getSection(final Phase phase) {
+        return reusable || compacted.contains(phase) ? sections
+                .get(phase) : null;
+    }// getSection()
+
+    /**
+     * Returns the section of the given phase if it was compacted, rather
+     * than read from the file; otherwise null.
+     */
+    synchronized byte[] getCompactedSection(final Phase phase) {
+        return compacted.contains(phase) ? sections.get(phase) : null;
+    }// getCompactedSection()
+
+}// class TurnHistory
@@ -29,8 +29,11 @@ import dip.order.result.OrderResult.ResultType;
 import dip.order.result.Result;
 
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -51,7 +54,11 @@ import java.util.stream.Collectors;
  * from a list of Provinces and Powers. This occurs behind-the-scenes when
  * a World (or TurnState) object is deserialized.
  * <p>
- * This object is NOT SYNCHRONIZED and therefore not inherently threadsafe.
+ * This object is NOT SYNCHRONIZED and therefore not inherently threadsafe,
+ * with the exception of the orders: these may be submitted from several
+ * threads at once. Each change to the orders is recorded in an
+ * {@link OrderLog}, and {@link #getOrderSnapshot()} gives a consistent,
+ * unchanging view of them, e.g. for adjudication.
  * <p>
  * Also note that when a List of orders is obtained for a power, we do not
  * check that the list contains only orders for that power. (e.g., are
@@ -68,6 +75,8 @@ public final class TurnState implements Serializable {
     private boolean isEnded;                // true if game over (won, draw, etc.)
     private boolean isResolved;                // true if phase has been adjudicated
     private transient Map<Orderable, Boolean> resultMap;        // transient result map
+    private transient OrderLog orderLog;        // changes to orderMap; guarded by orderMap
+    private transient volatile Map<Power, List<Order>> orderSnapshot;        // null if orderMap changed
 
 
     /**
@@ -179,8 +188,8 @@ public final class TurnState implements Serializable {
      * Manipulations to this list will not be reflected in the TurnState object.
      */
     public List<Order> getAllOrders() {
-        return orderMap.entrySet().stream()
-                .flatMap(mapEntry -> mapEntry.getValue().stream())
+        return getOrderSnapshot().values().stream()
+                .flatMap(List::stream)
                 .collect(Collectors.toList());
     }// getOrderList()
 
@@ -189,7 +198,14 @@ public final class TurnState implements Serializable {
      * Clear all Orders, for all Powers.
      */
     public void clearAllOrders() {
-        orderMap.clear();
+        synchronized (orderMap) {
+            for (final Map.Entry<Power, List<Order>> entry : orderMap
+                    .entrySet()) {
+                logDeletes(entry.getKey(), entry.getValue());
+            }
+            orderMap.clear();
+            orderSnapshot = null;
+        }
     }// clearAllOrders()
 
 
@@ -197,13 +213,72 @@ public final class TurnState implements Serializable {
      * Returns the List of orders for a given Power.
      * <p>
      * Note that modifications to the returned order List will be reflected
-     * in the TurnState.
+     * in the TurnState, and recorded in the OrderLog. Each call to the List
+     * is threadsafe, but iterating over it while other threads submit orders
+     * is not; use {@link #getOrderSnapshot()} for that.
      */
     public List<Order> getOrders(final Power power) {
         Objects.requireNonNull(power);
-        return orderMap.computeIfAbsent(power, k -> new ArrayList<>(15));
+        synchronized (orderMap) {
+            List<Order> orders = orderMap.get(power);
+            if (orders == null) {
+                orders = new ArrayList<>(15);
+                orderMap.put(power, orders);
+                orderSnapshot = null;
+            }
+            return new OrderList(power, orders);
+        }
     }// getOrders()
 
+    /**
+     * The orders of all Powers, for the game file format.
+     */
+    Map<Power, List<Order>> getOrderMap() {
+        return getOrderSnapshot();
+    }// getOrderMap()
+
+    /**
+     * Returns the orders of all Powers, as they are at the time of the
+     * call. Neither the Map nor its Lists can be modified, and later
+     * changes to the orders are not reflected in them.
+     * <p>
+     * The snapshot is kept until the orders next change, so this is cheap
+     * to call repeatedly.
+     */
+    public Map<Power, List<Order>> getOrderSnapshot() {
+        Map<Power, List<Order>> snapshot = orderSnapshot;
+        if (snapshot == null) {
+            synchronized (orderMap) {
+                snapshot = orderSnapshot;
+                if (snapshot == null) {
+                    final Map<Power, List<Order>> copy = new LinkedHashMap<>(
+                            orderMap.size() * 2);
+                    for (final Map.Entry<Power, List<Order>> entry : orderMap
+                            .entrySet()) {
+                        copy.put(entry.getKey(), Collections.unmodifiableList(
+                                new ArrayList<>(entry.getValue())));
+                    }
+                    snapshot = Collections.unmodifiableMap(copy);
+                    orderSnapshot = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }// getOrderSnapshot()
+
+    /**
+     * Returns the log of changes made to the orders since this TurnState
+     * was created, read or resolved.
+     */
+    public OrderLog getOrderLog() {
+        synchronized (orderMap) {
+            if (orderLog == null) {
+                orderLog = new OrderLog();
+            }
+            return orderLog;
+        }
+    }// getOrderLog()
+
     /**
      * Sets the orders for the given Power, deleting any existing orders for the power
      */
@@ -211,9 +286,109 @@ public final class TurnState implements Serializable {
         Objects.requireNonNull(power);
         Objects.requireNonNull(list);
 
-        orderMap.put(power, list);
+        synchronized (orderMap) {
+            final List<Order> existing = orderMap.get(power);
+            if (list instanceof OrderList && ((OrderList) list).orders == existing) {
+                return;
+            }
+
+            final List<Order> orders = new ArrayList<>(list);
+            if (existing != null) {
+                logDeletes(power, existing);
+            }
+            for (int i = 0; i < orders.size(); i++) {
+                log(OrderLog.Type.ADD, power, i, orders.get(i), null);
+            }
+            orderMap.put(power, orders);
+            orderSnapshot = null;
+        }
     }// setOrders()
 
+    /**
+     * Sets the orders for the given Power as read from a game file; this
+     * is not logged, and the list is kept as is.
+     */
+    void loadOrders(final Power power, final List<Order> list) {
+        synchronized (orderMap) {
+            orderMap.put(power, list);
+            orderSnapshot = null;
+        }
+    }// loadOrders()
+
+    /**
+     * Submits an order for its Power. Any order of that Power for the
+     * same source province is replaced; if it is equal to the submitted
+     * order, nothing changes.
+     *
+     * @return the order for the same source province, or <code>null</code>
+     * if there was none
+     */
+    public Order submitOrder(final Order order) {
+        final Power power = order.getPower();
+        Objects.requireNonNull(power);
+        synchronized (orderMap) {
+            final List<Order> orders = orderMap
+                    .computeIfAbsent(power, k -> new ArrayList<>(15));
+            for (int i = 0; i < orders.size(); i++) {
+                final Order existing = orders.get(i);
+                if (existing.getSource().isProvinceEqual(order.getSource())) {
+                    if (!existing.equals(order)) {
+                        orders.set(i, order);
+                        log(OrderLog.Type.REPLACE, power, i, order, existing);
+                    }
+                    return existing;
+                }
+            }
+
+            orders.add(order);
+            log(OrderLog.Type.ADD, power, orders.size() - 1, order, null);
+            return null;
+        }
+    }// submitOrder()
+
+    /**
+     * Removes an order from the orders of its Power. If the order is
+     * present more than once, only the first is removed.
+     *
+     * @return <code>true</code> if the order was found and removed
+     */
+    public boolean removeOrder(final Order order) {
+        final Power power = order.getPower();
+        Objects.requireNonNull(power);
+        synchronized (orderMap) {
+            final List<Order> orders = orderMap.get(power);
+            final int index = orders == null ? -1 : orders.indexOf(order);
+            if (index < 0) {
+                return false;
+            }
+            orders.remove(index);
+            log(OrderLog.Type.DELETE, power, index, null, order);
+            return true;
+        }
+    }// removeOrder()
+
+    /**
+     * Logs a change to the orders; the caller holds the lock.
+     */
+    private void log(final OrderLog.Type type, final Power power,
+                     final int index, final Order order, final Order previous) {
+        if (orderLog == null) {
+            orderLog = new OrderLog();
+        }
+        orderLog.append(type, power, index, order, previous);
+        orderSnapshot = null;
+    }// log()
+
+    /**
+     * Logs the deletion of all given orders, last first, so that each
+     * index is valid when replayed; the caller holds the lock.
+     */
+    private void logDeletes(final Power power, final List<Order> orders) {
+        for (int i = orders.size() - 1; i >= 0; i--) {
+            log(OrderLog.Type.DELETE, power, i, null, orders.get(i));
+        }
+    }// logDeletes()
+
     /**
      * Set if game has ended for any reason
      */
@@ -229,10 +404,17 @@ public final class TurnState implements Serializable {
     }
 
     /**
-     * Set if the turn has been adjudicated.
+     * Set if the turn has been adjudicated. Once it has, the orders are
+     * final, and the OrderLog is dropped: the orders become the base of a
+     * new, empty log, so replaced orders are no longer held.
      */
     public void setResolved(final boolean value) {
         isResolved = value;
+        if (value && orderMap != null) {
+            synchronized (orderMap) {
+                orderLog = null;
+            }
+        }
     }
 
     /**
@@ -268,4 +450,63 @@ public final class TurnState implements Serializable {
 
     }// isFailedOrder()
 
+    /**
+     * The orders of a Power, as returned by getOrders(). Changes are made
+     * to the orders of the TurnState, and logged.
+     */
+    private final class OrderList extends AbstractList<Order> {
+        private final Power power;
+        private final List<Order> orders;
+
+        private OrderList(final Power power, final List<Order> orders) {
+            this.power = power;
+            this.orders = orders;
+        }
+
+        @Override
+        public Order get(final int index) {
+            synchronized (orderMap) {
+                return orders.get(index);
+            }
+        }
+
+        @Override
+        public int size() {
+            synchronized (orderMap) {
+                return orders.size();
+            }
+        }
+
+        @Override
+        public Order set(final int index, final Order order) {
+            Objects.requireNonNull(order);
+            synchronized (orderMap) {
+                final Order previous = orders.set(index, order);
+                log(OrderLog.Type.REPLACE, power, index, order, previous);
+                return previous;
+            }
+        }
+
+        @Override
+        public void add(final int index, final Order order) {
+            Objects.requireNonNull(order);
+            synchronized (orderMap) {
+                orders.add(index, order);
+                log(OrderLog.Type.ADD, power, index, order, null);
+            }
+            modCount++;
+        }
+
+        @Override
+        public Order remove(final int index) {
+            final Order previous;
+            synchronized (orderMap) {
+                previous = orders.remove(index);
+                log(OrderLog.Type.DELETE, power, index, null, previous);
+            }
+            modCount++;
+            return previous;
+        }
+    }// nested class OrderList
+
 }// class TurnState
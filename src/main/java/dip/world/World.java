@@ -25,8 +25,10 @@ package dip.world;
 import JSX.ObjectReader;
 import JSX.ObjectWriter;
 import dip.gui.undo.UndoRedoManager;
+import dip.order.OrderFactory;
 import dip.world.metadata.GameMetadata;
 import dip.world.metadata.PlayerMetadata;
+import dip.world.variant.VariantManager;
 import dip.world.variant.data.VersionNumber;
 
 import java.io.BufferedInputStream;
@@ -34,19 +36,19 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.SortedMap;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 
@@ -57,9 +59,23 @@ import java.util.zip.GZIPOutputStream;
  * A World contains:
  * <ol>
  * <li>Map (dip.world.Map) object [constant]
- * <li>TurnState objects [in a linked hash map]
+ * <li>TurnState objects [in a sorted map; see below]
  * <li>HashMap of per-power and global state information (used to set various data)
  * </ol>
+ * <p>
+ * A World opened from a binary game file decodes only its first and last
+ * TurnStates; the others are decoded when asked for, and a bounded number
+ * of them are kept. TurnStates stored with {@link #setTurnState(TurnState)}
+ * are always kept, unless turn compaction is enabled with
+ * {@link #setTurnCompaction(int, OrderFactory)}: resolved TurnStates that
+ * fall outside the window are then encoded in memory, and decoded again
+ * when asked for.
+ * <p>
+ * TurnStates are kept in a concurrent map: they may be read, and the
+ * phases iterated, without locking while another thread adds or removes
+ * turns. Iterators are weakly consistent; they never throw
+ * ConcurrentModificationException. Changes to the turns are serialized
+ * among themselves.
  */
 public final class World implements Serializable {
     // constants for non-turn-data lookup
@@ -72,23 +88,71 @@ public final class World implements Serializable {
     private static final String KEY_VARIANT_INFO = "_variant_info_";
 
     // instance variables
-    private final SortedMap<Phase, TurnState> turnStates;            // turn data
+    // marks TurnStates that are in the TurnHistory
+    private static final TurnState ENCODED = new TurnState();
+
+    private final ConcurrentNavigableMap<Phase, TurnState> turnStates;            // turn data
     private final Map<Object, Object> nonTurnData;            // non-turn data (misc data & per-player data)
     private final WorldMap map;                        // the actual map (constant)
+    private transient volatile TurnHistory history;            // undecoded turns (may be null)
+    private transient int compactionWindow;            // latest phases kept (0: all)
+    private transient OrderFactory compactionOrderFactory;
+
+
+    /**
+     * The formats a World can be saved in.
+     */
+    public enum FileFormat {
+        /**
+         * Serialized object graph (JSX XML); the original format.
+         */
+        XML,
+        /**
+         * Compact, versioned binary format. The map is not stored; it is
+         * recreated from the variant when the World is read.
+         */
+        BINARY
+    }// enum FileFormat
 
 
     /**
-     * Reads a World object from a file.
+     * Reads a World object from a file. Games in the binary format are
+     * read with the default OrderFactory and a new VariantManager.
      */
     public static World open(final File file) throws IOException {
+        return open(file, null, OrderFactory.getDefault());
+    }// open()
 
-        try (
-                final GZIPInputStream gzi = new GZIPInputStream(
-                        new BufferedInputStream(new FileInputStream(file),
-                                4096));
-                ObjectReader in = new ObjectReader(gzi)) {
-            final World w = (World) in.readObject();
-            return w;
+
+    /**
+     * Reads a World object from a file, in any format, including journaled
+     * game files (see {@link GameJournal}). For games in the binary format, the variant is looked up with the given VariantManager
+     * (or a new one, if null), and Orders are created with the given
+     * OrderFactory.
+     */
+    public static World open(final File file,
+                             final VariantManager variantManager,
+                             final OrderFactory orderFactory) throws IOException {
+        if (GameJournal.isJournal(file)) {
+            return GameJournal.open(file,
+                    variantManager == null ? new VariantManager() : variantManager,
+                    orderFactory).getWorld();
+        }
+        try (final InputStream in = new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), 4096), 8192)) {
+            final byte[] header = new byte[BinaryWorldFormat.getMagicLength()];
+            in.mark(header.length);
+            final int n = BinaryWorldFormat.readMagic(in, header);
+            in.reset();
+
+            if (n == header.length && BinaryWorldFormat.isBinary(header)) {
+                return BinaryWorldFormat.read(in,
+                        variantManager == null ? new VariantManager() : variantManager,
+                        orderFactory);
+            }
+            try (ObjectReader reader = new ObjectReader(in)) {
+                return (World) reader.readObject();
+            }
         } catch (final ClassNotFoundException e) {
             throw new IOException(e);
         }
@@ -96,18 +160,39 @@ public final class World implements Serializable {
 
 
     /**
-     * Saves a World object to a file.
+     * Saves a World object to a file, in the binary format.
      */
     public static void save(final File file,
                             final World world) throws IOException {
+        save(file, world, FileFormat.BINARY);
+    }// save()
+
+
+    /**
+     * Saves a World object to a file, in the given format.
+     */
+    public static void save(final File file, final World world,
+                            final FileFormat format) throws IOException {
+        if (format == FileFormat.BINARY) {
+            WorldSnapshot.of(world).save(file);
+            return;
+        }
 
-        try (GZIPOutputStream gzos = new GZIPOutputStream(
-                new FileOutputStream(file), 2048);
-             final ObjectWriter out = new ObjectWriter(gzos)) {
-            out.setPrettyPrint(false);
-            out.writeObject(world);
-            out.close();
-            gzos.finish(); // this is key. otherwise data is not written.
+        // the writer needs every turn decoded; turns that were encoded are
+        // encoded again after, so that saving leaves the World unchanged
+        synchronized (world.turnStates) {
+            final TurnHistory history = world.history;
+            final List<Phase> decoded = world.decodeTurnHistory();
+            try (GZIPOutputStream gzos = new GZIPOutputStream(
+                    new FileOutputStream(file), 2048);
+                 final ObjectWriter out = new ObjectWriter(gzos)) {
+                out.setPrettyPrint(false);
+                out.writeObject(world);
+                // closing the writer finishes the gzip stream; finishing it
+                // again after that fails with "Stream closed"
+            } finally {
+                world.restoreTurnHistory(history, decoded);
+            }
         }
     }// save()
 
@@ -117,8 +202,7 @@ public final class World implements Serializable {
      */
     protected World(final WorldMap map) {
         this.map = map;
-        turnStates = Collections.synchronizedSortedMap(
-                new TreeMap<>());    // synchronize on TreeMap
+        turnStates = new ConcurrentSkipListMap<>();
         nonTurnData = new HashMap<>(17);
     }// World()
 
@@ -150,11 +234,7 @@ public final class World implements Serializable {
      * Gets the first TurnState object
      */
     public TurnState getInitialTurnState() {
-        final TurnState ts = turnStates.get(turnStates.firstKey());
-        if (ts != null) {
-            ts.setWorld(this);
-        }
-        return ts;
+        return findTurnState(turnStates.firstKey());
     }// getInitialTurnState()
 
 
@@ -162,11 +242,10 @@ public final class World implements Serializable {
      * Gets the most current (last in the list) TurnState.
      */
     public TurnState getLastTurnState() {
-        final TurnState ts = turnStates.get(turnStates.lastKey());
-        if (ts != null) {
-            ts.setWorld(this);
-        }
-        return ts;
+        // the last TurnState may be changed; keep it from now on
+        final Phase phase = turnStates.lastKey();
+        keep(phase);
+        return findTurnState(phase);
     }// getLastTurnState()
 
 
@@ -174,11 +253,7 @@ public final class World implements Serializable {
      * Gets the TurnState associated with the specified Phase
      */
     public TurnState getTurnState(final Phase phase) {
-        final TurnState ts = turnStates.get(phase);
-        if (ts != null) {
-            ts.setWorld(this);
-        }
-        return ts;
+        return findTurnState(phase);
     }// getTurnState()
 
 
@@ -195,26 +270,13 @@ public final class World implements Serializable {
             return Optional.empty();
         }
 
-        Phase next = null;
-        final Iterator<Phase> iter = turnStates.keySet().iterator();
-        while (iter.hasNext()) {
-            final Phase phase = iter.next();
-            if (current.compareTo(phase) == 0) {
-                if (iter.hasNext()) {
-                    next = iter.next();
-                }
-
-                break;
-            }
-        }
-
+        final Phase next = turnStates.containsKey(current) ? turnStates
+                .higherKey(current) : null;
         if (next == null) {
             return Optional.empty();
         }
 
-        final TurnState ts = turnStates.get(next);
-        ts.setWorld(this);
-        return Optional.of(ts);
+        return Optional.ofNullable(findTurnState(next));
     }// getNextTurnState()
 
 
@@ -224,11 +286,17 @@ public final class World implements Serializable {
      * in the World object. However, modifications to individual
      * TurnState objects will be reflected in the World object
      * (TurnStates are not cloned here).
+     * <p>
+     * This decodes every TurnState not decoded yet.
      */
     public List<TurnState> getAllTurnStates() {
-        final Collection<TurnState> values = turnStates.values();
-        final List<TurnState> al = new ArrayList<>(values.size());
-        al.addAll(values);
+        final List<TurnState> al = new ArrayList<>(turnStates.size());
+        for (final Phase phase : turnStates.keySet()) {
+            final TurnState ts = findTurnState(phase);
+            if (ts != null) {
+                al.add(ts);
+            }
+        }
         return al;
     }// getAllTurnStates()
 
@@ -246,12 +314,11 @@ public final class World implements Serializable {
             return Optional.empty();
         }
 
-        return turnStates.keySet().stream()
-                .filter(phase -> phase.compareTo(current) != 0)
-                .reduce((a, b) -> b).map(turnStates::get).map(ts -> {
-                    ts.setWorld(this);
-                    return ts;
-                });
+        final Phase previous = turnStates.lowerKey(current);
+        if (previous == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findTurnState(previous));
     }// getPreviousTurnState()
 
 
@@ -259,16 +326,87 @@ public final class World implements Serializable {
      * If a TurnState with the given phase already exists, it is replaced.
      */
     public void setTurnState(final TurnState turnState) {
-        turnStates.put(turnState.getPhase(), turnState);
+        synchronized (turnStates) {
+            turnStates.put(turnState.getPhase(), turnState);
+            if (history != null) {
+                history.remove(turnState.getPhase());
+            }
+            if (compactionWindow > 0 && turnState.getPhase()
+                    .equals(turnStates.lastKey())) {
+                compactTurnStates();
+            }
+        }
     }// setTurnState()
 
 
+    /**
+     * Enables compaction of older TurnStates: whenever a TurnState is added
+     * as the last, resolved TurnStates before the last <code>window</code>
+     * phases are encoded in memory, and decoded again, with Orders created by
+     * the given OrderFactory, when asked for. The first TurnState is always
+     * kept. A window of 0 disables compaction; otherwise it is at least 2.
+     */
+    public void setTurnCompaction(final int window,
+                                  final OrderFactory orderFactory) {
+        if (window < 0) {
+            throw new IllegalArgumentException("window < 0");
+        }
+        compactionWindow = window == 0 ? 0 : Math.max(2, window);
+        compactionOrderFactory = Objects.requireNonNull(orderFactory);
+        compactTurnStates();
+    }// setTurnCompaction()
+
+
+    /**
+     * Compacts the resolved TurnStates outside the window set by
+     * {@link #setTurnCompaction(int, OrderFactory)}, if enabled.
+     */
+    public void compactTurnStates() {
+        if (compactionWindow <= 0) {
+            return;
+        }
+        synchronized (turnStates) {
+            final List<Phase> phases = new ArrayList<>(turnStates.keySet());
+            for (int i = 1; i < phases.size() - compactionWindow; i++) {
+                final Phase phase = phases.get(i);
+                final TurnState ts = turnStates.get(phase);
+                if (ts == ENCODED || !ts.isResolved()) {
+                    continue;
+                }
+                final byte[] section;
+                try {
+                    section = BinaryWorldFormat.encodeTurnState(this, ts);
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (history == null) {
+                    final TurnHistory.Decoder decoder = BinaryWorldFormat
+                            .decoder(map, map.getProvinces(), map.getPowers(),
+                                    compactionOrderFactory);
+                    history = new TurnHistory(decoder, decoder, true);
+                }
+                history.addCompacted(phase, section);
+                turnStates.put(phase, ENCODED);
+            }
+        }
+    }// compactTurnStates()
+
+
     /**
      * Removes a turnstate from the world. This should
      * be used with caution!
      */
     public void removeTurnState(final TurnState turnState) {
-        turnStates.remove(turnState.getPhase());
+        removeTurnState(turnState.getPhase());
+    }// removeTurnState()
+
+    void removeTurnState(final Phase phase) {
+        synchronized (turnStates) {
+            turnStates.remove(phase);
+            if (history != null) {
+                history.remove(phase);
+            }
+        }
     }// removeTurnState()
 
 
@@ -276,12 +414,154 @@ public final class World implements Serializable {
      * Removes <b>all</b> TurnStates from the World.
      */
     public void removeAllTurnStates() {
-        turnStates.clear();
+        synchronized (turnStates) {
+            turnStates.clear();
+            history = null;
+        }
     }// removeAllTurnStates()
 
 
     /**
-     * returns sorted (ascending) set of all Phases
+     * Sets the TurnStates of the given phases to be decoded from the
+     * TurnHistory when asked for; the first and last are decoded now.
+     */
+    void setTurnHistory(final TurnHistory history,
+                        final Collection<Phase> phases) {
+        synchronized (turnStates) {
+            this.history = history;
+            for (final Phase phase : phases) {
+                turnStates.put(phase, ENCODED);
+            }
+            keepFirstAndLast();
+        }
+    }// setTurnHistory()
+
+    /**
+     * Replaces the TurnState of a phase with an encoded section, to be
+     * decoded from the TurnHistory when asked for. Call
+     * {@link #keepFirstAndLast()} when done.
+     */
+    void setTurnSection(final Phase phase, final byte[] section) {
+        synchronized (turnStates) {
+            history.add(phase, section);
+            turnStates.put(phase, ENCODED);
+        }
+    }// setTurnSection()
+
+    /**
+     * Decodes and keeps the first and last TurnStates.
+     */
+    void keepFirstAndLast() {
+        synchronized (turnStates) {
+            if (!turnStates.isEmpty()) {
+                keep(turnStates.firstKey());
+                keep(turnStates.lastKey());
+            }
+        }
+    }// keepFirstAndLast()
+
+    TurnHistory getTurnHistory() {
+        return history;
+    }// getTurnHistory()
+
+    /**
+     * Returns the encoded TurnState of the phase if it was compacted;
+     * otherwise null.
+     */
+    byte[] getCompactedSection(final Phase phase) {
+        return history == null ? null : history.getCompactedSection(phase);
+    }// getCompactedSection()
+
+    /**
+     * True if the TurnState of the phase has been kept since the World
+     * was opened, rather than decoded from the TurnHistory.
+     */
+    boolean isResident(final Phase phase) {
+        final TurnState ts = turnStates.get(phase);
+        return ts != null && ts != ENCODED;
+    }// isResident()
+
+    /**
+     * Decodes and keeps all TurnStates; the TurnHistory is dropped.
+     */
+    /**
+     * Decodes every turn held in the TurnHistory into the map, and drops
+     * the history; returns the phases decoded.
+     */
+    private List<Phase> decodeTurnHistory() {
+        final List<Phase> decoded = new ArrayList<>();
+        if (history == null) {
+            return decoded;
+        }
+        synchronized (turnStates) {
+            for (final Phase phase : turnStates.keySet()) {
+                if (turnStates.get(phase) == ENCODED) {
+                    turnStates.put(phase, history.get(phase));
+                    decoded.add(phase);
+                }
+            }
+            history = null;
+        }
+        return decoded;
+    }// decodeTurnHistory()
+
+    /**
+     * Undoes {@link #decodeTurnHistory()}: the phases decoded are held in
+     * the given history again.
+     */
+    private void restoreTurnHistory(final TurnHistory history,
+                                    final List<Phase> decoded) {
+        if (history == null) {
+            return;
+        }
+        synchronized (turnStates) {
+            for (final Phase phase : decoded) {
+                turnStates.put(phase, ENCODED);
+            }
+            this.history = history;
+        }
+    }// restoreTurnHistory()
+
+    private void keep(final Phase phase) {
+        if (turnStates.get(phase) != ENCODED) {
+            return;
+        }
+        synchronized (turnStates) {
+            if (turnStates.get(phase) == ENCODED && history != null) {
+                // readers find the TurnState in the history until it is
+                // in the map
+                final TurnState ts = history.get(phase);
+                if (ts != null) {
+                    turnStates.put(phase, ts);
+                    history.remove(phase);
+                }
+            }
+        }
+    }// keep()
+
+    private TurnState findTurnState(final Phase phase) {
+        TurnState ts = turnStates.get(phase);
+        if (ts == ENCODED) {
+            final TurnHistory h = history;
+            ts = h == null ? null : h.get(phase);
+            if (ts == null) {
+                // kept, or the history decoded, in the meantime
+                ts = turnStates.get(phase);
+                if (ts == ENCODED) {
+                    ts = null;
+                }
+            }
+        }
+        if (ts != null) {
+            ts.setWorld(this);
+        }
+        return ts;
+    }// findTurnState()
+
+
+    /**
+     * returns sorted (ascending) set of all Phases. The set is a live view,
+     * which may be iterated while turns are added or removed.
      */
     public Set<Phase> getPhaseSet() {
         return turnStates.keySet();
@@ -333,6 +613,15 @@ public final class World implements Serializable {
     }// getPlayerMetadata()
 
 
+    /**
+     * Returns the PlayerMetadata of the given Power, without creating it
+     * if none was set.
+     */
+    Optional<PlayerMetadata> findPlayerMetadata(final Power power) {
+        return Optional.ofNullable((PlayerMetadata) nonTurnData.get(power));
+    }// findPlayerMetadata()
+
+
     /**
      * Sets the UndoRedo manager to be saved. This may be set to null.
      */
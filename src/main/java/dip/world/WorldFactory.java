@@ -29,9 +29,11 @@ import dip.world.Unit.Type;
 import dip.world.variant.data.BorderData;
 import dip.world.variant.data.ProvinceData;
 import dip.world.variant.data.Variant;
+import dip.world.variant.data.VersionNumber;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URL;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.EnumSet;
@@ -39,6 +41,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -72,6 +76,9 @@ public class WorldFactory {
     // class variables
     private static final WorldFactory instance = new WorldFactory();
 
+    // WorldMaps shared by all Worlds of a variant
+    private static final ConcurrentMap<MapKey, WorldMap> sharedMaps = new ConcurrentHashMap<>();
+
 
     private WorldFactory() {
     }// WorldFactory()
@@ -93,8 +100,181 @@ public class WorldFactory {
 
         LOG.debug("WorldFactory.createWorld(): {}", variant.getName());
 
+        final WorldMap map = getWorldMap(variant);
+
+        // create the World object as well, now that we have the Map
+        final World world = new World(map);
+
+        // create the Position object, as we will need it for various game state
+        final Position pos = new Position(map);
+
+        // define supply center owners; the supply centers themselves
+        // are part of the map
+        variant.getSupplyCenters().stream().forEach(supplyCenter -> {
+            final Province province = map
+                    .getProvince(supplyCenter.getProvinceName());
+
+            final String hpName = supplyCenter.getHomePowerName();
+            if (!"none".equalsIgnoreCase(hpName)) {
+                final Power power = map.getPower(hpName);
+                if (power == null) {
+                    throw new InvalidWorldException(
+                            Utils.getLocalString(WF_BAD_SC_HOMEPOWER, hpName));
+                }
+
+                pos.setSupplyCenterHomePower(province, power);
+            }
+
+            // define current owner of supply center, if any
+            final String scOwner = supplyCenter.getOwnerName();
+            if (!"none".equalsIgnoreCase(scOwner)) {
+                final Power power = map.getPower(scOwner);
+                if (power == null) {
+                    throw new InvalidWorldException(
+                            Utils.getLocalString(WF_BAD_SC_OWNER, scOwner));
+                }
+
+                pos.setSupplyCenterOwner(province, power);
+            }
+        });
+
+        // set initial state [derived from INITIALSTATE elements in XML file]
+        variant.getInitialStates().stream().forEach(initState -> {
+            // a province and power is required, no matter what, unless
+            // we are ONLY setting the supply center (which we do above)
+
+            final Province province = map
+                    .getProvinceMatching(initState.getProvinceName())
+                    .orElseThrow(() -> new InvalidWorldException(
+                            Utils.getLocalString(WF_BAD_IS_PROVINCE)));
+
+            final Type unitType = initState.getUnitType();
+
+            if (unitType == null) {
+                throw new InvalidWorldException(
+                        Utils.getLocalString(WF_BAD_IS_UNIT,
+                                initState.getProvinceName()));
+            }
+            // create unit in province, if location is valid
+            final Coast coast = initState.getCoast();
+
+            final Unit unit = new Unit(
+                    map.getPowerMatching(initState.getPowerName()).orElseThrow(
+                            () -> new InvalidWorldException(
+                                    Utils.getLocalString(WF_BAD_IS_POWER))),
+                    unitType);
+            final Location location = new Location(province, coast);
+            try {
+                unit.setCoast(location.getValidatedSetup(unitType).getCoast());
+                pos.setUnit(province, unit);
+
+                // set 'lastOccupier' for unit
+                pos.setLastOccupier(province, unit.getPower());
+            } catch (final OrderException e) {
+                throw new InvalidWorldException(
+                        Utils.getLocalString(WF_BAD_IS_UNIT_LOC,
+                                initState.getProvinceName(), e.getMessage()),
+                        e);
+            }
+        });
+
+        // create initial turn state based on starting game time
+        final Phase phase = variant.getStartingPhase();
+        if (phase == null) {
+            throw new InvalidWorldException(
+                    Utils.getLocalString(WF_BAD_STARTINGTIME));
+        }
+        world.setVictoryConditions(
+                new VictoryConditions(variant.getNumSCForVictory(),
+                        variant.getMaxYearsNoSCChange(),
+                        variant.getMaxGameTimeYears(), phase));
+
+        // set TurnState / Map / complete World creation.
+        final TurnState turnState = new TurnState(phase);
+        turnState.setPosition(pos);
+        turnState.setWorld(world);
+        world.setTurnState(turnState);
+
+        return world;
+    }// makeWorld()
+
+
+    /**
+     * Returns the WorldMap of a Variant. One WorldMap is created for each
+     * variant name and version, and shared by all Worlds of that variant;
+     * neither it nor its Provinces are changed afterwards.
+     */
+    public static WorldMap getWorldMap(final Variant variant) {
+        Objects.requireNonNull(variant);
+        return sharedMaps.computeIfAbsent(new MapKey(variant),
+                key -> createWorldMap(variant));
+    }// getWorldMap()
+
+
+    /**
+     * Drops the shared WorldMaps of a variant, of any version, so that
+     * they are created again from its data when next asked for. Worlds
+     * that already have one keep it.
+     */
+    public static void releaseWorldMaps(final String variantName) {
+        sharedMaps.keySet()
+                .removeIf(key -> key.name.equalsIgnoreCase(variantName));
+    }// releaseWorldMaps()
+
+
+    /**
+     * Creates the WorldMap of a Variant, with its supply centers.
+     */
+    private static WorldMap createWorldMap(final Variant variant) {
+        LOG.debug("WorldFactory.createWorldMap(): {}", variant.getName());
+
+        // Now that we know the variant, we know the powers, and can
+        // create the Map.
+        final WorldMap map = new WorldMap(variant.getPowers(),
+                createProvinces(variant, WorldMapCache.getInstance()));
+
+        // define supply centers
+        variant.getSupplyCenters().stream().forEach(supplyCenter -> {
+            final Province province = map
+                    .getProvince(supplyCenter.getProvinceName());
+            if (province == null) {
+                throw new InvalidWorldException(
+                        Utils.getLocalString(WF_BAD_SC_PROVINCE,
+                                supplyCenter.getProvinceName()));
+            }
+
+            province.setSupplyCenter(true);
+        });
+        return map;
+    }// createWorldMap()
+
+
+    /**
+     * Creates the Provinces of a Variant, with their adjacency and Borders.
+     * They are read from the WorldMapCache if it holds them; otherwise the
+     * adjacency data is parsed, and the result is cached.
+     */
+    static List<Province> createProvinces(final Variant variant,
+                                          final WorldMapCache cache) {
+        final URL url = variant.getAdjacencyURL();
+        return cache.load(url).orElseGet(() -> {
+            final List<ProvinceData> provinceData = variant.getProvinceData();
+            final List<BorderData> borderData = variant.getBorderData();
+            final List<Province> provinces = createProvinces(provinceData,
+                    borderData);
+            cache.save(url, provinces, provinceData, borderData);
+            return provinces;
+        });
+    }// createProvinces()
+
+
+    /**
+     * Creates Provinces from the parsed adjacency data.
+     */
+    private static List<Province> createProvinces(
+            final List<ProvinceData> provinceDataArray,
+            final List<BorderData> borderDataArray) {
         // gather all province data, and create provinces
-        final List<ProvinceData> provinceDataArray = variant.getProvinceData();
         final List<Province> provinces = IntStream
                 .range(0, provinceDataArray.size()).mapToObj(i -> {
                     final ProvinceData provinceData = provinceDataArray.get(i);
@@ -109,20 +289,7 @@ public class WorldFactory {
 
         // verify uniqueness of names
         // mapping of names->provinces
-        final Map<String, Province> provNameMap = new TreeMap<>(
-                String.CASE_INSENSITIVE_ORDER);
-        provinces.stream().forEach(province -> {
-            final String fullname = province.getFullName();
-            final List<String> shortNames = province.getShortNames();
-            if (!isUnique(provNameMap, fullname, shortNames)) {
-                throw new InvalidWorldException(
-                        Utils.getLocalString(WF_PROV_NON_UNIQUE,
-                                province.getFullName()));
-            }
-            provNameMap.put(fullname, province);
-            shortNames.stream()
-                    .forEach(shortname -> provNameMap.put(shortname, province));
-        });
+        final Map<String, Province> provNameMap = createNameMap(provinces);
 
         // gather all adjacency data
         // parse adjacency data for all provinces
@@ -177,7 +344,7 @@ public class WorldFactory {
         // successfully parsed. They are mapped to the ID name, stored in the borderMap.
         final Map<String, Border> borderMap;
         try {
-            borderMap = variant.getBorderData().stream().collect(Collectors
+            borderMap = borderDataArray.stream().collect(Collectors
                     .toMap(BorderData::getID,
                             bd -> new Border(bd.getID(), bd.getDescription(),
                                     bd.getUnitTypes(),
@@ -207,111 +374,34 @@ public class WorldFactory {
                     }).collect(Collectors.toList()));
         });
 
-        // Now that we know the variant, we know the powers, and can
-        // create the Map.
-        final WorldMap map = new WorldMap(variant.getPowers(), provinces);
-
-        // create the World object as well, now that we have the Map
-        final World world = new World(map);
-
-        // create the Position object, as we will need it for various game state
-        final Position pos = new Position(map);
-
-        // define supply centers
-        variant.getSupplyCenters().stream().forEach(supplyCenter -> {
-            final Province province = map
-                    .getProvince(supplyCenter.getProvinceName());
-            if (province == null) {
-                throw new InvalidWorldException(
-                        Utils.getLocalString(WF_BAD_SC_PROVINCE,
-                                supplyCenter.getProvinceName()));
-            }
-
-            province.setSupplyCenter(true);
-
-            final String hpName = supplyCenter.getHomePowerName();
-            if (!"none".equalsIgnoreCase(hpName)) {
-                final Power power = map.getPower(hpName);
-                if (power == null) {
-                    throw new InvalidWorldException(
-                            Utils.getLocalString(WF_BAD_SC_HOMEPOWER, hpName));
-                }
-
-                pos.setSupplyCenterHomePower(province, power);
-            }
-
-            // define current owner of supply center, if any
-            final String scOwner = supplyCenter.getOwnerName();
-            if (!"none".equalsIgnoreCase(scOwner)) {
-                final Power power = map.getPower(scOwner);
-                if (power == null) {
-                    throw new InvalidWorldException(
-                            Utils.getLocalString(WF_BAD_SC_OWNER, scOwner));
-                }
-
-                pos.setSupplyCenterOwner(province, power);
-            }
-        });
-
-        // set initial state [derived from INITIALSTATE elements in XML file]
-        variant.getInitialStates().stream().forEach(initState -> {
-            // a province and power is required, no matter what, unless
-            // we are ONLY setting the supply center (which we do above)
+        return provinces;
+    }// createProvinces()
 
-            final Province province = map
-                    .getProvinceMatching(initState.getProvinceName())
-                    .orElseThrow(() -> new InvalidWorldException(
-                            Utils.getLocalString(WF_BAD_IS_PROVINCE)));
 
-            final Type unitType = initState.getUnitType();
-
-            if (unitType == null) {
-                throw new InvalidWorldException(
-                        Utils.getLocalString(WF_BAD_IS_UNIT,
-                                initState.getProvinceName()));
-            }
-            // create unit in province, if location is valid
-            final Coast coast = initState.getCoast();
-
-            final Unit unit = new Unit(
-                    map.getPowerMatching(initState.getPowerName()).orElseThrow(
-                            () -> new InvalidWorldException(
-                                    Utils.getLocalString(WF_BAD_IS_POWER))),
-                    unitType);
-            final Location location = new Location(province, coast);
-            try {
-                unit.setCoast(location.getValidatedSetup(unitType).getCoast());
-                pos.setUnit(province, unit);
-
-                // set 'lastOccupier' for unit
-                pos.setLastOccupier(province, unit.getPower());
-            } catch (final OrderException e) {
+    /**
+     * Maps the full and short names of the Provinces, ignoring case, to
+     * the Provinces.
+     *
+     * @throws InvalidWorldException if a name is not unique
+     */
+    static Map<String, Province> createNameMap(
+            final List<Province> provinces) {
+        final Map<String, Province> provNameMap = new TreeMap<>(
+                String.CASE_INSENSITIVE_ORDER);
+        provinces.stream().forEach(province -> {
+            final String fullname = province.getFullName();
+            final List<String> shortNames = province.getShortNames();
+            if (!isUnique(provNameMap, fullname, shortNames)) {
                 throw new InvalidWorldException(
-                        Utils.getLocalString(WF_BAD_IS_UNIT_LOC,
-                                initState.getProvinceName(), e.getMessage()),
-                        e);
+                        Utils.getLocalString(WF_PROV_NON_UNIQUE,
+                                province.getFullName()));
             }
+            provNameMap.put(fullname, province);
+            shortNames.stream()
+                    .forEach(shortname -> provNameMap.put(shortname, province));
         });
-
-        // create initial turn state based on starting game time
-        final Phase phase = variant.getStartingPhase();
-        if (phase == null) {
-            throw new InvalidWorldException(
-                    Utils.getLocalString(WF_BAD_STARTINGTIME));
-        }
-        world.setVictoryConditions(
-                new VictoryConditions(variant.getNumSCForVictory(),
-                        variant.getMaxYearsNoSCChange(),
-                        variant.getMaxGameTimeYears(), phase));
-
-        // set TurnState / Map / complete World creation.
-        final TurnState turnState = new TurnState(phase);
-        turnState.setPosition(pos);
-        turnState.setWorld(world);
-        world.setTurnState(turnState);
-
-        return world;
-    }// makeWorld()
+        return provNameMap;
+    }// createNameMap()
 
 
     /**
@@ -325,7 +415,7 @@ public class WorldFactory {
      * This will return null if there are no border locations, instead of
      * a zero-length array.
      */
-    private static List<Location> makeBorderLocations(final String in,
+    static List<Location> makeBorderLocations(final String in,
                                                       final Map<String, Province> provNameMap) {
         return Arrays.stream(in.trim().split("[;, ]+")).map(tok -> new Location(
                 provNameMap.get(Coast.getProvinceName(tok)), Coast.parse(tok)))
@@ -395,5 +485,36 @@ public class WorldFactory {
                 .anyMatch(provNameMap::containsKey));
     }// isUnique()
 
+
+    /**
+     * Identifies a shared WorldMap: the name and version of its variant.
+     */
+    private static final class MapKey {
+        private final String name;
+        private final VersionNumber version;
+
+        private MapKey(final Variant variant) {
+            name = Objects.requireNonNull(variant.getName());
+            version = Objects.requireNonNull(variant.getVersion());
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MapKey)) {
+                return false;
+            }
+            final MapKey key = (MapKey) obj;
+            return name.equals(key.name) && version.equals(key.version);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + version.hashCode();
+        }
+    }// nested class MapKey
+
 }// class MapFactory
 
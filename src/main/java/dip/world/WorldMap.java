@@ -67,8 +67,15 @@ public final class WorldMap implements Serializable {
     private final transient List<String> lcPowerNames = new ArrayList<>();        // lower case power names & adjectives
     private final transient List<String> wsNames = new ArrayList<>();            // list of all province names that contain whitespace, "-", or " "
 
+    // canonical Locations, by province index and coast ordinal
+    private final transient Location[][] locations;
+
     /**
      * Constructs a Map object.
+     * <p>
+     * Maps are shared by all Worlds of a variant (see
+     * {@link WorldFactory#getWorldMap}), so neither a map nor its
+     * Provinces may be changed once it is constructed.
      */
     protected WorldMap(final List<Power> powerArray,
                        final List<Province> provinceArray) {
@@ -93,6 +100,15 @@ public final class WorldMap implements Serializable {
 
         // create mappings
         createMappings();
+
+        final Coast[] coasts = Coast.values();
+        locations = new Location[provinces.size()][coasts.length];
+        for (int i = 0; i < locations.length; i++) {
+            for (final Coast coast : coasts) {
+                locations[i][coast.ordinal()] = new Location(provinces.get(i),
+                        coast);
+            }
+        }
     }// Map()
 
 
@@ -278,6 +294,22 @@ public final class WorldMap implements Serializable {
     }// getProvinces()
 
 
+    /**
+     * Returns the canonical Location for a Province of this map and a
+     * Coast, so that Locations read back from a saved game are shared
+     * rather than allocated for every order and result. A Province of
+     * another map gets a new Location.
+     */
+    public Location getLocation(final Province province, final Coast coast) {
+        final int index = province.getIndex();
+        if (locations == null || index < 0 || index >= locations.length
+                || provinces.get(index) != province) {
+            return new Location(province, coast);
+        }
+        return locations[index][coast.ordinal()];
+    }// getLocation()
+
+
     /**
      * Returns the Province that matches name. Returns null if
      * no match found.
@@ -0,0 +1,405 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import dip.world.Province.Adjacency;
+import dip.world.variant.data.BorderData;
+import dip.world.variant.data.ProvinceData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static dip.world.GameDataOutput.COASTS;
+
+/**
+ * A cache of built map topology, kept between runs so that the adjacency
+ * data of a variant need not be parsed again.
+ * <p>
+ * For each adjacency URL, a file holds the Provinces with their adjacency
+ * (wing coasts included), and the Borders with the Provinces they apply
+ * to. The file also holds a SHA-256 digest of the adjacency data it was
+ * built from; a file whose digest no longer matches is not used, and is
+ * written again once the map has been built.
+ * <p>
+ * The files are kept in the directory named by the
+ * <code>dip.map.cache</code> system property, or in
+ * <code>.jdip/maps</code> in the user's home directory; an empty property
+ * disables the cache. At most {@link #MAX_FILES} files are kept; once
+ * there are more, those used least recently are deleted. An unreadable
+ * file is ignored. This object is threadsafe.
+ */
+final class WorldMapCache {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(WorldMapCache.class);
+
+    /**
+     * System property naming the cache directory.
+     */
+    static final String PROPERTY = "dip.map.cache";
+
+    /**
+     * The number of files kept in the cache directory.
+     */
+    static final int MAX_FILES = 100;
+
+    private static final byte[] MAGIC = {'J', 'D', 'P', 'M'};
+    private static final int VERSION = 1;
+
+    private static WorldMapCache instance;
+
+    private final Path dir;
+    private final int maxFiles;
+
+
+    /**
+     * Creates a WorldMapCache kept in the given directory; <code>null</code>
+     * if nothing is kept.
+     */
+    WorldMapCache(final Path dir) {
+        this(dir, MAX_FILES);
+    }// WorldMapCache()
+
+
+    /**
+     * Creates a WorldMapCache that keeps at most the given number of files.
+     */
+    WorldMapCache(final Path dir, final int maxFiles) {
+        this.dir = dir;
+        this.maxFiles = maxFiles;
+    }// WorldMapCache()
+
+
+    /**
+     * Returns the WorldMapCache of this process.
+     */
+    static synchronized WorldMapCache getInstance() {
+        if (instance == null) {
+            final String property = System.getProperty(PROPERTY);
+            final Path path;
+            if (property == null) {
+                path = Paths.get(System.getProperty("user.home"), ".jdip",
+                        "maps");
+            } else {
+                path = property.isEmpty() ? null : Paths.get(property);
+            }
+            instance = new WorldMapCache(path);
+        }
+        return instance;
+    }// getInstance()
+
+
+    /**
+     * Returns the Provinces cached for the given adjacency data, if they
+     * were built from the data as it is now. Each call returns new
+     * Provinces.
+     */
+    Optional<List<Province>> load(final URL adjacencyURL) {
+        if (dir == null) {
+            return Optional.empty();
+        }
+        final Path file = getFile(adjacencyURL);
+        try (InputStream in = new BufferedInputStream(
+                Files.newInputStream(file))) {
+            final List<Province> provinces = read(new GameDataInput(in, null),
+                    adjacencyURL, digest(adjacencyURL));
+            if (provinces != null) {
+                touch(file);
+            }
+            return Optional.ofNullable(provinces);
+        } catch (final NoSuchFileException ignored) {
+            return Optional.empty();
+        } catch (final IOException | RuntimeException e) {
+            LOG.debug("Map cache {} not read: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }// load()
+
+
+    /**
+     * Writes the Provinces built from the given adjacency data. Failures
+     * are logged; the file is only a cache.
+     */
+    void save(final URL adjacencyURL, final List<Province> provinces,
+              final List<ProvinceData> provinceData,
+              final List<BorderData> borderData) {
+        if (dir == null) {
+            return;
+        }
+        final Path file = getFile(adjacencyURL);
+        try {
+            final byte[] digest = digest(adjacencyURL);
+            Files.createDirectories(dir);
+            final Path temp = Files.createTempFile(dir,
+                    file.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = new BufferedOutputStream(
+                        Files.newOutputStream(temp))) {
+                    write(new GameDataOutput(out), adjacencyURL, digest,
+                            provinces, provinceData, borderData);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            prune();
+        } catch (final IOException | RuntimeException e) {
+            LOG.debug("Map cache {} not written: {}", file, e.toString());
+        }
+    }// save()
+
+
+    /**
+     * Marks a file as used now, so that it is pruned last.
+     */
+    private static void touch(final Path file) {
+        try {
+            Files.setLastModifiedTime(file,
+                    FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (final IOException e) {
+            LOG.debug("Map cache {} not touched: {}", file, e.toString());
+        }
+    }// touch()
+
+
+    /**
+     * Deletes the files used least recently, while there are more than
+     * maxFiles.
+     */
+    private void prune() throws IOException {
+        final Map<Path, FileTime> files = new HashMap<>();
+        try (DirectoryStream<Path> stream = Files
+                .newDirectoryStream(dir, "*.map")) {
+            for (final Path file : stream) {
+                try {
+                    files.put(file, Files.getLastModifiedTime(file));
+                } catch (final NoSuchFileException ignored) {
+                    // pruned by another process
+                }
+            }
+        }
+        if (files.size() > maxFiles) {
+            final List<Path> oldest = new ArrayList<>(files.keySet());
+            oldest.sort(Comparator.comparing(files::get));
+            for (final Path file : oldest
+                    .subList(0, files.size() - maxFiles)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }// prune()
+
+
+    /**
+     * The cache file of an adjacency URL.
+     */
+    private Path getFile(final URL adjacencyURL) {
+        final byte[] hash = sha256(adjacencyURL.toString()
+                .getBytes(StandardCharsets.UTF_8));
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            sb.append(String.format("%02x", hash[i]));
+        }
+        return dir.resolve(sb.append(".map").toString());
+    }// getFile()
+
+
+    private static byte[] digest(final URL adjacencyURL) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = adjacencyURL.openStream()) {
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                bytes.write(buffer, 0, n);
+            }
+        }
+        return sha256(bytes.toByteArray());
+    }// digest()
+
+
+    private static byte[] sha256(final byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }// sha256()
+
+
+    private static void write(final GameDataOutput out, final URL adjacencyURL,
+                              final byte[] digest,
+                              final List<Province> provinces,
+                              final List<ProvinceData> provinceData,
+                              final List<BorderData> borderData)
+            throws IOException {
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeString(adjacencyURL.toString());
+        out.writeVarInt(digest.length);
+        out.write(digest);
+
+        out.writeVarInt(provinces.size());
+        for (final Province province : provinces) {
+            out.writeString(province.getFullName());
+            out.writeVarInt(province.getShortNames().size());
+            for (final String shortName : province.getShortNames()) {
+                out.writeString(shortName);
+            }
+            out.writeBoolean(province.isConvoyableCoast());
+        }
+
+        // adjacency refers to provinces by index, so follows all of them
+        for (final Province province : provinces) {
+            final Adjacency adjacency = province.getAdjacency();
+            final List<Coast> coasts = new ArrayList<>();
+            for (final Coast coast : COASTS) {
+                if (!adjacency.getLocations(coast).isEmpty()) {
+                    coasts.add(coast);
+                }
+            }
+            out.writeVarInt(coasts.size());
+            for (final Coast coast : coasts) {
+                out.writeByte(COASTS.indexOf(coast));
+                final List<Location> locations = adjacency
+                        .getLocations(coast);
+                out.writeVarInt(locations.size());
+                for (final Location location : locations) {
+                    out.writeLocation(location);
+                }
+            }
+        }
+
+        final Map<String, Integer> borderIndex = new HashMap<>();
+        out.writeVarInt(borderData.size());
+        for (final BorderData bd : borderData) {
+            borderIndex.put(bd.getID(), borderIndex.size());
+            out.writeString(bd.getID());
+            out.writeString(bd.getDescription());
+            out.writeString(bd.getUnitTypes());
+            out.writeString(bd.getFrom());
+            out.writeString(bd.getOrderTypes());
+            out.writeString(bd.getBaseMoveModifier());
+            out.writeString(bd.getSeason());
+            out.writeString(bd.getPhase());
+            out.writeString(bd.getYear());
+        }
+        for (final ProvinceData pd : provinceData) {
+            out.writeVarInt(pd.getBorders().size());
+            for (final String id : pd.getBorders()) {
+                out.writeVarInt(borderIndex.get(id));
+            }
+        }
+    }// write()
+
+
+    /**
+     * Reads the Provinces; <code>null</code> if the file is for other
+     * adjacency data.
+     */
+    private static List<Province> read(final GameDataInput in,
+                                       final URL adjacencyURL,
+                                       final byte[] digest)
+            throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC) || in.readByte() != VERSION) {
+            throw new IOException("not a map cache file");
+        }
+        final String url = in.readString();
+        final byte[] fileDigest = new byte[in.readVarInt()];
+        in.readFully(fileDigest);
+        if (!adjacencyURL.toString().equals(url) || !Arrays
+                .equals(digest, fileDigest)) {
+            return null;
+        }
+
+        final int count = in.readVarInt();
+        final List<Province> provinces = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String fullName = in.readString();
+            final int shortCount = in.readVarInt();
+            final List<String> shortNames = new ArrayList<>(shortCount);
+            for (int j = 0; j < shortCount; j++) {
+                shortNames.add(in.readString());
+            }
+            provinces.add(new Province(fullName, shortNames, i,
+                    in.readBoolean()));
+        }
+        in.setTables(null, provinces, Collections.emptyList());
+
+        for (final Province province : provinces) {
+            final Adjacency adjacency = province.getAdjacency();
+            final int coastCount = in.readVarInt();
+            for (int j = 0; j < coastCount; j++) {
+                final Coast coast = COASTS.get(in.readByte());
+                final int locationCount = in.readVarInt();
+                final List<Location> locations = new ArrayList<>(
+                        locationCount);
+                for (int k = 0; k < locationCount; k++) {
+                    locations.add(in.readLocation());
+                }
+                adjacency.setLocations(coast, locations);
+            }
+        }
+
+        final Map<String, Province> provNameMap = WorldFactory
+                .createNameMap(provinces);
+        final int borderCount = in.readVarInt();
+        final List<Border> borders = new ArrayList<>(borderCount);
+        for (int i = 0; i < borderCount; i++) {
+            final String id = in.readString();
+            final String description = in.readString();
+            final String units = in.readString();
+            final List<Location> from = WorldFactory
+                    .makeBorderLocations(in.readString(), provNameMap);
+            borders.add(new Border(id, description, units, from,
+                    in.readString(), in.readString(), in.readString(),
+                    in.readString(), in.readString()));
+        }
+        for (final Province province : provinces) {
+            final int n = in.readVarInt();
+            final List<Border> list = new ArrayList<>(n);
+            for (int j = 0; j < n; j++) {
+                list.add(borders.get(in.readVarInt()));
+            }
+            province.setBorders(list);
+        }
+        return provinces;
+    }// read()
+}// class WorldMapCache
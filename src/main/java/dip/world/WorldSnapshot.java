@@ -0,0 +1,144 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An immutable copy of a World, encoded in the binary game file format.
+ * <p>
+ * Taking a snapshot encodes the header and the TurnStates that are in
+ * memory; turns not decoded since the game was opened are shared as they
+ * are. Once taken, a snapshot is independent of the World, so it can be
+ * written on another thread while the World is being changed.
+ */
+public final class WorldSnapshot {
+    private final WorldMap map;
+    private final byte[] header;
+    private final List<Phase> phases;
+    private final List<byte[]> sections;
+
+
+    WorldSnapshot(final WorldMap map, final byte[] header,
+                  final List<Phase> phases, final List<byte[]> sections) {
+        this.map = map;
+        this.header = header;
+        this.phases = Collections.unmodifiableList(phases);
+        this.sections = Collections.unmodifiableList(sections);
+    }// WorldSnapshot()
+
+
+    /**
+     * Takes a snapshot of the World. This must not run concurrently with
+     * changes to the World.
+     */
+    public static WorldSnapshot of(final World world) throws IOException {
+        return BinaryWorldFormat.snapshot(world);
+    }// of()
+
+
+    /**
+     * Number of bytes encoded, before compression.
+     */
+    public int getSize() {
+        int size = header.length;
+        for (final byte[] section : sections) {
+            size += section.length;
+        }
+        return size;
+    }// getSize()
+
+
+    /**
+     * Writes the snapshot as a binary game file, replacing the file only
+     * once the new one is complete.
+     */
+    public void save(final File file) throws IOException {
+        replace(file, os -> {
+            final GZIPOutputStream gzos = new GZIPOutputStream(os, 8192);
+            BinaryWorldFormat.write(this, gzos);
+            gzos.finish();
+        });
+    }// save()
+
+
+    WorldMap getMap() {
+        return map;
+    }// getMap()
+
+    byte[] getHeader() {
+        return header;
+    }// getHeader()
+
+    List<Phase> getPhases() {
+        return phases;
+    }// getPhases()
+
+    List<byte[]> getSections() {
+        return sections;
+    }// getSections()
+
+
+    /**
+     * Writes a file beside the given one, forces it to disk, and renames
+     * it over the given file; a crash leaves either the old or the new
+     * file.
+     */
+    static void replace(final File file,
+                        final Content content) throws IOException {
+        final Path target = file.getAbsoluteFile().toPath();
+        final Path temp = target
+                .resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel
+                .open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            final OutputStream os = new BufferedOutputStream(
+                    Channels.newOutputStream(channel), 8192);
+            content.write(os);
+            os.flush();
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }// replace()
+
+
+    /**
+     * The content of a file written by {@link #replace(File, Content)}.
+     */
+    @FunctionalInterface
+    interface Content {
+        void write(OutputStream os) throws IOException;
+    }// nested interface Content
+
+}// class WorldSnapshot
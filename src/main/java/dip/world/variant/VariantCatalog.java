@@ -0,0 +1,481 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world.variant;
+
+import dip.misc.Resources;
+import dip.world.variant.data.VersionNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+/**
+ * An index of the variant and symbol pack description files on the
+ * classpath, kept between runs so that jars need not be searched again.
+ * <p>
+ * For each jar on the classpath, the index holds the names of the
+ * matching entries, together with the size and modification time of the
+ * jar; a jar whose size or time differs is searched again. Directories on
+ * the classpath are always searched, as they have no such stamp.
+ * <p>
+ * The index also holds the name, version and aliases of the variants or
+ * symbol pack each description file defines, so that they can be known
+ * without parsing the file.
+ * <p>
+ * The index is kept in the file named by the <code>dip.variant.catalog</code>
+ * system property, or in <code>.jdip/variants.idx</code> in the user's home
+ * directory; an empty property disables it. An unreadable index file is
+ * ignored and written again. This object is threadsafe.
+ */
+final class VariantCatalog {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(VariantCatalog.class);
+
+    /**
+     * System property naming the index file.
+     */
+    static final String PROPERTY = "dip.variant.catalog";
+
+    private static final byte[] MAGIC = {'J', 'D', 'P', 'C'};
+    private static final int VERSION = 1;
+
+    private static VariantCatalog instance;
+
+    private final Path file;
+    private final Map<String, Stamped<List<String>>> jars = new HashMap<>();
+    private final Map<String, Stamped<List<Header>>> headers = new HashMap<>();
+    private boolean changed;
+
+
+    /**
+     * Creates a VariantCatalog kept in the given file; <code>null</code>
+     * if it is not kept.
+     */
+    VariantCatalog(final Path file) {
+        this.file = file;
+        if (file != null) {
+            try {
+                read();
+            } catch (final NoSuchFileException ignored) {
+                changed = true;
+            } catch (final IOException | RuntimeException e) {
+                LOG.debug("Variant catalog {} not read: {}", file, e.toString());
+                jars.clear();
+                headers.clear();
+                changed = true;
+            }
+        }
+    }// VariantCatalog()
+
+
+    /**
+     * Returns the VariantCatalog of this process, reading it on first use.
+     */
+    static synchronized VariantCatalog getInstance() {
+        if (instance == null) {
+            final String property = System.getProperty(PROPERTY);
+            final Path path;
+            if (property == null) {
+                path = Paths.get(System.getProperty("user.home"), ".jdip",
+                        "variants.idx");
+            } else {
+                path = property.isEmpty() ? null : Paths.get(property);
+            }
+            instance = new VariantCatalog(path);
+        }
+        return instance;
+    }// getInstance()
+
+
+    /**
+     * Returns the resources on the system classpath that have the given
+     * file name.
+     */
+    List<URL> getResourceURLs(final String fileName) {
+        final URLClassLoader ucl = (URLClassLoader) ClassLoader
+                .getSystemClassLoader();
+        return getResourceURLs(Arrays.stream(ucl.getURLs())
+                .map(url -> Paths.get(url.getPath()))
+                .collect(Collectors.toList()), fileName);
+    }// getResourceURLs()
+
+
+    /**
+     * Returns the resources of the given classpath entries that have the
+     * given file name. Directories are searched without holding the lock.
+     */
+    List<URL> getResourceURLs(final List<Path> classpath,
+                              final String fileName) {
+        final List<URL> urls = new ArrayList<>();
+        for (final Path entry : classpath) {
+            if (isJar(entry)) {
+                final List<String> names;
+                synchronized (this) {
+                    names = getJarEntries(entry);
+                }
+                for (final String name : names) {
+                    if (name.endsWith(fileName)) {
+                        urls.add(toURL(entry, name));
+                    }
+                }
+            } else {
+                urls.addAll(Resources.getResourceURLs(entry,
+                        url -> url.getPath().endsWith(fileName)));
+            }
+        }
+        return urls;
+    }// getResourceURLs()
+
+
+    /**
+     * Returns the headers recorded for a description file, if the file has
+     * not changed since.
+     */
+    synchronized Optional<List<Header>> getHeaders(final URL url) {
+        final Stamped<List<Header>> stamped = headers.get(url.toString());
+        if (stamped == null || !stamped.matches(getSource(url))) {
+            return Optional.empty();
+        }
+        return Optional.of(stamped.value);
+    }// getHeaders()
+
+
+    /**
+     * Records the headers of a description file.
+     */
+    synchronized void putHeaders(final URL url, final List<Header> list) {
+        final Path source = getSource(url);
+        if (source == null) {
+            return;
+        }
+        final Stamped<List<Header>> stamped = Stamped.of(source,
+                Collections.unmodifiableList(new ArrayList<>(list)));
+        if (stamped != null && !stamped.equals(headers.get(url.toString()))) {
+            headers.put(url.toString(), stamped);
+            changed = true;
+        }
+    }// putHeaders()
+
+
+    /**
+     * Writes the index, if it is kept and has changed. Failures are
+     * logged; the index is only a cache.
+     */
+    synchronized void save() {
+        if (file == null || !changed) {
+            return;
+        }
+        try {
+            write();
+            changed = false;
+        } catch (final IOException e) {
+            LOG.debug("Variant catalog {} not written: {}", file, e.toString());
+        }
+    }// save()
+
+
+    /**
+     * Returns the matching entry names of a jar, searching it if it is not
+     * in the index or has changed; the caller holds the lock.
+     */
+    private List<String> getJarEntries(final Path jar) {
+        final String key = jar.toAbsolutePath().toString();
+        final Stamped<List<String>> stamped = jars.get(key);
+        if (stamped != null && stamped.matches(jar)) {
+            return stamped.value;
+        }
+
+        final List<String> names = new ArrayList<>();
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            jarFile.stream().filter(e -> !e.isDirectory())
+                    .map(JarEntry::getName)
+                    .filter(VariantCatalog::isDescription).forEach(names::add);
+        } catch (final IOException e) {
+            LOG.debug("Jar {} not searched: {}", jar, e.toString());
+            return Collections.emptyList();
+        }
+        final Stamped<List<String>> updated = Stamped.of(jar,
+                Collections.unmodifiableList(names));
+        if (updated != null) {
+            jars.put(key, updated);
+            changed = true;
+        }
+        return names;
+    }// getJarEntries()
+
+
+    private static boolean isDescription(final String name) {
+        return name.endsWith(VariantManager.VARIANT_FILE_NAME) || name
+                .endsWith(VariantManager.SYMBOL_FILE_NAME);
+    }// isDescription()
+
+
+    private static boolean isJar(final Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString()
+                .toLowerCase().endsWith(".jar");
+    }// isJar()
+
+
+    private static URL toURL(final Path jar, final String name) {
+        try {
+            return new URL("jar", "", jar.toUri() + "!/" + name);
+        } catch (final MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }// toURL()
+
+
+    /**
+     * The file whose stamp validates a resource: the jar of a jar: URL, or
+     * the file of a file: URL; <code>null</code> for other URLs.
+     */
+    static Path getSource(final URL url) {
+        String spec = url.toString();
+        if (spec.startsWith("jar:")) {
+            final int sep = spec.indexOf("!/");
+            if (sep < 0) {
+                return null;
+            }
+            spec = spec.substring(4, sep);
+        }
+        if (!spec.startsWith("file:")) {
+            return null;
+        }
+        try {
+            return Paths.get(new URL(spec).toURI());
+        } catch (final Exception e) {
+            return null;
+        }
+    }// getSource()
+
+
+    private void read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(file)))) {
+            final byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("not a variant catalog");
+            }
+            if (in.readUnsignedByte() != VERSION) {
+                throw new IOException("unsupported variant catalog version");
+            }
+
+            for (int i = in.readInt(); i > 0; i--) {
+                final String jar = in.readUTF();
+                final long size = in.readLong();
+                final long time = in.readLong();
+                final List<String> names = new ArrayList<>();
+                for (int j = in.readInt(); j > 0; j--) {
+                    names.add(in.readUTF());
+                }
+                jars.put(jar, new Stamped<>(size, time,
+                        Collections.unmodifiableList(names)));
+            }
+
+            for (int i = in.readInt(); i > 0; i--) {
+                final String url = in.readUTF();
+                final long size = in.readLong();
+                final long time = in.readLong();
+                final List<Header> list = new ArrayList<>();
+                for (int j = in.readInt(); j > 0; j--) {
+                    final String name = in.readUTF();
+                    final VersionNumber version = VersionNumber
+                            .parse(in.readUTF());
+                    final List<String> aliases = new ArrayList<>();
+                    for (int k = in.readInt(); k > 0; k--) {
+                        aliases.add(in.readUTF());
+                    }
+                    list.add(new Header(name, version, aliases));
+                }
+                headers.put(url, new Stamped<>(size, time,
+                        Collections.unmodifiableList(list)));
+            }
+        }
+    }// read()
+
+
+    private void write() throws IOException {
+        final Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        final Path temp = Files.createTempFile(dir,
+                file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.write(MAGIC);
+                out.writeByte(VERSION);
+
+                out.writeInt(jars.size());
+                for (final Map.Entry<String, Stamped<List<String>>> entry : jars
+                        .entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().writeStamp(out);
+                    out.writeInt(entry.getValue().value.size());
+                    for (final String name : entry.getValue().value) {
+                        out.writeUTF(name);
+                    }
+                }
+
+                out.writeInt(headers.size());
+                for (final Map.Entry<String, Stamped<List<Header>>> entry : headers
+                        .entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    entry.getValue().writeStamp(out);
+                    out.writeInt(entry.getValue().value.size());
+                    for (final Header header : entry.getValue().value) {
+                        out.writeUTF(header.name);
+                        out.writeUTF(header.version.toString());
+                        out.writeInt(header.aliases.size());
+                        for (final String alias : header.aliases) {
+                            out.writeUTF(alias);
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }// write()
+
+
+    /**
+     * The name, version and aliases of a variant or symbol pack.
+     */
+    static final class Header {
+        private final String name;
+        private final VersionNumber version;
+        private final List<String> aliases;
+
+        Header(final String name, final VersionNumber version,
+               final List<String> aliases) {
+            this.name = Objects.requireNonNull(name);
+            this.version = Objects.requireNonNull(version);
+            this.aliases = Collections
+                    .unmodifiableList(new ArrayList<>(aliases));
+        }
+
+        String getName() {
+            return name;
+        }
+
+        VersionNumber getVersion() {
+            return version;
+        }
+
+        List<String> getAliases() {
+            return aliases;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Header)) {
+                return false;
+            }
+            final Header header = (Header) obj;
+            return name.equals(header.name) && version
+                    .equals(header.version) && aliases.equals(header.aliases);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, version, aliases);
+        }
+    }// nested class Header
+
+
+    /**
+     * A value, with the size and modification time of the file it was
+     * taken from.
+     */
+    private static final class Stamped<T> {
+        private final long size;
+        private final long time;
+        private final T value;
+
+        private Stamped(final long size, final long time, final T value) {
+            this.size = size;
+            this.time = time;
+            this.value = value;
+        }
+
+        /**
+         * Stamps a value with the given file; <code>null</code> if the file
+         * cannot be read.
+         */
+        static <T> Stamped<T> of(final Path path, final T value) {
+            try {
+                return new Stamped<>(Files.size(path),
+                        Files.getLastModifiedTime(path).toMillis(), value);
+            } catch (final IOException e) {
+                return null;
+            }
+        }
+
+        boolean matches(final Path path) {
+            try {
+                return path != null && Files.size(path) == size && Files
+                        .getLastModifiedTime(path).toMillis() == time;
+            } catch (final IOException e) {
+                return false;
+            }
+        }
+
+        void writeStamp(final DataOutputStream out) throws IOException {
+            out.writeLong(size);
+            out.writeLong(time);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Stamped)) {
+                return false;
+            }
+            final Stamped<?> stamped = (Stamped<?>) obj;
+            return size == stamped.size && time == stamped.time && value
+                    .equals(stamped.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, time, value);
+        }
+    }// nested class Stamped
+}// class VariantCatalog
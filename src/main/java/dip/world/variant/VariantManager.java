@@ -22,7 +22,6 @@
 //
 package dip.world.variant;
 
-import dip.misc.Resources;
 import dip.world.variant.data.MapGraphic;
 import dip.world.variant.data.SymbolPack;
 import dip.world.variant.data.Variant;
@@ -38,14 +37,25 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -60,6 +70,10 @@ import java.util.stream.Stream;
  * </ol>
  * Faciliates loading of variant resources. Within the above file, the variants.xml
  * file is parsed to determine the required information.
+ * A variants.xml file is only parsed when one of its Variants is first
+ * asked for; the names, versions and aliases of the Variants are known
+ * beforehand from the {@link VariantCatalog}. The same goes for the
+ * symbols.xml files of SymbolPacks.
  * <p>
  * Also finds all SymbolPacks, which end in:
  * <ol>
@@ -80,11 +94,34 @@ public final class VariantManager {
     public static final VersionNumber VERSION_NEWEST = new VersionNumber(-1000,
             0);
 
-    private static final String VARIANT_FILE_NAME = "variants.xml";
-    private static final String SYMBOL_FILE_NAME = "symbols.xml";
+    static final String VARIANT_FILE_NAME = "variants.xml";
+    static final String SYMBOL_FILE_NAME = "symbols.xml";
 
-    private final Map<String, MapRec<VRec>> variantMap;    // map of lowercased Variant names to MapRec objects (which contain VRecs)
-    private final Map<String, MapRec<SPRec>> symbolMap;    // lowercase symbol names to MapRec objects (which contain SPRecs)
+    private static VariantManager instance;
+
+    private final List<VRec> vRecs = new ArrayList<>();
+    private final List<SPRec> spRecs = new ArrayList<>();
+    private volatile Map<String, MapRec<VRec>> variantMap;    // map of lowercased Variant names to MapRec objects (which contain VRecs)
+    private volatile Map<String, MapRec<SPRec>> symbolMap;    // lowercase symbol names to MapRec objects (which contain SPRecs)
+    private final Map<URL, Throwable> parseErrors = new LinkedHashMap<>();    // plugin files that failed to parse
+
+    /**
+     * Threads that parse plugin files. They end when idle, so they do not
+     * hold up exit.
+     */
+    private static final ThreadPoolExecutor PARSER;
+
+    static {
+        final int threads = Math.max(1,
+                Math.min(4, Runtime.getRuntime().availableProcessors()));
+        PARSER = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            final Thread thread = new Thread(r, "jdipVariantParser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        PARSER.allowCoreThreadTimeOut(true);
+    }
 
 
     /**
@@ -99,6 +136,19 @@ public final class VariantManager {
      * Singleton
      */
     public VariantManager() {
+        this(() -> VariantCatalog.getInstance()
+                        .getResourceURLs(VARIANT_FILE_NAME),
+                () -> VariantCatalog.getInstance()
+                        .getResourceURLs(SYMBOL_FILE_NAME));
+    }// VariantManager()
+
+
+    /**
+     * Creates a VariantManager of the given variants.xml and symbols.xml
+     * files.
+     */
+    VariantManager(final Supplier<List<URL>> variantURLs,
+                   final Supplier<List<URL>> symbolURLs) {
         // perform cleanup
 
         // find plugins, create plugin loader
@@ -107,56 +157,308 @@ public final class VariantManager {
         // if it does not exist, we will not load the file. If it does, we will parse it,
         // and associate the variant with the URL in a hashtable.
 
-        final Map<String, MapRec<VRec>> collect = Resources
-                .getResourceURLs(url -> {
-                    return url.getPath().endsWith(VARIANT_FILE_NAME);
-                }).stream().flatMap(variantXMLURL -> {
-                    // parse variant description file, and create hash entry of variant object -> URL
-                    // add variants; variants with same name (but older versions) are
-                    // replaced with same-name newer versioned variants
-                    return new XMLVariantParser(variantXMLURL).getVariants()
-                            .stream().map(variant -> {// FIXME
-                                final VRec vRec = new VRec(variantXMLURL,
-                                        variantXMLURL.getFile(), variant);
-                                return vRec;
-                            });
-                }).collect(Collectors.groupingBy(
-                        vRec -> vRec.getVariant().getName().toLowerCase()))
+        // the catalog saves searching the jars on the classpath again, and
+        // knows the variants of each unchanged file, so that only the
+        // files of the variants used need to be parsed. Files it does not
+        // know are parsed on the pool, while the search goes on.
+        final VariantCatalog catalog = VariantCatalog.getInstance();
+        final CompletableFuture<List<URL>> symbolFileURLs = CompletableFuture
+                .supplyAsync(symbolURLs, PARSER);
+        final List<PluginFile<List<Variant>>> variantFiles = variantURLs.get()
+                .stream()
+                .map(url -> new PluginFile<>(url, catalog.getHeaders(url),
+                        () -> new XMLVariantParser(url).getVariants()))
+                .collect(Collectors.toList());
+        final List<PluginFile<SymbolPack>> symbolFiles = symbolFileURLs.join()
+                .stream()
+                .map(url -> new PluginFile<>(url, catalog.getHeaders(url),
+                        () -> parseSymbolPack(url)))
+                .collect(Collectors.toList());
+
+        // merged in the order found, not the order parsed; a file that
+        // fails is left out, and the others are still loaded
+        for (final PluginFile<List<Variant>> file : variantFiles) {
+            final URL variantXMLURL = file.url;
+            try {
+                final VariantFile variantFile = new VariantFile(variantXMLURL,
+                        file.getParsed());
+                final List<VariantCatalog.Header> headers = file.headers
+                        .orElseGet(() -> putHeaders(catalog, variantFile));
+                vRecs.addAll(createVRecs(variantFile, headers));
+            } catch (final RuntimeException e) {
+                addParseError(variantXMLURL, e);
+            }
+        }
+
+        for (final PluginFile<SymbolPack> file : symbolFiles) {
+            final URL symbolXMLURL = file.url;
+            try {
+                // FIXME pluginName
+                if (file.headers.isPresent()) {
+                    spRecs.add(new SPRec(symbolXMLURL, symbolXMLURL.getFile(),
+                            file.headers.get().get(0)));
+                } else {
+                    spRecs.add(putHeaders(catalog,
+                            new SPRec(symbolXMLURL, symbolXMLURL.getFile(),
+                                    file.getParsed())));
+                }
+            } catch (final RuntimeException e) {
+                addParseError(symbolXMLURL, e);
+            }
+        }
+        catalog.save();
+
+        variantMap = createVariantMap(vRecs);
+        symbolMap = createSymbolMap(spRecs);
+    }// VariantManager()
+
+
+    /**
+     * Returns the VariantManager shared by the GUI, creating it on first
+     * use.
+     */
+    public static synchronized VariantManager getInstance() {
+        if (instance == null) {
+            instance = new VariantManager();
+        }
+        return instance;
+    }// getInstance()
+
+
+    /**
+     * Maps the lowercased names and aliases of the Variants to their
+     * records; variants with same name (but older versions) are replaced
+     * with same-name newer versioned variants.
+     */
+    private Map<String, MapRec<VRec>> createVariantMap(
+            final List<VRec> records) {
+        final Map<String, MapRec<VRec>> collect = records.stream()
+                .collect(Collectors.groupingBy(
+                        vRec -> vRec.getName().toLowerCase()))
                 .entrySet().stream().collect(Collectors.toMap(Entry::getKey,
                         entry -> entry.getValue().stream()
                                 .collect(MapRec<VRec>::new, MapRec::add,
                                         (mr0, mr1) -> {
                                         })));
-        variantMap = collect.entrySet().stream().flatMap(entry -> {
+        return collect.entrySet().stream().flatMap(entry -> {
             final List<String> keys = new ArrayList<>(
-                    entry.getValue().getNewest().get().getVariant()
-                            .getAliases());
+                    entry.getValue().getNewest().get().getAliases());
             final String origin = entry.getKey();
             keys.add(origin);
             return keys.stream()
                     .map(key -> new Pair<>(key, collect.get(origin)));
         }).collect(Collectors.toMap(Pair::getKey, Pair::getValue));
+    }// createVariantMap()
 
 
-        // now, parse symbol packs
-
-        symbolMap = Resources.getResourceURLs(url -> {
-            return url.getPath().endsWith(SYMBOL_FILE_NAME);
-        }).stream().map(symbolXMLURL -> {
-            try { // FIXME pluginName
-                return new SPRec(symbolXMLURL, symbolXMLURL.getFile(),
-                        new XMLSymbolParser(symbolXMLURL).getSymbolPack());
-            } catch (ParserConfigurationException | MalformedURLException e) {
-                throw new IllegalArgumentException(e);
-            }
-        }).collect(Collectors.groupingBy(
-                spRec -> spRec.getSymbolPack().getName().toLowerCase()))
+    /**
+     * Maps the lowercased names of the SymbolPacks to their records.
+     */
+    private Map<String, MapRec<SPRec>> createSymbolMap(
+            final List<SPRec> records) {
+        return records.stream().collect(Collectors.groupingBy(
+                spRec -> spRec.header.getName().toLowerCase()))
                 .entrySet().stream().collect(Collectors.toMap(Entry::getKey,
                         entry -> entry.getValue().stream()
                                 .collect(MapRec<SPRec>::new, MapRec::add,
                                         (mr0, mr1) -> {
                                         })));
-    }
+    }// createSymbolMap()
+
+
+    /**
+     * Records the headers of a parsed variants.xml file in the catalog.
+     */
+    private static List<VariantCatalog.Header> putHeaders(
+            final VariantCatalog catalog, final VariantFile variantFile) {
+        final List<VariantCatalog.Header> list = variantFile.getVariants()
+                .stream().map(v -> new VariantCatalog.Header(v.getName(),
+                        v.getVersion(), v.getAliases()))
+                .collect(Collectors.toList());
+        catalog.putHeaders(variantFile.url, list);
+        return list;
+    }// putHeaders()
+
+
+    /**
+     * Records the header of a parsed symbols.xml file in the catalog.
+     */
+    private static SPRec putHeaders(final VariantCatalog catalog,
+                                    final SPRec spRec) {
+        catalog.putHeaders(spRec.getURL(),
+                Collections.singletonList(spRec.header));
+        return spRec;
+    }// putHeaders()
+
+
+    private static List<VRec> createVRecs(final VariantFile variantFile,
+                                          final List<VariantCatalog.Header> headers) {
+        final URL url = variantFile.url;
+        return headers.stream()
+                .map(header -> new VRec(url, url.getFile(), header,
+                        variantFile)).collect(Collectors.toList());
+    }// createVRecs()
+
+
+    /**
+     * Returns the directories that hold the variants.xml and symbols.xml
+     * files that are not in jars, including those that could not be
+     * parsed.
+     */
+    synchronized List<Path> getPluginDirectories() {
+        return Stream.concat(Stream.concat(vRecs.stream(), spRecs.stream())
+                .map(MapRecObj::getURL), parseErrors.keySet().stream())
+                .map(VariantCatalog::getSource).filter(Objects::nonNull)
+                .map(Path::getParent).distinct().collect(Collectors.toList());
+    }// getPluginDirectories()
+
+
+    /**
+     * Parses again those of the given variants.xml files that are known,
+     * and replaces their Variants. A file that cannot be parsed keeps its
+     * former Variants. Returns the names of the Variants defined, before
+     * or after, by a variants.xml file in the directory of a changed file,
+     * as their map, adjacency or other data may have changed too.
+     */
+    synchronized Set<String> reloadVariants(final Collection<Path> files) {
+        final Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        final Map<URL, List<VRec>> byFile = new LinkedHashMap<>();
+        vRecs.forEach(vRec -> byFile
+                .computeIfAbsent(vRec.getURL(), url -> new ArrayList<>())
+                .add(vRec));
+        parseErrors.keySet().stream()
+                .filter(url -> url.getPath().endsWith(VARIANT_FILE_NAME))
+                .forEach(url -> byFile
+                        .putIfAbsent(url, Collections.emptyList()));
+
+        final VariantCatalog catalog = VariantCatalog.getInstance();
+        final List<VRec> records = new ArrayList<>();
+        final Map<URL, RuntimeException> errors = new LinkedHashMap<>();
+        byFile.forEach((url, list) -> {
+            final Path file = VariantCatalog.getSource(url);
+            if (file == null || files.stream().noneMatch(
+                    changed -> file.getParent().equals(changed.getParent()))) {
+                records.addAll(list);
+                return;
+            }
+            list.forEach(vRec -> names.add(vRec.getName()));
+            if (!files.contains(file)) {
+                records.addAll(list);
+                return;
+            }
+            try {
+                final VariantFile variantFile = new VariantFile(url,
+                        new XMLVariantParser(url).getVariants());
+                final List<VRec> reloaded = createVRecs(variantFile,
+                        putHeaders(catalog, variantFile));
+                reloaded.forEach(vRec -> names.add(vRec.getName()));
+                records.addAll(reloaded);
+                errors.put(url, null);
+            } catch (final RuntimeException e) {
+                errors.put(url, e);
+                records.addAll(list);
+            }
+        });
+        catalog.save();
+
+        try {
+            variantMap = createVariantMap(records);
+            vRecs.clear();
+            vRecs.addAll(records);
+        } catch (final RuntimeException e) {
+            // e.g. two files now define the same version of a variant
+            errors.replaceAll((url, error) -> e);
+        }
+        errors.forEach((url, e) -> {
+            if (e == null) {
+                parseErrors.remove(url);
+            } else {
+                addParseError(url, e);
+            }
+        });
+        return names;
+    }// reloadVariants()
+
+
+    /**
+     * Parses again those of the given symbols.xml files that are known,
+     * and replaces their SymbolPacks. A file that cannot be parsed keeps
+     * its former SymbolPack. Returns the names of the SymbolPacks in the
+     * directory of a changed file.
+     */
+    synchronized Set<String> reloadSymbolPacks(final Collection<Path> files) {
+        final Set<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        final Map<URL, SPRec> byFile = new LinkedHashMap<>();
+        spRecs.forEach(spRec -> byFile.put(spRec.getURL(), spRec));
+        parseErrors.keySet().stream()
+                .filter(url -> url.getPath().endsWith(SYMBOL_FILE_NAME))
+                .forEach(url -> byFile.putIfAbsent(url, null));
+
+        final VariantCatalog catalog = VariantCatalog.getInstance();
+        final List<SPRec> records = new ArrayList<>();
+        final Map<URL, RuntimeException> errors = new LinkedHashMap<>();
+        byFile.forEach((url, spRec) -> {
+            final Path file = VariantCatalog.getSource(url);
+            if (file == null || files.stream().noneMatch(
+                    changed -> file.getParent().equals(changed.getParent()))) {
+                Optional.ofNullable(spRec).ifPresent(records::add);
+                return;
+            }
+            Optional.ofNullable(spRec)
+                    .ifPresent(rec -> names.add(rec.header.getName()));
+            if (!files.contains(file)) {
+                Optional.ofNullable(spRec).ifPresent(records::add);
+                return;
+            }
+            try {
+                final SPRec reloaded = putHeaders(catalog,
+                        new SPRec(url, url.getFile(), parseSymbolPack(url)));
+                names.add(reloaded.header.getName());
+                records.add(reloaded);
+                errors.put(url, null);
+            } catch (final RuntimeException e) {
+                errors.put(url, e);
+                Optional.ofNullable(spRec).ifPresent(records::add);
+            }
+        });
+        catalog.save();
+
+        try {
+            symbolMap = createSymbolMap(records);
+            spRecs.clear();
+            spRecs.addAll(records);
+        } catch (final RuntimeException e) {
+            errors.replaceAll((url, error) -> e);
+        }
+        errors.forEach((url, e) -> {
+            if (e == null) {
+                parseErrors.remove(url);
+            } else {
+                addParseError(url, e);
+            }
+        });
+        return names;
+    }// reloadSymbolPacks()
+
+    /**
+     * Notes a variants.xml or symbols.xml file that could not be parsed.
+     */
+    private void addParseError(final URL url, final RuntimeException e) {
+        final Throwable cause = e instanceof CompletionException && e
+                .getCause() != null ? e.getCause() : e;
+        LOG.warn("Cannot load plugin {}: {}", url, cause.toString());
+        LOG.debug("Plugin parse error", cause);
+        parseErrors.put(url, cause);
+    }// addParseError()
+
+    /**
+     * Returns the variants.xml and symbols.xml files that could not be
+     * parsed, with the reason; their Variants and SymbolPacks are not
+     * available.
+     */
+    public synchronized Map<URL, Throwable> getParseErrors() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(parseErrors));
+    }// getParseErrors()
 
     /**
      * Returns the known Variants. If multiple versions of a Variant
@@ -164,6 +466,11 @@ public final class VariantManager {
      * sorted in alphabetic order.
      */
     public synchronized List<Variant> getVariants() {
+        parseAll(variantMap.values().stream().flatMap(mr -> mr.list.stream())
+                .map(vRec -> vRec.file).distinct()
+                .filter(file -> !file.isParsed())
+                .map(file -> (Runnable) file::getVariants));
+
         // The sorted Variant list
         // note that we need to avoid putting duplicates
         // into the array.
@@ -180,6 +487,10 @@ public final class VariantManager {
      * sorted in alphabetic order.
      */
     public synchronized List<SymbolPack> getSymbolPacks() {
+        parseAll(symbolMap.values().stream().flatMap(mr -> mr.list.stream())
+                .filter(spRec -> !spRec.isParsed())
+                .map(spRec -> (Runnable) spRec::getSymbolPack));
+
         // avoid putting duplicates into the array.
         // fill variant list with variants.
         return symbolMap.values().stream().distinct().flatMap(
@@ -269,9 +580,11 @@ public final class VariantManager {
      * Returns false if the version is not available or the variant
      * is not found.
      */
-    public boolean hasVariantVersion(final String name,
-                                     final VersionNumber version) {
-        return getVariant(name, version) != null;
+    public synchronized boolean hasVariantVersion(final String name,
+                                                  final VersionNumber version) {
+        // the Variant itself need not be parsed
+        return Optional.ofNullable(variantMap.get(name.toLowerCase()))
+                .flatMap(mr -> mr.get(version)).isPresent();
     }// hasVariantVersion()
 
     /**
@@ -280,12 +593,26 @@ public final class VariantManager {
      * Returns false if the version is not available or the SymbolPack
      * is not found.
      */
-    public boolean hasSymbolPackVersion(final String name,
-                                        final VersionNumber version) {
-        return getSymbolPack(name, version) != null;
+    public synchronized boolean hasSymbolPackVersion(final String name,
+                                                     final VersionNumber version) {
+        return Optional.ofNullable(symbolMap.get(name.toLowerCase()))
+                .flatMap(mr -> mr.get(version)).isPresent();
     }// hasVariantVersion()
 
 
+    /**
+     * Returns the number of variants.xml and symbols.xml files parsed so
+     * far.
+     */
+    synchronized int getParsedFileCount() {
+        return (int) (variantMap.values().stream()
+                .flatMap(mr -> mr.list.stream()).map(vRec -> vRec.file)
+                .distinct().filter(VariantFile::isParsed).count() + symbolMap
+                .values().stream().flatMap(mr -> mr.list.stream())
+                .filter(SPRec::isParsed).count());
+    }// getParsedFileCount()
+
+
     /**
      * Returns the versions of a variant that are available.
      * If the variant is not found, a zero-length array is returned.
@@ -392,6 +719,37 @@ public final class VariantManager {
     }// getClassLoader()
 
 
+    /**
+     * Runs the given parse tasks on the pool, and waits for all of them.
+     */
+    private static void parseAll(final Stream<Runnable> tasks) {
+        final List<CompletableFuture<Void>> futures = tasks
+                .map(task -> CompletableFuture.runAsync(task, PARSER))
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                    .join();
+        } catch (final CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }// parseAll()
+
+
+    /**
+     * Parses a symbols.xml file.
+     */
+    private static SymbolPack parseSymbolPack(final URL url) {
+        try {
+            return new XMLSymbolParser(url).getSymbolPack();
+        } catch (ParserConfigurationException | MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }// parseSymbolPack()
+
+
     /**
      * Returns the "file" part of the URL; e.g.: x/y/z.jar, returns z.jar
      */
@@ -513,60 +871,149 @@ public final class VariantManager {
 
 
     /**
-     * An ObjRec for Variant objects
+     * An ObjRec for Variant objects. The Variant is only parsed when
+     * first asked for.
      */
     private static final class VRec extends MapRecObj {
-        private final Variant variant;
+        private final VariantCatalog.Header header;
+        private final VariantFile file;
 
-        VRec(final URL pluginURL, final String pluginName, final Variant v) {
+        VRec(final URL pluginURL, final String pluginName,
+             final VariantCatalog.Header header, final VariantFile file) {
             super(pluginURL, pluginName);
-            variant = v;
+            this.header = header;
+            this.file = file;
+        }
+
+        public String getName() {
+            return header.getName();
+        }
+
+        public List<String> getAliases() {
+            return header.getAliases();
         }
 
         public Variant getVariant() {
-            return variant;
+            return file.getVariants().stream()
+                    .filter(v -> v.getName().equals(header.getName()) && v
+                            .getVersion().equals(header.getVersion()))
+                    .findFirst().orElseThrow(() -> new IllegalStateException(
+                            String.format("%s no longer defines %s", getURL(),
+                                    this)));
         }
 
         @Override
         public VersionNumber getVersion() {
-            return variant.getVersion();
+            return header.getVersion();
         }
 
         @Override
         public String toString() {
             return String
                     .format("VRec[name=%s; version=%s; pluginName=%s; pluginURL=%s]",
-                            variant.getName(), getVersion(), getPluginName(),
+                            header.getName(), getVersion(), getPluginName(),
                             getURL());
         }
     }// inner class VRec
 
     /**
-     * An ObjRec for SymbolPack objects
+     * A variants.xml file, parsed on first use. All Variants of the file
+     * are parsed together.
+     */
+    private static final class VariantFile {
+        private final URL url;
+        private List<Variant> variants;
+
+        /**
+         * @param variants the Variants, if already parsed
+         */
+        VariantFile(final URL url, final List<Variant> variants) {
+            this.url = url;
+            this.variants = variants;
+        }
+
+        synchronized List<Variant> getVariants() {
+            if (variants == null) {
+                variants = new XMLVariantParser(url).getVariants();
+            }
+            return variants;
+        }
+
+        synchronized boolean isParsed() {
+            return variants != null;
+        }
+    }// inner class VariantFile
+
+    /**
+     * A plugin file found on the classpath. If the catalog does not know
+     * it, it is parsed at once on the pool.
+     */
+    private static final class PluginFile<T> {
+        private final URL url;
+        private final Optional<List<VariantCatalog.Header>> headers;
+        private final CompletableFuture<T> parsed;
+
+        PluginFile(final URL url,
+                   final Optional<List<VariantCatalog.Header>> headers,
+                   final Supplier<T> parser) {
+            this.url = url;
+            this.headers = headers;
+            parsed = headers.isPresent() ? null : CompletableFuture
+                    .supplyAsync(parser, PARSER);
+        }
+
+        /**
+         * Returns the parsed file, or null if it is known to the catalog.
+         */
+        T getParsed() {
+            return parsed == null ? null : parsed.join();
+        }
+    }// inner class PluginFile
+
+
+    /**
+     * An ObjRec for SymbolPack objects. The SymbolPack is only parsed when
+     * first asked for.
      */
     private static final class SPRec extends MapRecObj {
-        private final SymbolPack symbolPack;
+        private final VariantCatalog.Header header;
+        private SymbolPack symbolPack;
 
         SPRec(final URL pluginURL, final String pluginName,
-              final SymbolPack sp) {
+              final VariantCatalog.Header header) {
             super(pluginURL, pluginName);
+            this.header = header;
+        }
+
+        SPRec(final URL pluginURL, final String pluginName,
+              final SymbolPack sp) {
+            this(pluginURL, pluginName,
+                    new VariantCatalog.Header(sp.getName(), sp.getVersion(),
+                            Collections.emptyList()));
             symbolPack = sp;
         }
 
-        public SymbolPack getSymbolPack() {
+        public synchronized SymbolPack getSymbolPack() {
+            if (symbolPack == null) {
+                symbolPack = parseSymbolPack(getURL());
+            }
             return symbolPack;
         }
 
+        synchronized boolean isParsed() {
+            return symbolPack != null;
+        }
+
         @Override
         public VersionNumber getVersion() {
-            return symbolPack.getVersion();
+            return header.getVersion();
         }
 
         @Override
         public String toString() {
             return String
                     .format("SPRec[name=%s; version=%s; pluginName=%s; pluginURL=%s]",
-                            symbolPack.getName(), symbolPack.getVersion(),
+                            header.getName(), header.getVersion(),
                             getPluginName(), getURL());
         }
 
@@ -0,0 +1,169 @@
+// Copyright (C) 2016 TANIGUCHI Takaki
+//
+// This program is free software: you can redistribute it and/or modify
+// it under the terms of the GNU General Public License as published by
+// the Free Software Foundation, either version 2 of the License, or
+// (at your option) any later version.
+//
+// This program is distributed in the hope that it will be useful,
+// but WITHOUT ANY WARRANTY; without even the implied warranty of
+// MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+// GNU General Public License for more details.
+//
+// You should have received a copy of the GNU General Public License
+// along with this program.  If not, see <http://www.gnu.org/licenses/>.
+//
+package dip.world.variant;
+
+import dip.misc.Log;
+import dip.world.WorldFactory;
+import dip.world.variant.parser.XMLVariantParser.AdjCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the directories of the variant and symbol pack plugins that are
+ * not in jars, for map authors who edit them while jDip runs.
+ * <p>
+ * When a file changes, only that file is dealt with: a changed
+ * variants.xml or symbols.xml is parsed again, and its Variants or
+ * SymbolPack replaced in the VariantManager; the cached adjacency data
+ * of a changed adjacency file is dropped; and the shared WorldMaps of the
+ * Variants in the directory are dropped, so that they are created again
+ * when next asked for. The Listener is then told which Variants and
+ * SymbolPacks may have changed, so that an open map may be loaded again.
+ */
+public final class VariantWatcher implements Closeable {
+    private static final Logger LOG = LoggerFactory
+            .getLogger(VariantWatcher.class);
+
+    /**
+     * Changes are dealt with once the directories have been quiet this
+     * long, as editors often write a file in several steps.
+     */
+    private static final long QUIET_MILLIS = 100;
+
+    private final VariantManager variantManager;
+    private final Listener listener;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+
+    /**
+     * Told, on the watcher thread, of the plugins that were reloaded.
+     */
+    public interface Listener {
+        /**
+         * The Variants and SymbolPacks of the given names may have
+         * changed. The sets are not case-sensitive.
+         */
+        void pluginsChanged(Set<String> variantNames,
+                            Set<String> symbolPackNames);
+    }// interface Listener
+
+
+    /**
+     * Starts watching the plugin directories of the given VariantManager.
+     */
+    public VariantWatcher(final VariantManager variantManager,
+                          final Listener listener) throws IOException {
+        this.variantManager = Objects.requireNonNull(variantManager);
+        this.listener = Objects.requireNonNull(listener);
+        watchService = FileSystems.getDefault().newWatchService();
+        for (final Path directory : variantManager.getPluginDirectories()) {
+            try {
+                directories.put(directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY), directory);
+            } catch (final IOException e) {
+                LOG.warn("Cannot watch {}: {}", directory, e.toString());
+            }
+        }
+        LOG.debug("Watching {} plugin directories", directories.size());
+
+        final Thread thread = new Thread(this::watch, "jdipVariantWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }// VariantWatcher()
+
+
+    /**
+     * Stops watching.
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }// close()
+
+
+    /**
+     * Deals with the changed files, and tells the Listener.
+     */
+    void reload(final Collection<Path> files) {
+        final long time = System.currentTimeMillis();
+        final Set<String> variantNames = variantManager.reloadVariants(files);
+        final Set<String> symbolPackNames = variantManager
+                .reloadSymbolPacks(files);
+        AdjCache.remove(url -> files.contains(VariantCatalog.getSource(url)));
+        variantNames.forEach(WorldFactory::releaseWorldMaps);
+        LOG.debug(Log.printTimed(time, "Reloaded plugins " + files + ": "));
+
+        if (!variantNames.isEmpty() || !symbolPackNames.isEmpty()) {
+            try {
+                listener.pluginsChanged(variantNames, symbolPackNames);
+            } catch (final RuntimeException e) {
+                LOG.warn("Plugin change not handled: {}", e.toString());
+                LOG.debug("Plugin change error", e);
+            }
+        }
+    }// reload()
+
+
+    /**
+     * Collects the changed files until the directories are quiet, then
+     * deals with them; ends when closed.
+     */
+    private void watch() {
+        try {
+            while (true) {
+                final Set<Path> files = new HashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    final Path directory = directories.get(key);
+                    for (final WatchEvent<?> event : key.pollEvents()) {
+                        // an overflow has no file
+                        if (directory != null && event
+                                .context() instanceof Path) {
+                            files.add(directory
+                                    .resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                    key = watchService
+                            .poll(QUIET_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                reload(files);
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            LOG.debug("Plugin directories no longer watched");
+        }
+    }// watch()
+
+}// class VariantWatcher
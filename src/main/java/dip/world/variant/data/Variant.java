@@ -77,7 +77,7 @@ public final class Variant implements Cloneable, Comparable<Variant> {
     @XmlElement(name = "SUPPLYCENTER")
     private List<SupplyCenter> supplyCenters;
     @XmlElement(name = "INITIALSTATE")
-    private List<InitialState> istate;
+    private List<InitialState> istate = new ArrayList<>();
 
     @XmlElement(name = "MAP")
     private Map map = new Map();
@@ -269,13 +269,18 @@ public final class Variant implements Cloneable, Comparable<Variant> {
      * The ProvinceData associated with this Variant
      */
     public List<ProvinceData> getProvinceData() {
+        return AdjCache.getProvinceData(getAdjacencyURL());// TODO: remove AdjCache
+    }
+
+    /**
+     * The URL of the adjacency data (provinces and borders) of this Variant
+     */
+    public URL getAdjacencyURL() {
         try {
-            final URL url = new URL(baseURL, map.adjacencyURI.toString());
-            return AdjCache.getProvinceData(url);// TODO: remove AdjCache
+            return new URL(baseURL, map.adjacencyURI.toString());
         } catch (final MalformedURLException e) {
             throw new IllegalArgumentException(e);
         }
-
     }
 
     /**
@@ -289,12 +294,7 @@ public final class Variant implements Cloneable, Comparable<Variant> {
      * Gets the BorderData associated with this Variant
      */
     public List<BorderData> getBorderData() {
-        try {
-            final URL url = new URL(baseURL, map.adjacencyURI.toString());
-            return AdjCache.getBorderData(url); // TODO: remove AdjCache
-        } catch (final MalformedURLException e) {
-            throw new IllegalArgumentException(e);
-        }
+        return AdjCache.getBorderData(getAdjacencyURL()); // TODO: remove AdjCache
     }
 
     /**
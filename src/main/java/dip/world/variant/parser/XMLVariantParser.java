@@ -41,6 +41,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 
 /**
@@ -144,9 +145,10 @@ public class XMLVariantParser implements VariantParser {
 
 
         /**
-         * Gets the AdjCache object from the cache, or parses from the URI, as appropriate
+         * Gets the AdjCache object from the cache, or parses from the URI, as appropriate.
+         * Synchronized, since even a lookup reorders the access-ordered LRUCache.
          */
-        private static AdjCache get(final URL url) {
+        private static synchronized AdjCache get(final URL url) {
             // see if we already have the URI data cached.
             return adjCache.computeIfAbsent(url, adjacencyURI -> {
                 // final URL url = new URL(vpURL, adjacencyURI.toString());
@@ -155,6 +157,15 @@ public class XMLVariantParser implements VariantParser {
                 return new AdjCache(pp.getProvinceData(), pp.getBorderData());
             });
         }// get()
+
+
+        /**
+         * Drops the cached data of the adjacency files that match, so that
+         * they are parsed again when next asked for.
+         */
+        public static synchronized void remove(final Predicate<URL> filter) {
+            adjCache.keySet().removeIf(filter);
+        }// remove()
     }// inner class AdjCache
 
 
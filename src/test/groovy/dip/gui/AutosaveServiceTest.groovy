@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.gui
+
+import dip.order.OrderFactory
+import dip.world.RandomGame
+import dip.world.World
+import dip.world.WorldSnapshot
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+class AutosaveServiceTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def world = RandomGame.play(vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 12, 3)
+
+    def file = File.createTempFile("autosave", ".jdip")
+    def service = new AutosaveService(Thread.currentThread().getThreadGroup(),
+            { world }, { file }, { 0 })
+
+    def cleanup() {
+        service.shutdown()
+        file.delete()
+    }
+
+    def waitForWrites(AutosaveService autosave = service) {
+        for (int i = 0; i < 500 && autosave.getQueueDepth() > 0; i++) {
+            Thread.sleep(10)
+        }
+    }
+
+    def "a snapshot is independent of later changes"() {
+        setup:
+        world.getGameMetadata().setGameName("before")
+        def snapshot = WorldSnapshot.of(world)
+
+        when:
+        world.getGameMetadata().setGameName("after")
+        service.submit(snapshot, file, System.nanoTime())
+        waitForWrites()
+
+        then:
+        World.open(file, vm, OrderFactory.getDefault()).getGameMetadata().getGameName() == "before"
+        service.getLastSaveLatency() >= 0
+    }
+
+    def "a file is deleted after the writes queued before"() {
+        setup:
+        def other = File.createTempFile("autosave", ".jdip")
+
+        when:
+        service.submit(WorldSnapshot.of(world), other, System.nanoTime())
+        service.delete(other)
+        waitForWrites()
+        for (int i = 0; i < 500 && other.exists(); i++) {
+            Thread.sleep(10)
+        }
+
+        then:
+        !other.exists()
+
+        cleanup:
+        other.delete()
+    }
+
+    def "only the newest waiting snapshot is written"() {
+        when:
+        (1..20).each {
+            world.getGameMetadata().setGameName("game " + it)
+            service.submit(WorldSnapshot.of(world), file, System.nanoTime())
+        }
+        waitForWrites()
+
+        then:
+        service.getQueueDepth() == 0
+        World.open(file, vm, OrderFactory.getDefault()).getGameMetadata().getGameName() == "game 20"
+    }
+
+    def "no snapshot is taken without a world"() {
+        setup:
+        def none = new AutosaveService(Thread.currentThread().getThreadGroup(),
+                { null }, { file }, { 0 })
+        file.delete()
+
+        when:
+        none.snapshot()
+
+        then:
+        none.getQueueDepth() == 0
+        none.getLastSnapshotTime() == -1
+        !file.exists()
+
+        cleanup:
+        none.shutdown()
+    }
+
+    def "each journaled change is appended to the autosave file"() {
+        setup:
+        def w = RandomGame.play(vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 12, 4)
+        def journaling = new AutosaveService(Thread.currentThread().getThreadGroup(),
+                { w }, { file }, { 60000 })
+        file.delete()
+
+        when:
+        journaling.journal()
+        waitForWrites(journaling)
+        def length = file.length()
+        w.getLastTurnState().clearAllOrders()
+        journaling.journal()
+        waitForWrites(journaling)
+
+        then:
+        file.length() > length
+        World.open(file, vm, OrderFactory.getDefault()).getLastTurnState().getAllOrders().isEmpty()
+
+        cleanup:
+        journaling.shutdown()
+    }
+
+    def "a disabled autosave does not journal"() {
+        setup:
+        file.delete()
+
+        when:
+        service.journal()
+
+        then:
+        service.getQueueDepth() == 0
+        !file.exists()
+    }
+
+    def "a disabled autosave does not start"() {
+        when:
+        service.changed()
+
+        then:
+        service.getQueueDepth() == 0
+    }
+}
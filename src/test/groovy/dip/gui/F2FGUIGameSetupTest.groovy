@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.gui
+
+import dip.order.OrderFactory
+import dip.world.RandomGame
+import dip.world.World
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+class F2FGUIGameSetupTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+
+    def world = RandomGame.play(vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 4, 5)
+    def file = File.createTempFile("f2f", ".jdip")
+
+    def cleanup() {
+        file.delete()
+    }
+
+    def "face-to-face state is kept in binary game files"() {
+        setup:
+        def powers = world.getMap().getPowers()
+        def state = new F2FOrderDisplayPanel.F2FState()
+        state.setCurrentPower(powers[2])
+        state.setSubmitted(powers[0], true)
+        state.setSubmitted(powers[1], false)
+        state.setSubmitted(powers[4], true)
+        def gs = new F2FGUIGameSetup()
+        gs.@state = state
+        world.setGameSetup(gs)
+
+        when:
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+        def readState = read.getGameSetup().@state
+
+        then:
+        read.getGameSetup() instanceof F2FGUIGameSetup
+        readState.getCurrentPower().is(read.getMap().getPowers()[2])
+        readState.iterator().collect { it.key.getName() }.sort() ==
+                [powers[0].getName(), powers[4].getName()].sort()
+        readState.iterator().every { it.value }
+    }
+
+    def "a game setup without saved state reads back without state"() {
+        setup:
+        world.setGameSetup(new F2FGUIGameSetup())
+
+        when:
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        read.getGameSetup() instanceof F2FGUIGameSetup
+        read.getGameSetup().@state == null
+    }
+
+    def "the undo history is not kept"() {
+        setup:
+        world.setGameSetup(new F2FGUIGameSetup())
+
+        when:
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        // setup() starts a new, empty UndoRedoManager
+        read.getUndoRedoManager() == null
+    }
+}
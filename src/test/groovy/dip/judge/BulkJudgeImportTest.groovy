@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.judge
+
+import dip.order.OrderFactory
+import dip.world.Phase
+import dip.world.World
+import dip.world.variant.VariantManager
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Paths
+
+class BulkJudgeImportTest extends Specification {
+    def input = Paths.get(getClass().getResource("/judge").toURI())
+    def output = Files.createTempDirectory("bulk")
+
+    def cleanup() {
+        output.toFile().deleteDir()
+    }
+
+    def "a history with an adjustment phase is imported and its results applied"() {
+        when:
+        def summary = new BulkJudgeImport(input, output, "*.txt", 2).run()
+        def world = World.open(output.resolve("standard_history.txt.jdip").toFile(),
+                new VariantManager(), OrderFactory.getDefault())
+
+        then:
+        summary.size() == 2
+        summary.count(BulkJudgeImport.Status.IMPORTED) == 1
+        summary.count(BulkJudgeImport.Status.APPLIED) == 1
+        summary.count(BulkJudgeImport.Status.FAILED) == 0
+        Files.exists(output.resolve(BulkJudgeImport.SUMMARY_FILE_NAME))
+        world.getTurnState(new Phase(Phase.SeasonType.FALL, 1901, Phase.PhaseType.ADJUSTMENT)).isResolved()
+        world.getTurnState(new Phase(Phase.SeasonType.SPRING, 1902, Phase.PhaseType.MOVEMENT)).isResolved()
+        world.getTurnState(new Phase(Phase.SeasonType.FALL, 1902, Phase.PhaseType.MOVEMENT)) != null
+    }
+
+    def "inputs that differ only by extension are saved to different files"() {
+        setup:
+        def dir = Files.createTempDirectory("judge")
+        def history = input.resolve("standard_history.txt")
+        Files.copy(history, dir.resolve("game.txt"))
+        Files.copy(history, dir.resolve("game.eml"))
+
+        when:
+        def summary = new BulkJudgeImport(dir, output, "*", 2).run()
+
+        then:
+        summary.count(BulkJudgeImport.Status.IMPORTED) == 2
+        summary.count(BulkJudgeImport.Status.FAILED) == 0
+        Files.exists(output.resolve("game.txt.jdip"))
+        Files.exists(output.resolve("game.eml.jdip"))
+
+        cleanup:
+        dir.toFile().deleteDir()
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package dip.order
+
+import dip.world.*
+import spock.lang.Specification
+
+class OrderFormatTest extends Specification {
+    static def power = new Power(["France"], "French", true)
+    static def location = new Location(new Province("Spain", ["spa"], 0, false), Coast.LAND)
+
+    def build = new Build(power, location, Unit.Type.ARMY)
+    def ofo = OrderFormatOptions.createDefault()
+
+    def "methods and static keywords are formatted"() {
+        expect:
+        OrderFormat.format(ofo, "{getPower()}: {_orderName_} {getSourceUnitType()} {getSource()}{_arrow_}", build) ==
+                "France: Builds A spa->"
+    }
+
+    def "boolean clauses print static keywords or text"() {
+        expect:
+        OrderFormat.format(ofo, "[{getPower():?_arrow_:none}]", build) == "[->]"
+        OrderFormat.format(ofo, "[{getNoSuchMethod():?_arrow_:none}]", build) == "[none]"
+        OrderFormat.format(ofo, "[{getNoSuchMethod():?yes}]", build) == "[]"
+    }
+
+    def "unknown methods and fields print nothing"() {
+        expect:
+        OrderFormat.format(ofo, "<{getNoSuchMethod()}{noSuchField}>", build) == "<>"
+    }
+}
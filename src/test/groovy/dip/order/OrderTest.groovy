@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package dip.order
+
+import dip.gui.order.GUIMove
+import dip.gui.order.GUIOrder
+import dip.gui.order.GUIOrderFactory
+import dip.world.*
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+class OrderTest extends Specification {
+    static def power = new Power(["France"], "French", true)
+    static def location = new Location(new Province("Spain", ["spa"], 0, false), Coast.LAND)
+    @Shared
+    def standard = new VariantManager().getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+
+    def "formatted string is reused for the same options"() {
+        def build = new Build(power, location, Unit.Type.ARMY)
+        def ofo = OrderFormatOptions.createDefault()
+        def first = build.toFormattedString(ofo)
+
+        expect:
+        first == "France: Builds A spa"
+        build.toFormattedString(ofo).is(first)
+    }
+
+    def "formatted string follows changes to the options"() {
+        def build = new Build(power, location, Unit.Type.ARMY)
+        def ofo = OrderFormatOptions.createDefault()
+        build.toFormattedString(ofo)
+
+        when:
+        ofo.setProvinceFormat(OrderFormatOptions.FORMAT_FULL)
+
+        then:
+        build.toFormattedString(ofo) == "France: Builds A Spain"
+        build.toFormattedString(OrderFormatOptions.createVerbose()) == "France: Build Army Spain"
+    }
+
+    def "formatted string follows the coast derived by validation"() {
+        setup:
+        def world = WorldFactory.createWorld(standard)
+        def map = world.getMap()
+        def ts = world.getLastTurnState()
+        def turkey = map.getPower("Turkey")
+        ts.getPosition().setUnit(map.getProvince("aeg"), new Unit(turkey, Unit.Type.FLEET))
+        def move = OrderFactory.getDefault().createMove(turkey, map.parseLocation("aeg").get(),
+                Unit.Type.FLEET, map.parseLocation("bul").get())
+        def ofo = OrderFormatOptions.createDefault()
+        ofo.setCoastFormat(OrderFormatOptions.FORMAT_COAST_PAREN_BRIEF)
+        def before = move.toFormattedString(ofo)
+
+        when:
+        move.validate(ts, new ValidationOptions(), world.getRuleOptions())
+
+        then:
+        before == "Turkey: F aeg -> bul"
+        move.toFormattedString(ofo) == "Turkey: F aeg -> bul (sc)"
+    }
+
+    def "formatted string follows locations set on a GUI order"() {
+        setup:
+        def world = WorldFactory.createWorld(standard)
+        def map = world.getMap()
+        def france = map.getPower("France")
+        def stateInfo = new GUIOrder.StateInfo() {
+            @Override
+            boolean canIssueOrder(Power p) {
+                true
+            }
+        }
+        stateInfo.setTurnState(world.getLastTurnState())
+        stateInfo.setValidationOptions(new ValidationOptions())
+        def move = new GUIOrderFactory().createGUIMove()
+        def ofo = OrderFormatOptions.createDefault()
+        def sb = new StringBuffer()
+        move.setLocation(stateInfo, map.parseLocation("par").get(), sb)
+        def before = move.toFormattedString(ofo)
+
+        when:
+        def set = move.setLocation(stateInfo, map.parseLocation("bur").get(), sb)
+
+        then:
+        set
+        before != move.toFormattedString(ofo)
+        move.toFormattedString(ofo) == "France: A par -> bur"
+    }
+}
@@ -19,6 +19,7 @@
 package dip.world
 
 import dip.order.Move
+import dip.order.Support
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -104,5 +105,27 @@ class BorderTest extends Specification {
         // "empty order" | "description" | "Army  " | [loc0] as Location[] | ""               | "1" | "Spring   Fall" | "Movement" | "1900,2000"
     }
 
+    def "province transit agrees with its borders"() {
+        setup:
+        def province = new Province("Sevastopol", ["Sev"], 2, false)
+        def ice = new Border("ice", "ice", "Fleet", [loc0], "dip.order.Move", "", "Fall", "Movement", "1900, 1950")
+        def wall = new Border("wall", "wall", "Army Fleet", [loc0, loc1], "dip.order.Move dip.order.Support", "", "Spring Fall", "Movement Retreat", "odd")
+        province.setBorders([ice, wall])
 
+        expect:
+        [loc0, loc1].every { from ->
+            Unit.Type.values().every { unit ->
+                ["S1901M", "F1901M", "F1902M", "F1901R", "S1960R", "F1960M"].every { p ->
+                    def phase = Phase.parse(p).get()
+                    [Move, Support].every { cls ->
+                        province.getTransit(from, unit, phase, cls) == Optional.ofNullable([ice, wall].find { !it.canTransit(from, unit, phase, cls) })
+                    }
+                }
+            }
+        }
+        province.getTransit(loc0, Unit.Type.FLEET, Phase.parse("F1901M").get(), Move).get().is(ice)
+        province.getTransit(loc1, Unit.Type.FLEET, Phase.parse("F1901M").get(), Move).get().is(wall)
+        !province.getTransit(loc1, Unit.Type.FLEET, Phase.parse("F1902M").get(), Move).isPresent()
+        !province.getTransit(loc0, Unit.Type.FLEET, Phase.parse("S1901M").get(), Move).get().is(ice)
+    }
 }
@@ -29,13 +29,20 @@ class CoastTest extends Specification {
         expect:
         Coast.normalize(arg).get() == result
         where:
-        arg           || result
-        "stp-sc"      || "stp/sc"
-        "stp(sc)"     || "stp/sc"
-        "stp( sc)"    || "stp/sc"
-        "stp(.s.c.)"  || "stp/sc"
-        "stp (sc)"    || "stp/sc"
-        "stp    (sc)" || "stp/sc"
+        arg                       || result
+        "stp-sc"                  || "stp/sc"
+        "stp(sc)"                 || "stp/sc"
+        "stp( sc)"                || "stp/sc"
+        "stp(.s.c.)"              || "stp/sc"
+        "stp (sc)"                || "stp/sc"
+        "stp    (sc)"             || "stp/sc"
+        "stp(north coast)"        || "stp/nc"
+        "spa\\nc"                 || "spa/nc"
+        "stp-n.c."                || "stp/nc ."
+        " lon "                   || "lon"
+        "a mun-ber"               || "a mun-ber"
+        "f spa (sc) s f mao-por"  || "f spa/sc s f mao-por"
+        "stp(qoieru) "            || "stp(qoieru)"
     }
 
     def "empty parentheses throw exception"() {
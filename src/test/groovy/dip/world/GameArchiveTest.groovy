@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.order.OrderFactory
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class GameArchiveTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def standard = vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+    @Shared
+    def world = RandomGame.play(standard, 30, 5)
+
+    def dir = Files.createTempDirectory("archive")
+
+    def cleanup() {
+        dir.toFile().deleteDir()
+    }
+
+    def "a game reads back from a reopened archive"() {
+        setup:
+        def archive = GameArchive.open(dir)
+        archive.put("one", world)
+        archive.put("two", RandomGame.play(standard, 10, 6))
+        archive.close()
+
+        when:
+        archive = GameArchive.open(dir)
+        def read = archive.load("one", vm, OrderFactory.getDefault())
+
+        then:
+        archive.getEntries()*.getName() == ["one", "two"]
+        archive.find("one").getPhaseCount() == world.getPhaseSet().size()
+        archive.find("one").getLastPhase() == world.getLastTurnState().getPhase()
+        archive.findByVariant("Standard").size() == 2
+        archive.findByLastPhase(world.getLastTurnState().getPhase())*.getName() == ["one"]
+        read.getPhaseSet() == world.getPhaseSet()
+        world.getAllTurnStates().every { ts ->
+            read.getTurnState(ts.getPhase()).getAllOrders().toString() == ts.getAllOrders().toString()
+        }
+        archive.load("three", vm, OrderFactory.getDefault()) == null
+
+        cleanup:
+        archive.close()
+    }
+
+    def "a single phase is read without the others"() {
+        setup:
+        def archive = GameArchive.open(dir)
+        archive.put("one", world)
+        def phase = (world.getPhaseSet() as List)[7]
+
+        when:
+        def ts = archive.loadTurnState("one", phase, vm, OrderFactory.getDefault())
+
+        then:
+        ts.getPhase() == phase
+        ts.getAllOrders().toString() == world.getTurnState(phase).getAllOrders().toString()
+        ts.getWorld().getPhaseSet() == [phase] as Set
+        archive.loadTurnState("one", new Phase(Phase.SeasonType.SPRING, 3000, Phase.PhaseType.MOVEMENT),
+                vm, OrderFactory.getDefault()) == null
+
+        cleanup:
+        archive.close()
+    }
+
+    def "storing a name again replaces the game"() {
+        setup:
+        def archive = GameArchive.open(dir)
+        archive.put("one", world)
+        def other = RandomGame.play(standard, 10, 6)
+
+        when:
+        archive.put("one", other)
+        archive.close()
+        archive = GameArchive.open(dir)
+
+        then:
+        archive.getEntries().size() == 1
+        archive.findByVariant("Standard").size() == 1
+        archive.load("one", vm, OrderFactory.getDefault()).getPhaseSet() == other.getPhaseSet()
+
+        cleanup:
+        archive.close()
+    }
+
+    def "a torn index record is ignored and overwritten"() {
+        setup:
+        def archive = GameArchive.open(dir)
+        archive.put("one", world)
+        archive.close()
+        def index = dir.resolve("index.dat").toFile()
+        def length = index.length()
+        index.append([0, 0, 0, 40, 1, 2, 3, 4, 5] as byte[])
+
+        when:
+        archive = GameArchive.open(dir)
+        archive.put("two", world)
+        archive.close()
+        archive = GameArchive.open(dir)
+
+        then:
+        archive.getEntries()*.getName() == ["one", "two"]
+        index.length() == 2 * length - 5
+
+        cleanup:
+        archive.close()
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.order.OrderFactory
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+
+class GameJournalTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def base = File.createTempFile("journal", ".jdip")
+    @Shared
+    def world = RandomGame.play(vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 40, 11)
+
+    def file = File.createTempFile("journal", ".jdip")
+
+    def setupSpec() {
+        base.deleteOnExit()
+        GameJournal.create(base, world)
+    }
+
+    def setup() {
+        file.deleteOnExit()
+        Files.copy(base.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING)
+    }
+
+    def open() {
+        GameJournal.open(file, vm, OrderFactory.getDefault())
+    }
+
+    def "a journal reads back as saved"() {
+        when:
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        GameJournal.isJournal(file)
+        read.getPhaseSet() == world.getPhaseSet()
+        world.getAllTurnStates().every { ts ->
+            read.getTurnState(ts.getPhase()).getAllOrders().toString() == ts.getAllOrders().toString()
+        }
+    }
+
+    def "saving appends only the changed turns"() {
+        setup:
+        def journal = open()
+        def length = file.length()
+        def w = journal.getWorld()
+        def last = w.getLastTurnState()
+        def previous = w.getPreviousTurnState(last).get()
+
+        when:
+        w.removeTurnState(last)
+        w.getLastTurnState().clearAllOrders()
+        journal.save()
+        def read = open().getWorld()
+
+        then:
+        file.length() > length
+        file.length() - length < 1000
+        read.getPhaseSet() == w.getPhaseSet()
+        read.getLastTurnState().getPhase() == previous.getPhase()
+        read.getLastTurnState().getAllOrders().isEmpty()
+    }
+
+    def "saving without changes writes nothing"() {
+        setup:
+        def journal = open()
+        def length = file.length()
+
+        when:
+        journal.getWorld().getTurnState((world.getPhaseSet() as List)[5])
+        journal.save()
+
+        then:
+        file.length() == length
+    }
+
+    def "a torn record is ignored and overwritten"() {
+        setup:
+        def journal = open()
+        journal.getWorld().getLastTurnState().clearAllOrders()
+        journal.save()
+        def length = file.length()
+        file.append([1, 0, 0, 1, 0, 0, 0, 0, 0, 42] as byte[])
+
+        when:
+        def reopened = open()
+
+        then:
+        reopened.getWorld().getLastTurnState().getAllOrders().isEmpty()
+
+        when:
+        reopened.getWorld().removeTurnState(reopened.getWorld().getLastTurnState())
+        reopened.save()
+
+        then:
+        open().getWorld().getPhaseSet() == reopened.getWorld().getPhaseSet()
+        file.length() > length
+        file.length() < length + 100
+    }
+
+    def "prepared updates are written later, in order"() {
+        setup:
+        def journal = open()
+        def w = journal.getWorld()
+
+        when:
+        w.getLastTurnState().clearAllOrders()
+        def first = journal.prepare()
+        w.removeTurnState(w.getLastTurnState())
+        def second = journal.prepare()
+        def unchanged = journal.prepare()
+        first.write()
+        second.write()
+
+        then:
+        !first.isEmpty()
+        !second.isEmpty()
+        unchanged.isEmpty()
+        open().getWorld().getPhaseSet() == w.getPhaseSet()
+    }
+
+    def "a journal not written yet starts with a snapshot"() {
+        setup:
+        file.delete()
+        def journal = GameJournal.of(file, world)
+
+        when:
+        journal.prepare().write()
+
+        then:
+        GameJournal.isJournal(file)
+        open().getWorld().getPhaseSet() == world.getPhaseSet()
+    }
+
+    def "changes outside the turns compact the journal"() {
+        setup:
+        def journal = open()
+        journal.getWorld().getLastTurnState().clearAllOrders()
+        journal.save()
+
+        when:
+        journal.getWorld().getGameMetadata().setGameName("renamed")
+        journal.save()
+        def read = open().getWorld()
+
+        then:
+        read.getGameMetadata().getGameName() == "renamed"
+        read.getLastTurnState().getAllOrders().isEmpty()
+        !new File(file.path + ".tmp").exists()
+    }
+}
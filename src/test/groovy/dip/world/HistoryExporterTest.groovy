@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.world.variant.VariantManager
+import groovy.json.JsonSlurper
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.nio.file.Files
+
+class HistoryExporterTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def world = RandomGame.play(vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 12, 3)
+
+    def export(HistoryExporter.Format format, String game = "g") {
+        def out = new StringWriter()
+        def exporter = new HistoryExporter(out, format)
+        exporter.export(game, world)
+        [exporter, out.toString().readLines()]
+    }
+
+    def "every order and result is a record"() {
+        when:
+        def (exporter, lines) = export(HistoryExporter.Format.JSON)
+        def records = lines.collect { new JsonSlurper().parseText(it) }
+
+        then:
+        lines.size() == exporter.getRecordCount()
+        records.count { it.record == "order" } == world.getAllTurnStates().sum { it.getAllOrders().size() }
+        records.count { it.record == "result" } == world.getAllTurnStates().sum { it.getResultList().size() }
+        records.every { it.game == "g" && it.phase }
+        !records.any { it.containsKey("previous_owner") && it.record != "sc" }
+    }
+
+    def "supply center records follow changes of ownership"() {
+        when:
+        def (exporter, lines) = export(HistoryExporter.Format.JSON)
+        def sc = lines.collect { new JsonSlurper().parseText(it) }.findAll { it.record == "sc" }
+        def first = world.getInitialTurnState().getPhase().getBriefName()
+        def last = world.getLastTurnState().getPosition()
+        def owners = [:]
+        sc.each { owners[it.province] = it.power }
+
+        then:
+        sc.count { it.phase == first } == 22
+        sc.findAll { it.phase != first }.every { it.power != it.previous_owner }
+        world.getMap().getProvinces().findAll { it.hasSupplyCenter() }.every {
+            owners[it.getShortName()] == last.getSupplyCenterOwner(it).map { p -> p.getName() }.orElse(null)
+        }
+    }
+
+    def "CSV has a header and quotes values"() {
+        when:
+        def (exporter, lines) = export(HistoryExporter.Format.CSV, 'a "b", c')
+
+        then:
+        lines[0] == HistoryExporter.COLUMNS.join(",")
+        lines.size() == exporter.getRecordCount() + 1
+        lines.drop(1).every { it.startsWith('"a ""b"", c",') }
+    }
+
+    def "games are named by their path below the directory"() {
+        setup:
+        def dir = Files.createTempDirectory("games")
+        Files.createDirectories(dir.resolve("a"))
+        Files.createDirectories(dir.resolve("b"))
+        World.save(dir.resolve("a/game.jdip").toFile(), world)
+        World.save(dir.resolve("b/game.jdip").toFile(), world)
+
+        when:
+        def games = GameFiles.findGames(dir)
+        def single = GameFiles.findGames(dir.resolve("a/game.jdip"))
+
+        then:
+        games.values() as List == ["a/game", "b/game"]
+        single.values() as List == ["game"]
+
+        cleanup:
+        dir.toFile().deleteDir()
+    }
+
+    def "a game that fails to export does not stop the others"() {
+        setup:
+        def dir = Files.createTempDirectory("games")
+        ["bad", "good1", "good2"].each { World.save(dir.resolve(it + ".jdip").toFile(), world) }
+        def out = new StringWriter() {
+            @Override
+            Writer append(CharSequence csq) {
+                if (csq.toString().contains('"bad"')) {
+                    throw new IllegalStateException("bad game")
+                }
+                return super.append(csq)
+            }
+        }
+        def exporter = new HistoryExporter(out, HistoryExporter.Format.JSON)
+
+        when:
+        def failed = HistoryExporter.exportAll(exporter, GameFiles.findGames(dir), 2)
+        def records = out.toString().readLines().collect { new JsonSlurper().parseText(it) }
+
+        then:
+        failed == 1
+        records.collect { it.game }.unique().sort() == ["good1", "good2"]
+        records.size() == 2 * export(HistoryExporter.Format.JSON)[1].size()
+
+        cleanup:
+        dir.toFile().deleteDir()
+    }
+}
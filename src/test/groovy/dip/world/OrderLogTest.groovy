@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.order.Order
+import dip.order.OrderFactory
+import dip.process.StdAdjudicator
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class OrderLogTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def standard = vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+    @Shared
+    def of = OrderFactory.getDefault()
+
+    def world = WorldFactory.createWorld(standard)
+    def map = world.getMap()
+    def ts = world.getLastTurnState()
+
+    def "submitted orders are logged and snapshots do not change"() {
+        setup:
+        def france = map.getPower("France")
+        def par = new Location(map.getProvince("par"), Coast.LAND)
+        def bur = new Location(map.getProvince("bur"), Coast.LAND)
+        def hold = of.createHold(france, par, Unit.Type.ARMY)
+        def move = of.createMove(france, par, Unit.Type.ARMY, bur)
+
+        when:
+        ts.submitOrder(hold)
+        def before = ts.getOrderSnapshot()
+        def replaced = ts.submitOrder(move)
+        def duplicate = ts.submitOrder(move)
+        def removed = ts.removeOrder(move)
+
+        then:
+        replaced.is(hold)
+        duplicate.is(move)
+        removed
+        !ts.removeOrder(move)
+        before[france] == [hold]
+        ts.getOrderSnapshot().is(ts.getOrderSnapshot())
+        ts.getOrderSnapshot()[france].isEmpty()
+        ts.getOrderLog().getEvents()*.getType() == [OrderLog.Type.ADD, OrderLog.Type.REPLACE, OrderLog.Type.DELETE]
+        ts.getOrderLog().getEvents()[1].getPrevious().is(hold)
+    }
+
+    def "changes through the order lists are logged"() {
+        setup:
+        def england = map.getPower("England")
+        def orders = ["lon", "lvp", "edi"].collect {
+            of.createHold(england, new Location(map.getProvince(it), Coast.LAND), Unit.Type.ARMY)
+        }
+
+        when:
+        def list = ts.getOrders(england)
+        list.addAll(orders)
+        list.add(0, list.remove(2))
+        list.iterator().with { it.next(); it.remove() }
+        ts.setOrders(england, ts.getOrders(england))
+        ts.setOrders(map.getPower("Italy"), [orders[0]])
+        ts.clearAllOrders()
+        ts.setOrders(england, orders.reverse())
+
+        then:
+        replay(ts.getOrderLog().getEvents()) == ts.getOrderSnapshot().findAll { !it.value.isEmpty() }
+        ts.getOrders(england) == orders.reverse()
+    }
+
+    def "a resolved turn no longer holds replaced orders"() {
+        setup:
+        def france = map.getPower("France")
+        def par = new Location(map.getProvince("par"), Coast.LAND)
+        def bur = new Location(map.getProvince("bur"), Coast.LAND)
+        def hold = of.createHold(france, par, Unit.Type.ARMY)
+        def move = of.createMove(france, par, Unit.Type.ARMY, bur)
+        ts.submitOrder(hold)
+        ts.submitOrder(move)
+
+        when:
+        new StdAdjudicator(of, ts).process()
+
+        then:
+        ts.isResolved()
+        ts.getOrderLog().getEvents().isEmpty()
+        ts.getAllOrders() == [move]
+    }
+
+    def "orders of another power are removed before adjudication"() {
+        setup:
+        def england = map.getPower("England")
+        def par = new Location(map.getProvince("par"), Coast.LAND)
+        def bur = new Location(map.getProvince("bur"), Coast.LAND)
+        def move = of.createMove(map.getPower("France"), par, Unit.Type.ARMY, bur)
+        ts.setOrders(england, [move])
+        def adjudicator = new StdAdjudicator(of, ts)
+        adjudicator.setPowerOrderChecking(true)
+
+        when:
+        adjudicator.process()
+
+        then:
+        ts.getOrders(england).isEmpty()
+        ts.getResultList().any { it.getMessage().contains("England") }
+    }
+
+    def "orders can be submitted in parallel"() {
+        setup:
+        def powers = map.getPowers()
+        def provinces = map.getProvinces()
+        def executor = Executors.newFixedThreadPool(powers.size())
+        def start = new CountDownLatch(1)
+        def snapshots = Collections.synchronizedList([])
+
+        when:
+        powers.each { power ->
+            executor.execute {
+                start.await()
+                provinces.each { province ->
+                    def src = new Location(province, Coast.LAND)
+                    ts.submitOrder(of.createHold(power, src, Unit.Type.ARMY))
+                    ts.submitOrder(of.createMove(power, src, Unit.Type.ARMY, src))
+                    snapshots << ts.getOrderSnapshot()
+                }
+            }
+        }
+        start.countDown()
+        executor.shutdown()
+        executor.awaitTermination(1, TimeUnit.MINUTES)
+
+        then:
+        ts.getAllOrders().size() == powers.size() * provinces.size()
+        ts.getOrderLog().size() == 2 * powers.size() * provinces.size()
+        replay(ts.getOrderLog().getEvents()) == ts.getOrderSnapshot().findAll { !it.value.isEmpty() }
+        snapshots.every { it.values().sum { it.size() } <= powers.size() * provinces.size() }
+    }
+
+    static Map<Power, List<Order>> replay(List<OrderLog.Event> events) {
+        def orders = [:]
+        events.each { e ->
+            def list = orders.computeIfAbsent(e.getPower()) { [] }
+            switch (e.getType()) {
+                case OrderLog.Type.ADD:
+                    list.add(e.getIndex(), e.getOrder())
+                    break
+                case OrderLog.Type.REPLACE:
+                    assert list.set(e.getIndex(), e.getOrder()).is(e.getPrevious())
+                    break
+                default:
+                    assert list.remove(e.getIndex()).is(e.getPrevious())
+            }
+        }
+        orders.findAll { !it.value.isEmpty() }
+    }
+}
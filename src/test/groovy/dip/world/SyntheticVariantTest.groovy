@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import spock.lang.Specification
+
+import java.nio.file.Paths
+
+class SyntheticVariantTest extends Specification {
+    def dir = Paths.get(System.getProperty("java.io.tmpdir"), "jdip-synthetic", "test")
+
+    def "generated variants can be played"() {
+        when:
+        def variant = SyntheticVariant.create(dir, 500, 20, 7)
+        def map = WorldFactory.getWorldMap(variant)
+        def world = RandomGame.play(variant, 8, 7)
+
+        then:
+        variant.getName() == "Synthetic-500-20-7"
+        map.getProvinces().size() == 500
+        map.getPowers().size() == 20
+        map.getProvinces().any { it.isLandLocked() }
+        map.getProvinces().any { it.isCoastal() }
+        map.getProvinces().any { it.isMultiCoastal() }
+        map.getProvinces().any { it.isSea() }
+        world.getInitialTurnState().getPosition().getUnitProvinces().size() == 60
+        world.getAllTurnStates().size() == 8
+    }
+}
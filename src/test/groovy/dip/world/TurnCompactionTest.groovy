@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.order.OrderFactory
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+class TurnCompactionTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def standard = vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+
+    def world = RandomGame.play(standard, 30, 9)
+
+    // orders, results and units of every turn, as text
+    static List<String> describe(World world) {
+        world.getAllTurnStates().collect { ts ->
+            ts.getPhase().toString() + ts.getAllOrders() + ts.getResultList()*.getMessage() +
+                    world.getMap().getProvinces().collect { p -> ts.getPosition().getUnit(p).orElse(null) }
+        }
+    }
+
+    def "resolved turns outside the window are compacted"() {
+        setup:
+        def phases = world.getPhaseSet() as List
+        def expected = describe(world)
+
+        when:
+        world.setTurnCompaction(4, OrderFactory.getDefault())
+
+        then:
+        phases.findAll { world.isResident(it) } == [phases[0]] + phases.takeRight(4)
+        describe(world) == expected
+    }
+
+    def "adding the last turn compacts the turn that left the window"() {
+        setup:
+        world.setTurnCompaction(4, OrderFactory.getDefault())
+        def last = world.getLastTurnState()
+        def phases = world.getPhaseSet() as List
+        world.removeTurnState(last)
+
+        when:
+        world.setTurnState(last)
+
+        then:
+        !world.isResident(phases[-5])
+        world.isResident(phases[-4])
+        world.getLastTurnState().is(last)
+    }
+
+    def "compacted games save as before"() {
+        setup:
+        def file = File.createTempFile("compact", ".jdip")
+        file.deleteOnExit()
+        def size = WorldSnapshot.of(world).getSize()
+        world.setTurnCompaction(3, OrderFactory.getDefault())
+
+        when:
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        WorldSnapshot.of(world).getSize() == size
+        describe(read).toString() == describe(world).toString()
+    }
+
+    def "a journal saves turns changed before they were compacted"() {
+        setup:
+        def file = File.createTempFile("compact", ".jdip")
+        file.deleteOnExit()
+        def journal = GameJournal.create(file, world)
+        def phase = (world.getPhaseSet() as List)[5]
+        world.getTurnState(phase).setEnded(!world.getTurnState(phase).isEnded())
+
+        when:
+        world.setTurnCompaction(4, OrderFactory.getDefault())
+        journal.save()
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        !world.isResident(phase)
+        read.getTurnState(phase).isEnded() == world.getTurnState(phase).isEnded()
+    }
+}
@@ -19,6 +19,7 @@
 package dip.world
 
 import dip.order.Move
+import dip.order.OrderFactory
 import dip.world.variant.VariantManager
 import spock.lang.Specification
 
@@ -122,4 +123,37 @@ class WorldFactoryTest extends Specification {
         stp.canTransit(new Location(mos, Coast.LAND), Unit.Type.ARMY, Phase.parse("S1900M").get(), Move.class)
         stp.canTransit(new Location(mos, Coast.LAND), Unit.Type.FLEET, Phase.parse("S1900M").get(), Move.class)
     }
+
+    def "worlds of a variant share one map"() {
+        setup:
+        def variant = new VariantManager().getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+        def other = new VariantManager().getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+
+        when:
+        def w1 = WorldFactory.createWorld(variant)
+        def w2 = WorldFactory.createWorld(other)
+
+        then:
+        w1.getMap().is(w2.getMap())
+        w1.getMap().is(WorldFactory.getWorldMap(variant))
+        !w1.getLastTurnState().getPosition().is(w2.getLastTurnState().getPosition())
+        w1.getMap().getProvinces().count { it.hasSupplyCenter() } == 34
+    }
+
+    def "a saved game is read back onto the shared map"() {
+        setup:
+        def world = RandomGame.play(new VariantManager().getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 4, 1)
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+
+        when:
+        World.save(file, world)
+        def read = World.open(file, new VariantManager(), OrderFactory.getDefault())
+        def position = read.getLastTurnState().getPosition()
+
+        then:
+        read.getMap().is(world.getMap())
+        !position.getUnitProvinces().isEmpty()
+        position.getUnitProvinces().every { it.is(world.getMap().getProvinces()[it.getIndex()]) }
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+
+package dip.world
+
+import dip.order.OrderFactory
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.zip.GZIPInputStream
+import java.util.zip.GZIPOutputStream
+
+class WorldFileTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def world = RandomGame.play(vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get(), 40, 7)
+
+    def "binary format round trip"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+
+        when:
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        read.getPhaseSet() == world.getPhaseSet()
+        read.getVariantInfo().getVariantName() == "Standard"
+        read.getGameMetadata().getGameName() == world.getGameMetadata().getGameName()
+        read.getVictoryConditions().numSCForVictory == world.getVictoryConditions().numSCForVictory
+        world.getAllTurnStates().every { ts ->
+            def rs = read.getTurnState(ts.getPhase())
+            rs.isResolved() == ts.isResolved() &&
+                    rs.getSCOwnerChanged() == ts.getSCOwnerChanged() &&
+                    rs.getAllOrders().toString() == ts.getAllOrders().toString() &&
+                    rs.getResultList()*.getMessage() == ts.getResultList()*.getMessage() &&
+                    rs.getPosition().getProvinces().every { p ->
+                        rs.getPosition().getUnit(p) == ts.getPosition().getUnit(p) &&
+                                rs.getPosition().getSupplyCenterOwner(p) == ts.getPosition().getSupplyCenterOwner(p)
+                    }
+        }
+    }
+
+    def "results refer to the orders of their turn"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+        World.save(file, world)
+
+        when:
+        def read = World.open(file, vm, OrderFactory.getDefault())
+        def ts = read.getAllTurnStates().find { it.isResolved() && !it.getAllOrders().isEmpty() }
+        def order = ts.getAllOrders()[0]
+
+        then:
+        ts.getResultList().any { it.hasProperty("order") && it.order.is(order) }
+    }
+
+    def "orders read back share the map's Provinces, Powers and Locations"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+        World.save(file, world)
+
+        when:
+        def read = World.open(file, vm, OrderFactory.getDefault())
+        def map = read.getMap()
+        def orders = read.getAllTurnStates().collectMany { it.getAllOrders() }
+
+        then:
+        !orders.isEmpty()
+        orders.every { o ->
+            def src = o.getSource()
+            src.is(map.getLocation(src.getProvince(), src.getCoast())) &&
+                    src.getProvince().is(map.getProvinces()[src.getProvince().getIndex()]) &&
+                    map.getPowers().any { it.is(o.getPower()) }
+        }
+    }
+
+    def "only the first and last turns are decoded on open"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+        World.save(file, world)
+        def phases = world.getPhaseSet() as List
+
+        when:
+        def read = World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        read.isResident(phases.first())
+        read.isResident(phases.last())
+        phases[1..-2].every { !read.isResident(it) }
+        read.getTurnState(phases[5]).getPhase() == phases[5]
+        read.getTurnState(phases[5]).is(read.getTurnState(phases[5]))
+        read.getPreviousTurnState(read.getTurnState(phases[5])).get().getPhase() == phases[4]
+        !read.isResident(phases[5])
+    }
+
+    def "saving in XML leaves encoded turns encoded"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        def xml = File.createTempFile("world", ".xml")
+        file.deleteOnExit()
+        xml.deleteOnExit()
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+        def phases = world.getPhaseSet() as List
+
+        when:
+        World.save(xml, read, World.FileFormat.XML)
+
+        then:
+        xml.length() > 0
+        read.getTurnHistory() != null
+        phases[1..-2].every { !read.isResident(it) }
+        read.getTurnState(phases[5]).getAllOrders().toString() == world.getTurnState(phases[5]).getAllOrders().toString()
+    }
+
+    def "saving an opened game keeps its turns"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        def copy = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+        copy.deleteOnExit()
+        World.save(file, world)
+        def read = World.open(file, vm, OrderFactory.getDefault())
+        def phases = world.getPhaseSet() as List
+        read.getTurnState(phases[3])
+
+        when:
+        World.save(copy, read)
+        def reread = World.open(copy, vm, OrderFactory.getDefault())
+
+        then:
+        reread.getPhaseSet() == world.getPhaseSet()
+        world.getAllTurnStates().every { ts ->
+            def rs = reread.getTurnState(ts.getPhase())
+            rs.getAllOrders().toString() == ts.getAllOrders().toString() &&
+                    rs.getResultList()*.getMessage() == ts.getResultList()*.getMessage()
+        }
+    }
+
+    def "newer binary format is rejected"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+        new GZIPOutputStream(new FileOutputStream(file)).withStream {
+            it.write([0x4A, 0x44, 0x50, 0x42, 0x7F] as byte[])
+        }
+
+        when:
+        World.open(file, vm, OrderFactory.getDefault())
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("newer")
+    }
+
+    def "a header read in pieces is recognized"() {
+        setup:
+        def file = File.createTempFile("world", ".jdip")
+        file.deleteOnExit()
+        World.save(file, world)
+        def bytes = new GZIPInputStream(new FileInputStream(file)).bytes
+        def trickle = new FilterInputStream(new ByteArrayInputStream(bytes)) {
+            @Override
+            int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1))
+            }
+        }
+
+        when:
+        def read = BinaryWorldFormat.read(trickle, vm, OrderFactory.getDefault())
+
+        then:
+        read.getPhaseSet() == world.getPhaseSet()
+    }
+
+    def "a file shorter than the header is not a binary game file"() {
+        when:
+        BinaryWorldFormat.read(new ByteArrayInputStream([0x4A, 0x44] as byte[]), vm, OrderFactory.getDefault())
+
+        then:
+        def e = thrown(IOException)
+        e.message == "not a binary game file"
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+
+class WorldMapCacheTest extends Specification {
+    @Shared
+    def variant = new VariantManager().getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+    Path dir = Files.createTempDirectory("maps")
+
+    def cleanup() {
+        dir.toFile().deleteDir()
+    }
+
+    def topology(List<Province> provinces) {
+        provinces.collect { p ->
+            [p.getIndex(), p.getFullName(), p.getShortNames(), p.isConvoyableCoast(),
+             Coast.ALL_COASTS.collect { c -> p.getAdjacentLocations(c)*.toString() },
+             p.@borders.collect { b -> [b.@id, b.getDescription(), b.@from*.toString(), b.@unitTypes, b.@orderClasses] }]
+        }
+    }
+
+    def "cached provinces are those built from the adjacency data"() {
+        setup:
+        def cache = new WorldMapCache(dir)
+        def built = WorldFactory.createProvinces(variant, cache)
+
+        when:
+        def cached = cache.load(variant.getAdjacencyURL())
+
+        then:
+        cached.isPresent()
+        !cached.get().is(built)
+        topology(cached.get()) == topology(built)
+        cached.get().every { p -> p.getAdjacentLocations(Coast.WING).every { it.getProvince().is(cached.get()[it.getProvince().getIndex()]) } }
+    }
+
+    def "a file is not used once the adjacency data changes"() {
+        setup:
+        def xml = dir.resolve("adjacency.xml")
+        Files.copy(variant.getAdjacencyURL().openStream(), xml)
+        def url = xml.toUri().toURL()
+        def cache = new WorldMapCache(dir)
+        cache.save(url, WorldFactory.createProvinces(variant, new WorldMapCache(null)),
+                variant.getProvinceData(), variant.getBorderData())
+
+        expect:
+        cache.load(url).isPresent()
+
+        when:
+        xml.toFile() << "<!-- changed -->"
+
+        then:
+        !cache.load(url).isPresent()
+    }
+
+    def "the files used least recently are deleted beyond the limit"() {
+        setup:
+        def provinces = WorldFactory.createProvinces(variant, new WorldMapCache(null))
+        def urls = ["a", "b", "c"].collect { name ->
+            def xml = dir.resolve(name + ".xml")
+            Files.copy(variant.getAdjacencyURL().openStream(), xml)
+            xml.toUri().toURL()
+        }
+        def cache = new WorldMapCache(dir, 2)
+        def save = { url -> cache.save(url, provinces, variant.getProvinceData(), variant.getBorderData()) }
+        save(urls[0])
+        save(urls[1])
+        dir.toFile().eachFileMatch(~/.*\.map/) { Files.setLastModifiedTime(it.toPath(), FileTime.fromMillis(1000)) }
+
+        when:
+        cache.load(urls[0])
+        save(urls[2])
+
+        then:
+        dir.toFile().listFiles().count { it.name.endsWith(".map") } == 2
+        cache.load(urls[0]).isPresent()
+        !cache.load(urls[1]).isPresent()
+        cache.load(urls[2]).isPresent()
+    }
+
+    def "unreadable files and a disabled cache are ignored"() {
+        setup:
+        def cache = new WorldMapCache(dir)
+        WorldFactory.createProvinces(variant, cache)
+        dir.toFile().eachFile { it.text = "JDPM garbage" }
+
+        expect:
+        !cache.load(variant.getAdjacencyURL()).isPresent()
+        topology(WorldFactory.createProvinces(variant, cache)) == topology(WorldFactory.createProvinces(variant, new WorldMapCache(null)))
+        cache.load(variant.getAdjacencyURL()).isPresent()
+        !new WorldMapCache(null).load(variant.getAdjacencyURL()).isPresent()
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world
+
+import dip.order.OrderFactory
+import dip.world.variant.VariantManager
+import spock.lang.Shared
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+class WorldTest extends Specification {
+    @Shared
+    def vm = new VariantManager()
+    @Shared
+    def standard = vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+
+    def world = RandomGame.play(standard, 30, 4)
+
+    def "neighbouring turns are found by phase"() {
+        setup:
+        def turns = world.getAllTurnStates()
+
+        expect:
+        world.getNextTurnState(turns[3]).get().is(turns[4])
+        world.getPreviousTurnState(turns[3]).get().is(turns[2])
+        !world.getNextTurnState(turns[-1]).isPresent()
+        !world.getPreviousTurnState(turns[0]).isPresent()
+    }
+
+    def "history can be read while turns are added and removed"() {
+        setup:
+        def last = world.getLastTurnState()
+        def phases = world.getPhaseSet() as List
+        def executor = Executors.newFixedThreadPool(2)
+        def running = new AtomicBoolean(true)
+        def reads = new AtomicInteger()
+        def reader = {
+            while (running.get()) {
+                def turns = world.getAllTurnStates()
+                assert turns.every { it != null && it.getWorld().is(world) }
+                assert turns*.getPhase() == turns*.getPhase().sort(false)
+                world.getPhaseSet().each {
+                    def ts = world.getTurnState(it)
+                    assert ts == null || it == ts.getPhase()
+                }
+                reads.incrementAndGet()
+            }
+        }
+
+        when:
+        def futures = [executor.submit(reader), executor.submit(reader)]
+        1000.times {
+            world.removeTurnState(last)
+            world.setTurnState(last)
+        }
+        running.set(false)
+        futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+        reads.get() > 0
+        world.getPhaseSet() as List == phases
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "compaction runs while history is read"() {
+        setup:
+        def last = world.getLastTurnState()
+        def executor = Executors.newSingleThreadExecutor()
+        def running = new AtomicBoolean(true)
+        def reads = new AtomicInteger()
+        def expected = world.getAllTurnStates().collect { it.getAllOrders().toString() }
+        def reader = {
+            while (running.get()) {
+                // the last turn is briefly missing while it is removed and set again
+                def orders = world.getAllTurnStates().collect { it.getAllOrders().toString() }
+                assert orders == expected || orders == expected.init()
+                reads.incrementAndGet()
+            }
+        }
+
+        when:
+        def future = executor.submit(reader)
+        world.setTurnCompaction(2, OrderFactory.getDefault())
+        50.times {
+            world.removeTurnState(last)
+            world.setTurnState(last)
+        }
+        running.set(false)
+
+        future.get(10, TimeUnit.SECONDS)
+
+        then:
+        reads.get() > 0
+
+        cleanup:
+        executor.shutdownNow()
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world.variant
+
+import dip.world.variant.data.VersionNumber
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.attribute.FileTime
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+
+class VariantCatalogTest extends Specification {
+    Path dir = Files.createTempDirectory("catalog")
+    Path index = dir.resolve("variants.idx")
+    Path jar = dir.resolve("a.jar")
+
+    def cleanup() {
+        dir.toFile().deleteDir()
+    }
+
+    def writeJar(List<String> names) {
+        new JarOutputStream(Files.newOutputStream(jar)).withCloseable { out ->
+            names.each {
+                out.putNextEntry(new JarEntry(it))
+                out.write(0)
+                out.closeEntry()
+            }
+        }
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000000000L))
+    }
+
+    def "jars are not searched again while unchanged"() {
+        setup:
+        writeJar(["x/variants.xml", "y/symbols.xml", "x/map.svg"])
+        def catalog = new VariantCatalog(index)
+        def found = catalog.getResourceURLs([jar], "variants.xml")
+        catalog.save()
+
+        when: "the jar changes, but keeps its size and time"
+        writeJar(["z/variants.xml", "y/symbols.xml", "x/map.svg"])
+        def read = new VariantCatalog(index)
+
+        then:
+        found*.toString() == ["jar:" + jar.toUri() + "!/x/variants.xml"]
+        read.getResourceURLs([jar], "variants.xml") == found
+        read.getResourceURLs([jar], "symbols.xml")*.toString() == ["jar:" + jar.toUri() + "!/y/symbols.xml"]
+
+        when:
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000001000L))
+
+        then:
+        read.getResourceURLs([jar], "variants.xml")*.toString() == ["jar:" + jar.toUri() + "!/z/variants.xml"]
+    }
+
+    def "headers are kept until the file changes"() {
+        setup:
+        writeJar(["x/variants.xml"])
+        def url = new URL("jar:" + jar.toUri() + "!/x/variants.xml")
+        def headers = [new VariantCatalog.Header("Standard", new VersionNumber(1, 2), ["std", "classic"])]
+        def catalog = new VariantCatalog(index)
+        catalog.putHeaders(url, headers)
+        catalog.save()
+
+        when:
+        def read = new VariantCatalog(index)
+
+        then:
+        read.getHeaders(url).get() == headers
+        read.getHeaders(url).get()[0].getAliases() == ["std", "classic"]
+
+        when:
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(1000000001000L))
+
+        then:
+        !read.getHeaders(url).isPresent()
+    }
+
+    def "a damaged index is ignored"() {
+        setup:
+        writeJar(["x/variants.xml"])
+        Files.write(index, "JDPC garbage".bytes)
+
+        when:
+        def catalog = new VariantCatalog(index)
+
+        then:
+        catalog.getResourceURLs([jar], "variants.xml").size() == 1
+
+        when:
+        catalog.save()
+
+        then:
+        new VariantCatalog(index).getResourceURLs([jar], "variants.xml").size() == 1
+    }
+}
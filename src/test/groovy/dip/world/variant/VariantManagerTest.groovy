@@ -104,4 +104,63 @@ class VariantManagerTest extends Specification {
 //                getProperty("user.dir") + "/src/test/resources/variants/testVariants.zip!/")
         !vm.getVariant("not exist variant", VariantManager.VERSION_NEWEST).isPresent()
     }
+
+    def "variants are parsed when first used"() {
+        setup:
+        new VariantManager()
+
+        when:
+        def vm = new VariantManager()
+
+        then:
+        vm.getParsedFileCount() == 0
+        vm.hasVariantVersion("Standard", VariantManager.VERSION_NEWEST)
+        vm.getVariantVersions("shiftleft") == [new VersionNumber(1, 0)]
+        vm.hasSymbolPackVersion("Simple", VariantManager.VERSION_NEWEST)
+        !vm.hasSymbolPackVersion("Simple", new VersionNumber(9, 0))
+        vm.getParsedFileCount() == 0
+
+        when:
+        def standard = vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get()
+
+        then:
+        standard.getName() == "Standard"
+        vm.getParsedFileCount() == 1
+        vm.getVariant("Standard", VariantManager.VERSION_NEWEST).get().is(standard)
+
+        when:
+        vm.getVariants()
+
+        then:
+        vm.getParsedFileCount() > 1
+    }
+
+    def "a plugin that cannot be parsed is left out"() {
+        when:
+        def vm = new VariantManager()
+
+        then:
+        vm.getParseErrors().size() == 1
+        vm.getParseErrors().keySet()[0].toString().endsWith("/plugins/broken/variants.xml")
+        !vm.getVariant("Broken", VariantManager.VERSION_NEWEST).isPresent()
+        vm.getVariants().size() == 43
+    }
+
+    def "variants and symbol packs parsed together match those parsed alone"() {
+        setup:
+        def all = new VariantManager()
+        def variants = all.getVariants()
+        def symbolPacks = all.getSymbolPacks()
+        def one = new VariantManager()
+
+        expect:
+        variants.every { v ->
+            def alone = one.getVariant(v.getName(), v.getVersion()).get()
+            alone.getPowers()*.getName() == v.getPowers()*.getName() &&
+                    alone.getMapGraphics()*.getName() == v.getMapGraphics()*.getName()
+        }
+        symbolPacks.every { sp ->
+            one.getSymbolPack(sp.getName(), sp.getVersion()).get().getSymbols()*.getName() == sp.getSymbols()*.getName()
+        }
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world.variant
+
+import dip.world.SyntheticVariant
+import dip.world.WorldFactory
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class VariantWatcherTest extends Specification {
+    def dir = Files.createTempDirectory("jdip-watch")
+
+    def cleanup() {
+        dir.toFile().deleteDir()
+    }
+
+    def manager() {
+        new VariantManager({ [dir.resolve("variants.xml").toUri().toURL()] }, { [] })
+    }
+
+    def "only the changed variants.xml is parsed again"() {
+        setup:
+        SyntheticVariant.create(dir, 40, 2, 1)
+        def vm = manager()
+
+        expect:
+        vm.getVariant("Synthetic-40-2-1", VariantManager.VERSION_NEWEST).isPresent()
+        vm.reloadVariants([dir.resolveSibling("elsewhere.xml")]).isEmpty()
+
+        when:
+        SyntheticVariant.create(dir, 40, 3, 1)
+        def names = vm.reloadVariants([dir.resolve("variants.xml")])
+
+        then:
+        names as List == ["Synthetic-40-2-1", "Synthetic-40-3-1"]
+        !vm.getVariant("Synthetic-40-2-1", VariantManager.VERSION_NEWEST).isPresent()
+        vm.getVariant("Synthetic-40-3-1", VariantManager.VERSION_NEWEST).get().getPowers().size() == 3
+        vm.getParseErrors().isEmpty()
+    }
+
+    def "a variants.xml that cannot be parsed keeps its variants"() {
+        setup:
+        SyntheticVariant.create(dir, 40, 2, 2)
+        def vm = manager()
+
+        when:
+        dir.resolve("variants.xml").text = "<VARIANTS>"
+        vm.reloadVariants([dir.resolve("variants.xml")])
+
+        then:
+        vm.getVariant("Synthetic-40-2-2", VariantManager.VERSION_NEWEST).isPresent()
+        vm.getParseErrors().size() == 1
+    }
+
+    def "a changed adjacency file is noticed, and the shared map released"() {
+        setup:
+        SyntheticVariant.create(dir, 40, 2, 3)
+        def vm = manager()
+        def variant = vm.getVariant("Synthetic-40-2-3", VariantManager.VERSION_NEWEST).get()
+        def map = WorldFactory.getWorldMap(variant)
+        def changes = new LinkedBlockingQueue()
+        def watcher = new VariantWatcher(vm, { variantNames, symbolPackNames ->
+            changes.add(variantNames)
+        } as VariantWatcher.Listener)
+
+        when:
+        def adjacency = dir.resolve("adjacency.xml")
+        Files.write(adjacency, Files.readAllBytes(adjacency))
+        def names = changes.poll(10, TimeUnit.SECONDS)
+
+        then:
+        names as List == ["Synthetic-40-2-3"]
+        !WorldFactory.getWorldMap(variant).is(map)
+
+        cleanup:
+        watcher.close()
+    }
+}
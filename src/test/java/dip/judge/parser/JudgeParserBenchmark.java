@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.judge.parser;
+
+import dip.judge.parser.TurnParser.Turn;
+import dip.order.OrderFactory;
+import dip.world.Phase;
+import dip.world.World;
+import dip.world.WorldFactory;
+import dip.world.WorldMap;
+import dip.world.variant.VariantManager;
+import dip.world.variant.data.Variant;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Times the Judge text parsers over the judge files in the test resources.
+ * <p>
+ * Every file is run through JudgeParser and then through each of the
+ * sub-parsers (turn, order, dislodged, adjustment and position), exactly
+ * as JudgeImport would, but without creating a World for each run.
+ * <p>
+ * Usage: <code>JudgeParserBenchmark [iterations]</code>
+ */
+public final class JudgeParserBenchmark {
+    private static final int WARMUP = 200;
+
+    private JudgeParserBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        final Variant variant = new VariantManager()
+                .getVariant("Standard", VariantManager.VERSION_NEWEST)
+                .orElseThrow(IllegalStateException::new);
+        final World world = WorldFactory.createWorld(variant);
+        final WorldMap map = world.getMap();
+        final OrderFactory orderFactory = OrderFactory.getDefault();
+
+        final List<String> inputs = readInputs();
+
+        for (int i = 0; i < WARMUP; i++) {
+            for (final String input : inputs) {
+                parse(map, orderFactory, input);
+            }
+        }
+
+        long count = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (final String input : inputs) {
+                count += parse(map, orderFactory, input);
+            }
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d files x %d iterations: %.1f ms total, %.1f us/file (%d items)%n",
+                inputs.size(), iterations, elapsed / 1e6,
+                elapsed / 1e3 / (inputs.size() * (double) iterations), count);
+    }
+
+    private static List<String> readInputs() throws IOException, URISyntaxException {
+        final Path dir = Paths.get(Objects.requireNonNull(
+                JudgeParserBenchmark.class.getResource("/judge")).toURI());
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.toString().endsWith(".txt")).sorted()
+                    .map(p -> {
+                        try {
+                            return new String(Files.readAllBytes(p),
+                                    StandardCharsets.UTF_8);
+                        } catch (final IOException e) {
+                            throw new IllegalArgumentException(e);
+                        }
+                    }).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Parses one judge file; returns the number of items found so that
+     * the work cannot be optimized away.
+     */
+    private static int parse(final WorldMap map, final OrderFactory orderFactory,
+                             final String input) throws IOException {
+        final JudgeParser jp = new JudgeParser(orderFactory,
+                new StringReader(input));
+
+        int count = 0;
+        if (Objects.equals(jp.getType(), JudgeParser.JP_TYPE_HISTORY)) {
+            for (final Turn turn : new TurnParser(jp.getText()).getTurns()) {
+                count += parseTurn(map, orderFactory, turn.getPhase(),
+                        turn.getText());
+            }
+        } else {
+            count += parseTurn(map, orderFactory, jp.getPhase(), jp.getText());
+        }
+        return count + new PositionParser(jp.getText()).getPositionInfo()
+                .size();
+    }
+
+    private static int parseTurn(final WorldMap map,
+                                 final OrderFactory orderFactory,
+                                 final Phase phase,
+                                 final String text) throws IOException {
+        return new JudgeOrderParser(map, orderFactory, text).getNJudgeOrders()
+                .size() + new DislodgedParser(phase, text).getDislodgedInfo()
+                .size() + new AdjustmentParser(map, text).getAdjustments()
+                .size();
+    }
+}
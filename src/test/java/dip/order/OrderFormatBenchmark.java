@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.order;
+
+import dip.world.Coast;
+import dip.world.Location;
+import dip.world.Power;
+import dip.world.Province;
+import dip.world.Unit.Type;
+import dip.world.World;
+import dip.world.WorldFactory;
+import dip.world.WorldMap;
+import dip.world.variant.VariantManager;
+import dip.world.variant.data.Variant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times formatting of a full order list on the 34-power Chaos variant:
+ * a Hold, and a Move and a Support to every adjacent location for each unit.
+ * Both the uncached path and the per-order cached text are timed.
+ * <p>
+ * Usage: <code>OrderFormatBenchmark [iterations]</code>
+ */
+public final class OrderFormatBenchmark {
+    private static final int WARMUP = 200;
+
+    private OrderFormatBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+        final Variant variant = new VariantManager()
+                .getVariant("Chaos", VariantManager.VERSION_NEWEST)
+                .orElseThrow(IllegalStateException::new);
+        final World world = WorldFactory.createWorld(variant);
+        final List<Orderable> orders = createOrders(world);
+        final OrderFormatOptions ofo = OrderFormatOptions.createDefault();
+
+        for (int i = 0; i < WARMUP; i++) {
+            formatAll((OrderFormatOptions) ofo.clone(), orders);
+        }
+
+        // a fresh copy of the options on each pass defeats the per-order
+        // cache, so this times OrderFormat itself
+        final long coldStart = System.nanoTime();
+        long length = 0;
+        for (int i = 0; i < iterations; i++) {
+            length += formatAll((OrderFormatOptions) ofo.clone(), orders);
+        }
+        report("uncached", world, orders, iterations,
+                System.nanoTime() - coldStart, length);
+
+        // repeated passes with the same options, as on a repaint or sort
+        formatAll(ofo, orders);
+        final long start = System.nanoTime();
+        length = 0;
+        for (int i = 0; i < iterations; i++) {
+            length += formatAll(ofo, orders);
+        }
+        report("cached", world, orders, iterations,
+                System.nanoTime() - start, length);
+
+        System.out.println("e.g. " + orders.get(orders.size() - 1)
+                .toFormattedString(ofo));
+    }
+
+    private static void report(final String label, final World world,
+                               final List<Orderable> orders,
+                               final int iterations, final long elapsed,
+                               final long length) {
+        System.out.printf("%s: %d powers, %d orders x %d iterations: %.1f ms total, %.2f us/order (%d chars)%n",
+                label, world.getMap().getPowers().size(), orders.size(),
+                iterations, elapsed / 1e6,
+                elapsed / 1e3 / (orders.size() * (double) iterations), length);
+    }
+
+    /**
+     * Chaos starts without units, so an army is placed in each supply
+     * center, with the powers dealt out in turn.
+     */
+    private static List<Orderable> createOrders(final World world) {
+        final OrderFactory of = OrderFactory.getDefault();
+        final WorldMap map = world.getMap();
+        final List<Power> powers = map.getPowers();
+        final List<Orderable> orders = new ArrayList<>();
+        int n = 0;
+        for (final Province province : map.getProvinces()) {
+            if (!province.hasSupplyCenter()) {
+                continue;
+            }
+            final Power power = powers.get(n++ % powers.size());
+            final Location src = new Location(province, Coast.LAND);
+            orders.add(of.createHold(power, src, Type.ARMY));
+            for (final Location dest : province
+                    .getAdjacentLocations(Coast.LAND)) {
+                orders.add(of.createMove(power, src, Type.ARMY, dest));
+                orders.add(of.createSupport(power, src, Type.ARMY, dest, power,
+                        Type.ARMY));
+            }
+        }
+        return orders;
+    }
+
+    private static long formatAll(final OrderFormatOptions ofo,
+                                  final List<Orderable> orders) {
+        long length = 0;
+        for (final Orderable order : orders) {
+            length += order.toFormattedString(ofo).length();
+        }
+        return length;
+    }
+}
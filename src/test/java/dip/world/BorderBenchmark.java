@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import dip.order.Move;
+import dip.order.Support;
+import dip.world.Unit.Type;
+import dip.world.variant.VariantManager;
+import dip.world.variant.data.Variant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Times Province.getTransit() for every adjacent location, unit type and
+ * phase of the Standard map, after Borders have been added to every third
+ * province (the variants with borders in their adjacency data cannot be
+ * loaded yet).
+ * <p>
+ * Usage: <code>BorderBenchmark [iterations]</code>
+ */
+public final class BorderBenchmark {
+    private static final int WARMUP = 200;
+
+    private BorderBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+
+        final Variant variant = new VariantManager()
+                .getVariant("Standard", VariantManager.VERSION_NEWEST)
+                .orElseThrow(IllegalStateException::new);
+        final List<Province> provinces = WorldFactory
+                .createProvinces(variant, new WorldMapCache(null));
+        for (final Province province : provinces) {
+            if (province.getIndex() % 3 != 0) {
+                province.setBorders(Collections.emptyList());
+                continue;
+            }
+            final Location from = province.getAllAdjacent().get(0);
+            province.setBorders(Arrays.asList(
+                    new Border("ice", "ice", "Fleet", Collections
+                            .singletonList(from), "dip.order.Move", "",
+                            "Fall", "Movement", "1900, 1950"),
+                    new Border("wall", "wall", "Army", Collections
+                            .singletonList(from),
+                            "dip.order.Move dip.order.Support", "",
+                            "Spring", "Movement", "odd")));
+        }
+
+        final List<Phase> phases = new ArrayList<>();
+        for (final String phase : new String[]{"S1901M", "F1901M", "F1901R",
+                "S1960M"}) {
+            phases.add(Phase.parse(phase).orElseThrow(IllegalStateException::new));
+        }
+
+        for (int i = 0; i < WARMUP; i++) {
+            checkAll(provinces, phases);
+        }
+
+        final long checks = countChecks(provinces, phases);
+        int count = 0;
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            count += checkAll(provinces, phases);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        System.out.printf("%d checks x %d iterations: %.1f ms total, %.1f ns/check (%d prohibited)%n",
+                checks, iterations, elapsed / 1e6,
+                elapsed / (double) (checks * iterations), count);
+    }
+
+    /**
+     * Checks transit into each province from each adjacent location;
+     * returns the number of prohibited transits.
+     */
+    private static int checkAll(final List<Province> provinces,
+                                final List<Phase> phases) {
+        int count = 0;
+        for (final Province province : provinces) {
+            for (final Location from : province.getAllAdjacent()) {
+                for (final Phase phase : phases) {
+                    for (final Type unit : new Type[]{Type.ARMY, Type.FLEET}) {
+                        if (province.getTransit(from, unit, phase, Move.class)
+                                .isPresent()) {
+                            count++;
+                        }
+                        if (province.getTransit(from, unit, phase,
+                                Support.class).isPresent()) {
+                            count++;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long countChecks(final List<Province> provinces,
+                                    final List<Phase> phases) {
+        long count = 0;
+        for (final Province province : provinces) {
+            count += province.getAllAdjacent().size() * phases.size() * 4L;
+        }
+        return count;
+    }
+}
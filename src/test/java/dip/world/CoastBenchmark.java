@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares Coast.normalize() with the regular expression implementation it
+ * replaced: first on random input, where both must agree, then on timing.
+ * <p>
+ * Usage: <code>CoastBenchmark [iterations] [random inputs]</code>
+ */
+public final class CoastBenchmark {
+    private static final int WARMUP = 20000;
+
+    private static final String[] INPUTS = {"stp/nc", "stp-sc", "stp(sc)",
+            "stp( sc)", "stp(.s.c.)", "stp (sc)", "stp    (sc)",
+            "stp(north coast)", "spa/sc", "bul-ec", "stp-n.c.", "lon", "a mun-ber",
+            "f stp/sc-bot", "f spa (south coast) s f mao-por",
+            "a par-bur", "army berlin", "stp-mv", "spa\\nc", "con(xc)"};
+
+    // random inputs are built from these, to hit every branch
+    private static final String[] PIECES = {"stp", "s", "c", "n", "m", "v",
+            "x", "e", "w", "north", "coast", "-", "/", "\\", "(", ")", ".",
+            " ", "  ", "\t", "_", "1", "q", "\u00e9"};
+
+    private static final List<Pattern> PATTERNS = Arrays.asList(
+            Pattern.compile(
+                    "\\s*[\\-\\\\/](\\p{Alnum}\\.?)(\\p{Alnum}\\.?)\\b"),
+            Pattern.compile("\\s*\\(([.[^)]]*)(\\))\\s*"));
+
+    private CoastBenchmark() {
+    }
+
+    public static void main(final String[] args) {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        final int checks = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+
+        verify(checks);
+
+        for (int i = 0; i < WARMUP; i++) {
+            run(true);
+            run(false);
+        }
+        report("regex", time(iterations, false), iterations);
+        report("scanner", time(iterations, true), iterations);
+    }
+
+    private static void verify(final int checks) {
+        final Random random = new Random(42);
+        final StringBuilder sb = new StringBuilder();
+        for (final String input : INPUTS) {
+            check(input);
+        }
+        for (int i = 0; i < checks; i++) {
+            sb.setLength(0);
+            final int n = random.nextInt(8);
+            for (int j = 0; j < n; j++) {
+                sb.append(PIECES[random.nextInt(PIECES.length)]);
+            }
+            check(sb.toString());
+        }
+        System.out.printf("%d inputs agree%n", INPUTS.length + checks);
+    }
+
+    private static void check(final String input) {
+        final Optional<String> expected = regexNormalize(input);
+        final Optional<String> actual = Coast.normalize(input);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException(String.format(
+                    "\"%s\": expected %s, got %s", input, expected, actual));
+        }
+    }
+
+    private static long time(final int iterations, final boolean scanner) {
+        final long start = System.nanoTime();
+        long length = 0;
+        for (int i = 0; i < iterations; i++) {
+            length += run(scanner);
+        }
+        final long elapsed = System.nanoTime() - start;
+        if (length == 0) {
+            throw new IllegalStateException();
+        }
+        return elapsed;
+    }
+
+    private static int run(final boolean scanner) {
+        int length = 0;
+        for (final String input : INPUTS) {
+            length += (scanner ? Coast.normalize(input) : regexNormalize(
+                    input)).map(String::length).orElse(0);
+        }
+        return length;
+    }
+
+    private static void report(final String label, final long elapsed,
+                               final int iterations) {
+        System.out.printf("%s: %d inputs x %d iterations: %.1f ms total, %.3f us/input%n",
+                label, INPUTS.length, iterations, elapsed / 1e6,
+                elapsed / 1e3 / (INPUTS.length * (double) iterations));
+    }
+
+    /**
+     * The former Coast.normalize(), kept as the reference.
+     */
+    private static Optional<String> regexNormalize(final String input) {
+        String matchInput = input;
+        for (final Pattern pattern : PATTERNS) {
+            final Matcher m = pattern.matcher(matchInput);
+            final StringBuffer sb = new StringBuffer(matchInput.length());
+
+            boolean result = m.find();
+            while (result) {
+                if (m.group(1).isEmpty()) {
+                    return Optional.empty();
+                }
+
+                final char c1 = m.group(1).charAt(0);
+                final char c2 = m.group(2).charAt(0);
+
+                if (c2 == ')') {
+                    final String group1 = m.group(1)
+                            .replaceAll("\\.*\\s*\\t*", "");
+
+                    if (group1.startsWith("north") || "nc".equals(group1)) {
+                        m.appendReplacement(sb, "/nc ");
+                    } else if (group1.startsWith("south") || "sc"
+                            .equals(group1)) {
+                        m.appendReplacement(sb, "/sc ");
+                    } else if (group1.startsWith("west") || "wc"
+                            .equals(group1)) {
+                        m.appendReplacement(sb, "/wc ");
+                    } else if (group1.startsWith("east") || "ec"
+                            .equals(group1)) {
+                        m.appendReplacement(sb, "/ec ");
+                    } else if ("mv".equals(group1)) {
+                        m.appendReplacement(sb, "/mv ");
+                    } else if ("xc".equals(group1)) {
+                        m.appendReplacement(sb, "/xc ");
+                    }
+                } else if ((c1 == 'n' || c1 == 's' || c1 == 'w' || c1 == 'e' || c1 == 'x') && c2 == 'c' || c1 == 'm' && c2 == 'v') {
+                    m.appendReplacement(sb,
+                            String.format("/%s%s ", c1, c2));
+                }
+
+                result = m.find();
+            }
+
+            m.appendTail(sb);
+            matchInput = sb.toString();
+        }
+        return Optional.of(matchInput.trim());
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import dip.order.OrderFactory;
+import dip.world.World.FileFormat;
+import dip.world.variant.VariantManager;
+import dip.world.variant.data.Variant;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares save and open times, and file sizes, of the XML and binary game
+ * file formats, the time to save a change to a journaled game file, and
+ * the time to take an autosave snapshot, and the heap taken by a game
+ * opened with all of its turns decoded, and by one with all turns kept in
+ * memory, before and after turn compaction.
+ * <p>
+ * Saved games given on the command line are used as they are; without
+ * arguments, long random games are played on the Standard and the
+ * 34-power Chaos variants.
+ * <p>
+ * Usage: <code>GameFileBenchmark [iterations] [game.jdip ...]</code>
+ */
+public final class GameFileBenchmark {
+    private static final int WARMUP = 3;
+    private static final int PHASES = 300;
+    private static final int COMPACTION_WINDOW = 8;
+
+    private GameFileBenchmark() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final VariantManager vm = new VariantManager();
+
+        final List<World> worlds = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            worlds.add(World.open(new File(args[i]), vm,
+                    OrderFactory.getDefault()));
+        }
+        if (worlds.isEmpty()) {
+            for (final String name : new String[]{"Standard", "Chaos"}) {
+                final Variant variant = vm
+                        .getVariant(name, VariantManager.VERSION_NEWEST)
+                        .orElseThrow(IllegalStateException::new);
+                worlds.add(RandomGame.play(variant, PHASES, 1));
+            }
+        }
+
+        final File file = File.createTempFile("benchmark", ".jdip");
+        file.deleteOnExit();
+        for (final World world : worlds) {
+            System.out.printf("%s: %d phases%n",
+                    world.getVariantInfo().getVariantName(),
+                    world.getPhaseSet().size());
+            for (final FileFormat format : FileFormat.values()) {
+                run(world, format, file, vm, iterations);
+            }
+            runJournal(world, file, vm, iterations);
+            runSnapshot(world, file, vm, iterations);
+            runHeap(file, vm);
+        }
+    }
+
+    private static void run(final World world, final FileFormat format,
+                            final File file, final VariantManager vm,
+                            final int iterations) {
+        for (int i = 0; i < WARMUP; i++) {
+            save(world, format, file);
+        }
+        final long saveStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            save(world, format, file);
+        }
+        final double save = (System.nanoTime() - saveStart) / 1e6 / iterations;
+
+        String open;
+        try {
+            // time to the last turn, as shown first, and to all turns
+            open = String.format("%.1f ms, all turns %.1f ms",
+                    open(file, vm, iterations, false),
+                    open(file, vm, iterations, true));
+        } catch (final IOException e) {
+            open = "failed (" + e.getMessage() + ")";
+        }
+
+        System.out.printf("  %-6s %8d bytes, save %.1f ms, open %s%n", format,
+                file.length(), save, open);
+    }
+
+    /**
+     * Times saves of a reopened journal after a change to the last turn,
+     * as after an order is entered; includes the occasional compaction.
+     */
+    private static void runJournal(final World world, final File file,
+                                   final VariantManager vm,
+                                   final int iterations) throws IOException {
+        GameJournal.create(file, world);
+        final GameJournal journal = GameJournal.open(file, vm,
+                OrderFactory.getDefault());
+        final TurnState last = journal.getWorld().getLastTurnState();
+        for (int i = 0; i < WARMUP; i++) {
+            last.setEnded(!last.isEnded());
+            journal.save();
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            last.setEnded(!last.isEnded());
+            journal.save();
+        }
+        System.out.printf("  %-6s %8d bytes, save %.1f ms per change%n",
+                "JOURNAL", file.length(),
+                (System.nanoTime() - start) / 1e6 / iterations);
+    }
+
+    /**
+     * Times taking a snapshot, the part of an autosave done on the event
+     * dispatch thread, of the game in memory and of the game reopened.
+     */
+    private static void runSnapshot(final World world, final File file,
+                                    final VariantManager vm,
+                                    final int iterations) throws IOException {
+        World.save(file, world);
+        final World reopened = World.open(file, vm, OrderFactory.getDefault());
+        System.out.printf("  %-6s take %.2f ms, reopened %.2f ms%n", "SNAPSHOT",
+                snapshot(world, iterations), snapshot(reopened, iterations));
+    }
+
+    /**
+     * Measures the heap retained by a binary game file opened with all
+     * turns decoded, less the map, which the VariantManager shares.
+     */
+    private static void runHeap(final File file,
+                                final VariantManager vm) throws IOException {
+        World.save(file, World.open(file, vm, OrderFactory.getDefault()));
+        open(file, vm, true);
+        final long before = usedHeap();
+        final World world = World.open(file, vm, OrderFactory.getDefault());
+        final List<TurnState> turns = world.getAllTurnStates();
+        final long after = usedHeap();
+        System.out.printf("  %-6s %8d bytes retained by %d turns%n", "HEAP",
+                after - before, turns.size());
+
+        // every turn kept, as in a long session
+        turns.clear();
+        final long keptBefore = usedHeap();
+        final World kept = World.open(file, vm, OrderFactory.getDefault());
+        for (final TurnState ts : kept.getAllTurnStates()) {
+            kept.setTurnState(ts);
+        }
+        final long keptAfter = usedHeap();
+        kept.setTurnCompaction(COMPACTION_WINDOW, OrderFactory.getDefault());
+        final long compacted = usedHeap();
+        System.out.printf("  %-6s %8d bytes kept, %d bytes compacted to %d phases%n",
+                "HEAP", keptAfter - keptBefore, compacted - keptBefore,
+                COMPACTION_WINDOW);
+        if (kept.getPhaseSet().isEmpty() || world.getPhaseSet().isEmpty()) {
+            throw new IllegalStateException();
+        }
+    }
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static double snapshot(final World world,
+                                   final int iterations) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            WorldSnapshot.of(world);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            WorldSnapshot.of(world);
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    private static double open(final File file, final VariantManager vm,
+                               final int iterations,
+                               final boolean allTurns) throws IOException {
+        for (int i = 0; i < WARMUP; i++) {
+            open(file, vm, allTurns);
+        }
+        final long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            open(file, vm, allTurns);
+        }
+        return (System.nanoTime() - start) / 1e6 / iterations;
+    }
+
+    private static void open(final File file, final VariantManager vm,
+                             final boolean allTurns) throws IOException {
+        final World world = World.open(file, vm, OrderFactory.getDefault());
+        world.getLastTurnState();
+        if (allTurns) {
+            world.getAllTurnStates();
+        }
+    }
+
+    private static void save(final World world, final FileFormat format,
+                             final File file) {
+        try {
+            World.save(file, world, format);
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import dip.world.variant.data.Variant;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Times map creation, and games of random orders, on generated variants
+ * of increasing size (see {@link SyntheticVariant}), with one power for
+ * every 25 provinces. Each line gives the number of provinces, powers and
+ * orders, so that adjudication time can be charted against map size and
+ * order count. The games include the generation of the random orders.
+ * <p>
+ * The variants are written to <code>jdip-synthetic</code> in the temporary
+ * directory. Unless the <code>dip.map.cache</code> system property is set,
+ * the WorldMapCache is disabled, so that every map is built and none is
+ * kept in the user's home directory.
+ * <p>
+ * Usage: <code>MapScalingBenchmark [phases [provinces...]]</code>
+ */
+public final class MapScalingBenchmark {
+    private MapScalingBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        if (System.getProperty(WorldMapCache.PROPERTY) == null) {
+            System.setProperty(WorldMapCache.PROPERTY, "");
+        }
+        final int phases = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        final int[] sizes = {75, 300, 1200, 4800};
+        final Path dir = Paths.get(System.getProperty("java.io.tmpdir"),
+                "jdip-synthetic");
+
+        // warm up on the smallest map
+        RandomGame.play(SyntheticVariant.create(dir.resolve("warmup"), 75, 3, 0),
+                phases, 0);
+
+        for (int i = 0; i < Math.max(sizes.length, args.length - 1); i++) {
+            final int provinces = args.length > 1 ? i + 1 < args.length ? Integer
+                    .parseInt(args[i + 1]) : -1 : sizes[i];
+            if (provinces < 0) {
+                break;
+            }
+            final int powers = Math.max(2, provinces / 25);
+            final Variant variant = SyntheticVariant.create(
+                    dir.resolve(Integer.toString(provinces)), provinces,
+                    powers, 1);
+
+            long start = System.nanoTime();
+            WorldFactory.getWorldMap(variant);
+            final long mapTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final World world = RandomGame.play(variant, phases, 1);
+            final long gameTime = System.nanoTime() - start;
+
+            int orders = 0;
+            for (final TurnState ts : world.getAllTurnStates()) {
+                orders += ts.getAllOrders().size();
+            }
+            final int played = world.getAllTurnStates().size() - 1;
+            System.out.printf("%d provinces, %d powers: map %.1f ms; %d phases, %d orders: %.1f ms/phase, %.1f us/order%n",
+                    provinces, powers, mapTime / 1e6, played, orders,
+                    gameTime / 1e6 / played, gameTime / 1e3 / orders);
+        }
+    }
+}
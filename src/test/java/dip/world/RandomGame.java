@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import dip.order.OrderFactory;
+import dip.order.Order;
+import dip.process.Adjustment;
+import dip.process.StdAdjudicator;
+import dip.world.World.VariantInfo;
+import dip.world.variant.data.Variant;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Plays a game with random orders, adjudicated by the StdAdjudicator, to
+ * get long games with realistic positions, orders and results for
+ * benchmarks and tests.
+ */
+public final class RandomGame {
+    private final World world;
+    private final Random random;
+    private final OrderFactory orderFactory = OrderFactory.getDefault();
+
+    private RandomGame(final Variant variant, final long seed) {
+        world = WorldFactory.createWorld(variant);
+        random = new Random(seed);
+
+        final VariantInfo vi = world.getVariantInfo();
+        vi.setVariantName(variant.getName());
+        vi.setVariantVersion(variant.getVersion());
+        variant.getDefaultMapGraphic()
+                .ifPresent(mg -> vi.setMapName(mg.getName()));
+        world.setRuleOptions(RuleOptions.createFromVariant(variant));
+        world.getGameMetadata().setGameName("random-" + seed);
+    }
+
+    /**
+     * Plays up to the given number of phases; fewer if the game ends.
+     */
+    public static World play(final Variant variant, final int phases,
+                             final long seed) {
+        final RandomGame game = new RandomGame(variant, seed);
+        TurnState ts = game.world.getLastTurnState();
+        for (int i = 1; i < phases && !ts.isEnded(); i++) {
+            game.order(ts);
+            final StdAdjudicator adjudicator = new StdAdjudicator(
+                    game.orderFactory, ts);
+            adjudicator.process();
+            ts = adjudicator.getNextTurnState();
+            if (ts == null) {
+                break;
+            }
+            game.world.setTurnState(ts);
+        }
+        return game.world;
+    }
+
+    private void order(final TurnState ts) {
+        final Position position = ts.getPosition();
+        switch (ts.getPhase().getPhaseType()) {
+            case MOVEMENT:
+                for (final Province province : position.getUnitProvinces()) {
+                    position.getUnit(province).ifPresent(
+                            unit -> add(ts, unit, move(position, province, unit)));
+                }
+                break;
+            case RETREAT:
+                for (final Province province : position
+                        .getDislodgedUnitProvinces()) {
+                    position.getDislodgedUnit(province).ifPresent(
+                            unit -> add(ts, unit, retreat(province, unit)));
+                }
+                break;
+            default:
+                adjust(ts);
+                break;
+        }
+    }
+
+    private Order move(final Position position, final Province province,
+                           final Unit unit) {
+        final Location src = new Location(province, unit.getCoast());
+        final List<Location> adjacent = province
+                .getAdjacentLocations(unit.getCoast());
+        final double choice = random.nextDouble();
+        if (adjacent.isEmpty() || choice < 0.25) {
+            return orderFactory.createHold(unit.getPower(), src, unit.getType());
+        }
+        final Location dest = adjacent.get(random.nextInt(adjacent.size()));
+        final Optional<Unit> supported = position.getUnit(dest.getProvince());
+        if (choice < 0.45 && supported.isPresent()) {
+            return orderFactory.createSupport(unit.getPower(), src,
+                    unit.getType(), new Location(dest.getProvince(),
+                            supported.get().getCoast()),
+                    supported.get().getPower(), supported.get().getType());
+        }
+        return orderFactory.createMove(unit.getPower(), src, unit.getType(),
+                dest);
+    }
+
+    private Order retreat(final Province province, final Unit unit) {
+        final Location src = new Location(province, unit.getCoast());
+        final List<Location> adjacent = province
+                .getAdjacentLocations(unit.getCoast());
+        if (adjacent.isEmpty() || random.nextBoolean()) {
+            return orderFactory.createDisband(unit.getPower(), src,
+                    unit.getType());
+        }
+        return orderFactory.createRetreat(unit.getPower(), src, unit.getType(),
+                adjacent.get(random.nextInt(adjacent.size())));
+    }
+
+    private void adjust(final TurnState ts) {
+        final Position position = ts.getPosition();
+        for (final Power power : world.getMap().getPowers()) {
+            int amount = Adjustment
+                    .getAdjustmentInfo(ts, world.getRuleOptions(), power)
+                    .getAdjustmentAmount();
+            final List<Province> provinces = amount > 0 ? position
+                    .getHomeSupplyCenters(power) : position
+                    .getUnitProvinces(power);
+            for (final Province province : provinces) {
+                if (amount > 0 && !position.hasUnit(province) && position
+                        .getSupplyCenterOwner(province)
+                        .filter(power::equals).isPresent()) {
+                    ts.getOrders(power).add(orderFactory.createBuild(power,
+                            new Location(province, Coast.NONE),
+                            Unit.Type.ARMY));
+                    amount--;
+                } else if (amount < 0) {
+                    final Unit unit = position.getUnit(province).get();
+                    ts.getOrders(power).add(orderFactory.createRemove(power,
+                            new Location(province, unit.getCoast()),
+                            unit.getType()));
+                    amount++;
+                }
+            }
+        }
+    }
+
+    private static void add(final TurnState ts, final Unit unit,
+                            final Order order) {
+        ts.getOrders(unit.getPower()).add(order);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import dip.world.variant.data.Variant;
+import dip.world.variant.parser.XMLVariantParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes variant packages with generated maps of any size, for scaling
+ * benchmarks and tests.
+ * <p>
+ * The map is a grid of provinces, about a third of them sea. Land
+ * provinces next to the sea are coastal; those with sea both to the north
+ * and to the south have a north and a south coast instead. Provinces are
+ * adjacent to their neighbours on the grid, fleets moving only between
+ * provinces that share a coast. About half of the land provinces are
+ * supply centers, and each power starts with an army in each of its three
+ * home supply centers.
+ */
+public final class SyntheticVariant {
+    private static final int HOME_CENTERS = 3;
+
+    // province kinds
+    private static final int SEA = 0;
+    private static final int INLAND = 1;
+    private static final int COASTAL = 2;
+    private static final int MULTI_COASTAL = 3;
+
+    private final int width;
+    private final int height;
+    private final int[] kinds;
+    private final Random random;
+
+    private SyntheticVariant(final int provinces, final long seed) {
+        width = Math.max(2, (int) Math.ceil(Math.sqrt(provinces)));
+        height = (provinces + width - 1) / width;
+        kinds = new int[provinces];
+        random = new Random(seed);
+
+        final boolean[] sea = new boolean[provinces];
+        for (int i = 0; i < provinces; i++) {
+            sea[i] = random.nextDouble() < 0.35;
+        }
+        for (int i = 0; i < provinces; i++) {
+            if (sea[i]) {
+                kinds[i] = SEA;
+            } else if (isSea(sea, i - width) && isSea(sea, i + width)) {
+                kinds[i] = MULTI_COASTAL;
+            } else if (getNeighbours(i).stream().anyMatch(n -> sea[n])) {
+                kinds[i] = COASTAL;
+            } else {
+                kinds[i] = INLAND;
+            }
+        }
+    }
+
+    /**
+     * Writes a variant with the given number of provinces and powers into
+     * a directory, and returns the Variant read back from it. The name of
+     * the variant is unique to its size and seed.
+     */
+    public static Variant create(final Path dir, final int provinces,
+                                 final int powers, final long seed)
+            throws IOException {
+        final SyntheticVariant map = new SyntheticVariant(provinces, seed);
+        final String name = String.format("Synthetic-%d-%d-%d", provinces,
+                powers, seed);
+        Files.createDirectories(dir);
+        write(dir.resolve("adjacency.xml"), map.createAdjacency());
+        final Path variants = dir.resolve("variants.xml");
+        write(variants, map.createVariants(name, powers));
+        return new XMLVariantParser(variants.toUri().toURL()).getVariants()
+                .get(0);
+    }
+
+    private static void write(final Path file,
+                              final String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean isSea(final boolean[] sea, final int i) {
+        return i >= 0 && i < sea.length && sea[i];
+    }
+
+    /**
+     * The provinces to the north, south, west and east, if on the map.
+     */
+    private List<Integer> getNeighbours(final int i) {
+        final List<Integer> list = new ArrayList<>(4);
+        if (i - width >= 0) {
+            list.add(i - width);
+        }
+        if (i + width < kinds.length) {
+            list.add(i + width);
+        }
+        if (i % width > 0) {
+            list.add(i - 1);
+        }
+        if (i % width < width - 1 && i + 1 < kinds.length) {
+            list.add(i + 1);
+        }
+        return list;
+    }
+
+    private static String name(final int i) {
+        return "p" + i;
+    }
+
+    /**
+     * The name of the coast of province i that touches sea province n;
+     * null if they share no coast.
+     */
+    private String coastRef(final int i, final int n) {
+        if (kinds[i] == COASTAL || kinds[i] == SEA) {
+            return name(i);
+        }
+        if (kinds[i] == MULTI_COASTAL) {
+            if (n == i - width) {
+                return name(i) + "-nc";
+            }
+            if (n == i + width) {
+                return name(i) + "-sc";
+            }
+        }
+        return null;
+    }
+
+    private String createAdjacency() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" standalone=\"yes\"?>\n<PROVINCES>\n");
+        for (int i = 0; i < kinds.length; i++) {
+            sb.append("\t<PROVINCE shortname=\"").append(name(i))
+                    .append("\" fullname=\"Province ").append(i)
+                    .append("\">\n");
+            final List<String> land = new ArrayList<>();
+            final List<String> single = new ArrayList<>();
+            final List<String> north = new ArrayList<>();
+            final List<String> south = new ArrayList<>();
+            for (final int n : getNeighbours(i)) {
+                if (kinds[i] != SEA && kinds[n] != SEA) {
+                    land.add(name(n));
+                }
+                if (kinds[i] == SEA) {
+                    final String ref = coastRef(n, i);
+                    if (ref != null) {
+                        single.add(ref);
+                    }
+                } else if (kinds[i] == COASTAL && (kinds[n] == SEA || kinds[n] == COASTAL)) {
+                    single.add(name(n));
+                } else if (kinds[i] == MULTI_COASTAL && n == i - width) {
+                    north.add(name(n));
+                } else if (kinds[i] == MULTI_COASTAL && n == i + width) {
+                    south.add(name(n));
+                }
+            }
+            if (kinds[i] != SEA) {
+                appendAdjacency(sb, "mv", land, i);
+            }
+            if (kinds[i] == SEA || kinds[i] == COASTAL) {
+                appendAdjacency(sb, "xc", single, i);
+            }
+            if (kinds[i] == MULTI_COASTAL) {
+                appendAdjacency(sb, "nc", north, i);
+                appendAdjacency(sb, "sc", south, i);
+            }
+            sb.append("\t</PROVINCE>\n");
+        }
+        return sb.append("</PROVINCES>\n").toString();
+    }
+
+    /**
+     * Appends an adjacency; a province with no neighbours for it is
+     * adjacent to itself only, as Switzerland is in the standard map.
+     */
+    private static void appendAdjacency(final StringBuilder sb,
+                                        final String type,
+                                        final List<String> refs, final int i) {
+        sb.append("\t\t<ADJACENCY type=\"").append(type)
+                .append("\" refs=\"")
+                .append(refs.isEmpty() ? name(i) : String.join(" ", refs))
+                .append("\" />\n");
+    }
+
+    private String createVariants(final String name, final int powers) {
+        final List<Integer> centers = new ArrayList<>();
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] != SEA && random.nextBoolean()) {
+                centers.add(i);
+            }
+        }
+        if (centers.size() < powers * HOME_CENTERS) {
+            throw new IllegalArgumentException(String.format(
+                    "%d supply centers are too few for %d powers",
+                    centers.size(), powers));
+        }
+        final List<Integer> homes = new ArrayList<>(centers);
+        Collections.shuffle(homes, random);
+        final int[] homePower = new int[kinds.length];
+        Arrays.fill(homePower, -1);
+        for (int h = 0; h < powers * HOME_CENTERS; h++) {
+            homePower[homes.get(h)] = h / HOME_CENTERS;
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" standalone=\"yes\"?>\n<VARIANTS>\n");
+        sb.append("\t<DESCRIPTION>Generated map</DESCRIPTION>\n");
+        sb.append("\t<MAP_DEFINITION id=\"synthetic\" title=\"Synthetic\" URI=\"synthetic.svg\" thumbURI=\"synthetic.png\" />\n");
+        sb.append("\t<VARIANT name=\"").append(name)
+                .append("\" version=\"1.0\" default=\"false\">\n");
+        sb.append("\t\t<DESCRIPTION>").append(kinds.length)
+                .append(" provinces, ").append(powers)
+                .append(" powers</DESCRIPTION>\n");
+        sb.append("\t\t<MAP adjacencyURI=\"adjacency.xml\">\n");
+        sb.append("\t\t\t<MAP_GRAPHIC ref=\"synthetic\" default=\"true\" />\n");
+        sb.append("\t\t</MAP>\n");
+        sb.append("\t\t<RULEOPTIONS>\n");
+        sb.append("\t\t\t<RULEOPTION name=\"OPTION_BUILDS\" value=\"VALUE_BUILDS_HOME_ONLY\" />\n");
+        sb.append("\t\t</RULEOPTIONS>\n");
+        for (int p = 0; p < powers; p++) {
+            sb.append("\t\t<POWER name=\"Power").append(p)
+                    .append("\" active=\"true\" adjective=\"Power").append(p)
+                    .append("ian\" />\n");
+        }
+        sb.append("\t\t<STARTINGTIME turn=\"Spring, 1901, Movement\" />\n");
+        sb.append("\t\t<VICTORYCONDITIONS>\n");
+        sb.append("\t\t\t<WINNING_SUPPLY_CENTERS value=\"")
+                .append(centers.size() / 2 + 1).append("\" />\n");
+        sb.append("\t\t\t<YEARS_WITHOUT_SC_CAPTURE value=\"7\" />\n");
+        sb.append("\t\t\t<GAME_LENGTH value=\"100\" />\n");
+        sb.append("\t\t</VICTORYCONDITIONS>\n");
+        for (final int center : centers) {
+            sb.append("\t\t<SUPPLYCENTER province=\"").append(name(center))
+                    .append('"');
+            // without a DTD, the attributes have no default of "none"
+            final String power = homePower[center] >= 0 ? "power" + homePower[center] : "none";
+            sb.append(" homepower=\"").append(power).append("\" owner=\"")
+                    .append(power).append("\" />\n");
+        }
+        for (int h = 0; h < powers * HOME_CENTERS; h++) {
+            sb.append("\t\t<INITIALSTATE province=\"")
+                    .append(name(homes.get(h))).append("\" power=\"power")
+                    .append(h / HOME_CENTERS).append("\" unit=\"army\" />\n");
+        }
+        sb.append("\t</VARIANT>\n</VARIANTS>\n");
+        return sb.toString();
+    }
+}
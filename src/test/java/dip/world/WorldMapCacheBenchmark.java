@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world;
+
+import dip.world.variant.VariantManager;
+import dip.world.variant.data.Variant;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Times the creation of the Provinces of every variant whose World can be
+ * created, parsing the adjacency data each time, and reading them from a
+ * WorldMapCache kept in a temporary directory. There are more variants
+ * than the in-process adjacency cache holds, so the parser does not just
+ * hand back the data of the previous pass.
+ * <p>
+ * Usage: <code>WorldMapCacheBenchmark [iterations]</code>
+ */
+public final class WorldMapCacheBenchmark {
+    private WorldMapCacheBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+
+        final WorldMapCache none = new WorldMapCache(null);
+        final List<Variant> variants = new ArrayList<>();
+        for (final Variant variant : new VariantManager().getVariants()) {
+            try {
+                WorldFactory.createProvinces(variant, none);
+                variants.add(variant);
+            } catch (final RuntimeException e) {
+                System.out.printf("skipped %s: %s%n", variant.getName(), e);
+            }
+        }
+
+        long start = System.nanoTime();
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            count += createAll(variants, none);
+        }
+        report("parsed", variants, iterations, System.nanoTime() - start,
+                count);
+
+        final Path dir = Files.createTempDirectory("maps");
+        try {
+            final WorldMapCache cache = new WorldMapCache(dir);
+            createAll(variants, cache);
+
+            start = System.nanoTime();
+            count = 0;
+            for (int i = 0; i < iterations; i++) {
+                count += createAll(variants, cache);
+            }
+            report("cached", variants, iterations, System.nanoTime() - start,
+                    count);
+        } finally {
+            final File[] files = dir.toFile().listFiles();
+            if (files != null) {
+                for (final File file : files) {
+                    Files.delete(file.toPath());
+                }
+            }
+            Files.delete(dir);
+        }
+    }
+
+    private static int createAll(final List<Variant> variants,
+                                 final WorldMapCache cache) {
+        int count = 0;
+        for (final Variant variant : variants) {
+            count += WorldFactory.createProvinces(variant, cache).size();
+        }
+        return count;
+    }
+
+    private static void report(final String label,
+                               final List<Variant> variants,
+                               final int iterations, final long elapsed,
+                               final int count) {
+        System.out.printf("%s: %d variants x %d iterations: %.1f ms total, %.2f ms/variant (%d provinces)%n",
+                label, variants.size(), iterations, elapsed / 1e6,
+                elapsed / 1e6 / (variants.size() * (double) iterations),
+                count);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2016 TANIGUCHI Takaki
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 2 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ */
+package dip.world.variant;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Times the search of the classpath for variant and symbol pack
+ * description files, without and with a VariantCatalog kept in a
+ * temporary file, and the creation of a VariantManager, followed by the
+ * lookup of one variant, or of all variants and symbol packs.
+ * <p>
+ * Usage: <code>VariantManagerBenchmark [iterations]</code>
+ */
+public final class VariantManagerBenchmark {
+    private VariantManagerBenchmark() {
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        long start = System.nanoTime();
+        int count = 0;
+        for (int i = 0; i < iterations; i++) {
+            count += search(new VariantCatalog(null));
+        }
+        report("search, no catalog", iterations, System.nanoTime() - start,
+                count);
+
+        final Path file = Files.createTempFile("variants", ".idx");
+        try {
+            Files.delete(file);
+            final VariantCatalog catalog = new VariantCatalog(file);
+            search(catalog);
+            catalog.save();
+
+            start = System.nanoTime();
+            count = 0;
+            for (int i = 0; i < iterations; i++) {
+                count += search(new VariantCatalog(file));
+            }
+            report("search, catalog read", iterations,
+                    System.nanoTime() - start, count);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // the first VariantManager also fills the catalog of the process
+        new VariantManager().getVariants();
+        start = System.nanoTime();
+        count = 0;
+        for (int i = 0; i < iterations; i++) {
+            final VariantManager vm = new VariantManager();
+            vm.getVariant("Standard", VariantManager.VERSION_NEWEST)
+                    .orElseThrow(IllegalStateException::new);
+            count += vm.getParsedFileCount();
+        }
+        report("VariantManager, one variant", iterations,
+                System.nanoTime() - start, count);
+
+        start = System.nanoTime();
+        count = 0;
+        for (int i = 0; i < iterations; i++) {
+            final VariantManager vm = new VariantManager();
+            count += vm.getVariants().size() + vm.getSymbolPacks().size();
+        }
+        report("VariantManager, all variants and symbol packs", iterations,
+                System.nanoTime() - start, count);
+    }
+
+    private static int search(final VariantCatalog catalog) {
+        return catalog.getResourceURLs(VariantManager.VARIANT_FILE_NAME)
+                .size() + catalog
+                .getResourceURLs(VariantManager.SYMBOL_FILE_NAME).size();
+    }
+
+    private static void report(final String label, final int iterations,
+                               final long elapsed, final int count) {
+        System.out.printf("%s: %d iterations: %.1f ms total, %.2f ms each (%d found)%n",
+                label, iterations, elapsed / 1e6, elapsed / 1e6 / iterations,
+                count);
+    }
+}